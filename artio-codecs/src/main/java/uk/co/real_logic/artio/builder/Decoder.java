@@ -55,4 +55,25 @@ public interface Decoder
     int rejectReason();
 
     SessionHeaderDecoder header();
+
+    /**
+     * Add a field to the projection of this decoder. Once a decoder has a projection then it only decodes the
+     * fields in the projection, skipping over the values of other fields, and returns as soon as it has decoded all
+     * of them. This is useful when only a few fields of a large message are needed. A group is decoded in full if
+     * its number field is in the projection.
+     *
+     * Header fields may be added to the projection of a message decoder, the trailer isn't decoded when projecting.
+     * Messages aren't validated when they are decoded with a projection, so the result of {@link #validate()} is
+     * undefined. The projection is kept when the decoder is {@link #reset()}.
+     *
+     * @param tag the tag of the field to add.
+     * @return true if the field was added, false if this decoder doesn't decode the field and has ignored it.
+     * @see #resetProjection()
+     */
+    boolean projectField(int tag);
+
+    /**
+     * Remove all the fields from the projection of this decoder, so that it decodes every field again.
+     */
+    void resetProjection();
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+/**
+ * Operations on sets of fields that are represented as bitsets.
+ *
+ * Generated decoders give each of the fields that they know about a dense ordinal, starting at 0, and track which
+ * fields are required, have been visited or have been seen using these bitsets rather than hash sets of tags. They
+ * also record the fields that a decoder has been asked to project.
+ */
+public final class FieldBits
+{
+    public static final int NO_FIELD = -1;
+
+    private static final int ORDINALS_PER_WORD_SHIFT = 6;
+
+    private FieldBits()
+    {
+    }
+
+    /**
+     * Get the number of longs needed to hold a bitset of fields.
+     *
+     * @param fieldCount the number of fields.
+     * @return the number of longs needed to hold a bitset of fields.
+     */
+    public static int length(final int fieldCount)
+    {
+        return (fieldCount + Long.SIZE - 1) >>> ORDINALS_PER_WORD_SHIFT;
+    }
+
+    /**
+     * Add a field to a set.
+     *
+     * @param bits the set of fields.
+     * @param ordinal the ordinal of the field to add.
+     * @return true if the field wasn't already in the set, false otherwise.
+     */
+    public static boolean add(final long[] bits, final int ordinal)
+    {
+        final int index = ordinal >>> ORDINALS_PER_WORD_SHIFT;
+        final long word = bits[index];
+        final long bit = 1L << ordinal;
+        bits[index] = word | bit;
+
+        return (word & bit) == 0;
+    }
+
+    /**
+     * Check if a field is in a set.
+     *
+     * @param bits the set of fields.
+     * @param ordinal the ordinal of the field to look for.
+     * @return true if the field is in the set, false otherwise.
+     */
+    public static boolean contains(final long[] bits, final int ordinal)
+    {
+        return (bits[ordinal >>> ORDINALS_PER_WORD_SHIFT] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Remove a field from a set.
+     *
+     * @param bits the set of fields.
+     * @param ordinal the ordinal of the field to remove.
+     */
+    public static void remove(final long[] bits, final int ordinal)
+    {
+        bits[ordinal >>> ORDINALS_PER_WORD_SHIFT] &= ~(1L << ordinal);
+    }
+
+    /**
+     * Remove all the fields from a set.
+     *
+     * @param bits the set of fields.
+     */
+    public static void clear(final long[] bits)
+    {
+        for (int i = 0; i < bits.length; i++)
+        {
+            bits[i] = 0;
+        }
+    }
+
+    /**
+     * Copy all the fields from one set into another of the same length, replacing its contents.
+     *
+     * @param source the set of fields to copy from.
+     * @param destination the set of fields to copy into.
+     */
+    public static void copy(final long[] source, final long[] destination)
+    {
+        for (int i = 0; i < source.length; i++)
+        {
+            destination[i] = source[i];
+        }
+    }
+
+    /**
+     * Check if a set has no fields in it.
+     *
+     * @param bits the set of fields.
+     * @return true if the set is empty, false otherwise.
+     */
+    public static boolean isEmpty(final long[] bits)
+    {
+        for (int i = 0; i < bits.length; i++)
+        {
+            if (bits[i] != 0)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Find the field with the lowest ordinal in a set.
+     *
+     * @param bits the set of fields.
+     * @return the lowest ordinal in the set or {@link #NO_FIELD} if the set is empty.
+     */
+    public static int first(final long[] bits)
+    {
+        for (int i = 0; i < bits.length; i++)
+        {
+            final long word = bits[i];
+            if (word != 0)
+            {
+                return (i << ORDINALS_PER_WORD_SHIFT) + Long.numberOfTrailingZeros(word);
+            }
+        }
+
+        return NO_FIELD;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.builder;
+
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Caches the encoded bytes of the runs of header fields that don't usually change from one message to the next, for
+ * example the MsgType and CompIDs, so that they can be copied rather than encoded for each message. Header fields
+ * that normally change for each message, such as the MsgSeqNum and SendingTime, split the header into segments.
+ *
+ * The checksum of each segment is also cached so that the checksum of a message only needs to be computed over the
+ * parts of it that weren't copied from the template.
+ *
+ * Used by generated header encoders, see {@link SessionHeaderEncoder#useTemplate(boolean)}.
+ */
+public final class HeaderTemplate
+{
+    private static final int NOT_COPIED = -1;
+
+    private final byte[][] segments;
+    private final int[] lengths;
+    private final int[] checkSums;
+    private final int[] offsets;
+
+    private boolean enabled;
+    private boolean valid;
+
+    public HeaderTemplate(final int segmentCount)
+    {
+        segments = new byte[segmentCount][];
+        lengths = new int[segmentCount];
+        checkSums = new int[segmentCount];
+        offsets = new int[segmentCount];
+        Arrays.fill(segments, new byte[0]);
+        Arrays.fill(offsets, NOT_COPIED);
+    }
+
+    public void enabled(final boolean enabled)
+    {
+        this.enabled = enabled;
+        invalidate();
+    }
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Invalidate the template so that the header is encoded in full next time and the template is rebuilt.
+     */
+    public void invalidate()
+    {
+        valid = false;
+        Arrays.fill(offsets, NOT_COPIED);
+    }
+
+    /**
+     * Check if the segments of the template can be copied.
+     *
+     * @return true if the template is enabled and all of its segments have been saved since it was last invalidated.
+     */
+    public boolean isValid()
+    {
+        return valid;
+    }
+
+    /**
+     * Copy a segment of the template into a buffer.
+     *
+     * @param buffer the buffer to copy into.
+     * @param offset the offset within the buffer to copy the segment to.
+     * @param segment the index of the segment.
+     * @return the length of the segment.
+     */
+    public int copy(final MutableAsciiBuffer buffer, final int offset, final int segment)
+    {
+        final int length = lengths[segment];
+        buffer.putBytes(offset, segments[segment], 0, length);
+        offsets[segment] = offset;
+        return length;
+    }
+
+    /**
+     * Save a segment of the template from the header fields that have just been encoded into a buffer, does nothing
+     * if the template isn't enabled.
+     *
+     * @param buffer the buffer containing the encoded fields.
+     * @param offset the offset within the buffer that the segment starts at.
+     * @param end the offset within the buffer that the segment ends at, exclusive.
+     * @param segment the index of the segment.
+     */
+    public void save(final MutableAsciiBuffer buffer, final int offset, final int end, final int segment)
+    {
+        if (!enabled)
+        {
+            return;
+        }
+
+        final int length = end - offset;
+        byte[] bytes = segments[segment];
+        if (bytes.length < length)
+        {
+            bytes = new byte[length];
+            segments[segment] = bytes;
+        }
+        buffer.getBytes(offset, bytes, 0, length);
+        lengths[segment] = length;
+        checkSums[segment] = buffer.computeChecksum(offset, end);
+        offsets[segment] = offset;
+    }
+
+    /**
+     * Called once all the segments of the header have been saved.
+     */
+    public void onSaved()
+    {
+        valid = enabled;
+    }
+
+    /**
+     * Compute the checksum of a message whose header has just been encoded using this template, only the parts of the
+     * message that weren't copied from, or saved to, the template are read.
+     *
+     * @param buffer the buffer containing the message.
+     * @param messageStart the offset within the buffer that the message starts at.
+     * @param end the offset within the buffer that the checksummed part of the message ends at, exclusive.
+     * @return the checksum of the message.
+     */
+    public int checkSum(final MutableAsciiBuffer buffer, final int messageStart, final int end)
+    {
+        if (!enabled)
+        {
+            return buffer.computeChecksum(messageStart, end);
+        }
+
+        final int[] offsets = this.offsets;
+        final int[] lengths = this.lengths;
+        final int[] checkSums = this.checkSums;
+
+        int total = 0;
+        int position = messageStart;
+        for (int segment = 0; segment < offsets.length; segment++)
+        {
+            final int offset = offsets[segment];
+            if (offset == NOT_COPIED)
+            {
+                return buffer.computeChecksum(messageStart, end);
+            }
+
+            total += buffer.computeChecksum(position, offset) + checkSums[segment];
+            position = offset + lengths[segment];
+        }
+        total += buffer.computeChecksum(position, end);
+
+        return total % 256;
+    }
+}
@@ -168,6 +168,26 @@ public interface SessionHeaderEncoder
 
     long startMessage(MutableAsciiBuffer buffer, int offset);
 
+    /**
+     * Cache the encoded bytes of the header fields that don't usually change from one message to the next, such as
+     * the MsgType, CompIDs and SubIDs, the first time that the header is encoded and copy them for later messages. Only
+     * the MsgSeqNum, SendingTime and other per message fields are encoded each time.
+     *
+     * The template is invalidated when any of its fields are set or reset. If a field has been set by wrapping a
+     * buffer whose contents are later changed then {@link #invalidateTemplate()} must be called.
+     *
+     * @param useTemplate true to use a template, false to encode every field each time.
+     * @return this encoder.
+     */
+    SessionHeaderEncoder useTemplate(boolean useTemplate);
+
+    /**
+     * Invalidate the cached template of the header, so that it gets rebuilt when the header is next encoded.
+     *
+     * @see #useTemplate(boolean)
+     */
+    void invalidateTemplate();
+
     SessionHeaderEncoder msgType(CharSequence value);
 
     SessionHeaderEncoder msgType(DirectBuffer value);
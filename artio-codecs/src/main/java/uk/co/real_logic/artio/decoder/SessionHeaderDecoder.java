@@ -71,6 +71,18 @@ public interface SessionHeaderDecoder
 
     int decode(AsciiBuffer asciiBuffer, int offset, int length);
 
+    /**
+     * Add a field to the projection of this header decoder, see
+     * {@link uk.co.real_logic.artio.builder.Decoder#projectField(int)}. The header of a message decoder should be
+     * projected through the message decoder.
+     *
+     * @param tag the tag of the field to add.
+     * @return true if the field was added, false if the header doesn't have the field and has ignored it.
+     */
+    boolean projectField(int tag);
+
+    void resetProjection();
+
     boolean hasSenderLocationID();
 
     boolean hasSenderSubID();
@@ -27,12 +27,14 @@ public final class SessionConstants
 
     // Message Types
 
+    public static final int BEGIN_STRING = 8;
     public static final int BODY_LENGTH = 9;
     public static final int CHECKSUM = 10;
     public static final int MSG_SEQ_NO = 34;
     public static final int MESSAGE_TYPE = 35;
     public static final int NEW_SEQ_NO = 36;
     public static final int POSS_DUP_FLAG = 43;
+    public static final int POSS_RESEND = 97;
     public static final int SENDER_COMP_ID = 49;
     public static final int SENDING_TIME = 52;
     public static final int ORIG_SENDING_TIME = 122;
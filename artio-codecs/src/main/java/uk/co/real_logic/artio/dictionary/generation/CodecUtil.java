@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.dictionary.generation;
 
 import org.agrona.MutableDirectBuffer;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
@@ -39,6 +40,12 @@ public final class CodecUtil
     public static final int ENUM_UNKNOWN_INT = Integer.MAX_VALUE;
     public static final String ENUM_UNKNOWN_STRING = Character.toString(ENUM_UNKNOWN_CHAR);
 
+    public static final int MAX_PACKED_ASCII_LENGTH = 8;
+    public static final long UNPACKABLE_ASCII = -1;
+
+    private static final int PACKED_ASCII_BITS = 7;
+    private static final int MAX_ASCII = 0x7F;
+
     // NB: only valid for ASCII bytes.
     @Deprecated // Will be removed in a future version
     public static byte[] toBytes(final CharSequence value, final byte[] oldBuffer)
@@ -166,6 +173,89 @@ public final class CodecUtil
         return true;
     }
 
+    public static boolean equals(
+        final AsciiBuffer value,
+        final char[] expected,
+        final int offset,
+        final int length)
+    {
+        if (expected.length < length)
+        {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++)
+        {
+            if (value.getChar(i + offset) != expected[i])
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Pack a short ASCII string into a long that is unique to it, seven bits per character below the length.
+     * Generated enums use this to look up their values with a switch rather than a hash map.
+     *
+     * @param value the characters of the string.
+     * @param offset the offset of the string within value.
+     * @param length the length of the string.
+     * @return the packed string, or {@link #UNPACKABLE_ASCII} if the string is longer than
+     * {@link #MAX_PACKED_ASCII_LENGTH} or isn't ASCII.
+     */
+    public static long packAscii(final char[] value, final int offset, final int length)
+    {
+        if (length > MAX_PACKED_ASCII_LENGTH)
+        {
+            return UNPACKABLE_ASCII;
+        }
+
+        long packed = length;
+        for (int i = 0; i < length; i++)
+        {
+            final char character = value[i + offset];
+            if (character > MAX_ASCII)
+            {
+                return UNPACKABLE_ASCII;
+            }
+            packed = (packed << PACKED_ASCII_BITS) | character;
+        }
+
+        return packed;
+    }
+
+    /**
+     * Pack a short ASCII string from a buffer, see {@link #packAscii(char[], int, int)}.
+     *
+     * @param value the buffer containing the string.
+     * @param offset the offset of the string within value.
+     * @param length the length of the string.
+     * @return the packed string, or {@link #UNPACKABLE_ASCII} if the string is longer than
+     * {@link #MAX_PACKED_ASCII_LENGTH} or isn't ASCII.
+     */
+    public static long packAscii(final AsciiBuffer value, final int offset, final int length)
+    {
+        if (length > MAX_PACKED_ASCII_LENGTH)
+        {
+            return UNPACKABLE_ASCII;
+        }
+
+        long packed = length;
+        for (int i = 0; i < length; i++)
+        {
+            final byte character = value.getByte(i + offset);
+            if (character < 0)
+            {
+                return UNPACKABLE_ASCII;
+            }
+            packed = (packed << PACKED_ASCII_BITS) | character;
+        }
+
+        return packed;
+    }
+
     public static int hashCode(final char[] value, final int offset, final int length)
     {
         int result = 1;
@@ -19,6 +19,7 @@ import org.agrona.LangUtil;
 import org.agrona.generation.OutputManager;
 import org.agrona.generation.ResourceConsumer;
 import uk.co.real_logic.artio.builder.Decoder;
+import uk.co.real_logic.artio.builder.FieldBits;
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.*;
@@ -33,6 +34,7 @@ import java.util.stream.Stream;
 import static java.util.Collections.emptySet;
 import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static uk.co.real_logic.artio.dictionary.generation.AggregateType.*;
 import static uk.co.real_logic.artio.dictionary.generation.ConstantGenerator.sizeHashSet;
 import static uk.co.real_logic.artio.dictionary.generation.EnumGenerator.NULL_VAL_NAME;
@@ -164,7 +166,7 @@ public class DecoderGenerator extends Generator
                     out.append(importFor(SessionHeaderDecoder.class));
                 }
 
-                generateImports("Decoder", type, out);
+                generateImports("Decoder", type, out, FieldBits.class);
                 generateAggregateClass(aggregate, type, className, out);
             });
     }
@@ -201,6 +203,7 @@ public class DecoderGenerator extends Generator
 
         out.append(classDeclaration(className, interfaces, false));
         generateValidation(out, aggregate, type);
+        generateProjection(out, type);
         if (isMessage)
         {
             final Message message = (Message)aggregate;
@@ -338,9 +341,10 @@ public class DecoderGenerator extends Generator
             "        {\n" +
             "            invalidTagId = Decoder.NO_ERROR;\n" +
             "            rejectReason = Decoder.NO_ERROR;\n" +
-            "            missingRequiredFields.clear();\n" +
+            "            FieldBits.clear(missingRequiredFieldBits);\n" +
             (isGroup ? "" :
                 "            unknownFields.clear();\n" +
+                "            FieldBits.clear(visitedFieldBits);\n" +
                 "            alreadyVisitedFields.clear();\n") +
             "        }\n";
     }
@@ -350,6 +354,7 @@ public class DecoderGenerator extends Generator
     {
         final List<Field> requiredFields = requiredFields(aggregate.entries()).collect(toList());
         out.append(generateFieldDictionary(requiredFields, REQUIRED_FIELDS, true));
+        out.append(generateFieldOrdinals(decodedFields(aggregate.entries()), requiredFields));
 
         if (aggregate.containsGroup())
         {
@@ -399,9 +404,11 @@ public class DecoderGenerator extends Generator
 
         out.append(String.format(
             (isGroup ? "" :
-            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(%5$d);\n\n" +
+            "    private final long[] visitedFieldBits = new long[FIELD_BITS_LENGTH];\n\n" +
+            // Only tags without an ordinal, ie unknown fields, are stored in this set
+            "    private final IntHashSet alreadyVisitedFields = new IntHashSet(10);\n\n" +
             "    private final IntHashSet unknownFields = new IntHashSet(10);\n\n") +
-            "    private final IntHashSet missingRequiredFields = new IntHashSet(%1$d);\n\n" +
+            "    private final long[] missingRequiredFieldBits = new long[FIELD_BITS_LENGTH];\n\n" +
             "    private int invalidTagId = Decoder.NO_ERROR;\n\n" +
             "    public int invalidTagId()\n" +
             "    {\n" +
@@ -419,24 +426,224 @@ public class DecoderGenerator extends Generator
             "        {\n" +
             "            return false;\n" +
             "        }\n" +
-            "        final IntIterator missingFieldsIterator = missingRequiredFields.iterator();\n" +
             (isMessage ? "        final IntIterator unknownFieldsIterator = unknownFields.iterator();\n" : "") +
-            "%2$s" +
-            "        if (missingFieldsIterator.hasNext())\n" +
+            "%1$s" +
+            "        final int missingFieldOrdinal = FieldBits.first(missingRequiredFieldBits);\n" +
+            "        if (missingFieldOrdinal != FieldBits.NO_FIELD)\n" +
             "        {\n" +
-            "            invalidTagId = missingFieldsIterator.nextValue();\n" +
+            "            invalidTagId = fieldTag(missingFieldOrdinal);\n" +
             "            rejectReason = " + REQUIRED_TAG_MISSING + ";\n" +
             "            return false;\n" +
             "        }\n" +
+            "%2$s" +
             "%3$s" +
-            "%4$s" +
             "        return true;\n" +
             "    }\n\n",
-            sizeHashSet(requiredFields),
             messageValidation,
             enumValidation,
-            groupValidation,
-            2 * aggregate.allFieldsIncludingComponents().count()));
+            groupValidation));
+    }
+
+    private static boolean isProjectable(final AggregateType type)
+    {
+        return type == MESSAGE || type == HEADER;
+    }
+
+    private void generateProjection(final Writer out, final AggregateType type) throws IOException
+    {
+        if (!isProjectable(type))
+        {
+            return;
+        }
+
+        final boolean isMessage = type == MESSAGE;
+        out.append(
+            "    private boolean projecting = false;\n\n" +
+            "    private final long[] projectedFieldBits = new long[FIELD_BITS_LENGTH];\n\n" +
+            "    private final long[] remainingProjectedFieldBits = new long[FIELD_BITS_LENGTH];\n\n" +
+            "    public boolean projectField(final int tag)\n" +
+            "    {\n" +
+            "        final int fieldOrdinal = fieldOrdinal(tag);\n" +
+            "        if (fieldOrdinal != FieldBits.NO_FIELD)\n" +
+            "        {\n" +
+            "            FieldBits.add(projectedFieldBits, fieldOrdinal);\n" +
+            "            projecting = true;\n" +
+            "            return true;\n" +
+            "        }\n" +
+            (isMessage ?
+            "        else if (header.projectField(tag))\n" +
+            "        {\n" +
+            "            projecting = true;\n" +
+            "            return true;\n" +
+            "        }\n" : "") +
+            "        return false;\n" +
+            "    }\n\n" +
+            "    public void resetProjection()\n" +
+            "    {\n" +
+            "        projecting = false;\n" +
+            "        FieldBits.clear(projectedFieldBits);\n" +
+            (isMessage ? "        header.resetProjection();\n" : "") +
+            "    }\n\n");
+    }
+
+    // Skips the fields that aren't in the projection. A message decoder also skips fields that it doesn't know
+    // about, as these include header fields left over when a projected header returns early, whereas a header decoder
+    // has to stop at them as they're the start of the message body. Length fields of data fields are always decoded,
+    // so that data fields, which may contain SOH characters, can be skipped by their length rather than by a scan.
+    private String projectionCheck(final AggregateType type, final Aggregate aggregate)
+    {
+        final String notLengthField = notDataLengthField(aggregate);
+
+        return
+            "            if (projecting)\n" +
+            "            {\n" +
+            "                final int projectedOrdinal = fieldOrdinal(tag);\n" +
+            (type == MESSAGE ?
+            "                if (" + notLengthField + "(projectedOrdinal == FieldBits.NO_FIELD ||\n" +
+            "                    !FieldBits.contains(projectedFieldBits, projectedOrdinal)))\n" +
+            "                {\n" +
+            skipField(type, aggregate, 5) +
+            "                    position = endOfField + 1;\n" +
+            "                    continue;\n" +
+            "                }\n" +
+            "                FieldBits.remove(remainingProjectedFieldBits, projectedOrdinal);\n" :
+
+            "                if (projectedOrdinal != FieldBits.NO_FIELD)\n" +
+            "                {\n" +
+            "                    if (" + notLengthField +
+            "!FieldBits.contains(projectedFieldBits, projectedOrdinal))\n" +
+            "                    {\n" +
+            skipField(type, aggregate, 6) +
+            "                        position = endOfField + 1;\n" +
+            "                        continue;\n" +
+            "                    }\n" +
+            "                    FieldBits.remove(remainingProjectedFieldBits, projectedOrdinal);\n" +
+            "                }\n") +
+            "            }\n" +
+            "            else ";
+    }
+
+    // Moves endOfField past the value of a skipped data field. Data fields that the aggregate decodes itself use their
+    // decoded length field, the rest are only seen by a message decoder, so their length fields are tracked as they're
+    // skipped.
+    private String skipField(final AggregateType type, final Aggregate aggregate, final int indent)
+    {
+        final StringBuilder cases = new StringBuilder();
+        ownDataFields(aggregate).forEach((field) ->
+        {
+            final String lengthFieldName = formatPropertyName(field.associatedLengthField().name());
+            cases
+                .append(indent(indent + 1, "case Constants." + constantName(field.name()) + ":\n"))
+                .append(indent(indent + 2, "endOfField = valueOffset + " +
+                    (flyweightsEnabled ? lengthFieldName + "()" : lengthFieldName) + ";\n"))
+                .append(indent(indent + 2, "break;\n"));
+        });
+
+        trackedDataFields(type, aggregate).forEach((field) -> cases
+            .append(indent(indent + 1, "case Constants." + constantName(field.associatedLengthField().name()) + ":\n"))
+            .append(indent(indent + 2, "skippedDataLength = buffer.getInt(valueOffset, endOfField);\n"))
+            .append(indent(indent + 2, "break;\n"))
+            .append(indent(indent + 1, "case Constants." + constantName(field.name()) + ":\n"))
+            .append(indent(indent + 2, "endOfField = valueOffset + skippedDataLength;\n"))
+            .append(indent(indent + 2, "break;\n")));
+
+        if (cases.length() == 0)
+        {
+            return "";
+        }
+
+        return
+            indent(indent, "switch (tag)\n") +
+            indent(indent, "{\n") +
+            cases +
+            indent(indent, "}\n");
+    }
+
+    private Stream<Field> ownDataFields(final Aggregate aggregate)
+    {
+        return decodedFields(aggregate.entries())
+            .stream()
+            .filter((field) -> field.type().isDataBased())
+            .distinct();
+    }
+
+    // Data fields that are skipped by a message decoder without being decoded by it: those of the header, that are
+    // left over when a projected header returns early, and those within repeating groups.
+    private Stream<Field> trackedDataFields(final AggregateType type, final Aggregate aggregate)
+    {
+        if (type != MESSAGE)
+        {
+            return Stream.empty();
+        }
+
+        final Set<String> ownFieldNames = decodedFields(aggregate.entries())
+            .stream()
+            .map(Field::name)
+            .collect(toSet());
+        final Set<String> trackedFieldNames = new HashSet<>();
+        return Stream.concat(extractFields(dictionary.header().entries()), extractFields(aggregate.entries()))
+            .filter((field) -> field.type().isDataBased())
+            .filter((field) -> !ownFieldNames.contains(field.name()) &&
+                !ownFieldNames.contains(field.associatedLengthField().name()))
+            .filter((field) -> trackedFieldNames.add(field.name()));
+    }
+
+    // Each field that an aggregate decodes itself gets a dense ordinal, so that validation can track fields in
+    // bitsets rather than hash sets. Group decoders are inner classes, so these can't be static.
+    private String generateFieldOrdinals(final List<Field> decodedFields, final List<Field> requiredFields)
+    {
+        final StringBuilder ordinalCases = new StringBuilder();
+        final StringBuilder tagCases = new StringBuilder();
+        for (int ordinal = 0; ordinal < decodedFields.size(); ordinal++)
+        {
+            final String constantName = constantName(decodedFields.get(ordinal).name());
+            ordinalCases.append(String.format(
+                "            case Constants.%1$s:\n" +
+                "                return %2$d;\n",
+                constantName,
+                ordinal));
+            tagCases.append(String.format(
+                "            case %2$d:\n" +
+                "                return Constants.%1$s;\n",
+                constantName,
+                ordinal));
+        }
+
+        final String addRequiredFields = requiredFields
+            .stream()
+            .map((field) -> String.format(
+                "        FieldBits.add(requiredFieldBits, fieldOrdinal(Constants.%s));\n",
+                constantName(field.name())))
+            .collect(joining());
+
+        return String.format(
+            "    private static final int FIELD_BITS_LENGTH = %1$d;\n\n" +
+            "    private final long[] requiredFieldBits = new long[FIELD_BITS_LENGTH];\n" +
+            "    {\n" +
+            "%2$s" +
+            "    }\n\n" +
+            "    private int fieldOrdinal(final int tag)\n" +
+            "    {\n" +
+            "        switch (tag)\n" +
+            "        {\n" +
+            "%3$s" +
+            "            default:\n" +
+            "                return FieldBits.NO_FIELD;\n" +
+            "        }\n" +
+            "    }\n\n" +
+            "    private int fieldTag(final int fieldOrdinal)\n" +
+            "    {\n" +
+            "        switch (fieldOrdinal)\n" +
+            "        {\n" +
+            "%4$s" +
+            "            default:\n" +
+            "                return Decoder.NO_ERROR;\n" +
+            "        }\n" +
+            "    }\n\n",
+            FieldBits.length(decodedFields.size()),
+            addRequiredFields,
+            ordinalCases,
+            tagCases);
     }
 
     private String generateFieldDictionary(final Collection<Field> fields, final String name,
@@ -496,18 +703,6 @@ public class DecoderGenerator extends Generator
 
         final boolean isPrimitive = type.isIntBased() || type == Type.CHAR;
 
-        final String enumValidation = String.format(
-            "        if (" + codecRejectUnknownEnumValueEnabled + " && !%1$s.isValid(%2$s%4$s))\n" +
-            "        {\n" +
-            "            invalidTagId = %3$s;\n" +
-            "            rejectReason = " + VALUE_IS_INCORRECT + ";\n" +
-            "            return false;\n" +
-            "        }\n",
-            name,
-            propertyName,
-            tagNumber,
-            isPrimitive ? "()" : "Wrapper");
-
         final String enumValidationMethod;
         if (type.isMultiValue())
         {
@@ -518,26 +713,20 @@ public class DecoderGenerator extends Generator
                     "          {\n" +
                     "            if (%1$s()[i] == ' ')\n" +
                     "            {\n" +
-                    "              %1$sWrapper.wrap(%1$s(), %1$sOffset, i - %1$sOffset);\n" +
                     "%2$s" +
                     "                %1$sOffset = i + 1;\n" +
                     "            }\n" +
                     "          }\n" +
-                    "          %1$sWrapper.wrap(%1$s(), %1$sOffset, %1$sLength - %1$sOffset);\n" +
-                    "%2$s",
+                    "%3$s",
                     propertyName,
-                    enumValidation
+                    enumValidation(name, propertyName, tagNumber, "(), %1$sOffset, i - %1$sOffset"),
+                    enumValidation(name, propertyName, tagNumber, "(), %1$sOffset, %1$sLength - %1$sOffset")
                 );
         }
         else
         {
-            enumValidationMethod =
-                String.format(
-                    (isPrimitive ? "" : "        %1$sWrapper.wrap(%1$s(), %1$sLength);\n") +
-                    "%2$s",
-                    propertyName,
-                    enumValidation
-                );
+            enumValidationMethod = enumValidation(
+                name, propertyName, tagNumber, isPrimitive ? "()" : "(), 0, %1$sLength");
         }
 
         return
@@ -552,6 +741,21 @@ public class DecoderGenerator extends Generator
             );
     }
 
+    private String enumValidation(
+        final String name, final String propertyName, final int tagNumber, final String valueArguments)
+    {
+        return String.format(
+            "        if (" + codecRejectUnknownEnumValueEnabled + " && !%2$s.isValid(%1$s" + valueArguments + "))\n" +
+            "        {\n" +
+            "            invalidTagId = %3$s;\n" +
+            "            rejectReason = " + VALUE_IS_INCORRECT + ";\n" +
+            "            return false;\n" +
+            "        }\n",
+            propertyName,
+            name,
+            tagNumber);
+    }
+
     private CharSequence generateGroupValidation(final Entry entry, final Writer out)
     {
         final Group group = (Group)entry.element();
@@ -586,6 +790,23 @@ public class DecoderGenerator extends Generator
         }
     }
 
+    private List<Field> decodedFields(final List<Entry> entries)
+    {
+        return entries
+            .stream()
+            .flatMap(this::extractDecodedFields)
+            .collect(toList());
+    }
+
+    // The fields that have a case in the decode method of the aggregate rather than in a group decoder.
+    private Stream<Field> extractDecodedFields(final Entry entry)
+    {
+        return entry.match(
+            (e, field) -> Stream.of(field),
+            (e, group) -> Stream.of((Field)group.numberField().element()),
+            (e, component) -> component.entries().stream().flatMap(this::extractDecodedFields));
+    }
+
     private Stream<Field> requiredFields(final List<Entry> entries)
     {
         return entries
@@ -744,9 +965,10 @@ public class DecoderGenerator extends Generator
                 "    {\n" +
                 "        return next;\n" +
                 "    }\n\n" +
-                "    private IntHashSet seenFields = new IntHashSet(%2$d);\n\n",
-                decoderClassName(aggregate),
-                sizeHashSet(aggregate.entries())));
+                "    private final long[] seenFieldBits = new long[FIELD_BITS_LENGTH];\n\n" +
+                // Only tags without an ordinal, ie unknown fields, are stored in this set
+                "    private IntHashSet seenFields = new IntHashSet(10);\n\n",
+                decoderClassName(aggregate)));
         }
     }
 
@@ -952,31 +1174,29 @@ public class DecoderGenerator extends Generator
             String.format("    private int %1$sOffset;\n\n%2$s", fieldName, lengthBasedFields) : "";
 
         final String enumValueDecoder = String.format(
+            // Flyweights look up string based values straight from the buffer, without decoding them into chars
+            (flyweightsEnabled && type.isStringBased()) ?
+            "buffer == null ? %1$s.decode(%2$s(), 0, %2$sLength) : %1$s.decode(buffer, %2$sOffset, %2$sLength)" :
             type.isStringBased() ?
-            "%1$s.decode(%2$sWrapper)" :
+            "%1$s.decode(%2$s, 0, %2$sLength)" :
             // Need to ensure that decode the field
             (flyweightsEnabled && (type.isIntBased() || type.isFloatBased())) ?
             "%1$s.decode(%2$s())" :
             "%1$s.decode(%2$s)",
             name,
             fieldName);
-        final String enumStringBasedWrapperField =
-            String.format("    private final CharArrayWrapper %1$sWrapper = new CharArrayWrapper();\n", fieldName);
         final String enumDecoder = EnumGenerator.hasEnumGenerated(field) && !field.type().isMultiValue() ?
             String.format(
-            "%4$s" +
             "    public %1$s %2$sAsEnum()\n" +
             "    {\n" +
-            (!entry.required() ? "        if (!has%1$s)\n return %1$s.%5$s;\n" : "") +
-            (type.isStringBased() ? "        %2$sWrapper.wrap(%2$s(), %2$sLength);\n" : "") +
+            (!entry.required() ? "        if (!has%1$s)\n return %1$s.%4$s;\n" : "") +
             "        return %3$s;\n" +
             "    }\n\n",
             name,
             fieldName,
             enumValueDecoder,
-            enumStringBasedWrapperField,
             NULL_VAL_NAME
-        ) : field.type().isMultiValue() ? enumStringBasedWrapperField : "";
+        ) : "";
 
         final String lazyInitialisation = fieldLazyInstantialisation(field, fieldName);
 
@@ -1239,6 +1459,7 @@ public class DecoderGenerator extends Generator
         final boolean hasCommonCompounds = type == MESSAGE;
         final boolean isGroup = type == GROUP;
         final boolean isHeader = type == HEADER;
+        final boolean isProjectable = isProjectable(type);
         final String endGroupCheck = endGroupCheck(aggregate, isGroup);
         final String prefix =
             "    private AsciiBuffer buffer;\n\n" +
@@ -1246,17 +1467,36 @@ public class DecoderGenerator extends Generator
             "    {\n" +
             "        // Decode " + aggregate.name() + "\n" +
             "        int seenFieldCount = 0;\n" +
-            "        if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            (isProjectable ?
+            "        if (projecting)\n" +
+            "        {\n" +
+            "            FieldBits.copy(projectedFieldBits, remainingProjectedFieldBits);\n" +
+            "            FieldBits.clear(missingRequiredFieldBits);\n" +
+            "        }\n" +
+            "        else " : "        ") +
+            "if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "        {\n" +
-            "            missingRequiredFields.copy(" + REQUIRED_FIELDS + ");\n" +
-            (isGroup ? "" : "            alreadyVisitedFields.clear();\n") +
+            "            FieldBits.copy(requiredFieldBits, missingRequiredFieldBits);\n" +
+            (isGroup ? "" :
+            "            FieldBits.clear(visitedFieldBits);\n" +
+            "            alreadyVisitedFields.clear();\n") +
             "        }\n" +
             "        this.buffer = buffer;\n" +
             "        final int end = offset + length;\n" +
             "        int position = offset;\n" +
-            (hasCommonCompounds ? "        position += header.decode(buffer, position, length);\n" : "") +
-            (isGroup ? "        seenFields.clear();\n" : "") +
-            "        int tag;\n\n" +
+            (hasCommonCompounds ?
+            "        position += header.decode(buffer, position, length);\n" +
+            "        if (projecting && FieldBits.isEmpty(remainingProjectedFieldBits))\n" +
+            "        {\n" +
+            "            return position - offset;\n" +
+            "        }\n" : "") +
+            (isGroup ?
+            "        FieldBits.clear(seenFieldBits);\n" +
+            "        seenFields.clear();\n" : "") +
+            "        int tag;\n" +
+            (isProjectable && trackedDataFields(type, aggregate).findAny().isPresent() ?
+            "        int skippedDataLength = 0;\n" : "") +
+            "\n" +
             "        while (position < end)\n" +
             "        {\n" +
             "            final int equalsPosition = buffer.scan(position, end, '=');\n" +
@@ -1265,12 +1505,14 @@ public class DecoderGenerator extends Generator
             "               return position;\n" +
             "            }\n" +
             "            tag = buffer.getInt(position, equalsPosition);\n" +
+            (isGroup ? "            final int fieldOrdinal = fieldOrdinal(tag);\n" : "") +
             endGroupCheck +
             "            final int valueOffset = equalsPosition + 1;\n" +
             "            int endOfField = buffer.scan(valueOffset, end, START_OF_HEADER);\n" +
             malformedMessageCheck() +
             "            final int valueLength = endOfField - valueOffset;\n" +
-            "            if (" + CODEC_VALIDATION_ENABLED + ")\n" +
+            (isProjectable ? projectionCheck(type, aggregate) : "            ") +
+            "if (" + CODEC_VALIDATION_ENABLED + ")\n" +
             "            {\n" +
             "                if (tag <= 0)\n" +
             "                {\n" +
@@ -1283,14 +1525,29 @@ public class DecoderGenerator extends Generator
             "                    rejectReason = " + TAG_SPECIFIED_WITHOUT_A_VALUE + ";\n" +
             "                }\n" +
             headerValidation(isHeader) +
-            (isGroup ? "" :
-            "                if (!alreadyVisitedFields.add(tag))\n" +
+            (isGroup ?
+            "                if (fieldOrdinal != FieldBits.NO_FIELD)\n" +
+            "                {\n" +
+            "                    FieldBits.remove(missingRequiredFieldBits, fieldOrdinal);\n" +
+            "                }\n" :
+
+            "                final int fieldOrdinal = fieldOrdinal(tag);\n" +
+            "                final boolean firstVisit;\n" +
+            "                if (fieldOrdinal != FieldBits.NO_FIELD)\n" +
+            "                {\n" +
+            "                    firstVisit = FieldBits.add(visitedFieldBits, fieldOrdinal);\n" +
+            "                    FieldBits.remove(missingRequiredFieldBits, fieldOrdinal);\n" +
+            "                }\n" +
+            "                else\n" +
+            "                {\n" +
+            "                    firstVisit = alreadyVisitedFields.add(tag);\n" +
+            "                }\n" +
+            "                if (!firstVisit)\n" +
             "                {\n" +
             "                    invalidTagId = tag;\n" +
             "                    rejectReason = " + TAG_APPEARS_MORE_THAN_ONCE + ";\n" +
             "                }\n") +
 
-            "                missingRequiredFields.remove(tag);\n" +
             "                seenFieldCount++;\n" +
             "            }\n" +
             "            switch (tag)\n" +
@@ -1327,12 +1584,27 @@ public class DecoderGenerator extends Generator
             "            {\n" +
             "                position = endOfField + 1;\n" +
             "            }\n" +
+            (isProjectable ?
+            "            if (projecting && " + notDataLengthField(aggregate) +
+            "FieldBits.isEmpty(remainingProjectedFieldBits))\n" +
+            "            {\n" +
+            "                return position - offset;\n" +
+            "            }\n" : "") +
             "        }\n" +
             decodeTrailerOrReturn(hasCommonCompounds, 2) +
             "    }\n\n";
         return prefix + body + suffix;
     }
 
+    // A projected aggregate doesn't return between a length field and its data field, so that whoever decodes the rest
+    // of the message sees both of them.
+    private String notDataLengthField(final Aggregate aggregate)
+    {
+        return ownDataFields(aggregate)
+            .map((field) -> "tag != Constants." + constantName(field.associatedLengthField().name()) + " && ")
+            .collect(joining());
+    }
+
     private String malformedMessageCheck()
     {
         return "            if (endOfField == AsciiBuffer.UNKNOWN_INDEX || " +
@@ -1374,7 +1646,8 @@ public class DecoderGenerator extends Generator
         if (isGroup)
         {
             endGroupCheck = String.format(
-                "            if (!seenFields.add(tag))\n" +
+                "            if (fieldOrdinal != FieldBits.NO_FIELD ?\n" +
+                "                !FieldBits.add(seenFieldBits, fieldOrdinal) : !seenFields.add(tag))\n" +
                 "            {\n" +
                 "                if (next == null)\n" +
                 "                {\n" +
@@ -21,6 +21,7 @@ import org.agrona.MutableDirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.generation.OutputManager;
 import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.HeaderTemplate;
 import uk.co.real_logic.artio.builder.SessionHeaderEncoder;
 import uk.co.real_logic.artio.dictionary.ir.*;
 import uk.co.real_logic.artio.dictionary.ir.Entry.Element;
@@ -59,6 +60,15 @@ public class EncoderGenerator extends Generator
         "TestRequestEncoder",
         "SequenceResetEncoder"));
 
+    // Header fields that normally change from one message to the next, which split the header template into segments
+    private static final Set<String> NON_TEMPLATE_HEADER_FIELDS = new HashSet<>(Arrays.asList(
+        "MsgSeqNum",
+        "PossDupFlag",
+        "PossResend",
+        "SendingTime",
+        "OrigSendingTime",
+        "LastMsgSeqNumProcessed"));
+
     private static final String SUFFIX =
         "        buffer.putSeparator(position);\n" +
         "        position++;\n" +
@@ -66,11 +76,11 @@ public class EncoderGenerator extends Generator
 
     private static final String TRAILER_ENCODE_PREFIX =
         "    // |10=...|\n" +
-        "    long finishMessage(final MutableAsciiBuffer buffer, final int messageStart, final int offset)\n" +
+        "    long finishMessage(\n" +
+        "        final MutableAsciiBuffer buffer, final int messageStart, final int offset, final int checkSum)\n" +
         "    {\n" +
         "        int position = offset;\n" +
         "\n" +
-        "        final int checkSum = buffer.computeChecksum(messageStart, position);\n" +
         "        buffer.putBytes(position, checkSumHeader, 0, checkSumHeaderLength);\n" +
         "        position += checkSumHeaderLength;\n" +
         "        buffer.putNaturalPaddedIntAscii(position, 3, checkSum);\n" +
@@ -145,6 +155,10 @@ public class EncoderGenerator extends Generator
         "    {\n" +
         "        int position = offset;\n\n";
 
+    private static final String RETURN_THIS = "        return this;\n";
+
+    private static final String INVALIDATE_TEMPLATE = "        template.invalidate();\n";
+
     private static final String RESET_NEXT_GROUP =
         "        if (next != null)" +
         "        {\n" +
@@ -212,7 +226,8 @@ public class EncoderGenerator extends Generator
                     DirectBuffer.class,
                     MutableDirectBuffer.class,
                     UnsafeBuffer.class,
-                    AsciiSequenceView.class);
+                    AsciiSequenceView.class,
+                    HeaderTemplate.class);
                 generateAggregateClass(aggregate, aggregateType, className, out);
             });
     }
@@ -288,18 +303,21 @@ public class EncoderGenerator extends Generator
                 "\n\n",
                 beginString));
 
+            out.append(templateMethods(className, aggregate.entries()));
         }
 
+        final Set<String> templateFields = isHeader ? templateFields(aggregate.entries()) : emptySet();
+
         precomputedHeaders(out, aggregate.entries());
-        generateSetters(out, className, aggregate.entries());
+        generateSetters(out, className, aggregate.entries(), templateFields);
         out.append(encodeMethod(aggregate.entries(), type));
-        out.append(completeResetMethod(aggregate, isMessage, type));
+        out.append(completeResetMethod(aggregate, isMessage, type, templateFields));
         out.append(toString(aggregate, isMessage));
         out.append("}\n");
     }
 
     private String completeResetMethod(
-        final Aggregate aggregate, final boolean isMessage, final AggregateType type)
+        final Aggregate aggregate, final boolean isMessage, final AggregateType type, final Set<String> templateFields)
     {
         final String additionalReset;
         switch (type)
@@ -308,12 +326,91 @@ public class EncoderGenerator extends Generator
                 additionalReset = RESET_NEXT_GROUP;
                 break;
             case HEADER:
-                additionalReset = "        beginString(DEFAULT_BEGIN_STRING);\n";
+                additionalReset =
+                    "        beginString(DEFAULT_BEGIN_STRING);\n" +
+                    "        template.invalidate();\n";
                 break;
             default:
                 additionalReset = "";
         }
-        return super.completeResetMethod(isMessage, aggregate.entries(), additionalReset);
+
+        String resetMethod = super.completeResetMethod(isMessage, aggregate.entries(), additionalReset);
+        for (final String fieldName : templateFields)
+        {
+            final String resetMethodStart = String.format(
+                "    public void %s()\n    {\n", nameOfResetMethod(fieldName));
+            resetMethod = resetMethod.replace(resetMethodStart, resetMethodStart + INVALIDATE_TEMPLATE);
+        }
+
+        return resetMethod;
+    }
+
+    private String templateMethods(final String className, final List<Entry> entries)
+    {
+        return String.format(
+            "    private final HeaderTemplate template = new HeaderTemplate(%2$d);\n\n" +
+            "    public %1$s useTemplate(final boolean useTemplate)\n" +
+            "    {\n" +
+            "        template.enabled(useTemplate);\n" +
+            "        return this;\n" +
+            "    }\n\n" +
+            "    public void invalidateTemplate()\n" +
+            "    {\n" +
+            "        template.invalidate();\n" +
+            "    }\n\n" +
+            "    int checkSum(final MutableAsciiBuffer buffer, final int messageStart, final int end)\n" +
+            "    {\n" +
+            "        return template.checkSum(buffer, messageStart, end);\n" +
+            "    }\n\n",
+            className,
+            templateSegmentCount(entries));
+    }
+
+    private Set<String> templateFields(final List<Entry> entries)
+    {
+        final Set<String> templateFields = new HashSet<>();
+        for (final Entry entry : entries)
+        {
+            if (isTemplateEntry(entry))
+            {
+                templateFields.add(entry.name());
+            }
+        }
+
+        return templateFields;
+    }
+
+    private int templateSegmentCount(final List<Entry> entries)
+    {
+        int segmentCount = 0;
+        boolean inSegment = false;
+        for (final Entry entry : entries)
+        {
+            if (isEncodedSeparately(entry))
+            {
+                continue;
+            }
+
+            final boolean isTemplateEntry = isTemplateEntry(entry);
+            if (isTemplateEntry && !inSegment)
+            {
+                segmentCount++;
+            }
+            inSegment = isTemplateEntry;
+        }
+
+        return segmentCount;
+    }
+
+    private boolean isTemplateEntry(final Entry entry)
+    {
+        // Changes to groups and components can't be detected by the header, so they aren't part of the template
+        return entry.isField() && !isEncodedSeparately(entry) && !NON_TEMPLATE_HEADER_FIELDS.contains(entry.name());
+    }
+
+    private boolean isEncodedSeparately(final Entry entry)
+    {
+        return isBodyLength(entry) || isBeginString(entry) || isCheckSum(entry);
     }
 
     private void generateGroupClass(final Group group, final Writer out) throws IOException
@@ -377,7 +474,8 @@ public class EncoderGenerator extends Generator
         }
     }
 
-    private void generateSetters(final Writer out, final String className, final List<Entry> entries)
+    private void generateSetters(
+        final Writer out, final String className, final List<Entry> entries, final Set<String> templateFields)
         throws IOException
     {
         final List<String> optionalFields = ENCODER_OPTIONAL_SESSION_FIELDS.get(className);
@@ -385,7 +483,7 @@ public class EncoderGenerator extends Generator
 
         for (final Entry entry : entries)
         {
-            generateSetter(className, entry, out, missingOptionalFields);
+            generateSetter(className, entry, out, missingOptionalFields, templateFields.contains(entry.name()));
         }
 
         generateMissingOptionalSessionFields(out, className, missingOptionalFields);
@@ -411,12 +509,21 @@ public class EncoderGenerator extends Generator
     }
 
     private void generateSetter(
-        final String className, final Entry entry, final Writer out, final Set<String> optionalFields)
+        final String className,
+        final Entry entry,
+        final Writer out,
+        final Set<String> optionalFields,
+        final boolean invalidatesTemplate)
     {
         if (!isBodyLength(entry))
         {
             entry.forEach(
-                (field) -> out.append(generateFieldSetter(className, field, optionalFields)),
+                (field) ->
+                {
+                    final String setter = generateFieldSetter(className, field, optionalFields);
+                    out.append(invalidatesTemplate ?
+                        setter.replace(RETURN_THIS, INVALIDATE_TEMPLATE + RETURN_THIS) : setter);
+                },
                 (group) -> generateGroup(className, group, out, optionalFields),
                 (component) -> generateComponentField(encoderClassName(entry.name()), component, out));
         }
@@ -496,7 +603,7 @@ public class EncoderGenerator extends Generator
         generateGroupClass(group, out);
 
         final Entry numberField = group.numberField();
-        generateSetter(className, numberField, out, optionalFields);
+        generateSetter(className, numberField, out, optionalFields, false);
 
         out.append(String.format(
             "\n" +
@@ -724,9 +831,9 @@ public class EncoderGenerator extends Generator
                 break;
         }
 
-        final String body = entries.stream()
-            .map(this::encodeEntry)
-            .collect(joining("\n"));
+        final String body = aggregateType == AggregateType.HEADER ?
+            encodeHeaderEntries(entries) :
+            entries.stream().map(this::encodeEntry).collect(joining("\n"));
 
         String suffix;
         if (aggregateType == AggregateType.MESSAGE)
@@ -735,7 +842,8 @@ public class EncoderGenerator extends Generator
                 "        position += trailer.startTrailer(buffer, position);\n" +
                 "\n" +
                 "        final int messageStart = header.finishHeader(buffer, bodyStart, position - bodyStart);\n" +
-                "        return trailer.finishMessage(buffer, messageStart, position);\n" +
+                "        final int checkSum = header.checkSum(buffer, messageStart, position);\n" +
+                "        return trailer.finishMessage(buffer, messageStart, position, checkSum);\n" +
                 "    }\n\n";
         }
         else if (aggregateType == AggregateType.HEADER)
@@ -770,9 +878,67 @@ public class EncoderGenerator extends Generator
         return prefix + body + suffix;
     }
 
+    // Runs of fields that are part of the template are copied from it if it's valid, or encoded and saved to it
+    private String encodeHeaderEntries(final List<Entry> entries)
+    {
+        final StringBuilder body = new StringBuilder("\n        final boolean copyTemplate = template.isValid();\n\n");
+        final StringBuilder segmentBody = new StringBuilder();
+        int segment = 0;
+        for (final Entry entry : entries)
+        {
+            if (isEncodedSeparately(entry))
+            {
+                continue;
+            }
+
+            if (isTemplateEntry(entry))
+            {
+                segmentBody.append(encodeEntry(entry)).append("\n");
+            }
+            else
+            {
+                if (segmentBody.length() > 0)
+                {
+                    body.append(encodeTemplateSegment(segment, segmentBody));
+                    segmentBody.setLength(0);
+                    segment++;
+                }
+                body.append(encodeEntry(entry)).append("\n");
+            }
+        }
+
+        if (segmentBody.length() > 0)
+        {
+            body.append(encodeTemplateSegment(segment, segmentBody));
+        }
+
+        return body.append(
+            "        if (!copyTemplate)\n" +
+            "        {\n" +
+            "            template.onSaved();\n" +
+            "        }\n").toString();
+    }
+
+    private String encodeTemplateSegment(final int segment, final CharSequence segmentBody)
+    {
+        return String.format(
+            "        if (copyTemplate)\n" +
+            "        {\n" +
+            "            position += template.copy(buffer, position, %1$d);\n" +
+            "        }\n" +
+            "        else\n" +
+            "        {\n" +
+            "        final int segmentStart = position;\n" +
+            "%2$s" +
+            "        template.save(buffer, segmentStart, position, %1$d);\n" +
+            "        }\n\n",
+            segment,
+            segmentBody);
+    }
+
     private String encodeEntry(final Entry entry)
     {
-        if (isBodyLength(entry) || isBeginString(entry) || isCheckSum(entry))
+        if (isEncodedSeparately(entry))
         {
             return "";
         }
@@ -16,23 +16,22 @@
 package uk.co.real_logic.artio.dictionary.generation;
 
 import org.agrona.LangUtil;
-import org.agrona.collections.IntHashSet;
 import org.agrona.generation.OutputManager;
 import uk.co.real_logic.artio.builder.CharRepresentable;
 import uk.co.real_logic.artio.builder.IntRepresentable;
 import uk.co.real_logic.artio.builder.StringRepresentable;
-import uk.co.real_logic.artio.dictionary.CharArrayMap;
 import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
 import uk.co.real_logic.artio.dictionary.ir.Dictionary;
 import uk.co.real_logic.artio.dictionary.ir.Field;
 import uk.co.real_logic.artio.dictionary.ir.Field.Type;
 import uk.co.real_logic.artio.dictionary.ir.Field.Value;
+import uk.co.real_logic.artio.util.AsciiBuffer;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import static java.lang.String.format;
 import static java.util.stream.Collectors.joining;
@@ -126,11 +125,9 @@ public final class EnumGenerator
             try
             {
                 out.append(fileHeader(builderPackage));
-                out.append(importFor(CharArrayMap.class));
                 out.append(importFor(CharArrayWrapper.class));
-                out.append(importFor(IntHashSet.class));
-                out.append(importFor(Map.class));
-                out.append(importFor(HashMap.class));
+                out.append(importFor(CodecUtil.class));
+                out.append(importFor(AsciiBuffer.class));
                 out.append(interfaceToImport);
                 out.append(generateEnumDeclaration(enumName, interfaceToImplement));
 
@@ -229,27 +226,40 @@ public final class EnumGenerator
             case MULTIPLESTRINGVALUE:
             case MULTIPLECHARVALUE:
             case STRING:
-                return "    public static boolean isValid(final CharArrayWrapper key)\n" +
-                       "    {\n" +
-                       "        return charMap.containsKey(key);\n" +
-                       "    }\n";
+                return
+                    "    public static boolean isValid(final CharArrayWrapper key)\n" +
+                    "    {\n" +
+                    "        return isValid(key.values(), key.offset(), key.length());\n" +
+                    "    }\n" +
+                    "\n" +
+                    "    public static boolean isValid(final char[] value, final int offset, final int length)\n" +
+                    "    {\n" +
+                    "        return lookup(value, offset, length) != null;\n" +
+                    "    }\n" +
+                    "\n" +
+                    "    public static boolean isValid(\n" +
+                    "        final AsciiBuffer buffer, final int offset, final int length)\n" +
+                    "    {\n" +
+                    "        return lookup(buffer, offset, length) != null;\n" +
+                    "    }\n";
             default:
-                final String primitiveValues = allValues
+                final String cases = allValues
                     .stream()
-                    .map(value -> literal(value, type))
-                    .map((repr) -> String.format("        intSet.add(%1$s);\n", repr))
+                    .map((value) -> format("        case %s:\n", literal(value, type)))
                     .collect(joining());
 
                 return format(
-                    "    private static final IntHashSet intSet = new IntHashSet(%2$s);\n" +
-                    "    %1$s\n" +
-                    "\n" +
                     "    public static boolean isValid(final int representation)\n" +
                     "    {\n" +
-                    "        return intSet.contains(representation);\n" +
+                    "        switch (representation)\n" +
+                    "        {\n" +
+                    "%1$s" +
+                    "            return true;\n" +
+                    "        default:\n" +
+                    "            return false;\n" +
+                    "        }\n" +
                     "    }\n",
-                    optionalStaticInit(primitiveValues),
-                    ConstantGenerator.sizeHashSet(allValues));
+                    cases);
         }
     }
 
@@ -261,39 +271,161 @@ public final class EnumGenerator
             case MULTIPLEVALUESTRING:
             case MULTIPLESTRINGVALUE:
             case MULTIPLECHARVALUE:
-
-                final String entries = allValues
-                    .stream()
-                    .map((v) -> format("        stringMap.put(%s, %s);\n", literal(v, type), v.description()))
-                    .collect(joining());
-
                 return format(
-                    "    private static final CharArrayMap<%1$s> charMap;\n" +
-                    "    static\n" +
+                    "    public static %1$s decode(final CharArrayWrapper key)\n" +
                     "    {\n" +
-                    "        final Map<String, %1$s> stringMap = new HashMap<>();\n" +
-                    "%2$s" +
-                    "        charMap = new CharArrayMap<>(stringMap);\n" +
+                    "        return decode(key.values(), key.offset(), key.length());\n" +
                     "    }\n" +
                     "\n" +
-                    "    public static %1$s decode(final CharArrayWrapper key)\n" +
+                    "    public static %1$s decode(final char[] value, final int offset, final int length)\n" +
                     "    {\n" +
-                            "        final %1$s value = charMap.get(key);\n" +
-                            "        if (value == null)\n" +
-                            "        {\n" +
-                            "            return %3$s;\n" +
-                            "        }\n" +
-                            "        return value;\n" +
-                    "    }\n",
+                    "        final %1$s decoded = lookup(value, offset, length);\n" +
+                    "        return decoded == null ? %2$s : decoded;\n" +
+                    "    }\n" +
+                    "\n" +
+                    "    public static %1$s decode(final AsciiBuffer buffer, final int offset, final int length)\n" +
+                    "    {\n" +
+                    "        final %1$s decoded = lookup(buffer, offset, length);\n" +
+                    "        return decoded == null ? %2$s : decoded;\n" +
+                    "    }\n" +
+                    "\n" +
+                    "%3$s",
                     typeName,
-                    entries,
-                    UNKNOWN_NAME);
+                    UNKNOWN_NAME,
+                    packedLookup(typeName, allValues));
 
             default:
                 return "";
         }
     }
 
+    // Representations of up to 8 ASCII characters are packed into a long when the enum is generated, so that a
+    // lookup is a switch on a hash of the packed representation and a single comparison rather than a hash map
+    // lookup. Any other representations are compared character by character.
+    private String packedLookup(final String typeName, final List<Value> allValues)
+    {
+        final Map<Integer, List<Value>> valuesByHash = new TreeMap<>();
+        final List<Value> unpackableValues = new ArrayList<>();
+        for (final Value value : allValues)
+        {
+            final long packed = packAscii(value.representation());
+            if (packed == UNPACKABLE_ASCII)
+            {
+                unpackableValues.add(value);
+            }
+            else
+            {
+                valuesByHash.computeIfAbsent(packedHash(packed), (hash) -> new ArrayList<>()).add(value);
+            }
+        }
+
+        final StringBuilder cases = new StringBuilder();
+        valuesByHash.forEach((hash, values) ->
+        {
+            cases.append(format("        case %d:\n", hash));
+            for (final Value value : values)
+            {
+                cases.append(format(
+                    "            if (packed == %dL)\n" +
+                    "            {\n" +
+                    "                return %s;\n" +
+                    "            }\n",
+                    packAscii(value.representation()),
+                    value.description()));
+            }
+            cases.append("            return null;\n");
+        });
+
+        final StringBuilder unpackableRepresentations = new StringBuilder();
+        final StringBuilder charArrayComparisons = new StringBuilder();
+        final StringBuilder bufferComparisons = new StringBuilder();
+        for (int i = 0; i < unpackableValues.size(); i++)
+        {
+            final Value value = unpackableValues.get(i);
+            final String representation = value.representation();
+            final int length = representation.length();
+            unpackableRepresentations.append(format("        \"%s\".toCharArray(),\n", representation));
+            charArrayComparisons.append(format(
+                "        if (length == %1$d &&\n" +
+                "            CodecUtil.equals(value, UNPACKABLE_REPRESENTATIONS[%2$d], offset, 0, length))\n" +
+                "        {\n" +
+                "            return %3$s;\n" +
+                "        }\n",
+                length,
+                i,
+                value.description()));
+            bufferComparisons.append(format(
+                "        if (length == %1$d &&\n" +
+                "            CodecUtil.equals(buffer, UNPACKABLE_REPRESENTATIONS[%2$d], offset, length))\n" +
+                "        {\n" +
+                "            return %3$s;\n" +
+                "        }\n",
+                length,
+                i,
+                value.description()));
+        }
+
+        final boolean hasUnpackableValues = !unpackableValues.isEmpty();
+        final String lookupUnpackable =
+            "        final %1$s decoded = lookup(CodecUtil.packAscii(%2$s, offset, length));\n" +
+            "        if (decoded != null)\n" +
+            "        {\n" +
+            "            return decoded;\n" +
+            "        }\n" +
+            "%3$s" +
+            "        return null;\n";
+        final String lookupPackable =
+            "        return lookup(CodecUtil.packAscii(%2$s, offset, length));\n";
+
+        return
+            (hasUnpackableValues ?
+            "    private static final char[][] UNPACKABLE_REPRESENTATIONS =\n" +
+            "    {\n" +
+            unpackableRepresentations +
+            "    };\n\n" : "") +
+            format(
+            "    private static %1$s lookup(final char[] value, final int offset, final int length)\n" +
+            "    {\n" +
+            (hasUnpackableValues ? lookupUnpackable : lookupPackable) +
+            "    }\n" +
+            "\n",
+            typeName,
+            "value",
+            charArrayComparisons) +
+            format(
+            "    private static %1$s lookup(final AsciiBuffer buffer, final int offset, final int length)\n" +
+            "    {\n" +
+            (hasUnpackableValues ? lookupUnpackable : lookupPackable) +
+            "    }\n" +
+            "\n",
+            typeName,
+            "buffer",
+            bufferComparisons) +
+            format(
+            "    private static %1$s lookup(final long packed)\n" +
+            "    {\n" +
+            "        switch ((int)(packed ^ (packed >>> 32)))\n" +
+            "        {\n" +
+            "%2$s" +
+            "        default:\n" +
+            "            return null;\n" +
+            "        }\n" +
+            "    }\n" +
+            "\n",
+            typeName,
+            cases);
+    }
+
+    private static long packAscii(final String representation)
+    {
+        return CodecUtil.packAscii(representation.toCharArray(), 0, representation.length());
+    }
+
+    private static int packedHash(final long packed)
+    {
+        return (int)(packed ^ (packed >>> 32));
+    }
+
     private boolean hasGeneratedValueOf(final Type type)
     {
         switch (type)
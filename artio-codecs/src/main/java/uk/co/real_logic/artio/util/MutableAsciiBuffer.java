@@ -15,17 +15,21 @@
  */
 package uk.co.real_logic.artio.util;
 
+import org.agrona.AsciiEncoding;
 import org.agrona.DirectBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.fields.*;
 
 import java.nio.ByteBuffer;
 
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.agrona.BitUtil.SIZE_OF_LONG;
 
 public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffer
 {
     private static final byte ZERO = '0';
+    private static final byte MINUS = '-';
     private static final byte DOT = (byte)'.';
     private static final byte SPACE = ' ';
 
@@ -35,6 +39,40 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     private static final byte[] MIN_INTEGER_VALUE = String.valueOf(Integer.MIN_VALUE).getBytes(US_ASCII);
     private static final byte[] MIN_LONG_VALUE = String.valueOf(Long.MIN_VALUE).getBytes(US_ASCII);
 
+    // Constants for processing 8 bytes at a time, loaded as little endian longs so that the first byte is the lowest
+    private static final long ZERO_BYTES = 0x3030303030303030L;
+    private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+    private static final long SIX_BYTES = 0x0606060606060606L;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long EVERY_BYTE = 0x0101010101010101L;
+    private static final long EVEN_BYTES = 0x00FF00FF00FF00FFL;
+    private static final long EVEN_SHORTS = 0x0000FFFF0000FFFFL;
+    private static final long LOW_INT = 0xFFFFFFFFL;
+    private static final int BITS_IN_BYTE = 8;
+
+    // Each 16 bit lane of the checksum accumulator is incremented by at most 2 * 255 per long
+    private static final int MAX_LONGS_PER_CHECKSUM_BLOCK = 128;
+
+    private static final int MAX_LONG_POWER_OF_TEN = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_POWER_OF_TEN + 1];
+
+    // The ASCII digits of 00 to 99 as little endian shorts, so that numbers can be encoded two digits at a time
+    private static final short[] DIGIT_PAIRS = new short[100];
+
+    static
+    {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++)
+        {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+
+        for (int i = 0; i < DIGIT_PAIRS.length; i++)
+        {
+            DIGIT_PAIRS[i] = (short)((ZERO + i / 10) | ((ZERO + i % 10) << BITS_IN_BYTE));
+        }
+    }
+
     public MutableAsciiBuffer()
     {
         super(0, 0);
@@ -77,18 +115,87 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int getNatural(final int startInclusive, final int endExclusive)
     {
-        return super.parseNaturalIntAscii(startInclusive, endExclusive - startInclusive);
+        return (int)parseNatural(startInclusive, endExclusive);
     }
 
     public long getNaturalLong(final int startInclusive, final int endExclusive)
     {
-        return super.parseNaturalLongAscii(startInclusive, endExclusive - startInclusive);
+        return parseNatural(startInclusive, endExclusive);
     }
 
-    @SuppressWarnings("FinalParameters")
-    public int getInt(int startInclusive, final int endExclusive)
+    public int getInt(final int startInclusive, final int endExclusive)
     {
-        return super.parseIntAscii(startInclusive, endExclusive - startInclusive);
+        if (startInclusive < endExclusive && getByte(startInclusive) == '-')
+        {
+            return (int)-parseNatural(startInclusive + 1, endExclusive);
+        }
+
+        return (int)parseNatural(startInclusive, endExclusive);
+    }
+
+    // Overflow wraps around in the same way as the int and long versions of a digit at a time parsing loop.
+    private long parseNatural(final int startInclusive, final int endExclusive)
+    {
+        int index = startInclusive;
+        long tally = 0;
+
+        while (endExclusive - index >= SIZE_OF_LONG)
+        {
+            final long word = getLong(index, LITTLE_ENDIAN);
+            if (!isEightDigits(word))
+            {
+                return parseNaturalBytes(tally, index, endExclusive);
+            }
+
+            tally = tally * POWERS_OF_TEN[SIZE_OF_LONG] + parseEightDigits(word);
+            index += SIZE_OF_LONG;
+        }
+
+        final int remaining = endExclusive - index;
+        if (remaining > 0 && index + SIZE_OF_LONG <= capacity())
+        {
+            // Shift out the bytes after the number and pad it with leading zeros
+            final int shift = (SIZE_OF_LONG - remaining) * BITS_IN_BYTE;
+            final long word = (getLong(index, LITTLE_ENDIAN) << shift) | (ZERO_BYTES >>> (Long.SIZE - shift));
+            if (isEightDigits(word))
+            {
+                return tally * POWERS_OF_TEN[remaining] + parseEightDigits(word);
+            }
+        }
+
+        return parseNaturalBytes(tally, index, endExclusive);
+    }
+
+    private long parseNaturalBytes(final long initialTally, final int startInclusive, final int endExclusive)
+    {
+        long tally = initialTally;
+        for (int index = startInclusive; index < endExclusive; index++)
+        {
+            tally = tally * 10 + AsciiEncoding.getDigit(index, getByte(index));
+        }
+
+        return tally;
+    }
+
+    private static boolean isEightDigits(final long word)
+    {
+        return ((word & HIGH_NIBBLES) | (((word + SIX_BYTES) & HIGH_NIBBLES) >>> 4)) == 0x3333333333333333L;
+    }
+
+    private static long parseEightDigits(final long word)
+    {
+        long value = word - ZERO_BYTES;
+        value = (value * 10) + (value >>> 8);
+        value = (((value & 0x000000FF000000FFL) * (100 + (1_000_000L << 32))) +
+            (((value >>> 16) & 0x000000FF000000FFL) * (1 + (10_000L << 32)))) >>> 32;
+        return value;
+    }
+
+    // Has 0x80 set in each byte that is zero and is clear in every other byte.
+    private static long zeroBytes(final long word)
+    {
+        final long lowBits = (word & LOW_SEVEN_BITS) + LOW_SEVEN_BITS;
+        return ~(lowBits | word | LOW_SEVEN_BITS);
     }
 
     public int getDigit(final int index)
@@ -168,89 +275,132 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
     }
 
     @SuppressWarnings("FinalParameters")
-    public DecimalFloat getFloat(final DecimalFloat number, int offset, int length)
+    public DecimalFloat getFloat(final DecimalFloat number, final int offset, final int length)
     {
-        // Throw away trailing spaces or zeros
+        // Throw away trailing and leading spaces
         int end = offset + length;
-        for (int index = end - 1; isSpace(index) && index > offset; index--)
+        while (end > offset && getByte(end - 1) == SPACE)
         {
             end--;
         }
 
-        int endDiff = 0;
-        for (int index = end - 1; isZero(index) && index > offset; index--)
-        {
-            endDiff++;
-        }
-
-        boolean isFloatingPoint = false;
-        for (int index = end - endDiff - 1; index > offset; index--)
-        {
-            if (getByte(index) == DOT)
-            {
-                isFloatingPoint = true;
-                break;
-            }
-        }
-
-        if (isFloatingPoint)
-        {
-            end -= endDiff;
-        }
-
-        // Throw away leading spaces
-        for (int index = offset; isSpace(index) && index < end; index++)
+        int index = offset;
+        while (index < end && getByte(index) == SPACE)
         {
-            offset++;
+            index++;
         }
 
         // Is it negative?
-        final boolean negative = getByte(offset) == '-';
+        final boolean negative = index < end && getByte(index) == '-';
         if (negative)
         {
-            offset++;
+            index++;
         }
 
-        // Throw away leading zeros
-        for (int index = offset; isZero(index) && index < end; index++)
-        {
-            offset++;
-        }
-
-        int scale = 0;
+        // Runs of zeros are counted rather than added to the value straight away, so leading zeros and the
+        // trailing zeros of the fractional part never get multiplied into the value, or cause it to overflow.
         long value = 0;
-        for (int index = offset; index < end; index++)
+        int zeros = 0;
+        int scale = 0;
+        boolean isFloatingPoint = false;
+        while (index < end)
         {
+            if (end - index >= SIZE_OF_LONG)
+            {
+                final long word = getLong(index, LITTLE_ENDIAN);
+                if (isEightDigits(word))
+                {
+                    final long digits = parseEightDigits(word);
+                    if (digits == 0)
+                    {
+                        zeros += SIZE_OF_LONG;
+                    }
+                    else
+                    {
+                        final int trailingZeros = trailingZeroDigits(word);
+                        value = appendDigits(
+                            value,
+                            digits / POWERS_OF_TEN[trailingZeros],
+                            zeros + SIZE_OF_LONG - trailingZeros,
+                            offset,
+                            length);
+                        zeros = trailingZeros;
+                    }
+
+                    if (isFloatingPoint)
+                    {
+                        scale += SIZE_OF_LONG;
+                    }
+                    index += SIZE_OF_LONG;
+                    continue;
+                }
+            }
+
             final byte byteValue = getByte(index);
             if (byteValue == DOT)
             {
+                value = appendDigits(value, 0, zeros, offset, length);
+                zeros = 0;
                 // number of digits after the dot
-                scale = end - (index + 1);
+                scale = 0;
+                isFloatingPoint = true;
             }
             else
             {
                 final int digit = getDigit(index, byteValue);
-                value = value * 10 + digit;
-                if (value < 0)
+                if (digit == 0)
+                {
+                    zeros++;
+                }
+                else
                 {
-                    throw new ArithmeticException(
-                        "Out of range: when parsing " + getAscii(offset, length));
+                    value = appendDigits(value, digit, zeros + 1, offset, length);
+                    zeros = 0;
+                }
+
+                if (isFloatingPoint)
+                {
+                    scale++;
                 }
             }
+            index++;
+        }
+
+        if (isFloatingPoint)
+        {
+            scale -= zeros;
+        }
+        else
+        {
+            value = appendDigits(value, 0, zeros, offset, length);
         }
 
         number.set(negative ? -1 * value : value, scale);
         return number;
     }
 
-    private boolean isSpace(final int index)
+    // value * 10^digitCount + digits, where digits has at most digitCount digits.
+    private long appendDigits(
+        final long value, final long digits, final int digitCount, final int offset, final int length)
     {
-        return getByte(index) == SPACE;
+        if (value == 0)
+        {
+            return digits;
+        }
+
+        if (digitCount > MAX_LONG_POWER_OF_TEN || value > (Long.MAX_VALUE - digits) / POWERS_OF_TEN[digitCount])
+        {
+            throw new ArithmeticException("Out of range: when parsing " + getAscii(offset, length));
+        }
+
+        return value * POWERS_OF_TEN[digitCount] + digits;
     }
 
-    private boolean isZero(final int index)
+    // Number of '0' bytes at the end of a word of digits that isn't all zeros.
+    private static int trailingZeroDigits(final long word)
     {
-        return getByte(index) == ZERO;
+        final long nonZeroDigits = ~zeroBytes(word ^ ZERO_BYTES) & ~LOW_SEVEN_BITS;
+        return Long.numberOfLeadingZeros(nonZeroDigits) / BITS_IN_BYTE;
     }
 
     public int getLocalMktDate(final int offset, final int length)
@@ -280,7 +430,20 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scanBack(final int startInclusive, final int endExclusive, final byte terminator)
     {
-        for (int index = startInclusive; index >= endExclusive; index--)
+        final long pattern = (terminator & 0xFF) * EVERY_BYTE;
+        int index = startInclusive;
+        while (index - (SIZE_OF_LONG - 1) >= endExclusive)
+        {
+            final int wordIndex = index - (SIZE_OF_LONG - 1);
+            final long found = zeroBytes(getLong(wordIndex, LITTLE_ENDIAN) ^ pattern);
+            if (found != 0)
+            {
+                return wordIndex + (SIZE_OF_LONG - 1) - (Long.numberOfLeadingZeros(found) / BITS_IN_BYTE);
+            }
+            index -= SIZE_OF_LONG;
+        }
+
+        for (; index >= endExclusive; index--)
         {
             final byte value = getByte(index);
             if (value == terminator)
@@ -299,29 +462,55 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public int scan(final int startInclusive, final int endInclusive, final byte terminator)
     {
-        int indexValue = UNKNOWN_INDEX;
-        for (int i = startInclusive; i <= endInclusive; i++)
+        final long pattern = (terminator & 0xFF) * EVERY_BYTE;
+        int index = startInclusive;
+        while (index + (SIZE_OF_LONG - 1) <= endInclusive)
         {
-            final byte value = getByte(i);
-            if (value == terminator)
+            final long found = zeroBytes(getLong(index, LITTLE_ENDIAN) ^ pattern);
+            if (found != 0)
             {
-                indexValue = i;
-                break;
+                return index + (Long.numberOfTrailingZeros(found) / BITS_IN_BYTE);
             }
+            index += SIZE_OF_LONG;
         }
 
-        return indexValue;
+        for (; index <= endInclusive; index++)
+        {
+            if (getByte(index) == terminator)
+            {
+                return index;
+            }
+        }
+
+        return UNKNOWN_INDEX;
     }
 
     public int computeChecksum(final int offset, final int end)
     {
-        int total = 0;
-        for (int index = offset; index < end; index++)
+        long total = 0;
+        int index = offset;
+        final int lastLongIndex = end - SIZE_OF_LONG;
+        while (index <= lastLongIndex)
         {
-            total += getByte(index);
+            // Sum pairs of bytes into four 16 bit lanes, then fold the lanes together before they can overflow
+            final int blockEnd = Math.min(lastLongIndex, index + (MAX_LONGS_PER_CHECKSUM_BLOCK - 1) * SIZE_OF_LONG);
+            long lanes = 0;
+            for (; index <= blockEnd; index += SIZE_OF_LONG)
+            {
+                final long word = getLong(index);
+                lanes += (word & EVEN_BYTES) + ((word >>> BITS_IN_BYTE) & EVEN_BYTES);
+            }
+
+            lanes = (lanes & EVEN_SHORTS) + ((lanes >>> 16) & EVEN_SHORTS);
+            total += (lanes & LOW_INT) + (lanes >>> 32);
+        }
+
+        for (; index < end; index++)
+        {
+            total += getByte(index) & 0xFF;
         }
 
-        return total % 256;
+        return (int)(total % 256);
     }
 
     public int putAscii(final int index, final String string)
@@ -345,12 +534,7 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
 
     public static int lengthInAscii(final int value)
     {
-        int characterCount = 0;
-        for (int remainder = value; remainder > 0; remainder = remainder / 10)
-        {
-            characterCount++;
-        }
-        return characterCount;
+        return value > 0 ? digitCount(value) : 0;
     }
 
     public int putCharAscii(final int index, final char value)
@@ -379,104 +563,214 @@ public final class MutableAsciiBuffer extends UnsafeBuffer implements AsciiBuffe
             return handleZero(offset, scale);
         }
 
-        final long remainder = calculateRemainderAndPutMinus(offset, value);
-        final int minusAdj = value < 0 ? 1 : 0;
-        final int start = offset + minusAdj;
+        int start = offset;
+        if (value < 0)
+        {
+            putByte(start++, MINUS);
+        }
 
-        // Encode the value into a tmp space, leaving the longest possible space required
-        final int tmpEnd = start + LONGEST_LONG_LENGTH;
-        final int tmpStart = putLong(remainder, tmpEnd) + 1;
-        final int length = tmpEnd - tmpStart + 1;
+        // The magnitude of Long.MIN_VALUE is negative, so it's treated as unsigned from here on
+        final long magnitude = value < 0 ? -value : value;
+        final int digits = digitCount(magnitude);
+        final int minusAdj = start - offset;
 
-        // Move the value to the beginning once you've encoded it
-        if (scale > 0)
+        if (scale <= 0)
         {
-            final int end = start + length;
-            final int split = end - scale;
-            final int digitsBeforeDot = length - scale;
-            if (digitsBeforeDot <= 0)
+            final int end = start + digits;
+            putNaturalDigits(end, magnitude);
+            final int trailingZeros = -scale;
+            if (trailingZeros > 0)
             {
-                int cursor = start;
-                putByte(cursor++, ZERO);
-                putByte(cursor++, DOT);
-                final int numberOfZeros = -digitsBeforeDot;
-                final int endOfZeros = cursor + numberOfZeros;
-                for (; cursor < endOfZeros; cursor++)
-                {
-                    putByte(cursor, ZERO);
-                }
-                putBytes(cursor, this, tmpStart, length);
-
-                return minusAdj + ZERO_LENGTH + DOT_LENGTH + numberOfZeros + length;
+                putTrailingZero(end, trailingZeros);
             }
-            else
-            {
-                putBytes(start, this, tmpStart, digitsBeforeDot);
-                putByte(split, DOT);
-                putBytes(split + 1, this, tmpStart + digitsBeforeDot, scale);
+            return minusAdj + digits + trailingZeros;
+        }
+        else if (digits <= scale)
+        {
+            putByte(start, ZERO);
+            putByte(start + ZERO_LENGTH, DOT);
+            putPaddedDigits(start + ZERO_LENGTH + DOT_LENGTH, scale, magnitude);
 
-                return minusAdj + length + DOT_LENGTH;
-            }
+            return minusAdj + ZERO_LENGTH + DOT_LENGTH + scale;
         }
         else
         {
-            putBytes(start, this, tmpStart, length);
-            final int trailingZeros = -scale;
-            if (trailingZeros > 0)
-            {
-                putTrailingZero(start + length, trailingZeros);
-            }
-            return length + minusAdj + trailingZeros;
+            final long integerPart = unsignedQuotient(magnitude, POWERS_OF_TEN[scale]);
+            final int dotIndex = start + digits - scale;
+            putNaturalDigits(dotIndex, integerPart);
+            putByte(dotIndex, DOT);
+            putPaddedDigits(dotIndex + DOT_LENGTH, scale, magnitude - integerPart * POWERS_OF_TEN[scale]);
+
+            return minusAdj + digits + DOT_LENGTH;
         }
     }
 
-    private void putTrailingZero(final int offset, final int zerosCount)
+    public int putIntAscii(final int index, final int value)
     {
-        for (int ix = 0; ix < zerosCount; ix++)
+        if (value == Integer.MIN_VALUE)
         {
-            putByte(offset + ix, ZERO);
+            putBytes(index, MIN_INTEGER_VALUE);
+            return MIN_INTEGER_VALUE.length;
         }
+
+        if (value < 0)
+        {
+            putByte(index, MINUS);
+            return 1 + putNaturalIntAscii(index + 1, -value);
+        }
+
+        return putNaturalIntAscii(index, value);
     }
 
-    private int handleZero(final int offset, final int scale)
+    public int putNaturalIntAscii(final int index, final int value)
     {
-        putByte(offset, ZERO);
-        if (scale <= 0)
+        final int length = digitCount(value);
+        putNaturalDigits(index + length, value);
+        return length;
+    }
+
+    public int putLongAscii(final int index, final long value)
+    {
+        if (value == Long.MIN_VALUE)
         {
-            return 1;
+            putBytes(index, MIN_LONG_VALUE);
+            return MIN_LONG_VALUE.length;
         }
-        putByte(offset + 1, DOT);
-        putTrailingZero(offset + 2, scale);
 
-        return 2 + scale;
+        if (value < 0)
+        {
+            putByte(index, MINUS);
+            return 1 + putNaturalLongAscii(index + 1, -value);
+        }
+
+        return putNaturalLongAscii(index, value);
     }
 
-    private long calculateRemainderAndPutMinus(final int offset, final long value)
+    public int putNaturalLongAscii(final int index, final long value)
     {
-        if (value < 0)
+        final int length = digitCount(value);
+        putNaturalDigits(index + length, value);
+        return length;
+    }
+
+    public int putNaturalIntAsciiFromEnd(final int value, final int endExclusive)
+    {
+        if (value <= 0)
         {
-            putChar(offset, '-');
-            return value;
+            return endExclusive;
+        }
+
+        putNaturalDigits(endExclusive, value);
+        return endExclusive - digitCount(value);
+    }
+
+    public void putNaturalPaddedIntAscii(final int offset, final int length, final int value)
+    {
+        if (putPaddedDigits(offset, length, value) != 0)
+        {
+            throw new NumberFormatException(String.format("Cannot write %d in %d bytes", value, length));
+        }
+    }
+
+    // The number of digits in a non-negative value, or an unsigned magnitude, zero has one digit.
+    private static int digitCount(final long magnitude)
+    {
+        if (magnitude < 0)
+        {
+            return LONGEST_LONG_LENGTH - 1;
+        }
+
+        // Setting the lowest bit counts zero as one digit without changing the count of any other value
+        final long value = magnitude | 1;
+        final int approximateLog10 = ((Long.SIZE - Long.numberOfLeadingZeros(value)) * 1233) >>> 12;
+        return approximateLog10 + (value >= POWERS_OF_TEN[approximateLog10] ? 1 : 0);
+    }
+
+    // Halving first gives the same quotient for an even divisor and keeps an unsigned magnitude positive
+    private static long unsignedQuotient(final long magnitude, final long evenDivisor)
+    {
+        return (magnitude >>> 1) / (evenDivisor >>> 1);
+    }
+
+    // Put the digits of an unsigned magnitude so that they finish just before endExclusive, two at a time
+    private void putNaturalDigits(final int endExclusive, final long magnitude)
+    {
+        long remainder = magnitude;
+        int index = endExclusive;
+        while ((remainder >>> 31) != 0)
+        {
+            final long quotient = unsignedQuotient(remainder, 100);
+            index -= 2;
+            putShort(index, DIGIT_PAIRS[(int)(remainder - quotient * 100)], LITTLE_ENDIAN);
+            remainder = quotient;
+        }
+
+        putNaturalDigits(index, (int)remainder);
+    }
+
+    private void putNaturalDigits(final int endExclusive, final int value)
+    {
+        int remainder = value;
+        int index = endExclusive;
+        while (remainder >= 100)
+        {
+            final int quotient = remainder / 100;
+            index -= 2;
+            putShort(index, DIGIT_PAIRS[remainder - quotient * 100], LITTLE_ENDIAN);
+            remainder = quotient;
+        }
+
+        if (remainder >= 10)
+        {
+            putShort(index - 2, DIGIT_PAIRS[remainder], LITTLE_ENDIAN);
         }
         else
         {
-            // Deal with negatives to avoid overflow for Integer.MAX_VALUE
-            return -1L * value;
+            putByte(index - 1, (byte)(ZERO + remainder));
         }
     }
 
-    @SuppressWarnings("FinalParameters")
-    private int putLong(long remainder, final int end)
+    // Put the lowest length digits of an unsigned magnitude, padded with leading zeros, and return the rest of it
+    private long putPaddedDigits(final int offset, final int length, final long magnitude)
+    {
+        long remainder = magnitude;
+        int index = offset + length;
+        while (index - offset >= 2)
+        {
+            final long quotient = unsignedQuotient(remainder, 100);
+            index -= 2;
+            putShort(index, DIGIT_PAIRS[(int)(remainder - quotient * 100)], LITTLE_ENDIAN);
+            remainder = quotient;
+        }
+
+        if (index > offset)
+        {
+            final long quotient = unsignedQuotient(remainder, 10);
+            putByte(offset, (byte)(ZERO + (remainder - quotient * 10)));
+            remainder = quotient;
+        }
+
+        return remainder;
+    }
+
+    private void putTrailingZero(final int offset, final int zerosCount)
+    {
+        for (int ix = 0; ix < zerosCount; ix++)
+        {
+            putByte(offset + ix, ZERO);
+        }
+    }
+
+    private int handleZero(final int offset, final int scale)
     {
-        int index = end;
-        while (remainder < 0)
+        putByte(offset, ZERO);
+        if (scale <= 0)
         {
-            final long digit = remainder % 10;
-            remainder = remainder / 10;
-            putByte(index, (byte)(ZERO + (-1L * digit)));
-            index--;
+            return 1;
         }
+        putByte(offset + 1, DOT);
+        putTrailingZero(offset + 2, scale);
 
-        return index;
+        return 2 + scale;
     }
 }
@@ -298,6 +298,10 @@ public final class ExampleDictionary
         "8=FIX.4.4\0019=0027\00135=0\001115=abc\001116=2\001116=1\001117=1.1\001127=19700101-00:00:00.001" +
         "\00110=161\001";
 
+    public static final String UNKNOWN_TAG_APPEARS_MORE_THAN_ONCE_MESSAGE =
+        "8=FIX.4.4\0019=0027\00135=0\001115=abc\001116=2\0011000=a\0011000=b\001117=1.1" +
+        "\001127=19700101-00:00:00.001\00110=161\001";
+
     public static final String DERIVED_FIELDS_MESSAGE =
         "8=FIX.4.4\0019=53\00135=0\001115=abc\001116=2\001117=1.1\001127=19700101-00:00:00.001" +
         "\00110=043\001";
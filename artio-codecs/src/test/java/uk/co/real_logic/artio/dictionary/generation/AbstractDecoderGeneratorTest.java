@@ -429,6 +429,95 @@ public abstract class AbstractDecoderGeneratorTest
         assertThat(decoder.toString(), containsString("\"OnBehalfOfCompID\": \"ab\","));
     }
 
+    @Test
+    public void shouldOnlyDecodeProjectedFields() throws Exception
+    {
+        final Decoder decoder = projectedHeartbeat(115, 116);
+
+        final int length = decodeProjected(ENCODED_MESSAGE, decoder);
+
+        assertArrayEquals(ABC, getOnBehalfOfCompId(decoder));
+        assertEquals(2, getIntField(decoder));
+        assertFalse(hasTestReqId(decoder));
+        assertEquals(81, getBodyLength(getHeader(decoder)));
+        assertEquals("Didn't stop after the last projected field", ENCODED_MESSAGE.indexOf("117="), length);
+    }
+
+    @Test
+    public void shouldOnlyDecodeProjectedHeaderFields() throws Exception
+    {
+        final Decoder decoder = projectedHeartbeat(9);
+
+        final int length = decodeProjected(ENCODED_MESSAGE, decoder);
+
+        assertEquals(81, getBodyLength(getHeader(decoder)));
+        assertEquals(0, getHeader(decoder).msgTypeLength());
+        assertFalse(hasTestReqId(decoder));
+        assertEquals("Didn't stop after the last projected field", ENCODED_MESSAGE.indexOf("35="), length);
+    }
+
+    @Test
+    public void shouldOnlyProjectFieldsThatAreDecodedByTheDecoder() throws Exception
+    {
+        final Decoder decoder = (Decoder)heartbeat.getConstructor().newInstance();
+
+        assertTrue(decoder.projectField(116));
+        assertTrue(decoder.projectField(35));
+        assertTrue(decoder.projectField(120));
+        assertFalse("Projected a trailer field", decoder.projectField(10));
+        assertFalse("Projected a field inside a repeating group", decoder.projectField(121));
+        assertFalse("Projected an unknown field", decoder.projectField(9999));
+    }
+
+    @Test
+    public void shouldDecodeProjectedRepeatingGroups() throws Exception
+    {
+        final Decoder decoder = projectedHeartbeat(120);
+
+        decodeProjected(REPEATING_GROUP_MESSAGE, decoder);
+
+        assertRepeatingGroupDecoded(decoder);
+    }
+
+    @Test
+    public void shouldSkipDataFieldsByTheirLength() throws Exception
+    {
+        final Decoder decoder = projectedHeartbeat(127);
+
+        final int length = decodeProjected(SOH_IN_DATA_FIELD_MESSAGE, decoder);
+
+        assertFalse(hasDataField(decoder));
+        assertEquals("19700101-00:00:00.001", getSomeTimeFieldAsString(decoder));
+        assertEquals(
+            "Didn't stop after the last projected field", SOH_IN_DATA_FIELD_MESSAGE.indexOf("10="), length);
+    }
+
+    @Test
+    public void shouldDecodeProjectedDataFieldsWithoutProjectingTheirLength() throws Exception
+    {
+        final Decoder decoder = projectedHeartbeat(119);
+
+        decodeProjected(SOH_IN_DATA_FIELD_MESSAGE, decoder);
+
+        assertTrue(hasDataField(decoder));
+        assertArrayEquals(new byte[]{ 'a', '\001', 'c' }, getDataField(decoder));
+    }
+
+    @Test
+    public void shouldDecodeAllFieldsOnceProjectionIsReset() throws Exception
+    {
+        final Decoder decoder = projectedHeartbeat(9, 116);
+        decodeProjected(ENCODED_MESSAGE, decoder);
+
+        decoder.reset();
+        decoder.resetProjection();
+        decode(ENCODED_MESSAGE, decoder);
+
+        assertTrue(hasTestReqId(decoder));
+        assertEquals("199", getChecksum(getTrailer(decoder)));
+        assertValid(decoder);
+    }
+
     @Test
     public void shouldDecodeRepeatingGroups() throws Exception
     {
@@ -811,6 +900,14 @@ public abstract class AbstractDecoderGeneratorTest
         assertEquals("Wrong reject reason", TAG_APPEARS_MORE_THAN_ONCE, decoder.rejectReason());
     }
 
+    @Test
+    public void shouldValidateUnknownTagsAppearingMoreThanOnceWhenNotRejectingThem() throws Exception
+    {
+        final Decoder decoder = decodeHeartbeat(UNKNOWN_TAG_APPEARS_MORE_THAN_ONCE_MESSAGE);
+
+        assertTrue("Failed validation when it should have passed", decoder.validate());
+    }
+
     @Test
     public void shouldResetTheInvalidAccessors() throws Exception
     {
@@ -1602,6 +1699,22 @@ public abstract class AbstractDecoderGeneratorTest
         return decoder;
     }
 
+    private Decoder projectedHeartbeat(final int... tags) throws Exception
+    {
+        final Decoder decoder = (Decoder)heartbeat.getConstructor().newInstance();
+        for (final int tag : tags)
+        {
+            assertTrue("Unable to project " + tag, decoder.projectField(tag));
+        }
+        return decoder;
+    }
+
+    private int decodeProjected(final String example, final Decoder decoder)
+    {
+        buffer.putAscii(1, example);
+        return decoder.decode(buffer, 1, example.length());
+    }
+
     private void decode(final String example, final Decoder decoder)
     {
         buffer.putAscii(1, example);
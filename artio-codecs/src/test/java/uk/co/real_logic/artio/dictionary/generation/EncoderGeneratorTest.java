@@ -335,6 +335,34 @@ public class EncoderGeneratorTest
         assertEncodesTo(encoder, ENCODED_MESSAGE_FIXT11);
     }
 
+    @Test
+    public void encodesValuesWithHeaderTemplate() throws Exception
+    {
+        final Encoder encoder = newHeartbeatWithAllFields();
+        encoder.header().useTemplate(true);
+
+        assertEncodesTo(encoder, ENCODED_MESSAGE);
+        assertEncodesTo(encoder, ENCODED_MESSAGE);
+    }
+
+    @Test
+    public void encodesChangedValuesWithHeaderTemplate() throws Exception
+    {
+        final Encoder encoder = newHeartbeatWithAllFields();
+        final Encoder expectedEncoder = newHeartbeatWithAllFields();
+        encoder.header().useTemplate(true);
+        assertEncodesTo(encoder, ENCODED_MESSAGE);
+
+        encoder.header().msgSeqNum(5).senderCompID("sender").targetSubID("desk");
+        expectedEncoder.header().msgSeqNum(5).senderCompID("sender").targetSubID("desk");
+        assertEncodesTo(encoder, encodeToString(expectedEncoder));
+        assertEncodesTo(encoder, encodeToString(expectedEncoder));
+
+        encoder.header().msgSeqNum(6);
+        expectedEncoder.header().msgSeqNum(6);
+        assertEncodesTo(encoder, encodeToString(expectedEncoder));
+    }
+
     @Test
     public void encodeDecimalFloatUsingRawValueAndScale() throws Exception
     {
@@ -933,6 +961,23 @@ public class EncoderGeneratorTest
         setCharSequence(trailer, "checkSum", "12");
     }
 
+    private Encoder newHeartbeatWithAllFields() throws Exception
+    {
+        final Encoder encoder = newHeartbeat();
+        setRequiredFields(encoder);
+        setupHeader(encoder);
+        setupTrailer(encoder);
+        setOptionalFields(encoder);
+        setDataFieldLength(encoder);
+        return encoder;
+    }
+
+    private String encodeToString(final Encoder encoder)
+    {
+        final long result = encoder.encode(buffer, 1);
+        return buffer.getAscii(Encoder.offset(result), Encoder.length(result));
+    }
+
     private void assertEncodesTo(final Encoder encoder, final String expectedValue)
     {
         final long result = encoder.encode(buffer, 1);
@@ -25,6 +25,7 @@ import org.junit.rules.ExpectedException;
 import java.lang.reflect.Method;
 import java.util.Map;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
 import static junit.framework.TestCase.assertTrue;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -34,6 +35,8 @@ import static org.junit.Assert.*;
 
 
 import uk.co.real_logic.artio.dictionary.CharArrayWrapper;
+import uk.co.real_logic.artio.util.AsciiBuffer;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import static uk.co.real_logic.artio.dictionary.ExampleDictionary.*;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.ENUM_MISSING_CHAR;
@@ -153,6 +156,43 @@ public class EnumGeneratorTest
         assertEquals(values[2], decode.invoke(null, wrapper));
     }
 
+    @Test
+    public void generatesOffsetCharArrayBasedDecode() throws Exception
+    {
+        final Enum[] values = getStringEnumConstants();
+        final Method decode = stringEnumClass.getMethod("decode", char[].class, int.class, int.class);
+        final char[] value = " 0 A AA AAA".toCharArray();
+
+        assertEquals(values[0], decode.invoke(null, value, 1, 1));
+        assertEquals(values[1], decode.invoke(null, value, 3, 1));
+        assertEquals(values[2], decode.invoke(null, value, 5, 2));
+        assertEquals(values[values.length - 1], decode.invoke(null, value, 8, 3));
+    }
+
+    @Test
+    public void generatesAsciiBufferBasedDecode() throws Exception
+    {
+        final Enum[] values = getStringEnumConstants();
+        final Method decode = stringEnumClass.getMethod("decode", AsciiBuffer.class, int.class, int.class);
+        final AsciiBuffer value = new MutableAsciiBuffer(" 0 A AA AAA".getBytes(US_ASCII));
+
+        assertEquals(values[0], decode.invoke(null, value, 1, 1));
+        assertEquals(values[1], decode.invoke(null, value, 3, 1));
+        assertEquals(values[2], decode.invoke(null, value, 5, 2));
+        assertEquals(values[values.length - 1], decode.invoke(null, value, 8, 3));
+    }
+
+    @Test
+    public void shouldOnlyValidateKnownRepresentations() throws Exception
+    {
+        final Method isValid = stringEnumClass.getMethod("isValid", char[].class, int.class, int.class);
+        final char[] value = " AA UnknownRepresentation".toCharArray();
+
+        assertTrue((Boolean)isValid.invoke(null, value, 1, 2));
+        assertFalse((Boolean)isValid.invoke(null, value, 1, 3));
+        assertFalse((Boolean)isValid.invoke(null, value, 4, 21));
+    }
+
     @Test
     public void shouldReturnSentinelValueWhenDecodingUnknownRepresentation() throws Exception
     {
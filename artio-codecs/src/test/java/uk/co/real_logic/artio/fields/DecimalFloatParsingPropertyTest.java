@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.fields;
+
+import org.junit.Test;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that parsing a DecimalFloat from a buffer agrees with {@link DecimalFloat#fromString(CharSequence)} over
+ * randomly generated numbers, including their overflow behaviour.
+ */
+public class DecimalFloatParsingPropertyTest
+{
+    private static final int ITERATIONS = 100_000;
+    // More than 19 digits can wrap around a long without going negative, which fromString doesn't detect.
+    private static final int MAX_DIGITS = 19;
+    private static final int PADDING = 9;
+
+    private final Random random = new Random(42);
+    private final DecimalFloat expected = new DecimalFloat();
+    private final DecimalFloat actual = new DecimalFloat();
+
+    @Test
+    public void shouldParseTheSameValuesAsFromString()
+    {
+        for (int i = 0; i < ITERATIONS; i++)
+        {
+            assertParsesLikeFromString(randomNumber());
+        }
+    }
+
+    @Test
+    public void shouldParseNumbersWithLongRunsOfZeros()
+    {
+        assertParsesLikeFromString("0000000000000000000000000001.5");
+        assertParsesLikeFromString("1.5000000000000000000000000000");
+        assertParsesLikeFromString("-000000000000.000000000000001");
+        assertParsesLikeFromString("100000000000000000");
+        assertParsesLikeFromString("100000000.00000000");
+        assertParsesLikeFromString("00000000.00000000");
+        assertParsesLikeFromString("12345678.12345678");
+        assertParsesLikeFromString("123456780.123456780");
+    }
+
+    @Test
+    public void shouldOverflowLikeFromString()
+    {
+        assertParsesLikeFromString("1000000000000000000");
+        assertParsesLikeFromString("9999999999999999999");
+        assertParsesLikeFromString("-9223372036854775808");
+        assertParsesLikeFromString("92233720368547758.07");
+        assertParsesLikeFromString("0.9999999999999999999");
+    }
+
+    private void assertParsesLikeFromString(final String number)
+    {
+        final byte[] bytes = (" " + number + "\001").getBytes(US_ASCII);
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[bytes.length + PADDING]);
+        buffer.putBytes(0, bytes);
+
+        final boolean expectedOverflow = parseOverflows(() -> expected.fromString(number));
+        final boolean actualOverflow = parseOverflows(() -> buffer.getFloat(actual, 1, number.length()));
+
+        assertEquals("Overflow when parsing '" + number + "'", expectedOverflow, actualOverflow);
+        if (!expectedOverflow)
+        {
+            assertEquals("Value when parsing '" + number + "'", expected.value(), actual.value());
+            assertEquals("Scale when parsing '" + number + "'", expected.scale(), actual.scale());
+        }
+    }
+
+    private boolean parseOverflows(final Runnable parse)
+    {
+        try
+        {
+            parse.run();
+            return false;
+        }
+        catch (final ArithmeticException e)
+        {
+            return true;
+        }
+    }
+
+    // Numbers have a leading digit, as fromString ignores trailing zeros after a dot at the very start of the input.
+    private String randomNumber()
+    {
+        final StringBuilder number = new StringBuilder();
+        appendSpaces(number);
+
+        if (random.nextBoolean())
+        {
+            number.append('-');
+        }
+
+        final int digits = 1 + random.nextInt(MAX_DIGITS);
+        final int integerDigits = 1 + random.nextInt(digits);
+        appendDigits(number, integerDigits);
+
+        final int fractionalDigits = digits - integerDigits;
+        if (fractionalDigits > 0 || random.nextInt(4) == 0)
+        {
+            number.append('.');
+            appendDigits(number, fractionalDigits);
+        }
+
+        appendSpaces(number);
+
+        return number.toString();
+    }
+
+    private void appendDigits(final StringBuilder number, final int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            // bias towards zeros in order to get runs of leading and trailing zeros
+            number.append(random.nextInt(3) == 0 ? '0' : (char)('0' + random.nextInt(10)));
+        }
+    }
+
+    private void appendSpaces(final StringBuilder number)
+    {
+        if (random.nextInt(4) == 0)
+        {
+            final int count = 1 + random.nextInt(2);
+            for (int i = 0; i < count; i++)
+            {
+                number.append(' ');
+            }
+        }
+    }
+}
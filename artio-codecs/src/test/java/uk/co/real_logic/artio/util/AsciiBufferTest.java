@@ -142,6 +142,177 @@ public class AsciiBufferTest
         assertEquals(-1, value);
     }
 
+    @Test
+    public void shouldDecodeIntegersOfEveryLength()
+    {
+        long expected = 0;
+        for (int length = 1; length <= 18; length++)
+        {
+            expected = expected * 10 + (length % 10);
+            final String digits = Long.toString(expected);
+            putAscii(digits);
+
+            assertEquals(expected, buffer.getNaturalLong(0, length));
+            assertEquals((int)expected, buffer.getNatural(0, length));
+
+            putAscii("-" + digits);
+            assertEquals((int)-expected, buffer.getInt(0, length + 1));
+        }
+    }
+
+    @Test
+    public void shouldDecodeIntegersAtTheEndOfTheBuffer()
+    {
+        final MutableAsciiBuffer buffer = new MutableAsciiBuffer("A123456789".getBytes(US_ASCII));
+
+        assertEquals(9, buffer.getNatural(9, 10));
+        assertEquals(6789, buffer.getNatural(6, 10));
+        assertEquals(123456789, buffer.getNatural(1, 10));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void shouldValidateDigitsOfShortIntegers()
+    {
+        putAscii("12a4");
+
+        buffer.getNatural(0, 4);
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void shouldValidateDigitsOfLongIntegers()
+    {
+        putAscii("123456789012a4");
+
+        buffer.getNaturalLong(0, 14);
+    }
+
+    @Test
+    public void shouldScanForTerminatorsAtEveryPosition()
+    {
+        final int length = 40;
+        for (int position = 0; position < length; position++)
+        {
+            fillWithTerminatorAt(length, position);
+
+            assertEquals(position, buffer.scan(0, length - 1, '='));
+            assertEquals(position, buffer.scanBack(length - 1, 0, '='));
+            assertEquals(UNKNOWN_INDEX, buffer.scan(position + 1, length - 1, '='));
+            assertEquals(UNKNOWN_INDEX, buffer.scanBack(position - 1, 0, '='));
+            assertEquals(UNKNOWN_INDEX, buffer.scan(0, position - 1, '='));
+            assertEquals(UNKNOWN_INDEX, buffer.scanBack(length - 1, position + 1, '='));
+        }
+    }
+
+    @Test
+    public void shouldScanForFirstOfAdjacentTerminators()
+    {
+        putAscii("ABC==\0011=\001");
+
+        assertEquals(3, buffer.scan(0, 10, '='));
+        assertEquals(5, buffer.scan(0, 10, '\001'));
+        assertEquals(8, buffer.scanBack(10, 0, '\001'));
+        assertEquals(7, buffer.scanBack(10, 0, '='));
+        assertEquals(4, buffer.scanBack(6, 0, '='));
+    }
+
+    @Test
+    public void shouldComputeChecksumsOfEveryLength()
+    {
+        final int length = 3000;
+        for (int i = 0; i < length; i++)
+        {
+            buffer.putByte(i, (byte)(i * 31));
+        }
+
+        for (int end = 0; end < length; end += 7)
+        {
+            int total = 0;
+            for (int i = 3; i < end; i++)
+            {
+                total += buffer.getByte(i) & 0xFF;
+            }
+
+            assertEquals("Wrong checksum up to " + end, end < 3 ? 0 : total % 256, buffer.computeChecksum(3, end));
+        }
+    }
+
+    @Test
+    public void shouldEncodeIntegersOfEveryLength()
+    {
+        long power = 1;
+        for (int digits = 1; digits <= 19; digits++)
+        {
+            assertEncodesLong(power);
+            assertEncodesLong(power - 1);
+            assertEncodesLong(-power);
+            assertEncodesLong(-(power + 1));
+            if (power <= Integer.MAX_VALUE)
+            {
+                assertEncodesInt((int)power);
+                assertEncodesInt((int)power - 1);
+                assertEncodesInt(-(int)power);
+            }
+            power *= 10;
+        }
+
+        assertEncodesInt(Integer.MAX_VALUE);
+        assertEncodesInt(Integer.MIN_VALUE);
+        assertEncodesLong(Long.MAX_VALUE);
+        assertEncodesLong(Long.MIN_VALUE);
+    }
+
+    @Test
+    public void shouldEncodePaddedIntegers()
+    {
+        buffer.putNaturalPaddedIntAscii(0, 3, 7);
+        assertEquals("007", buffer.getAscii(0, 3));
+
+        buffer.putNaturalPaddedIntAscii(0, 4, 2019);
+        assertEquals("2019", buffer.getAscii(0, 4));
+
+        buffer.putNaturalPaddedIntAscii(0, 9, 12345);
+        assertEquals("000012345", buffer.getAscii(0, 9));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void shouldNotEncodePaddedIntegersThatAreTooLong()
+    {
+        buffer.putNaturalPaddedIntAscii(0, 2, 123);
+    }
+
+    @Test
+    public void shouldEncodeIntegersFromTheEnd()
+    {
+        final int start = buffer.putNaturalIntAsciiFromEnd(12345, 10);
+
+        assertEquals(5, start);
+        assertEquals("12345", buffer.getAscii(start, 5));
+    }
+
+    private void assertEncodesInt(final int value)
+    {
+        final String expected = String.valueOf(value);
+        assertEquals(expected, buffer.getAscii(0, buffer.putIntAscii(0, value)));
+        if (value > 0)
+        {
+            assertEquals(expected.length(), MutableAsciiBuffer.lengthInAscii(value));
+        }
+    }
+
+    private void assertEncodesLong(final long value)
+    {
+        assertEquals(String.valueOf(value), buffer.getAscii(0, buffer.putLongAscii(0, value)));
+    }
+
+    private void fillWithTerminatorAt(final int length, final int position)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            buffer.putByte(i, (byte)'A');
+        }
+        buffer.putByte(position, (byte)'=');
+    }
+
     private void putAscii(final String value)
     {
         buffer.putBytes(0, value.getBytes(US_ASCII));
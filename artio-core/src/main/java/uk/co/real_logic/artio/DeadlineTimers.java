@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.agrona.DeadlineTimerWheel;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules millisecond deadlines for objects on a {@link DeadlineTimerWheel}, so that the cost of polling for
+ * expired deadlines depends upon the number of deadlines that have expired rather than the number that have been
+ * scheduled.
+ *
+ * Expired objects are passed to the {@link ExpiryHandler} after the timer wheel has been polled, so the handler can
+ * schedule new deadlines, including for the object that has just expired. An expired deadline is handled on the first
+ * poll at or after its tick of the timer wheel has been reached, deadlines in the past are expired upon the next poll.
+ *
+ * Not thread safe.
+ *
+ * @param <T> the type of object whose deadlines are scheduled.
+ */
+public final class DeadlineTimers<T> implements DeadlineTimerWheel.TimerHandler
+{
+    public static final long NO_TIMER = -1;
+
+    private static final int TICK_RESOLUTION_IN_MS = 16;
+    private static final int TICKS_PER_WHEEL = 64;
+
+    @FunctionalInterface
+    public interface ExpiryHandler<T>
+    {
+        /**
+         * Called when the deadline of an object has expired.
+         *
+         * @param target the object whose deadline has expired.
+         * @param timeInMs the current time in milliseconds.
+         * @return the amount of work done.
+         */
+        int onExpiry(T target, long timeInMs);
+    }
+
+    private final Long2ObjectHashMap<T> timerIdToTarget = new Long2ObjectHashMap<>();
+    private final ArrayList<T> expiredTargets = new ArrayList<>();
+    private final DeadlineTimerWheel timerWheel;
+    private final ExpiryHandler<T> expiryHandler;
+
+    public DeadlineTimers(final long startTimeInMs, final ExpiryHandler<T> expiryHandler)
+    {
+        this.expiryHandler = expiryHandler;
+        timerWheel = new DeadlineTimerWheel(
+            TimeUnit.MILLISECONDS, startTimeInMs, TICK_RESOLUTION_IN_MS, TICKS_PER_WHEEL);
+    }
+
+    /**
+     * Schedule a deadline for an object.
+     *
+     * @param target the object whose deadline is being scheduled.
+     * @param deadlineInMs the time in milliseconds at which the deadline expires.
+     * @return the id of the timer, which can be used to cancel it.
+     */
+    public long schedule(final T target, final long deadlineInMs)
+    {
+        final long timerId = timerWheel.scheduleTimer(deadlineInMs);
+        timerIdToTarget.put(timerId, target);
+        return timerId;
+    }
+
+    /**
+     * Cancel a previously scheduled deadline.
+     *
+     * @param timerId the id of the timer returned when it was scheduled, or {@link #NO_TIMER}.
+     */
+    public void cancel(final long timerId)
+    {
+        if (timerId != NO_TIMER && timerIdToTarget.remove(timerId) != null)
+        {
+            timerWheel.cancelTimer(timerId);
+        }
+    }
+
+    /**
+     * Poll for expired deadlines, passing each expired object to the expiry handler.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the amount of work done.
+     */
+    public int poll(final long timeInMs)
+    {
+        final DeadlineTimerWheel timerWheel = this.timerWheel;
+
+        // The timer wheel only advances by one tick per poll, so catch up if we haven't been polled recently.
+        do
+        {
+            timerWheel.poll(timeInMs, this, Integer.MAX_VALUE);
+        }
+        while (timeInMs >= timerWheel.currentTickTime());
+
+        final ArrayList<T> expiredTargets = this.expiredTargets;
+        final int size = expiredTargets.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        int work = 0;
+        for (int i = 0; i < size; i++)
+        {
+            work += expiryHandler.onExpiry(expiredTargets.get(i), timeInMs);
+        }
+        expiredTargets.clear();
+
+        return work;
+    }
+
+    /**
+     * Get the number of scheduled deadlines that haven't yet expired.
+     *
+     * @return the number of scheduled deadlines that haven't yet expired.
+     */
+    public int size()
+    {
+        return timerIdToTarget.size();
+    }
+
+    public boolean onTimerExpiry(final TimeUnit timeUnit, final long now, final long timerId)
+    {
+        final T target = timerIdToTarget.remove(timerId);
+        if (target != null)
+        {
+            expiredTargets.add(target);
+        }
+
+        return true;
+    }
+}
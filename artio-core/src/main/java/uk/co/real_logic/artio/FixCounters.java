@@ -35,11 +35,24 @@ public class FixCounters implements AutoCloseable
     private static final int INVALID_LIBRARY_ATTEMPTS_TYPE_ID = 10_005;
     private static final int SENT_MSG_SEQ_NO_TYPE_ID = 10_006;
     private static final int RECV_MSG_SEQ_NO_TYPE_ID = 10_007;
+    private static final int OUTBOUND_TCP_WRITES_TYPE_ID = 10_008;
+    private static final int OUTBOUND_MESSAGES_WRITTEN_TYPE_ID = 10_009;
+    private static final int INDEX_FLUSH_DURATION_TYPE_ID = 10_010;
+    private static final int INDEX_FLUSH_BYTES_TYPE_ID = 10_011;
+    private static final int RESEND_CACHE_HITS_TYPE_ID = 10_012;
+    private static final int RESEND_CACHE_MISSES_TYPE_ID = 10_013;
+    private static final int RECEIVE_BUFFERS_IN_USE_TYPE_ID = 10_014;
+    private static final int RECEIVE_BUFFERS_ALLOCATED_TYPE_ID = 10_015;
+    private static final int SPILLED_BYTES_TYPE_ID = 10_016;
+    private static final int BYTES_READ_TYPE_ID = 10_017;
+    private static final int DEFERRED_READS_TYPE_ID = 10_018;
 
     private final List<Counter> counters = new ArrayList<>();
     private final AtomicCounter failedInboundPublications;
     private final AtomicCounter failedOutboundPublications;
     private final AtomicCounter failedReplayPublications;
+    private final AtomicCounter outboundTcpWrites;
+    private final AtomicCounter outboundMessagesWritten;
     private final Aeron aeron;
 
     FixCounters(final Aeron aeron)
@@ -48,6 +61,8 @@ public class FixCounters implements AutoCloseable
         failedInboundPublications = newCounter(FAILED_INBOUND_TYPE_ID, "Failed offer to inbound publication");
         failedOutboundPublications = newCounter(FAILED_OUTBOUND_TYPE_ID, "Failed offer to outbound publication");
         failedReplayPublications = newCounter(FAILED_REPLAY_TYPE_ID, "Failed offer to replay publication");
+        outboundTcpWrites = newCounter(OUTBOUND_TCP_WRITES_TYPE_ID, "Outbound TCP write calls");
+        outboundMessagesWritten = newCounter(OUTBOUND_MESSAGES_WRITTEN_TYPE_ID, "Outbound messages written to TCP");
     }
 
     public AtomicCounter failedInboundPublications()
@@ -65,6 +80,22 @@ public class FixCounters implements AutoCloseable
         return failedReplayPublications;
     }
 
+    /**
+     * Number of write calls made to TCP connections, see {@link #outboundMessagesWritten()} for the ratio of
+     * messages per write.
+     *
+     * @return the number of write calls made to TCP connections.
+     */
+    public AtomicCounter outboundTcpWrites()
+    {
+        return outboundTcpWrites;
+    }
+
+    public AtomicCounter outboundMessagesWritten()
+    {
+        return outboundMessagesWritten;
+    }
+
     public AtomicCounter messagesRead(final long connectionId, final String address)
     {
         return newCounter(MESSAGES_READ_TYPE_ID, "Messages Read from " + address + " id = " + connectionId);
@@ -75,6 +106,43 @@ public class FixCounters implements AutoCloseable
         return newCounter(BYTES_IN_BUFFER_TYPE_ID, "Quarantined bytes for " + address + " id = " + connectionId);
     }
 
+    /**
+     * Number of outbound bytes that a slow consumer has spilled and not yet written to its TCP connection.
+     *
+     * @param connectionId the id of the connection.
+     * @param address the remote address of the connection.
+     * @return the counter of spilled bytes.
+     */
+    public AtomicCounter spilledBytes(final long connectionId, final String address)
+    {
+        return newCounter(SPILLED_BYTES_TYPE_ID, "Spilled bytes for " + address + " id = " + connectionId);
+    }
+
+    /**
+     * Counter of the bytes read from a connection's TCP socket.
+     *
+     * @param connectionId the id of the connection.
+     * @param address the remote address of the connection.
+     * @return the counter.
+     */
+    public AtomicCounter bytesRead(final long connectionId, final String address)
+    {
+        return newCounter(BYTES_READ_TYPE_ID, "Bytes Read from " + address + " id = " + connectionId);
+    }
+
+    /**
+     * Counter of the times that reading from a connection was deferred to a later duty cycle because it had used up
+     * its read quota.
+     *
+     * @param connectionId the id of the connection.
+     * @param address the remote address of the connection.
+     * @return the counter.
+     */
+    public AtomicCounter deferredReads(final long connectionId, final String address)
+    {
+        return newCounter(DEFERRED_READS_TYPE_ID, "Deferred Reads from " + address + " id = " + connectionId);
+    }
+
     public AtomicCounter invalidLibraryAttempts(final long connectionId, final String address)
     {
         return newCounter(INVALID_LIBRARY_ATTEMPTS_TYPE_ID,
@@ -91,6 +159,71 @@ public class FixCounters implements AutoCloseable
         return newCounter(RECV_MSG_SEQ_NO_TYPE_ID, "Last Received MsgSeqNo for " + connectionId);
     }
 
+    /**
+     * Duration of the most recent flush of an index file to disk in nanoseconds.
+     *
+     * @param indexName the name of the index being flushed.
+     * @return the counter for the duration of the most recent flush.
+     */
+    public AtomicCounter indexFlushDuration(final String indexName)
+    {
+        return newCounter(INDEX_FLUSH_DURATION_TYPE_ID, "Last flush duration in ns for " + indexName);
+    }
+
+    /**
+     * Number of bytes copied into the index file by its most recent flush.
+     *
+     * @param indexName the name of the index being flushed.
+     * @return the counter for the number of bytes of the most recent flush.
+     */
+    public AtomicCounter indexFlushBytes(final String indexName)
+    {
+        return newCounter(INDEX_FLUSH_BYTES_TYPE_ID, "Last flush bytes for " + indexName);
+    }
+
+    /**
+     * Number of resend requests that were replayed from the in memory resend cache.
+     *
+     * @return the counter of resend cache hits.
+     */
+    public AtomicCounter resendCacheHits()
+    {
+        return newCounter(RESEND_CACHE_HITS_TYPE_ID, "Resend requests replayed from the resend cache");
+    }
+
+    /**
+     * Number of resend requests that had to be replayed from the archive as the resend cache didn't contain every
+     * requested message.
+     *
+     * @return the counter of resend cache misses.
+     */
+    public AtomicCounter resendCacheMisses()
+    {
+        return newCounter(RESEND_CACHE_MISSES_TYPE_ID, "Resend requests missing from the resend cache");
+    }
+
+    /**
+     * Number of pooled receive buffers of a given size that are currently in use by receiver end points.
+     *
+     * @param bufferSize the size in bytes of the pooled buffers.
+     * @return the counter of receive buffers in use.
+     */
+    public AtomicCounter receiveBuffersInUse(final int bufferSize)
+    {
+        return newCounter(RECEIVE_BUFFERS_IN_USE_TYPE_ID, "Receive buffers in use of size " + bufferSize);
+    }
+
+    /**
+     * Number of receive buffers of a given size that have been allocated by the pool, whether in use or free.
+     *
+     * @param bufferSize the size in bytes of the pooled buffers.
+     * @return the counter of receive buffers allocated.
+     */
+    public AtomicCounter receiveBuffersAllocated(final int bufferSize)
+    {
+        return newCounter(RECEIVE_BUFFERS_ALLOCATED_TYPE_ID, "Receive buffers allocated of size " + bufferSize);
+    }
+
     private AtomicCounter newCounter(final int typeId, final String label)
     {
         final Counter counter = aeron.addCounter(typeId, label);
@@ -21,10 +21,15 @@ import org.agrona.concurrent.AtomicBuffer;
 import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
 
-// TODO: optimisation: write and checksum only needed bytes
+/**
+ * Maintains the checksums of sectors within a buffer. Writers mark the sectors that they modify as dirty using
+ * {@link #markDirty(int)} so that {@link #updateChecksums()} only needs to recompute the checksums of those sectors
+ * rather than of the whole buffer.
+ */
 public class ChecksumFramer extends SectorFramer
 {
     private final CRC32 crc32 = new CRC32();
+    private final DirtySectors dirtySectors;
     private final AtomicBuffer buffer;
     private final ChecksumConsumer saveChecksumFunc;
     private final ErrorHandler errorHandler;
@@ -46,6 +51,27 @@ public class ChecksumFramer extends SectorFramer
         this.errorReportingOffset = errorReportingOffset;
         this.fileName = fileName;
         validateChecksumFunc = this::validateChecksum;
+        dirtySectors = new DirtySectors(capacity);
+        dirtySectors.markAllDirty();
+    }
+
+    /**
+     * Mark the sector that contains the offset as needing its checksum recomputing.
+     *
+     * @param offset the offset within the buffer that has been written to.
+     */
+    public void markDirty(final int offset)
+    {
+        dirtySectors.markDirty(offset);
+    }
+
+    /**
+     * Mark every sector of the buffer as needing its checksum recomputing, for example after the whole buffer has
+     * been overwritten.
+     */
+    public void markAllDirty()
+    {
+        dirtySectors.markAllDirty();
     }
 
     public void validateCheckSums()
@@ -55,7 +81,24 @@ public class ChecksumFramer extends SectorFramer
 
     public void updateChecksums()
     {
-        withChecksums(saveChecksumFunc);
+        final DirtySectors dirtySectors = this.dirtySectors;
+        final int capacity = this.capacity;
+
+        int sectorIndex = dirtySectors.nextDirtySector(0);
+        while (sectorIndex != DirtySectors.NO_DIRTY_SECTOR)
+        {
+            final int sectorEnd = (sectorIndex + 1) * SECTOR_SIZE;
+            if (sectorEnd > capacity)
+            {
+                break;
+            }
+
+            saveChecksumFunc.accept(sectorEnd - CHECKSUM_SIZE, sectorChecksum(sectorEnd));
+            sectorIndex = dirtySectors.nextDirtySector(sectorIndex + 1);
+        }
+
+        dirtySectors.clear();
+        clearByteBuffer();
     }
 
     private void validateChecksum(final int checksumOffset, final int calculatedChecksum)
@@ -68,31 +111,40 @@ public class ChecksumFramer extends SectorFramer
 
     private void withChecksums(final ChecksumConsumer consumer)
     {
-        final byte[] inMemoryBytes = buffer.byteArray();
-        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
-        final int wrapAdjustment = buffer.wrapAdjustment();
         final int capacity = this.capacity;
 
         for (int sectorEnd = SECTOR_SIZE; sectorEnd <= capacity; sectorEnd += SECTOR_SIZE)
         {
-            final int sectorStart = sectorEnd - SECTOR_SIZE + wrapAdjustment;
-            final int checksumOffset = sectorEnd - CHECKSUM_SIZE;
+            consumer.accept(sectorEnd - CHECKSUM_SIZE, sectorChecksum(sectorEnd));
+        }
 
-            crc32.reset();
-            if (inMemoryBytes != null)
-            {
-                crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
-            }
-            else
-            {
-                ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
-                ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
-                crc32.update(inMemoryByteBuffer);
-            }
-            final int sectorChecksum = (int)crc32.getValue();
-            consumer.accept(checksumOffset, sectorChecksum);
+        clearByteBuffer();
+    }
+
+    private int sectorChecksum(final int sectorEnd)
+    {
+        final byte[] inMemoryBytes = buffer.byteArray();
+        final int sectorStart = sectorEnd - SECTOR_SIZE + buffer.wrapAdjustment();
+
+        crc32.reset();
+        if (inMemoryBytes != null)
+        {
+            crc32.update(inMemoryBytes, sectorStart, SECTOR_DATA_LENGTH);
+        }
+        else
+        {
+            final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
+            ByteBufferUtil.limit(inMemoryByteBuffer, sectorStart + SECTOR_DATA_LENGTH);
+            ByteBufferUtil.position(inMemoryByteBuffer, sectorStart);
+            crc32.update(inMemoryByteBuffer);
         }
 
+        return (int)crc32.getValue();
+    }
+
+    private void clearByteBuffer()
+    {
+        final ByteBuffer inMemoryByteBuffer = buffer.byteBuffer();
         if (inMemoryByteBuffer != null)
         {
             inMemoryByteBuffer.clear();
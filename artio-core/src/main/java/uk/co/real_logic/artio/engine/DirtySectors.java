@@ -0,0 +1,90 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine;
+
+import java.util.Arrays;
+
+import static uk.co.real_logic.artio.engine.SectorFramer.SECTOR_SIZE;
+
+/**
+ * A bitmap of the sectors within a buffer that have been modified since they were last processed.
+ */
+public class DirtySectors
+{
+    public static final int NO_DIRTY_SECTOR = -1;
+
+    private final long[] words;
+    private final int sectorCount;
+
+    public DirtySectors(final int capacity)
+    {
+        sectorCount = (capacity + SECTOR_SIZE - 1) / SECTOR_SIZE;
+        words = new long[(sectorCount + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    public void markDirty(final int offset)
+    {
+        final int sectorIndex = offset / SECTOR_SIZE;
+        words[sectorIndex >> 6] |= 1L << sectorIndex;
+    }
+
+    public void markAllDirty()
+    {
+        final long[] words = this.words;
+        for (int sectorIndex = 0; sectorIndex < sectorCount; sectorIndex++)
+        {
+            words[sectorIndex >> 6] |= 1L << sectorIndex;
+        }
+    }
+
+    /**
+     * Find the next dirty sector at or after the given sector index.
+     *
+     * @param fromSectorIndex the sector index to start searching from.
+     * @return the index of the next dirty sector or {@link #NO_DIRTY_SECTOR} if there isn't one.
+     */
+    public int nextDirtySector(final int fromSectorIndex)
+    {
+        final long[] words = this.words;
+        int wordIndex = fromSectorIndex >> 6;
+        if (wordIndex >= words.length)
+        {
+            return NO_DIRTY_SECTOR;
+        }
+
+        long word = words[wordIndex] & (-1L << fromSectorIndex);
+        while (true)
+        {
+            if (word != 0)
+            {
+                return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+            }
+
+            wordIndex++;
+            if (wordIndex == words.length)
+            {
+                return NO_DIRTY_SECTOR;
+            }
+
+            word = words[wordIndex];
+        }
+    }
+
+    public void clear()
+    {
+        Arrays.fill(words, 0L);
+    }
+}
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine;
 
 import io.aeron.Aeron;
 import io.aeron.archive.client.AeronArchive;
+import org.agrona.BitUtil;
 import org.agrona.CloseHelper;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.IdleStrategy;
@@ -25,13 +26,17 @@ import uk.co.real_logic.artio.Clock;
 import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.dictionary.SessionConstants;
+import uk.co.real_logic.artio.engine.framer.AddressResolver;
 import uk.co.real_logic.artio.engine.framer.DefaultTcpChannelSupplier;
+import uk.co.real_logic.artio.engine.framer.ReadWeightStrategy;
 import uk.co.real_logic.artio.engine.framer.TcpChannelSupplier;
 import uk.co.real_logic.artio.library.SessionConfiguration;
+import uk.co.real_logic.artio.protocol.ReservedValue;
 import uk.co.real_logic.artio.validation.AuthenticationStrategy;
 import uk.co.real_logic.artio.validation.SessionPersistenceStrategy;
 
 import java.io.File;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.Collections;
 import java.util.HashSet;
@@ -40,6 +45,7 @@ import java.util.Set;
 import java.util.function.Function;
 
 import static java.lang.Integer.getInteger;
+import static java.lang.Long.getLong;
 import static java.lang.System.getProperty;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.INITIAL_RECORD_OFFSET;
@@ -85,7 +91,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      */
     public static final String REPLAY_FRAGMENT_LIMIT_PROP = "fix.core.replay_fragment_limit";
     /**
-     * Property name for the max number of bytes to read from all TCP Connections.
+     * Property name for the max number of bytes to read from all TCP Connections of a framer shard.
      */
     public static final String INBOUND_BYTES_RECEIVED_LIMIT_PROP = "fix.core.inbound_bytes_limit";
     /**
@@ -116,6 +122,62 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
      * Property name for the timeout before a connection that hasn't sent a logon is disconnected
      */
     public static final String NO_LOGON_DISCONNECT_TIMEOUT_PROP = "fix.core.no_logon_disconnect";
+    /**
+     * Property name for the number of shards that the framer partitions its TCP connections into.
+     */
+    public static final String FRAMER_SHARD_COUNT_PROP = "fix.core.framer_shard_count";
+    /**
+     * Property name for the size in bytes of the buffer used to coalesce outbound messages per connection,
+     * 0 disables coalescing.
+     */
+    public static final String SENDER_COALESCING_BUFFER_SIZE_PROP = "fix.core.sender_coalescing_buffer_size";
+    /**
+     * Property name for the maximum number of outbound messages coalesced into a single write.
+     */
+    public static final String SENDER_COALESCING_MESSAGE_LIMIT_PROP = "fix.core.sender_coalescing_message_limit";
+    /**
+     * Property name for the size in bytes of the queue that a slow consumer's unwritten outbound bytes are spilled
+     * into per connection, 0 disables spilling.
+     */
+    public static final String SENDER_SPILL_BUFFER_SIZE_PROP = "fix.core.sender_spill_buffer_size";
+    /**
+     * Property name for the maximum number of inbound messages framed from a single read of a connection that are
+     * saved into the same claim, 0 disables batching.
+     */
+    public static final String INBOUND_BATCH_MESSAGE_LIMIT_PROP = "fix.core.inbound_batch_message_limit";
+    /**
+     * Property name for the number of bytes that each connection may read from its TCP socket per duty cycle of the
+     * framer, 0 disables read quotas.
+     */
+    public static final String RECEIVER_READ_QUOTA_PROP = "fix.core.receiver_read_quota";
+    /**
+     * Property name for the number of sessions whose replay index is stored in each shared segment file,
+     * 0 stores the replay index of each session in its own file.
+     */
+    public static final String REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP = "fix.core.replay_index_sessions_per_segment";
+    /**
+     * Property name for the maximum number of sessions that can be indexed when using replay index segments.
+     */
+    public static final String REPLAY_INDEX_DIRECTORY_CAPACITY_PROP = "fix.core.replay_index_directory_capacity";
+    /**
+     * Property name for the number of bytes of recently sent messages kept in memory per session in order to serve
+     * resend requests, 0 disables the resend cache.
+     */
+    public static final String RESEND_CACHE_SESSION_BUFFER_SIZE_PROP = "fix.core.resend_cache_session_buffer_size";
+    /**
+     * Property name for the time in milliseconds that the resolved addresses of initiated connections are cached for,
+     * 0 disables the cache.
+     */
+    public static final String ADDRESS_CACHE_TIME_TO_LIVE_PROP = "fix.core.address_cache_ttl";
+    /**
+     * Property name for the size in bytes of the framing buffer that idle receiver end points hold, 0 disables idle
+     * buffers so that every receiver end point holds a buffer of the receiver buffer size.
+     */
+    public static final String RECEIVER_IDLE_BUFFER_SIZE_PROP = "fix.core.receiver_idle_buffer_size";
+    /**
+     * Property name for the size in bytes of the slabs of direct memory that pooled receive buffers are carved out of.
+     */
+    public static final String RECEIVER_BUFFER_SLAB_SIZE_PROP = "fix.core.receiver_buffer_slab_size";
 
     // ------------------------------------------------
     //          Configuration Defaults
@@ -136,6 +198,18 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     public static final int DEFAULT_SESSION_ID_BUFFER_SIZE = 4 * 1024 * 1024;
     public static final int DEFAULT_SENDER_MAX_BYTES_IN_BUFFER = 4 * 1024 * 1024;
     public static final int DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT = (int)SECONDS.toMillis(5);
+    public static final int DEFAULT_FRAMER_SHARD_COUNT = 1;
+    public static final int DEFAULT_SENDER_COALESCING_BUFFER_SIZE = 0;
+    public static final int DEFAULT_SENDER_COALESCING_MESSAGE_LIMIT = 64;
+    public static final int DEFAULT_SENDER_SPILL_BUFFER_SIZE = 0;
+    public static final int DEFAULT_INBOUND_BATCH_MESSAGE_LIMIT = 0;
+    public static final int DEFAULT_RECEIVER_READ_QUOTA = 0;
+    public static final int DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT = 0;
+    public static final int DEFAULT_REPLAY_INDEX_DIRECTORY_CAPACITY = 64 * 1024;
+    public static final int DEFAULT_RESEND_CACHE_SESSION_BUFFER_SIZE = 0;
+    public static final long DEFAULT_ADDRESS_CACHE_TIME_TO_LIVE_IN_MS = SECONDS.toMillis(30);
+    public static final int DEFAULT_RECEIVER_IDLE_BUFFER_SIZE = 0;
+    public static final int DEFAULT_RECEIVER_BUFFER_SLAB_SIZE = 1024 * 1024;
     public static final String DEFAULT_SESSION_ID_FILE = "session_id_buffer";
     public static final String DEFAULT_SEQUENCE_NUMBERS_SENT_FILE = "sequence_numbers_sent";
     public static final String DEFAULT_SEQUENCE_NUMBERS_RECEIVED_FILE = "sequence_numbers_received";
@@ -206,9 +280,35 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         getInteger(SENDER_MAX_BYTES_IN_BUFFER_PROP, DEFAULT_SENDER_MAX_BYTES_IN_BUFFER);
     private int noLogonDisconnectTimeoutInMs =
         getInteger(NO_LOGON_DISCONNECT_TIMEOUT_PROP, DEFAULT_NO_LOGON_DISCONNECT_TIMEOUT);
+    private int framerShardCount =
+        getInteger(FRAMER_SHARD_COUNT_PROP, DEFAULT_FRAMER_SHARD_COUNT);
+    private int senderCoalescingBufferSize =
+        getInteger(SENDER_COALESCING_BUFFER_SIZE_PROP, DEFAULT_SENDER_COALESCING_BUFFER_SIZE);
+    private int senderCoalescingMessageLimit =
+        getInteger(SENDER_COALESCING_MESSAGE_LIMIT_PROP, DEFAULT_SENDER_COALESCING_MESSAGE_LIMIT);
+    private int senderSpillBufferSize =
+        getInteger(SENDER_SPILL_BUFFER_SIZE_PROP, DEFAULT_SENDER_SPILL_BUFFER_SIZE);
+    private int inboundBatchMessageLimit =
+        getInteger(INBOUND_BATCH_MESSAGE_LIMIT_PROP, DEFAULT_INBOUND_BATCH_MESSAGE_LIMIT);
+    private int receiverReadQuota =
+        getInteger(RECEIVER_READ_QUOTA_PROP, DEFAULT_RECEIVER_READ_QUOTA);
+    private int replayIndexSessionsPerSegment =
+        getInteger(REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP, DEFAULT_REPLAY_INDEX_SESSIONS_PER_SEGMENT);
+    private int replayIndexDirectoryCapacity =
+        getInteger(REPLAY_INDEX_DIRECTORY_CAPACITY_PROP, DEFAULT_REPLAY_INDEX_DIRECTORY_CAPACITY);
+    private int resendCacheSessionBufferSize =
+        getInteger(RESEND_CACHE_SESSION_BUFFER_SIZE_PROP, DEFAULT_RESEND_CACHE_SESSION_BUFFER_SIZE);
+    private long addressCacheTimeToLiveInMs =
+        getLong(ADDRESS_CACHE_TIME_TO_LIVE_PROP, DEFAULT_ADDRESS_CACHE_TIME_TO_LIVE_IN_MS);
+    private int receiverIdleBufferSize =
+        getInteger(RECEIVER_IDLE_BUFFER_SIZE_PROP, DEFAULT_RECEIVER_IDLE_BUFFER_SIZE);
+    private int receiverBufferSlabSize =
+        getInteger(RECEIVER_BUFFER_SLAB_SIZE_PROP, DEFAULT_RECEIVER_BUFFER_SLAB_SIZE);
 
     private String libraryAeronChannel = null;
     private Function<EngineConfiguration, TcpChannelSupplier> channelSupplierFactory = DefaultTcpChannelSupplier::new;
+    private AddressResolver addressResolver = InetAddress::getByName;
+    private ReadWeightStrategy readWeightStrategy = ReadWeightStrategy.equalWeights();
     private SessionPersistenceStrategy sessionPersistenceStrategy;
     private long slowConsumerTimeoutInMs = DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS;
     private EngineScheduler scheduler = new DefaultEngineScheduler();
@@ -437,7 +537,7 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
     }
 
     /**
-     * Sets the bytes limit for receiving inbound messages.
+     * Sets the bytes limit for receiving inbound messages. This limit is applied per framer shard on each duty cycle.
      *
      * @param inboundBytesReceivedLimit the bytes limit for receiving inbound messages.
      * @return this
@@ -449,6 +549,265 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return this;
     }
 
+    /**
+     * Sets the number of shards that the framer partitions its TCP connections into. Each shard owns a subset of
+     * the receiver end points, selected by connection id, and has its own selector. The shards share the
+     * {@link #inboundBytesReceivedLimit(int)} and are polled in an order that rotates every duty cycle, so that the
+     * connections of one shard don't always get first claim on the inbound read budget.
+     * <p>
+     * This is for fairness only: all shards are polled by the framer's thread, so this doesn't add any parallelism to
+     * reading connections.
+     * <p>
+     * Default: 1.
+     *
+     * @param framerShardCount the number of shards that the framer partitions its TCP connections into.
+     * @return this
+     * @see EngineConfiguration#FRAMER_SHARD_COUNT_PROP
+     */
+    public EngineConfiguration framerShardCount(final int framerShardCount)
+    {
+        this.framerShardCount = framerShardCount;
+        return this;
+    }
+
+    /**
+     * Sets the size of the buffer that each connection uses to coalesce outbound messages. When set the framer
+     * copies the messages that it reads for a connection within a duty cycle into this buffer and writes them to
+     * the TCP connection in a single write, rather than one write per message. Messages larger than the buffer are
+     * written directly.
+     * <p>
+     * Default: 0, which disables coalescing.
+     *
+     * @param senderCoalescingBufferSize the size of the coalescing buffer in bytes, or 0 to disable coalescing.
+     * @return this
+     * @see EngineConfiguration#SENDER_COALESCING_BUFFER_SIZE_PROP
+     */
+    public EngineConfiguration senderCoalescingBufferSize(final int senderCoalescingBufferSize)
+    {
+        this.senderCoalescingBufferSize = senderCoalescingBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of outbound messages that are coalesced into a single write before it is flushed.
+     *
+     * @param senderCoalescingMessageLimit the maximum number of outbound messages coalesced into a single write.
+     * @return this
+     * @see EngineConfiguration#SENDER_COALESCING_MESSAGE_LIMIT_PROP
+     * @see EngineConfiguration#senderCoalescingBufferSize(int)
+     */
+    public EngineConfiguration senderCoalescingMessageLimit(final int senderCoalescingMessageLimit)
+    {
+        this.senderCoalescingMessageLimit = senderCoalescingMessageLimit;
+        return this;
+    }
+
+    /**
+     * Sets the size of the queue in direct memory that the outbound bytes a slow consumer can't write are copied into.
+     * Without it, the bytes are re-read from the outbound stream once the connection can be written to again, which
+     * blocks the position of the library's publication and with it every other session of the library. The queue is
+     * allocated the first time that a connection becomes a slow consumer and is kept until it disconnects.
+     * <p>
+     * A connection is disconnected as a slow consumer when the queue is full, or when it is behind by more than
+     * {@link #senderMaxBytesInBuffer(int)} bytes, whichever is smaller.
+     * <p>
+     * Default: 0, which disables spilling.
+     *
+     * @param senderSpillBufferSize the size in bytes of the spill queue per connection, or 0 to disable spilling.
+     * @return this
+     * @see EngineConfiguration#SENDER_SPILL_BUFFER_SIZE_PROP
+     */
+    public EngineConfiguration senderSpillBufferSize(final int senderSpillBufferSize)
+    {
+        this.senderSpillBufferSize = senderSpillBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of complete inbound messages framed from a single read of a connection that are saved
+     * into the inbound library stream with a single claim, as consecutive FixMessage frames within one fragment. This
+     * reduces the number of claims and commits per read when a counterparty sends bursts of messages. Messages are
+     * batched up to the max payload length of the inbound publication, logon messages, user requests and invalid
+     * messages are always saved on their own.
+     * <p>
+     * Batched messages are indexed, caught up and read by the archive tools individually, but they are all given the
+     * position of the end of their fragment.
+     * <p>
+     * Default: 0, which disables batching. At most {@link ReservedValue#MAX_MESSAGE_COUNT}.
+     *
+     * @param inboundBatchMessageLimit the maximum number of inbound messages saved into a single claim, or 0 to
+     *                                 disable batching.
+     * @return this
+     * @see EngineConfiguration#INBOUND_BATCH_MESSAGE_LIMIT_PROP
+     */
+    public EngineConfiguration inboundBatchMessageLimit(final int inboundBatchMessageLimit)
+    {
+        this.inboundBatchMessageLimit = inboundBatchMessageLimit;
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes that each connection may read from its TCP socket per duty cycle of the framer. This
+     * gives every connection a fair share of {@link #inboundBytesReceivedLimit(int)}, so that a counterparty that
+     * sends a flood of messages can't starve the other connections of reads. A connection that runs out of quota
+     * isn't read from again until a later duty cycle, the bytes are left in its socket buffer so TCP flow control
+     * slows down the counterparty. Connections are read in a rotating order, and a connection that is back-pressured
+     * by the inbound stream is paused without pausing the others.
+     * <p>
+     * Reads aren't split, so a connection can go over its quota by up to {@link #receiverBufferSize(int)} bytes, in
+     * which case it reads that much less in the following duty cycles.
+     * <p>
+     * Default: 0, which disables read quotas.
+     *
+     * @param receiverReadQuota the number of bytes each connection may read per duty cycle, or 0 to disable read
+     *                          quotas.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_READ_QUOTA_PROP
+     * @see EngineConfiguration#readWeightStrategy(ReadWeightStrategy)
+     */
+    public EngineConfiguration receiverReadQuota(final int receiverReadQuota)
+    {
+        this.receiverReadQuota = receiverReadQuota;
+        return this;
+    }
+
+    /**
+     * Sets the strategy that picks the weight of each session's read quota, a session whose weight is 2 may read twice
+     * {@link #receiverReadQuota(int)} bytes per duty cycle. Connections that haven't authenticated yet have a weight
+     * of 1.
+     * <p>
+     * Default: {@link ReadWeightStrategy#equalWeights()}.
+     *
+     * @param readWeightStrategy the strategy that picks the weight of each session's read quota.
+     * @return this
+     */
+    public EngineConfiguration readWeightStrategy(final ReadWeightStrategy readWeightStrategy)
+    {
+        this.readWeightStrategy = readWeightStrategy;
+        return this;
+    }
+
+    /**
+     * Sets the number of sessions whose replay index is stored in each shared segment file. When set the replay
+     * index of every session on a stream is stored in a region of {@link #replayIndexFileSize(int)} bytes within a
+     * small number of segment files, alongside a directory of the sessions that have been indexed, rather than in a
+     * separate file per session. This avoids large numbers of files and repeated mapping and unmapping of index files
+     * when there are many sessions.
+     * <p>
+     * Default: 0, which stores the replay index of each session in its own file.
+     *
+     * @param replayIndexSessionsPerSegment the number of sessions per segment file, or 0 to use a file per session.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_SESSIONS_PER_SEGMENT_PROP
+     * @see EngineConfiguration#replayIndexDirectoryCapacity(int)
+     */
+    public EngineConfiguration replayIndexSessionsPerSegment(final int replayIndexSessionsPerSegment)
+    {
+        this.replayIndexSessionsPerSegment = replayIndexSessionsPerSegment;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of sessions per stream that can be indexed when using replay index segments.
+     *
+     * @param replayIndexDirectoryCapacity the maximum number of sessions that can be indexed.
+     * @return this
+     * @see EngineConfiguration#REPLAY_INDEX_DIRECTORY_CAPACITY_PROP
+     * @see EngineConfiguration#replayIndexSessionsPerSegment(int)
+     */
+    public EngineConfiguration replayIndexDirectoryCapacity(final int replayIndexDirectoryCapacity)
+    {
+        this.replayIndexDirectoryCapacity = replayIndexDirectoryCapacity;
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes of recently sent messages that are kept in memory for each session. Resend requests
+     * for messages that are all still in memory are replayed from memory rather than from the archive. The oldest
+     * messages of a session are evicted in order to make space for new ones. The number of sessions whose messages
+     * are kept is bounded by {@link #loggerCacheNumSets(int)} multiplied by {@link #loggerCacheSetSize(int)}, so the
+     * total memory used is at most that number multiplied by the resend cache session buffer size.
+     * <p>
+     * Default: 0, which disables the resend cache.
+     *
+     * @param resendCacheSessionBufferSize the number of bytes cached per session, must be 0 or a power of two.
+     * @return this
+     * @see EngineConfiguration#RESEND_CACHE_SESSION_BUFFER_SIZE_PROP
+     */
+    public EngineConfiguration resendCacheSessionBufferSize(final int resendCacheSessionBufferSize)
+    {
+        this.resendCacheSessionBufferSize = resendCacheSessionBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the time that the resolved address of a host that the engine initiates connections to is cached for.
+     * Addresses are resolved upon a separate thread to the framer, so the cache saves a round trip to that thread
+     * and to the name server when reconnecting.
+     * <p>
+     * Default: 30 seconds.
+     *
+     * @param addressCacheTimeToLiveInMs the time to cache resolved addresses for in milliseconds, or 0 to disable
+     *                                   the cache.
+     * @return this
+     * @see EngineConfiguration#ADDRESS_CACHE_TIME_TO_LIVE_PROP
+     */
+    public EngineConfiguration addressCacheTimeToLiveInMs(final long addressCacheTimeToLiveInMs)
+    {
+        this.addressCacheTimeToLiveInMs = addressCacheTimeToLiveInMs;
+        return this;
+    }
+
+    /**
+     * Sets the size of the framing buffer that a receiver end point holds whilst it isn't assembling a message that
+     * is too large for it. A receiver end point borrows a buffer of {@link #receiverBufferSize(int)} bytes from a pool
+     * when a partial message fills its idle buffer and hands it back once the remaining data fits into an idle buffer
+     * again. This lets an engine with many mostly idle connections use a fraction of the memory for framing.
+     * <p>
+     * Default: 0, which disables idle buffers so that every receiver end point holds a buffer of the receiver buffer
+     * size for as long as it's connected.
+     *
+     * @param receiverIdleBufferSize the size in bytes of the idle framing buffer, or 0 to disable idle buffers.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_IDLE_BUFFER_SIZE_PROP
+     */
+    public EngineConfiguration receiverIdleBufferSize(final int receiverIdleBufferSize)
+    {
+        this.receiverIdleBufferSize = receiverIdleBufferSize;
+        return this;
+    }
+
+    /**
+     * Sets the size of the slabs of direct memory that the framing buffers of receiver end points are carved out of.
+     * Slabs are allocated when every pooled buffer is in use and are kept until the engine is closed.
+     * <p>
+     * Default: 1 MB.
+     *
+     * @param receiverBufferSlabSize the size in bytes of each slab.
+     * @return this
+     * @see EngineConfiguration#RECEIVER_BUFFER_SLAB_SIZE_PROP
+     */
+    public EngineConfiguration receiverBufferSlabSize(final int receiverBufferSlabSize)
+    {
+        this.receiverBufferSlabSize = receiverBufferSlabSize;
+        return this;
+    }
+
+    /**
+     * Sets the resolver that looks up the addresses of the hosts that the engine initiates connections to. Lookups
+     * happen upon a separate thread to the framer, so they may block.
+     * <p>
+     * Default: {@link InetAddress#getByName(String)}.
+     *
+     * @param addressResolver the resolver that looks up the addresses of hosts.
+     * @return this
+     */
+    public EngineConfiguration addressResolver(final AddressResolver addressResolver)
+    {
+        this.addressResolver = addressResolver;
+        return this;
+    }
+
     public EngineConfiguration senderMaxBytesInBuffer(final int senderMaxBytesInBuffer)
     {
         this.senderMaxBytesInBuffer = senderMaxBytesInBuffer;
@@ -735,6 +1094,76 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
         return inboundBytesReceivedLimit;
     }
 
+    public int framerShardCount()
+    {
+        return framerShardCount;
+    }
+
+    public int senderCoalescingBufferSize()
+    {
+        return senderCoalescingBufferSize;
+    }
+
+    public int senderCoalescingMessageLimit()
+    {
+        return senderCoalescingMessageLimit;
+    }
+
+    public int senderSpillBufferSize()
+    {
+        return senderSpillBufferSize;
+    }
+
+    public int inboundBatchMessageLimit()
+    {
+        return inboundBatchMessageLimit;
+    }
+
+    public int receiverReadQuota()
+    {
+        return receiverReadQuota;
+    }
+
+    public ReadWeightStrategy readWeightStrategy()
+    {
+        return readWeightStrategy;
+    }
+
+    public int replayIndexSessionsPerSegment()
+    {
+        return replayIndexSessionsPerSegment;
+    }
+
+    public int replayIndexDirectoryCapacity()
+    {
+        return replayIndexDirectoryCapacity;
+    }
+
+    public int resendCacheSessionBufferSize()
+    {
+        return resendCacheSessionBufferSize;
+    }
+
+    public long addressCacheTimeToLiveInMs()
+    {
+        return addressCacheTimeToLiveInMs;
+    }
+
+    public AddressResolver addressResolver()
+    {
+        return addressResolver;
+    }
+
+    public int receiverIdleBufferSize()
+    {
+        return receiverIdleBufferSize;
+    }
+
+    public int receiverBufferSlabSize()
+    {
+        return receiverBufferSlabSize;
+    }
+
     public MappedFile sentSequenceNumberIndex()
     {
         return sentSequenceNumberIndex;
@@ -950,6 +1379,87 @@ public final class EngineConfiguration extends CommonConfiguration implements Au
                 sessionBufferSize()));
         }
 
+        if (framerShardCount() < 1)
+        {
+            throw new IllegalArgumentException(
+                "framerShardCount must be at least 1, but was " + framerShardCount());
+        }
+
+        if (senderCoalescingBufferSize() > 0 && senderCoalescingMessageLimit() < 1)
+        {
+            throw new IllegalArgumentException(
+                "senderCoalescingMessageLimit must be at least 1, but was " + senderCoalescingMessageLimit());
+        }
+
+        if (senderSpillBufferSize() < 0)
+        {
+            throw new IllegalArgumentException(
+                "senderSpillBufferSize must not be negative, but was " + senderSpillBufferSize());
+        }
+
+        if (inboundBatchMessageLimit() < 0 || inboundBatchMessageLimit() > ReservedValue.MAX_MESSAGE_COUNT)
+        {
+            throw new IllegalArgumentException(String.format(
+                "inboundBatchMessageLimit must be between 0 and %d, but was %d",
+                ReservedValue.MAX_MESSAGE_COUNT,
+                inboundBatchMessageLimit()));
+        }
+
+        if (receiverReadQuota() < 0)
+        {
+            throw new IllegalArgumentException(
+                "receiverReadQuota must not be negative, but was " + receiverReadQuota());
+        }
+
+        if (replayIndexSessionsPerSegment() < 0)
+        {
+            throw new IllegalArgumentException(
+                "replayIndexSessionsPerSegment must not be negative, but was " + replayIndexSessionsPerSegment());
+        }
+
+        if (replayIndexSessionsPerSegment() > 0)
+        {
+            if ((long)replayIndexSessionsPerSegment() * replayIndexFileSize() > Integer.MAX_VALUE)
+            {
+                throw new IllegalArgumentException(String.format(
+                    "replayIndexSessionsPerSegment(%d) * replayIndexFileSize(%d) must fit in a single mapped file",
+                    replayIndexSessionsPerSegment(),
+                    replayIndexFileSize()));
+            }
+
+            if (replayIndexDirectoryCapacity() < 1)
+            {
+                throw new IllegalArgumentException(
+                    "replayIndexDirectoryCapacity must be at least 1, but was " + replayIndexDirectoryCapacity());
+            }
+        }
+
+        if (resendCacheSessionBufferSize() != 0 && !BitUtil.isPowerOfTwo(resendCacheSessionBufferSize()))
+        {
+            throw new IllegalArgumentException(
+                "resendCacheSessionBufferSize must be 0 or a power of 2, but was " + resendCacheSessionBufferSize());
+        }
+
+        if (addressCacheTimeToLiveInMs() < 0)
+        {
+            throw new IllegalArgumentException(
+                "addressCacheTimeToLiveInMs must not be negative, but was " + addressCacheTimeToLiveInMs());
+        }
+
+        if (receiverIdleBufferSize() < 0 || receiverIdleBufferSize() > receiverBufferSize())
+        {
+            throw new IllegalArgumentException(String.format(
+                "receiverIdleBufferSize must be between 0 and receiverBufferSize(%d), but was %d",
+                receiverBufferSize(),
+                receiverIdleBufferSize()));
+        }
+
+        if (receiverBufferSlabSize() < 1)
+        {
+            throw new IllegalArgumentException(
+                "receiverBufferSlabSize must be positive, but was " + receiverBufferSlabSize());
+        }
+
         if (sentSequenceNumberIndex() == null)
         {
             sentSequenceNumberIndex = mapFile(DEFAULT_SEQUENCE_NUMBERS_SENT_FILE, sequenceNumberIndexSize);
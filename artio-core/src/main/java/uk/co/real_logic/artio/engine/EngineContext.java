@@ -60,6 +60,7 @@ public class EngineContext implements AutoCloseable
     // Indexers are owned by the indexingAgent
     private Indexer inboundIndexer;
     private Indexer outboundIndexer;
+    private ResendCache resendCache;
     private Agent indexingAgent;
 
     EngineContext(
@@ -92,7 +93,9 @@ public class EngineContext implements AutoCloseable
                 configuration.outboundLibraryStream(),
                 recordingCoordinator.outboundRecordingIdLookup(),
                 configuration.indexFileStateFlushTimeoutInMs(),
-                epochClock
+                epochClock,
+                fixCounters.indexFlushDuration("sent sequence number index"),
+                fixCounters.indexFlushBytes("sent sequence number index")
             );
             receivedSequenceNumberIndex = new SequenceNumberIndexWriter(
                 configuration.receivedSequenceNumberBuffer(),
@@ -101,7 +104,9 @@ public class EngineContext implements AutoCloseable
                 configuration.inboundLibraryStream(),
                 recordingCoordinator.inboundRecordingIdLookup(),
                 configuration.indexFileStateFlushTimeoutInMs(),
-                epochClock
+                epochClock,
+                fixCounters.indexFlushDuration("received sequence number index"),
+                fixCounters.indexFlushBytes("received sequence number index")
             );
 
             newStreams();
@@ -158,7 +163,26 @@ public class EngineContext implements AutoCloseable
             LoggerUtil::map,
             ReplayIndexDescriptor.replayPositionBuffer(logFileDir, streamId),
             errorHandler,
-            recordingIdLookup);
+            recordingIdLookup,
+            replayIndexSegments(logFileDir, streamId, true));
+    }
+
+    private ReplayIndexSegments replayIndexSegments(
+        final String logFileDir, final int streamId, final boolean writer)
+    {
+        final int sessionsPerSegment = configuration.replayIndexSessionsPerSegment();
+        if (sessionsPerSegment == 0)
+        {
+            return null;
+        }
+
+        final int indexFileSize = configuration.replayIndexFileSize();
+        final int directoryCapacity = configuration.replayIndexDirectoryCapacity();
+        return writer ?
+            ReplayIndexSegments.writer(
+                logFileDir, streamId, indexFileSize, sessionsPerSegment, directoryCapacity, errorHandler) :
+            ReplayIndexSegments.reader(
+                logFileDir, streamId, indexFileSize, sessionsPerSegment, directoryCapacity, errorHandler);
     }
 
     private ReplayQuery newReplayQuery(final IdleStrategy idleStrategy, final int streamId)
@@ -177,7 +201,8 @@ public class EngineContext implements AutoCloseable
             idleStrategy,
             aeronArchive,
             errorHandler,
-            archiveReplayStream);
+            archiveReplayStream,
+            replayIndexSegments(logFileDir, streamId, false));
     }
 
     private Replayer newReplayer(
@@ -196,7 +221,26 @@ public class EngineContext implements AutoCloseable
             configuration.gapfillOnReplayMessageTypes(),
             configuration.replayHandler(),
             senderSequenceNumbers,
-            new FixSessionCodecsFactory());
+            new FixSessionCodecsFactory(),
+            resendCache);
+    }
+
+    private ResendCache newResendCache()
+    {
+        final int sessionBufferSize = configuration.resendCacheSessionBufferSize();
+        if (sessionBufferSize == 0)
+        {
+            return null;
+        }
+
+        return new ResendCache(
+            configuration.outboundLibraryStream(),
+            sessionBufferSize,
+            configuration.loggerCacheNumSets(),
+            configuration.loggerCacheSetSize(),
+            errorHandler,
+            fixCounters.resendCacheHits(),
+            fixCounters.resendCacheMisses());
     }
 
     private void newIndexers()
@@ -231,6 +275,11 @@ public class EngineContext implements AutoCloseable
             recordingCoordinator.outboundRecordingIdLookup()));
         outboundIndices.add(sentSequenceNumberIndex);
         outboundIndices.add(new PositionSender(inboundPublication()));
+        resendCache = newResendCache();
+        if (resendCache != null)
+        {
+            outboundIndices.add(resendCache);
+        }
 
         outboundIndexer = new Indexer(
             outboundIndices,
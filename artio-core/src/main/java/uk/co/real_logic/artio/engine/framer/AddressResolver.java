@@ -0,0 +1,38 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * Looks up the address of a host that the engine initiates a connection to. Lookups may block, so they are performed
+ * upon a resolver thread rather than the framer thread.
+ *
+ * Mockable in order to test name resolution without a DNS server.
+ */
+@FunctionalInterface
+public interface AddressResolver
+{
+    /**
+     * Look up the address of a host.
+     *
+     * @param host the host name or textual IP address to resolve.
+     * @return the address of the host.
+     * @throws UnknownHostException if the host can't be resolved.
+     */
+    InetAddress resolve(String host) throws UnknownHostException;
+}
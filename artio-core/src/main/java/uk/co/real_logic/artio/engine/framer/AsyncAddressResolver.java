@@ -0,0 +1,246 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.CloseHelper;
+import org.agrona.ErrorHandler;
+import org.agrona.concurrent.*;
+import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Resolves the addresses of initiated connections upon a resolver thread, so that a slow DNS lookup doesn't stall
+ * the framer thread and with it every other session.
+ *
+ * Lookups are requested and their results are handed back upon the framer thread, through a pair of bounded queues.
+ * Resolved addresses are cached by the framer thread for a time to live, so reconnecting to the same host doesn't
+ * need another lookup. The resolver thread is only started when a lookup misses the cache.
+ */
+class AsyncAddressResolver implements Agent, AutoCloseable
+{
+    private static final long RESOLVER_IDLE_PERIOD_IN_NS = MILLISECONDS.toNanos(1);
+
+    // Framer thread only
+    private final Map<String, CachedAddress> hostToCachedAddress = new HashMap<>();
+    private final Consumer<Resolution> onResolvedFunc = this::onResolved;
+    private final OneToOneConcurrentArrayQueue<Resolution> requests;
+    private final OneToOneConcurrentArrayQueue<Resolution> results;
+
+    // Resolver thread only
+    private final Consumer<Resolution> onRequestFunc = this::onRequest;
+
+    private final AddressResolver resolver;
+    private final EpochClock epochClock;
+    private final long cacheTimeToLiveInMs;
+    private final Clock clock;
+    private final Timer resolveTimer;
+    private final ThreadFactory threadFactory;
+    private final ErrorHandler errorHandler;
+
+    private AgentRunner runner;
+
+    /**
+     * Create a resolver.
+     *
+     * @param resolver the resolver that performs the lookups.
+     * @param epochClock the clock used to expire cached addresses.
+     * @param cacheTimeToLiveInMs how long resolved addresses are cached for, 0 disables the cache.
+     * @param capacity the maximum number of lookups that can be in progress.
+     * @param clock the clock used to time lookups.
+     * @param resolveTimer the timer that records the duration of lookups.
+     * @param threadFactory the factory for the resolver thread, or null if the caller invokes {@link #doWork()}.
+     * @param errorHandler the handler for errors upon the resolver thread.
+     */
+    AsyncAddressResolver(
+        final AddressResolver resolver,
+        final EpochClock epochClock,
+        final long cacheTimeToLiveInMs,
+        final int capacity,
+        final Clock clock,
+        final Timer resolveTimer,
+        final ThreadFactory threadFactory,
+        final ErrorHandler errorHandler)
+    {
+        this.resolver = resolver;
+        this.epochClock = epochClock;
+        this.cacheTimeToLiveInMs = cacheTimeToLiveInMs;
+        this.clock = clock;
+        this.resolveTimer = resolveTimer;
+        this.threadFactory = threadFactory;
+        this.errorHandler = errorHandler;
+
+        requests = new OneToOneConcurrentArrayQueue<>(capacity);
+        results = new OneToOneConcurrentArrayQueue<>(capacity);
+    }
+
+    /**
+     * Check whether a lookup can be requested. Called upon the framer thread.
+     *
+     * @return true if {@link #resolve(String, int, ResolvedAddressHandler)} won't be back pressured.
+     */
+    boolean hasCapacity()
+    {
+        return requests.remainingCapacity() > 0;
+    }
+
+    /**
+     * Request the address of a host. Called upon the framer thread. If the address is cached the handler is invoked
+     * before this method returns, otherwise it's invoked from {@link #poll()} once the lookup has completed.
+     *
+     * @param host the host to resolve.
+     * @param port the port to connect to.
+     * @param handler the handler to invoke with the resolved address.
+     * @return true if the lookup was requested or cached, false if it was back pressured.
+     */
+    boolean resolve(final String host, final int port, final ResolvedAddressHandler handler)
+    {
+        final CachedAddress cachedAddress = hostToCachedAddress.get(host);
+        if (cachedAddress != null)
+        {
+            if (cachedAddress.expiryTimeInMs > epochClock.time())
+            {
+                handler.onResolvedAddress(new InetSocketAddress(cachedAddress.address, port), null);
+                return true;
+            }
+
+            hostToCachedAddress.remove(host);
+        }
+
+        if (!requests.offer(new Resolution(host, port, handler)))
+        {
+            return false;
+        }
+
+        if (runner == null && threadFactory != null)
+        {
+            runner = new AgentRunner(new SleepingIdleStrategy(RESOLVER_IDLE_PERIOD_IN_NS), errorHandler, null, this);
+            AgentRunner.startOnThread(runner, threadFactory);
+        }
+
+        return true;
+    }
+
+    /**
+     * Hand completed lookups back to their handlers. Called upon the framer thread.
+     *
+     * @return the number of lookups that have completed.
+     */
+    int poll()
+    {
+        return results.drain(onResolvedFunc);
+    }
+
+    private void onResolved(final Resolution resolution)
+    {
+        final InetAddress address = resolution.address;
+        if (address == null)
+        {
+            resolution.handler.onResolvedAddress(null, resolution.exception);
+        }
+        else
+        {
+            if (cacheTimeToLiveInMs > 0)
+            {
+                hostToCachedAddress.put(
+                    resolution.host, new CachedAddress(address, epochClock.time() + cacheTimeToLiveInMs));
+            }
+
+            resolution.handler.onResolvedAddress(new InetSocketAddress(address, resolution.port), null);
+        }
+    }
+
+    public int doWork()
+    {
+        // Only take as many requests as there's room for the results of, so that offering a result never fails.
+        return requests.drain(onRequestFunc, results.remainingCapacity());
+    }
+
+    private void onRequest(final Resolution resolution)
+    {
+        final long startTime = clock.time();
+        try
+        {
+            resolution.address = resolver.resolve(resolution.host);
+        }
+        catch (final IOException e)
+        {
+            resolution.exception = e;
+        }
+        catch (final RuntimeException e)
+        {
+            resolution.exception = new IOException("Unable to resolve " + resolution.host, e);
+        }
+        resolveTimer.recordSince(startTime);
+
+        results.offer(resolution);
+    }
+
+    public String roleName()
+    {
+        return "AddressResolver";
+    }
+
+    public void close()
+    {
+        CloseHelper.close(runner);
+    }
+
+    @FunctionalInterface
+    interface ResolvedAddressHandler
+    {
+        void onResolvedAddress(InetSocketAddress address, IOException exception);
+    }
+
+    private static final class Resolution
+    {
+        private final String host;
+        private final int port;
+        private final ResolvedAddressHandler handler;
+
+        // Written upon the resolver thread and published by the results queue
+        private InetAddress address;
+        private IOException exception;
+
+        private Resolution(final String host, final int port, final ResolvedAddressHandler handler)
+        {
+            this.host = host;
+            this.port = port;
+            this.handler = handler;
+        }
+    }
+
+    private static final class CachedAddress
+    {
+        private final InetAddress address;
+        private final long expiryTimeInMs;
+
+        private CachedAddress(final InetAddress address, final long expiryTimeInMs)
+        {
+            this.address = address;
+            this.expiryTimeInMs = expiryTimeInMs;
+        }
+    }
+}
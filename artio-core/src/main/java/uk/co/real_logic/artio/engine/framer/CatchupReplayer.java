@@ -37,6 +37,7 @@ import uk.co.real_logic.artio.messages.FixMessageEncoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 import uk.co.real_logic.artio.protocol.GatewayPublication;
+import uk.co.real_logic.artio.protocol.ReservedValue;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -67,6 +68,7 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
     }
 
     private static final int OUT_OF_RANGE = -1;
+    private static final long NO_ABORTED_POSITION = -1;
 
     private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
     private final FixMessageDecoder messageDecoder = new FixMessageDecoder();
@@ -100,6 +102,8 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
     private MutableAsciiBuffer encodeBuffer;
 
     private int heartbeatRangeSequenceNumberStart = OUT_OF_RANGE;
+    private long abortedPosition = NO_ABORTED_POSITION;
+    private int abortedMessageIndex;
 
     private ReplayOperation replayOperation = null;
 
@@ -171,6 +175,67 @@ public class CatchupReplayer implements ControlledFragmentHandler, Continuation
         final int srcOffset,
         final int srcLength,
         final Header header)
+    {
+        final int messageCount = ReservedValue.messageCount(header);
+        if (messageCount > 1)
+        {
+            return onFixMessages(srcBuffer, srcOffset, messageCount, header.position());
+        }
+
+        return onFixMessage(srcBuffer, srcOffset, srcLength);
+    }
+
+    // Messages framed from a single read of a connection can share a fragment. The fragment is replayed as a whole, so
+    // it can contain messages outside of the replayed range, which are skipped. If the fragment is polled again after
+    // an abort then the messages before the one that was aborted are skipped rather than replayed twice.
+    private Action onFixMessages(
+        final DirectBuffer srcBuffer, final int srcOffset, final int messageCount, final long position)
+    {
+        final int firstMessageIndex = position == abortedPosition ? abortedMessageIndex : 0;
+        abortedPosition = NO_ABORTED_POSITION;
+
+        int offset = srcOffset;
+        for (int i = 0; i < messageCount; i++)
+        {
+            messageHeaderDecoder.wrap(srcBuffer, offset);
+            messageDecoder.wrap(
+                srcBuffer,
+                offset + MessageHeaderDecoder.ENCODED_LENGTH,
+                messageHeaderDecoder.blockLength(),
+                messageHeaderDecoder.version());
+            final int length = FRAME_LENGTH + messageDecoder.bodyLength();
+
+            asciiBuffer.wrap(srcBuffer, offset + FRAME_LENGTH, length - FRAME_LENGTH);
+            headerDecoder.decode(asciiBuffer, 0, length - FRAME_LENGTH);
+
+            if (i >= firstMessageIndex && withinReplayRange(messageDecoder.sequenceIndex(), headerDecoder.msgSeqNum()))
+            {
+                final Action action = onFixMessage(srcBuffer, offset, length);
+                if (action == ABORT)
+                {
+                    abortedPosition = position;
+                    abortedMessageIndex = i;
+                    return ABORT;
+                }
+            }
+
+            offset += length;
+        }
+
+        return CONTINUE;
+    }
+
+    private boolean withinReplayRange(final int sequenceIndex, final int sequenceNumber)
+    {
+        final boolean beforeStart = sequenceIndex < replayFromSequenceIndex ||
+            (sequenceIndex == replayFromSequenceIndex && sequenceNumber < replayFromSequenceNumber);
+        final boolean afterEnd = sequenceIndex > currentSequenceIndex ||
+            (sequenceIndex == currentSequenceIndex && sequenceNumber > lastReceivedSeqNum);
+
+        return !beforeStart && !afterEnd;
+    }
+
+    private Action onFixMessage(final DirectBuffer srcBuffer, final int srcOffset, final int srcLength)
     {
         final int messageLength = srcLength - FRAME_LENGTH;
         final int messageOffset = srcOffset + FRAME_LENGTH;
@@ -28,7 +28,7 @@ class CloseOperation implements Continuation
     private final GatewayPublication inboundPublication;
     private final List<LiveLibraryInfo> libraries;
     private final List<GatewaySession> gatewaySessions;
-    private final ReceiverEndPoints receiverEndPoints;
+    private final ReceiverEndPointShards receiverEndPoints;
     private final StartCloseCommand command;
 
     private Step step = Step.CLOSING_NOT_LOGGED_ON_RECEIVER_END_POINTS;
@@ -39,7 +39,7 @@ class CloseOperation implements Continuation
         final GatewayPublication inboundPublication,
         final List<LiveLibraryInfo> libraries,
         final List<GatewaySession> gatewaySessions,
-        final ReceiverEndPoints receiverEndPoints,
+        final ReceiverEndPointShards receiverEndPoints,
         final StartCloseCommand command)
     {
         this.inboundPublication = inboundPublication;
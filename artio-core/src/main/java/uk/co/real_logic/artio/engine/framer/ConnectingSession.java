@@ -19,15 +19,21 @@ import java.net.InetSocketAddress;
 
 class ConnectingSession
 {
-    private final InetSocketAddress address;
     private final long sessionId;
 
-    ConnectingSession(final InetSocketAddress address, final long sessionId)
+    // null until the address has been resolved
+    private InetSocketAddress address;
+
+    ConnectingSession(final long sessionId)
     {
-        this.address = address;
         this.sessionId = sessionId;
     }
 
+    void address(final InetSocketAddress address)
+    {
+        this.address = address;
+    }
+
     InetSocketAddress address()
     {
         return address;
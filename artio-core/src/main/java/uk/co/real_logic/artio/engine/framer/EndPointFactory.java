@@ -30,6 +30,8 @@ class EndPointFactory
     private final ErrorHandler errorHandler;
     private final GatewaySessions gatewaySessions;
     private final SenderSequenceNumbers senderSequenceNumbers;
+    private final ReceiveBufferPool receiveBufferPool;
+    private final ReceiveBufferPool idleReceiveBufferPool;
 
     private SlowPeeker replaySlowPeeker;
 
@@ -49,6 +51,20 @@ class EndPointFactory
         this.errorHandler = errorHandler;
         this.gatewaySessions = gatewaySessions;
         this.senderSequenceNumbers = senderSequenceNumbers;
+
+        receiveBufferPool = newReceiveBufferPool(configuration.receiverBufferSize());
+        final int receiverIdleBufferSize = configuration.receiverIdleBufferSize();
+        idleReceiveBufferPool = receiverIdleBufferSize > 0 && receiverIdleBufferSize < receiveBufferPool.bufferSize() ?
+            newReceiveBufferPool(receiverIdleBufferSize) : null;
+    }
+
+    private ReceiveBufferPool newReceiveBufferPool(final int bufferSize)
+    {
+        return new ReceiveBufferPool(
+            bufferSize,
+            configuration.receiverBufferSlabSize(),
+            fixCounters.receiveBuffersInUse(bufferSize),
+            fixCounters.receiveBuffersAllocated(bufferSize));
     }
 
     ReceiverEndPoint receiverEndPoint(
@@ -59,21 +75,28 @@ class EndPointFactory
         final int libraryId,
         final Framer framer)
     {
+        final String remoteAddress = channel.remoteAddress();
+        final int readQuota = configuration.receiverReadQuota();
         return new ReceiverEndPoint(
             channel,
-            configuration.receiverBufferSize(),
+            receiveBufferPool,
+            idleReceiveBufferPool,
             inboundLibraryPublication,
             connectionId,
             sessionId,
             sequenceIndex,
             sessionContexts,
-            fixCounters.messagesRead(connectionId, channel.remoteAddress()),
+            fixCounters.messagesRead(connectionId, remoteAddress),
             framer,
             errorHandler,
             libraryId,
             gatewaySessions,
             configuration.clock(),
-            configuration.acceptorfixDictionary());
+            configuration.acceptorfixDictionary(),
+            configuration.inboundBatchMessageLimit(),
+            readQuota,
+            readQuota > 0 ? fixCounters.bytesRead(connectionId, remoteAddress) : null,
+            readQuota > 0 ? fixCounters.deferredReads(connectionId, remoteAddress) : null);
     }
 
     SenderEndPoint senderEndPoint(
@@ -84,6 +107,7 @@ class EndPointFactory
         final Framer framer)
     {
         final String remoteAddress = channel.remoteAddress();
+        final int spillBufferSize = configuration.senderSpillBufferSize();
         return new SenderEndPoint(
             connectionId,
             libraryId,
@@ -97,7 +121,13 @@ class EndPointFactory
             configuration.senderMaxBytesInBuffer(),
             configuration.slowConsumerTimeoutInMs(),
             System.currentTimeMillis(),
-            senderSequenceNumbers.onNewSender(connectionId));
+            senderSequenceNumbers.onNewSender(connectionId),
+            fixCounters.outboundTcpWrites(),
+            fixCounters.outboundMessagesWritten(),
+            configuration.senderCoalescingBufferSize(),
+            configuration.senderCoalescingMessageLimit(),
+            spillBufferSize,
+            spillBufferSize > 0 ? fixCounters.spilledBytes(connectionId, remoteAddress) : null);
     }
 
     void replaySlowPeeker(final SlowPeeker replaySlowPeeker)
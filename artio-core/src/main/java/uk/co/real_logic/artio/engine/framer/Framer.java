@@ -31,6 +31,7 @@ import org.agrona.concurrent.Agent;
 import org.agrona.concurrent.AgentInvoker;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.QueuedPipe;
+import uk.co.real_logic.artio.Clock;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.LivenessDetector;
 import uk.co.real_logic.artio.Pressure;
@@ -96,6 +97,7 @@ import static uk.co.real_logic.artio.messages.SessionStatus.LIBRARY_NOTIFICATION
  */
 class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 {
+    private static final int ADDRESS_RESOLUTION_CAPACITY = 1024;
 
     private final RetryManager retryManager = new RetryManager();
     private final List<ResetSequenceNumberCommand> replies = new ArrayList<>();
@@ -106,15 +108,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final Predicate<LiveLibraryInfo> retryAcquireLibrarySessionsFunc = this::retryAcquireLibrarySessions;
 
     private final TcpChannelSupplier channelSupplier;
+    private final AsyncAddressResolver addressResolver;
     private final EpochClock epochClock;
+    private final Clock clock;
     private final Timer outboundTimer;
     private final Timer sendTimer;
+    private final Timer connectTimer;
 
     private final ControlledFragmentHandler librarySubscriber;
     private final ControlledFragmentHandler replaySubscriber;
     private final ControlledFragmentHandler replaySlowSubscriber;
 
-    private final ReceiverEndPoints receiverEndPoints;
+    private final ReceiverEndPointShards receiverEndPoints;
     private final ControlledFragmentAssembler senderEndPointAssembler;
     private final SenderEndPoints senderEndPoints;
 
@@ -135,7 +140,6 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     private final QueuedPipe<AdminCommand> adminCommands;
     private final SequenceNumberIndexReader sentSequenceNumberIndex;
     private final SequenceNumberIndexReader receivedSequenceNumberIndex;
-    private final int inboundBytesReceivedLimit;
     private final int outboundLibraryFragmentLimit;
     private final int replayFragmentLimit;
     private final GatewaySessions gatewaySessions;
@@ -165,6 +169,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final EpochClock epochClock,
         final Timer outboundTimer,
         final Timer sendTimer,
+        final Timer connectTimer,
+        final Timer resolveTimer,
         final EngineConfiguration configuration,
         final EndPointFactory endPointFactory,
         final Subscription librarySubscription,
@@ -189,8 +195,10 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         final RecordingCoordinator recordingCoordinator)
     {
         this.epochClock = epochClock;
+        this.clock = configuration.clock();
         this.outboundTimer = outboundTimer;
         this.sendTimer = sendTimer;
+        this.connectTimer = connectTimer;
         this.configuration = configuration;
         this.endPointFactory = endPointFactory;
         this.librarySubscription = librarySubscription;
@@ -203,7 +211,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         this.agentNamePrefix = agentNamePrefix;
         this.inboundCompletionPosition = inboundCompletionPosition;
         this.outboundLibraryCompletionPosition = outboundLibraryCompletionPosition;
-        this.senderEndPoints = new SenderEndPoints(errorHandler);
+        this.senderEndPoints = new SenderEndPoints(errorHandler, epochClock.time());
         this.conductorAgentInvoker = conductorAgentInvoker;
         this.recordingCoordinator = recordingCoordinator;
         this.senderEndPointAssembler = new ControlledFragmentAssembler(senderEndPoints, 0, true);
@@ -216,13 +224,17 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
         acceptorHeaderDecoder = configuration.acceptorfixDictionary().makeHeaderDecoder();
 
-        receiverEndPoints = new ReceiverEndPoints(errorHandler);
+        receiverEndPoints = new ReceiverEndPointShards(
+            errorHandler,
+            configuration.framerShardCount(),
+            configuration.inboundBytesReceivedLimit(),
+            configuration.receiverReadQuota(),
+            configuration.readWeightStrategy());
 
         this.librarySlowPeeker = new SubscriptionSlowPeeker(slowSubscription, librarySubscription);
 
         this.outboundLibraryFragmentLimit = configuration.outboundLibraryFragmentLimit();
         this.replayFragmentLimit = configuration.replayFragmentLimit();
-        this.inboundBytesReceivedLimit = configuration.inboundBytesReceivedLimit();
 
         this.replaySlowPeeker = new SlowPeeker(replaySlowImage, replayImage);
         endPointFactory.replaySlowPeeker(replaySlowPeeker);
@@ -295,6 +307,15 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         new ReplayProtocolSubscription(senderEndPoints::onReplayComplete)));
 
         channelSupplier = configuration.channelSupplier();
+        addressResolver = new AsyncAddressResolver(
+            configuration.addressResolver(),
+            epochClock,
+            configuration.addressCacheTimeToLiveInMs(),
+            ADDRESS_RESOLUTION_CAPACITY,
+            clock,
+            resolveTimer,
+            configuration.threadFactory(),
+            errorHandler);
     }
 
     private LibrarySlowPeeker getOutboundSlowPeeker(final GatewayPublication outboundPublication)
@@ -323,6 +344,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             sendReplayMessages() +
             pollEndPoints() +
             pollNewConnections(timeInMs) +
+            addressResolver.poll() +
             pollLibraries(timeInMs) +
             gatewaySessions.pollSessions(timeInMs) +
             senderEndPoints.checkTimeouts(timeInMs) +
@@ -370,6 +392,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
     {
         int messagesRead = librarySubscription.controlledPoll(librarySubscriber, outboundLibraryFragmentLimit);
         messagesRead += librarySlowPeeker.peek(senderEndPointAssembler);
+        senderEndPoints.flush();
+        messagesRead += senderEndPoints.drainSpillQueues();
 
         if (nonLoggingPositionSender != null)
         {
@@ -494,18 +518,7 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
 
     private int pollEndPoints()
     {
-        final int inboundBytesReceivedLimit = this.inboundBytesReceivedLimit;
-
-        int totalBytesReceived = 0;
-        int bytesReceived;
-        do
-        {
-            bytesReceived = receiverEndPoints.pollEndPoints();
-            totalBytesReceived += bytesReceived;
-        }
-        while (bytesReceived > 0 && totalBytesReceived < inboundBytesReceivedLimit);
-
-        return totalBytesReceived;
+        return receiverEndPoints.pollEndPoints();
     }
 
     private int pollNewConnections(final long timeInMs) throws IOException
@@ -615,6 +628,11 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             return badSequenceNumberConfiguration(libraryId, correlationId, logInboundMessages, logOutboundMessages);
         }
 
+        if (!addressResolver.hasCapacity())
+        {
+            return ABORT;
+        }
+
         final CompositeKey sessionKey = sessionIdStrategy.onInitiateLogon(
             senderCompId,
             senderSubId,
@@ -645,46 +663,70 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 FIX_CONNECTION,
                 "Connecting to %s:%d from library %d%n", host, port, libraryId);
 
-            final InetSocketAddress address = new InetSocketAddress(host, port);
-            final ConnectingSession connectingSession = new ConnectingSession(address, sessionContext.sessionId());
+            final long connectStartTime = clock.time();
+            final ConnectingSession connectingSession = new ConnectingSession(sessionContext.sessionId());
             library.connectionStartsConnecting(correlationId, connectingSession);
-            channelSupplier.open(address,
-                (channel, ex) ->
+            // Resolving the host may block, so it's handed off to the resolver thread unless the address is cached.
+            addressResolver.resolve(host, port, (address, resolveEx) ->
+            {
+                if (!library.isConnecting(correlationId, connectingSession))
                 {
-                    if (ex != null)
-                    {
-                        sessionContexts.onDisconnect(sessionContext.sessionId());
-                        library.connectionFinishesConnecting(correlationId);
-                        saveError(UNABLE_TO_CONNECT, libraryId, correlationId, ex);
-                        return;
-                    }
+                    // The library stopped connecting whilst the address was being resolved.
+                    return;
+                }
 
-                    onConnectionOpen(
-                        libraryId,
-                        senderCompId,
-                        senderSubId,
-                        senderLocationId,
-                        targetCompId,
-                        targetSubId,
-                        targetLocationId,
-                        sequenceNumberType,
-                        resetSequenceNumber,
-                        closedResendInterval,
-                        resendRequestChunkSize,
-                        sendRedundantResendRequests,
-                        enableLastMsgSeqNumProcessed,
-                        username,
-                        password,
-                        fixDictionary,
-                        heartbeatIntervalInS,
-                        correlationId,
-                        header,
-                        library,
-                        address,
-                        channel,
-                        sessionContext,
-                        sessionKey);
-                });
+                if (resolveEx != null)
+                {
+                    onUnableToConnect(libraryId, correlationId, library, sessionContext, resolveEx);
+                    return;
+                }
+
+                connectingSession.address(address);
+                try
+                {
+                    channelSupplier.open(address,
+                        (channel, ex) ->
+                        {
+                            connectTimer.recordSince(connectStartTime);
+
+                            if (ex != null)
+                            {
+                                onUnableToConnect(libraryId, correlationId, library, sessionContext, ex);
+                                return;
+                            }
+
+                            onConnectionOpen(
+                                libraryId,
+                                senderCompId,
+                                senderSubId,
+                                senderLocationId,
+                                targetCompId,
+                                targetSubId,
+                                targetLocationId,
+                                sequenceNumberType,
+                                resetSequenceNumber,
+                                closedResendInterval,
+                                resendRequestChunkSize,
+                                sendRedundantResendRequests,
+                                enableLastMsgSeqNumProcessed,
+                                username,
+                                password,
+                                fixDictionary,
+                                heartbeatIntervalInS,
+                                correlationId,
+                                header,
+                                library,
+                                address,
+                                channel,
+                                sessionContext,
+                                sessionKey);
+                        });
+                }
+                catch (final Exception ex)
+                {
+                    onUnableToConnect(libraryId, correlationId, library, sessionContext, ex);
+                }
+            });
         }
         catch (final Exception ex)
         {
@@ -697,6 +739,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         return CONTINUE;
     }
 
+    private void onUnableToConnect(
+        final int libraryId,
+        final long correlationId,
+        final LiveLibraryInfo library,
+        final SessionContext sessionContext,
+        final Exception ex)
+    {
+        sessionContexts.onDisconnect(sessionContext.sessionId());
+        library.connectionFinishesConnecting(correlationId);
+        saveError(UNABLE_TO_CONNECT, libraryId, correlationId, ex);
+    }
+
     public Action onMidConnectionDisconnect(final int libraryId, final long correlationId)
     {
         final LiveLibraryInfo library = idToLibrary.get(libraryId);
@@ -717,13 +771,18 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
         }
 
         sessionContexts.onDisconnect(connectingSession.sessionId());
-        try
+        final InetSocketAddress address = connectingSession.address();
+        // The address is null if the session stopped connecting before its address was resolved.
+        if (address != null)
         {
-            channelSupplier.stopConnecting(connectingSession.address());
-        }
-        catch (final IOException e)
-        {
-            errorHandler.onError(e);
+            try
+            {
+                channelSupplier.stopConnecting(address);
+            }
+            catch (final IOException e)
+            {
+                errorHandler.onError(e);
+            }
         }
 
         return CONTINUE;
@@ -945,7 +1004,6 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             context.sequenceIndex(),
             libraryId,
             this);
-        receiverEndPoints.add(receiverEndPoint);
 
         final BlockablePosition libraryBlockablePosition = getLibraryBlockablePosition(libraryId);
         final SenderEndPoint senderEndPoint = endPointFactory.senderEndPoint(
@@ -968,6 +1026,8 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
             fixDictionary);
 
         receiverEndPoint.gatewaySession(gatewaySession);
+        // Added once it has a gateway session, so that its read weight can be looked up by session key
+        receiverEndPoints.add(receiverEndPoint);
 
         return gatewaySession;
     }
@@ -1655,13 +1715,15 @@ class Framer implements Agent, EngineEndPointHandler, ProtocolHandler
                 inboundMessages,
                 receiverEndPoints,
                 senderEndPoints,
-                channelSupplier);
+                channelSupplier,
+                addressResolver);
         }
         else
         {
             closeAll(
                 inboundMessages,
-                channelSupplier);
+                channelSupplier,
+                addressResolver);
         }
     }
 
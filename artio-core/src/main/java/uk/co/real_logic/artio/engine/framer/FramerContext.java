@@ -120,6 +120,8 @@ public class FramerContext
             epochClock,
             timers.outboundTimer(),
             timers.sendTimer(),
+            timers.connectTimer(),
+            timers.resolveTimer(),
             configuration,
             endPointFactory,
             engineContext.outboundLibrarySubscription(
@@ -31,7 +31,7 @@ import static uk.co.real_logic.artio.engine.FixEngine.ENGINE_LIBRARY_ID;
 
 class GatewaySession implements SessionInfo
 {
-    private static final int NO_TIMEOUT = -1;
+    static final int NO_TIMEOUT = -1;
 
     private final long connectionId;
     private SessionContext context;
@@ -148,12 +148,7 @@ class GatewaySession implements SessionInfo
         receiverEndPoint.play();
     }
 
-    int poll(final long time)
-    {
-        return session.poll(time) + checkNoLogonDisconnect(time);
-    }
-
-    private int checkNoLogonDisconnect(final long time)
+    int checkNoLogonDisconnect(final long time)
     {
         if (disconnectTimeout == NO_TIMEOUT)
         {
@@ -279,6 +274,11 @@ class GatewaySession implements SessionInfo
         this.disconnectTimeout = disconnectTimeout;
     }
 
+    long disconnectTimeout()
+    {
+        return disconnectTimeout;
+    }
+
     public long bytesInBuffer()
     {
         return senderEndPoint.bytesInBuffer();
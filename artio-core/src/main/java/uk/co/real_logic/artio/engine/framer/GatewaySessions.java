@@ -18,8 +18,12 @@ package uk.co.real_logic.artio.engine.framer;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.collections.ArrayListUtil;
+import org.agrona.collections.Long2IntHashMap;
+import org.agrona.collections.Long2ObjectHashMap;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.DeadlineTimers;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.FixCounters;
 import uk.co.real_logic.artio.FixGatewayException;
@@ -54,7 +58,12 @@ import static uk.co.real_logic.artio.validation.SessionPersistenceStrategy.reset
  */
 class GatewaySessions
 {
-    private final List<GatewaySession> sessions = new ArrayList<>();
+    private static final int MISSING_INDEX = -1;
+
+    private final ArrayList<GatewaySession> sessions = new ArrayList<>();
+    // Index of each session within sessions, so that sessions can be looked up and removed in constant time
+    private final Long2IntHashMap connectionIdToIndex = new Long2IntHashMap(MISSING_INDEX);
+    private final Long2ObjectHashMap<GatewaySession> sessionIdToSession = new Long2ObjectHashMap<>();
     private final Map<FixDictionary, UserRequestExtractor> dictionaryToUserRequestExtractor = new HashMap<>();
 
     private final EpochClock epochClock;
@@ -72,6 +81,8 @@ class GatewaySessions
     private final SessionPersistenceStrategy sessionPersistenceStrategy;
     private final SequenceNumberIndexReader sentSequenceNumberIndex;
     private final SequenceNumberIndexReader receivedSequenceNumberIndex;
+    private final SessionTimers sessionTimers;
+    private final DeadlineTimers<GatewaySession> noLogonTimers;
 
     private ErrorHandler errorHandler;
 
@@ -112,6 +123,10 @@ class GatewaySessions
         this.sessionPersistenceStrategy = sessionPersistenceStrategy;
         this.sentSequenceNumberIndex = sentSequenceNumberIndex;
         this.receivedSequenceNumberIndex = receivedSequenceNumberIndex;
+
+        final long timeInMs = epochClock.time();
+        sessionTimers = new SessionTimers(timeInMs);
+        noLogonTimers = new DeadlineTimers<>(timeInMs, this::onNoLogonTimerExpiry);
     }
 
     static GatewaySession removeSessionByConnectionId(final long connectionId, final List<GatewaySession> sessions)
@@ -189,8 +204,17 @@ class GatewaySessions
             errorHandler,
             dictionary);
 
+        connectionIdToIndex.put(connectionId, sessions.size());
         sessions.add(gatewaySession);
+        indexBySessionId(gatewaySession);
         gatewaySession.manage(sessionParser, session, engineBlockablePosition);
+        sessionTimers.add(session);
+
+        final long disconnectTimeout = gatewaySession.disconnectTimeout();
+        if (disconnectTimeout != GatewaySession.NO_TIMEOUT)
+        {
+            noLogonTimers.schedule(gatewaySession, disconnectTimeout);
+        }
 
         final CompositeKey sessionKey = gatewaySession.sessionKey();
         DebugLogger.log(FIX_CONNECTION, "Gateway Acquired Session %d%n", connectionId);
@@ -203,70 +227,84 @@ class GatewaySessions
 
     GatewaySession releaseBySessionId(final long sessionId)
     {
-        final int index = indexBySessionId(sessionId);
-        if (index < 0)
+        final GatewaySession session = sessionIdToSession.get(sessionId);
+        if (session == null)
         {
             return null;
         }
 
-        return sessions.remove(index);
+        remove(session);
+        sessionTimers.remove(session.session());
+
+        return session;
     }
 
     GatewaySession sessionById(final long sessionId)
     {
-        final int index = indexBySessionId(sessionId);
-        if (index < 0)
+        return sessionIdToSession.get(sessionId);
+    }
+
+    // Sessions are acquired before they've logged on, so acceptors get indexed by their session id upon logon.
+    private void indexBySessionId(final GatewaySession session)
+    {
+        final long sessionId = session.sessionId();
+        if (sessionId != Session.UNKNOWN && sessionByConnectionId(session.connectionId()) == session)
         {
-            return null;
+            sessionIdToSession.put(sessionId, session);
         }
-
-        return sessions.get(index);
     }
 
-    private int indexBySessionId(final long sessionId)
+    private GatewaySession sessionByConnectionId(final long connectionId)
     {
-        final List<GatewaySession> sessions = this.sessions;
+        final int index = connectionIdToIndex.get(connectionId);
+        return index == MISSING_INDEX ? null : sessions.get(index);
+    }
 
-        for (int i = 0, size = sessions.size(); i < size; i++)
+    private void remove(final GatewaySession session)
+    {
+        final ArrayList<GatewaySession> sessions = this.sessions;
+        final int index = connectionIdToIndex.remove(session.connectionId());
+        if (index != MISSING_INDEX)
         {
-            final GatewaySession session = sessions.get(i);
-            if (session.sessionId() == sessionId)
+            // Swaps the last session into the removed session's place
+            ArrayListUtil.fastUnorderedRemove(sessions, index);
+            if (index < sessions.size())
             {
-                return i;
+                connectionIdToIndex.put(sessions.get(index).connectionId(), index);
             }
         }
 
-        return -1;
+        final long sessionId = session.sessionId();
+        if (sessionIdToSession.get(sessionId) == session)
+        {
+            sessionIdToSession.remove(sessionId);
+        }
     }
 
     void releaseByConnectionId(final long connectionId)
     {
-        final GatewaySession session = removeSessionByConnectionId(connectionId, sessions);
+        final GatewaySession session = sessionByConnectionId(connectionId);
         if (session != null)
         {
+            remove(session);
             session.close();
         }
     }
 
     int pollSessions(final long time)
     {
-        final List<GatewaySession> sessions = this.sessions;
+        return sessionTimers.poll(time) + noLogonTimers.poll(time);
+    }
 
-        int eventsProcessed = 0;
-        for (int i = 0, size = sessions.size(); i < size; )
+    private int onNoLogonTimerExpiry(final GatewaySession session, final long time)
+    {
+        // Released sessions don't cancel their timer, so check that the session is still managed by the engine.
+        if (sessionByConnectionId(session.connectionId()) != session)
         {
-            final GatewaySession session = sessions.get(i);
-            eventsProcessed += session.poll(time);
-            if (session.hasDisconnected())
-            {
-                size--;
-            }
-            else
-            {
-                i++;
-            }
+            return 0;
         }
-        return eventsProcessed;
+
+        return session.checkNoLogonDisconnect(time);
     }
 
     List<GatewaySession> sessions()
@@ -591,6 +629,7 @@ class GatewaySessions
                 password,
                 logon.heartBtInt()
             );
+            indexBySessionId(session);
 
             // See Framer.handoverNewConnectionToLibrary for sole library mode equivalent
             if (resetSeqNum)
@@ -161,4 +161,9 @@ final class LiveLibraryInfo implements LibraryInfo
         return correlationIdToConnectingSession.remove(correlationId);
     }
 
+    boolean isConnecting(final long correlationId, final ConnectingSession connectingSession)
+    {
+        return correlationIdToConnectingSession.get(correlationId) == connectingSession;
+    }
+
 }
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import uk.co.real_logic.artio.session.CompositeKey;
+
+/**
+ * Picks the weight of a session's share of the bytes read from TCP connections per duty cycle, so that important
+ * sessions, for example order entry, can be given a bigger share than sessions that receive bursts of market data.
+ */
+@FunctionalInterface
+public interface ReadWeightStrategy
+{
+    /**
+     * Get the read weight of a session, invoked upon the framer thread once the session's connection has
+     * authenticated.
+     *
+     * @param sessionKey the key of the session.
+     * @return the weight of the session, each connection may read its weight times the read quota per duty cycle.
+     * Weights less than 1 are treated as 1.
+     */
+    int weightOf(CompositeKey sessionKey);
+
+    static ReadWeightStrategy equalWeights()
+    {
+        return sessionKey -> 1;
+    }
+}
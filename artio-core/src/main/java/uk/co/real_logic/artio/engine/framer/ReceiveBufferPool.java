@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+
+/**
+ * Pool of equally sized direct buffers that receiver end points frame messages in.
+ *
+ * Buffers are carved out of slabs of direct memory, so that connecting doesn't cost a direct allocation per end point
+ * and the buffers of a busy engine sit next to each other. Slabs are allocated lazily when every pooled buffer is in
+ * use and are kept for the life of the engine. Only accessed upon the framer thread.
+ */
+class ReceiveBufferPool
+{
+    private final ArrayDeque<ByteBuffer> freeBuffers = new ArrayDeque<>();
+    private final int bufferSize;
+    private final int buffersPerSlab;
+    private final AtomicCounter buffersInUse;
+    private final AtomicCounter buffersAllocated;
+
+    /**
+     * Create a pool.
+     *
+     * @param bufferSize the size in bytes of each buffer.
+     * @param slabSize the size in bytes of the slabs that buffers are carved out of, at least one buffer is carved
+     *                 out of each slab.
+     * @param buffersInUse the counter of buffers that have been acquired and not yet released.
+     * @param buffersAllocated the counter of buffers that have been carved out of slabs.
+     */
+    ReceiveBufferPool(
+        final int bufferSize,
+        final int slabSize,
+        final AtomicCounter buffersInUse,
+        final AtomicCounter buffersAllocated)
+    {
+        if (bufferSize < 1)
+        {
+            throw new IllegalArgumentException("bufferSize must be positive, but was " + bufferSize);
+        }
+
+        this.bufferSize = bufferSize;
+        this.buffersPerSlab = Math.max(1, slabSize / bufferSize);
+        this.buffersInUse = buffersInUse;
+        this.buffersAllocated = buffersAllocated;
+    }
+
+    int bufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * Acquire a cleared buffer from the pool, allocating a new slab if there are no free buffers.
+     *
+     * @return a buffer of {@link #bufferSize()} bytes.
+     */
+    ByteBuffer acquire()
+    {
+        if (freeBuffers.isEmpty())
+        {
+            allocateSlab();
+        }
+
+        final ByteBuffer buffer = freeBuffers.pollLast();
+        buffer.clear();
+        buffersInUse.increment();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer to the pool, it must not be used by the caller afterwards.
+     *
+     * @param buffer a buffer that was acquired from this pool.
+     */
+    void release(final ByteBuffer buffer)
+    {
+        freeBuffers.addLast(buffer);
+        buffersInUse.decrement();
+    }
+
+    private void allocateSlab()
+    {
+        final int bufferSize = this.bufferSize;
+        final int buffersPerSlab = this.buffersPerSlab;
+        final ByteBuffer slab = ByteBuffer.allocateDirect(bufferSize * buffersPerSlab);
+        for (int i = 0; i < buffersPerSlab; i++)
+        {
+            final int offset = i * bufferSize;
+            ByteBufferUtil.limit(slab, offset + bufferSize);
+            ByteBufferUtil.position(slab, offset);
+            freeBuffers.addLast(slab.slice());
+        }
+
+        buffersAllocated.getAndAdd(buffersPerSlab);
+    }
+}
@@ -86,10 +86,29 @@ class ReceiverEndPoint
     private final ErrorHandler errorHandler;
     private final PasswordCleaner passwordCleaner = new PasswordCleaner();
     private final MutableAsciiBuffer buffer;
-    private final ByteBuffer byteBuffer;
+    private final ReceiveBufferPool bufferPool;
+    private final ReceiveBufferPool idleBufferPool;
     private final GatewaySessions gatewaySessions;
     private final Clock clock;
 
+    // Only allocated when inbound batching is enabled, null otherwise
+    private final int[] batchOffsets;
+    private final int[] batchLengths;
+    private final int[] batchMessageTypes;
+    private int batchMessageCount;
+    private int batchFramedLength;
+
+    // Read quota per duty cycle, 0 when read quotas are disabled in which case the counters are null
+    private final int readQuota;
+    private final AtomicCounter bytesRead;
+    private final AtomicCounter deferredReads;
+    private long weightedReadQuota;
+    private long readCredit;
+    private long readCreditDutyCycle;
+
+    private ByteBuffer byteBuffer;
+    private ReceiveBufferPool byteBufferPool;
+
     private int libraryId;
     private GatewaySession gatewaySession;
     private long sessionId;
@@ -98,6 +117,7 @@ class ReceiverEndPoint
     private boolean hasDisconnected = false;
     private SelectionKey selectionKey;
     private boolean isPaused = false;
+    private boolean backPressured = false;
 
     private AcceptorLogonResult pendingAcceptorLogon;
     private boolean hasNotifiedFramerOfLogonMessageReceived;
@@ -107,7 +127,8 @@ class ReceiverEndPoint
 
     ReceiverEndPoint(
         final TcpChannel channel,
-        final int bufferSize,
+        final ReceiveBufferPool bufferPool,
+        final ReceiveBufferPool idleBufferPool,
         final GatewayPublication publication,
         final long connectionId,
         final long sessionId,
@@ -119,7 +140,11 @@ class ReceiverEndPoint
         final int libraryId,
         final GatewaySessions gatewaySessions,
         final Clock clock,
-        final FixDictionary acceptorFixDictionary)
+        final FixDictionary acceptorFixDictionary,
+        final int inboundBatchMessageLimit,
+        final int readQuota,
+        final AtomicCounter bytesRead,
+        final AtomicCounter deferredReads)
     {
         Objects.requireNonNull(publication, "publication");
         Objects.requireNonNull(sessionContexts, "sessionContexts");
@@ -139,8 +164,28 @@ class ReceiverEndPoint
         this.gatewaySessions = gatewaySessions;
         this.clock = clock;
         this.acceptorLogon = acceptorFixDictionary.makeLogonDecoder();
+        this.bufferPool = bufferPool;
+        this.idleBufferPool = idleBufferPool;
+        this.readQuota = readQuota;
+        this.bytesRead = bytesRead;
+        this.deferredReads = deferredReads;
+        this.weightedReadQuota = readQuota;
+
+        if (inboundBatchMessageLimit > 1)
+        {
+            batchOffsets = new int[inboundBatchMessageLimit];
+            batchLengths = new int[inboundBatchMessageLimit];
+            batchMessageTypes = new int[inboundBatchMessageLimit];
+        }
+        else
+        {
+            batchOffsets = null;
+            batchLengths = null;
+            batchMessageTypes = null;
+        }
 
-        byteBuffer = ByteBuffer.allocateDirect(bufferSize);
+        byteBufferPool = idleBufferPool != null ? idleBufferPool : bufferPool;
+        byteBuffer = byteBufferPool.acquire();
         buffer = new MutableAsciiBuffer(byteBuffer);
     }
 
@@ -149,6 +194,49 @@ class ReceiverEndPoint
         return connectionId;
     }
 
+    GatewaySession gatewaySession()
+    {
+        return gatewaySession;
+    }
+
+    void readWeight(final int readWeight)
+    {
+        weightedReadQuota = (long)readQuota * Math.max(1, readWeight);
+    }
+
+    // true if the last attempt to frame messages was back-pressured, so they need to be retried before reading more
+    boolean isBackPressured()
+    {
+        return backPressured;
+    }
+
+    // Credit is replenished by a quota for each duty cycle since it was last replenished, up to a single quota so that
+    // an idle connection can't build up a burst. Reads can go over the quota, in which case the debt is paid off first.
+    boolean hasReadCredit(final long dutyCycle)
+    {
+        if (readQuota == 0)
+        {
+            return true;
+        }
+
+        final long elapsedDutyCycles = dutyCycle - readCreditDutyCycle;
+        if (elapsedDutyCycles > 0)
+        {
+            final long quota = weightedReadQuota;
+            final long credit = readCredit;
+            readCredit = elapsedDutyCycles > (quota - credit) / quota ? quota : credit + elapsedDutyCycles * quota;
+            readCreditDutyCycle = dutyCycle;
+        }
+
+        if (readCredit > 0)
+        {
+            return true;
+        }
+
+        deferredReads.incrementOrdered();
+        return false;
+    }
+
     int poll()
     {
         if (isPaused || hasDisconnected())
@@ -165,9 +253,14 @@ class ReceiverEndPoint
         {
             final long latestReadTimestamp = clock.time();
             final int bytesRead = readData();
-            if (frameMessages(bytesRead == 0 ? lastReadTimestamp : latestReadTimestamp))
+            backPressured = !frameMessages(bytesRead == 0 ? lastReadTimestamp : latestReadTimestamp);
+            if (!backPressured)
             {
                 lastReadTimestamp = latestReadTimestamp;
+                if (idleBufferPool != null)
+                {
+                    resizeBuffer();
+                }
                 return bytesRead;
             }
             else
@@ -262,6 +355,12 @@ class ReceiverEndPoint
             if (dataRead > 0)
             {
                 DebugLogger.log(FIX_MESSAGE_TCP, "Read     %s%n", buffer, 0, dataRead);
+
+                if (readQuota != 0)
+                {
+                    readCredit -= dataRead;
+                    bytesRead.getAndAddOrdered(dataRead);
+                }
             }
             usedBufferData += dataRead;
         }
@@ -273,9 +372,45 @@ class ReceiverEndPoint
         return dataRead;
     }
 
+    // Only called when all complete messages have been framed, so the remaining data is at most one partial message.
+    private void resizeBuffer()
+    {
+        if (hasDisconnected || pendingAcceptorLogon != null)
+        {
+            return;
+        }
+
+        if (byteBufferPool == idleBufferPool)
+        {
+            if (usedBufferData == byteBuffer.capacity())
+            {
+                // A partial message fills the idle buffer, borrow a buffer that it can be assembled in.
+                swapBuffer(bufferPool);
+            }
+        }
+        else if (usedBufferData < idleBufferPool.bufferSize())
+        {
+            swapBuffer(idleBufferPool);
+        }
+    }
+
+    private void swapBuffer(final ReceiveBufferPool newByteBufferPool)
+    {
+        final int usedBufferData = this.usedBufferData;
+        final ByteBuffer newByteBuffer = newByteBufferPool.acquire();
+        buffer.getBytes(0, newByteBuffer, usedBufferData);
+        ByteBufferUtil.position(newByteBuffer, usedBufferData);
+
+        byteBufferPool.release(byteBuffer);
+        byteBufferPool = newByteBufferPool;
+        byteBuffer = newByteBuffer;
+        buffer.wrap(newByteBuffer);
+    }
+
     boolean retryFrameMessages()
     {
-        return frameMessages(lastReadTimestamp);
+        backPressured = !frameMessages(lastReadTimestamp);
+        return !backPressured;
     }
 
     // true - no more framed messages in the buffer data to process. This could mean no more messages, or some data
@@ -373,6 +508,11 @@ class ReceiverEndPoint
             }
         }
 
+        if (!saveBatch(readTimestamp))
+        {
+            return false;
+        }
+
         moveRemainingDataToBufferStart(offset);
         return true;
     }
@@ -502,7 +642,90 @@ class ReceiverEndPoint
 
     private boolean saveMessage(final int offset, final int messageType, final int length, final long readTimestamp)
     {
-        return saveMessage(offset, messageType, length, sessionId, sequenceIndex, readTimestamp);
+        if (batchMessageTypes != null && messageType != LOGON_MESSAGE_TYPE && messageType != USER_REQUEST_MESSAGE_TYPE)
+        {
+            return batchMessage(offset, messageType, length, readTimestamp);
+        }
+
+        return saveBatch(readTimestamp) &&
+            saveMessage(offset, messageType, length, sessionId, sequenceIndex, readTimestamp);
+    }
+
+    // Messages are only added to the batch whilst framing a single read, so their offsets stay valid until it's saved.
+    private boolean batchMessage(
+        final int offset, final int messageType, final int length, final long readTimestamp)
+    {
+        final int framedLength = GatewayPublication.framedLength(length);
+        final int maxPayloadLength = publication.maxPayloadLength();
+        if (batchMessageCount == batchMessageTypes.length || batchFramedLength + framedLength > maxPayloadLength)
+        {
+            if (!saveBatch(readTimestamp))
+            {
+                return false;
+            }
+        }
+
+        if (framedLength > maxPayloadLength)
+        {
+            // Fragmented messages are saved on their own
+            return saveMessage(offset, messageType, length, sessionId, sequenceIndex, readTimestamp);
+        }
+
+        final int index = batchMessageCount;
+        batchOffsets[index] = offset;
+        batchLengths[index] = length;
+        batchMessageTypes[index] = messageType;
+        batchMessageCount = index + 1;
+        batchFramedLength += framedLength;
+
+        return true;
+    }
+
+    // returns false if back-pressured, in which case the data from the first message of the batch onwards is stashed
+    private boolean saveBatch(final long readTimestamp)
+    {
+        final int messageCount = batchMessageCount;
+        if (messageCount == 0)
+        {
+            return true;
+        }
+
+        batchMessageCount = 0;
+        batchFramedLength = 0;
+
+        final int[] batchOffsets = this.batchOffsets;
+        final int[] batchLengths = this.batchLengths;
+        final int[] batchMessageTypes = this.batchMessageTypes;
+        if (messageCount == 1)
+        {
+            return saveMessage(
+                batchOffsets[0], batchMessageTypes[0], batchLengths[0], sessionId, sequenceIndex, readTimestamp);
+        }
+
+        final long position = publication.saveMessages(
+            buffer,
+            batchOffsets,
+            batchLengths,
+            batchMessageTypes,
+            messageCount,
+            libraryId,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            readTimestamp);
+
+        if (Pressure.isBackPressured(position))
+        {
+            moveRemainingDataToBufferStart(batchOffsets[0]);
+            return false;
+        }
+
+        for (int i = 0; i < messageCount; i++)
+        {
+            gatewaySession.onMessage(buffer, batchOffsets[i], batchLengths[i], batchMessageTypes[i], sessionId);
+        }
+
+        return true;
     }
 
     private boolean saveMessage(
@@ -610,12 +833,22 @@ class ReceiverEndPoint
     // returns true if back-pressured
     private boolean invalidateMessage(final int offset, final long readTimestamp)
     {
+        if (!saveBatch(readTimestamp))
+        {
+            return true;
+        }
+
         DebugLogger.log(FIX_MESSAGE, "Invalidated: %s%n", buffer, offset, MIN_MESSAGE_SIZE);
         return saveInvalidMessage(offset, readTimestamp);
     }
 
     private boolean saveInvalidMessage(final int offset, final int startOfChecksumTag, final long readTimestamp)
     {
+        if (!saveBatch(readTimestamp))
+        {
+            return true;
+        }
+
         final long position = publication.saveMessage(
             buffer,
             offset,
@@ -666,6 +899,11 @@ class ReceiverEndPoint
     private boolean saveInvalidChecksumMessage(
         final int offset, final int messageType, final int length, final long readTimestamp)
     {
+        if (!saveBatch(readTimestamp))
+        {
+            return true;
+        }
+
         final long position = publication.saveMessage(
             buffer,
             offset,
@@ -698,11 +936,22 @@ class ReceiverEndPoint
         {
             channel.close();
             messagesRead.close();
+            if (bytesRead != null)
+            {
+                bytesRead.close();
+                deferredReads.close();
+            }
         }
         catch (final Exception ex)
         {
             errorHandler.onError(ex);
         }
+
+        if (byteBufferPool != null)
+        {
+            byteBufferPool.release(byteBuffer);
+            byteBufferPool = null;
+        }
     }
 
     private void removeEndpointFromFramer()
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import uk.co.real_logic.artio.messages.DisconnectReason;
+
+/**
+ * Partitions the receiver end points by connection id into a number of shards, each of which has its own selector.
+ *
+ * The shards share the framer's inbound bytes budget per duty cycle, and are polled in a rotating order so that the
+ * shard that is polled first, and so gets first claim on the budget, changes every duty cycle. A single busy
+ * connection can still use the whole budget when the other shards have nothing to read. Within a shard, connections
+ * can also be given a read quota per duty cycle so that they get a fair share of the budget.
+ *
+ * This is for fairness only, not parallelism: every shard is polled on the framer thread, and outbound messages are
+ * still read from the framer's single outbound subscription.
+ */
+class ReceiverEndPointShards implements AutoCloseable
+{
+    private final ReceiverEndPoints[] shards;
+    private final int inboundBytesReceivedLimit;
+
+    private int nextShardIndex = 0;
+    private long dutyCycle = 0;
+
+    ReceiverEndPointShards(
+        final ErrorHandler errorHandler,
+        final int shardCount,
+        final int inboundBytesReceivedLimit,
+        final int readQuota,
+        final ReadWeightStrategy readWeightStrategy)
+    {
+        if (shardCount < 1)
+        {
+            throw new IllegalArgumentException("shardCount must be at least 1, but was " + shardCount);
+        }
+
+        this.inboundBytesReceivedLimit = inboundBytesReceivedLimit;
+        shards = new ReceiverEndPoints[shardCount];
+        for (int i = 0; i < shardCount; i++)
+        {
+            shards[i] = new ReceiverEndPoints(errorHandler, readQuota, readWeightStrategy);
+        }
+    }
+
+    void add(final ReceiverEndPoint endPoint)
+    {
+        shardFor(endPoint.connectionId()).add(endPoint);
+    }
+
+    void removeConnection(final long connectionId, final DisconnectReason reason)
+    {
+        shardFor(connectionId).removeConnection(connectionId, reason);
+    }
+
+    void receiverEndPointPollingOptional(final long connectionId)
+    {
+        shardFor(connectionId).receiverEndPointPollingOptional(connectionId);
+    }
+
+    int pollEndPoints()
+    {
+        final ReceiverEndPoints[] shards = this.shards;
+        final int shardCount = shards.length;
+        final int startIndex = nextShardIndex;
+        final int inboundBytesReceivedLimit = this.inboundBytesReceivedLimit;
+        final long dutyCycle = ++this.dutyCycle;
+
+        int totalBytesReceived = 0;
+        int bytesReceived;
+        do
+        {
+            bytesReceived = 0;
+            for (int i = 0; i < shardCount && totalBytesReceived < inboundBytesReceivedLimit; i++)
+            {
+                final int shardBytesReceived = shards[(startIndex + i) % shardCount].pollEndPoints(dutyCycle);
+                bytesReceived += shardBytesReceived;
+                totalBytesReceived += shardBytesReceived;
+            }
+        }
+        while (bytesReceived > 0 && totalBytesReceived < inboundBytesReceivedLimit);
+
+        nextShardIndex = (startIndex + 1) % shardCount;
+
+        return totalBytesReceived;
+    }
+
+    int size()
+    {
+        int size = 0;
+        for (final ReceiverEndPoints shard : shards)
+        {
+            size += shard.size();
+        }
+
+        return size;
+    }
+
+    void closeRequiredPollingEndPoints()
+    {
+        for (final ReceiverEndPoints shard : shards)
+        {
+            shard.closeRequiredPollingEndPoints();
+        }
+    }
+
+    public void close()
+    {
+        for (final ReceiverEndPoints shard : shards)
+        {
+            shard.close();
+        }
+    }
+
+    private ReceiverEndPoints shardFor(final long connectionId)
+    {
+        final ReceiverEndPoints[] shards = this.shards;
+        return shards[shardIndex(connectionId, shards.length)];
+    }
+
+    static int shardIndex(final long connectionId, final int shardCount)
+    {
+        return (int)((connectionId & Long.MAX_VALUE) % shardCount);
+    }
+}
@@ -17,12 +17,15 @@ package uk.co.real_logic.artio.engine.framer;
 
 import org.agrona.ErrorHandler;
 import org.agrona.LangUtil;
+import org.agrona.collections.ArrayListUtil;
 import org.agrona.collections.ArrayUtil;
 import org.agrona.nio.TransportPoller;
 import uk.co.real_logic.artio.messages.DisconnectReason;
+import uk.co.real_logic.artio.session.CompositeKey;
 
 import java.io.IOException;
 import java.nio.channels.SelectionKey;
+import java.util.ArrayList;
 import java.util.stream.Stream;
 
 import static org.agrona.collections.ArrayUtil.UNKNOWN_INDEX;
@@ -31,6 +34,8 @@ import static uk.co.real_logic.artio.messages.DisconnectReason.ENGINE_SHUTDOWN;
 class ReceiverEndPoints extends TransportPoller
 {
     private final ErrorHandler errorHandler;
+    private final boolean hasReadQuotas;
+    private final ReadWeightStrategy readWeightStrategy;
 
     // Authentication flow requires periodic polling of the receiver end points until the authentication is
     // complete, so these endpoints are always polled, rather than using the selector.
@@ -40,9 +45,19 @@ class ReceiverEndPoints extends TransportPoller
     // the data into the Aeron stream.
     private ReceiverEndPoint backpressuredEndPoint = null;
 
-    ReceiverEndPoints(final ErrorHandler errorHandler)
+    // When connections have read quotas, back-pressure only pauses the end points that have been back-pressured,
+    // rather than all of them, so that the other connections carry on reading within their quotas.
+    private final ArrayList<ReceiverEndPoint> backpressuredEndPoints = new ArrayList<>();
+    // Where polling starts within the end points, rotated each time that they're polled when connections have read
+    // quotas so that the same connection doesn't always get the first read.
+    private int pollOffset = 0;
+
+    ReceiverEndPoints(
+        final ErrorHandler errorHandler, final int readQuota, final ReadWeightStrategy readWeightStrategy)
     {
         this.errorHandler = errorHandler;
+        this.hasReadQuotas = readQuota > 0;
+        this.readWeightStrategy = readWeightStrategy;
     }
 
     void add(final ReceiverEndPoint endPoint)
@@ -61,6 +76,11 @@ class ReceiverEndPoints extends TransportPoller
     {
         try
         {
+            if (hasReadQuotas)
+            {
+                weighReads(endPoint);
+            }
+
             endPoints = ArrayUtil.add(endPoints, endPoint);
             endPoint.register(selector);
         }
@@ -70,24 +90,53 @@ class ReceiverEndPoints extends TransportPoller
         }
     }
 
+    private void weighReads(final ReceiverEndPoint endPoint)
+    {
+        final GatewaySession gatewaySession = endPoint.gatewaySession();
+        final CompositeKey sessionKey = gatewaySession != null ? gatewaySession.sessionKey() : null;
+        if (sessionKey != null)
+        {
+            endPoint.readWeight(readWeightStrategy.weightOf(sessionKey));
+        }
+    }
+
     void removeConnection(final long connectionId, final DisconnectReason reason)
     {
         final ReceiverEndPoint[] endPoints = this.endPoints;
-        int index = findAndCloseEndPoint(connectionId, reason, endPoints);
+        int index = findEndPoint(connectionId, endPoints);
 
         if (index != UNKNOWN_INDEX)
         {
+            close(endPoints[index], reason);
             this.endPoints = ArrayUtil.remove(endPoints, index);
         }
         else
         {
-            index = findAndCloseEndPoint(connectionId, reason, requiredPollingEndPoints);
+            final ReceiverEndPoint[] requiredPollingEndPoints = this.requiredPollingEndPoints;
+            index = findEndPoint(connectionId, requiredPollingEndPoints);
+            if (index != UNKNOWN_INDEX)
+            {
+                close(requiredPollingEndPoints[index], reason);
+            }
             this.requiredPollingEndPoints = ArrayUtil.remove(requiredPollingEndPoints, index);
         }
 
         selectNowToForceProcessing();
     }
 
+    // Closing an end point gives its buffer back to the pool, so it must stop being retried before then, otherwise a
+    // retry could frame messages out of a buffer that now belongs to another connection.
+    private void close(final ReceiverEndPoint endPoint, final DisconnectReason reason)
+    {
+        if (backpressuredEndPoint == endPoint)
+        {
+            backpressuredEndPoint = null;
+        }
+        backpressuredEndPoints.remove(endPoint);
+
+        endPoint.close(reason);
+    }
+
     void receiverEndPointPollingOptional(final long connectionId)
     {
         final ReceiverEndPoint[] requiredPollingEndPoints = this.requiredPollingEndPoints;
@@ -106,19 +155,6 @@ class ReceiverEndPoints extends TransportPoller
         }
     }
 
-    private int findAndCloseEndPoint(
-        final long connectionId,
-        final DisconnectReason reason,
-        final ReceiverEndPoint[] endPoints)
-    {
-        final int index = findEndPoint(connectionId, endPoints);
-        if (index != UNKNOWN_INDEX)
-        {
-            endPoints[index].close(reason);
-        }
-        return index;
-    }
-
     private int findEndPoint(final long connectionId, final ReceiverEndPoint[] endPoints)
     {
         int index = UNKNOWN_INDEX;
@@ -147,7 +183,13 @@ class ReceiverEndPoints extends TransportPoller
         }
     }
 
-    int pollEndPoints()
+    /**
+     * Poll the end points once.
+     *
+     * @param dutyCycle the framer's duty cycle, which the read quotas of connections are replenished by.
+     * @return the number of bytes received.
+     */
+    int pollEndPoints(final long dutyCycle)
     {
         int bytesReceived = 0;
         try
@@ -156,7 +198,12 @@ class ReceiverEndPoints extends TransportPoller
             final ReceiverEndPoint backpressuredEndPoint = this.backpressuredEndPoint;
             final int numRequiredPollingEndPoints = requiredPollingEndPoints.length;
 
-            if (backpressuredEndPoint != null)
+            if (hasReadQuotas)
+            {
+                retryBackpressuredEndPoints();
+                bytesReceived += pollEndPointsWithinQuotas(numRequiredPollingEndPoints, dutyCycle);
+            }
+            else if (backpressuredEndPoint != null)
             {
                 if (backpressuredEndPoint.retryFrameMessages())
                 {
@@ -220,6 +267,79 @@ class ReceiverEndPoints extends TransportPoller
         return bytesReceived;
     }
 
+    private void retryBackpressuredEndPoints()
+    {
+        final ArrayList<ReceiverEndPoint> backpressuredEndPoints = this.backpressuredEndPoints;
+        for (int i = backpressuredEndPoints.size() - 1; i >= 0; i--)
+        {
+            if (backpressuredEndPoints.get(i).retryFrameMessages())
+            {
+                ArrayListUtil.fastUnorderedRemove(backpressuredEndPoints, i);
+            }
+        }
+    }
+
+    private int pollEndPointsWithinQuotas(final int numRequiredPollingEndPoints, final long dutyCycle)
+        throws IOException
+    {
+        int bytesReceived = 0;
+        final ReceiverEndPoint[] endPoints = this.endPoints;
+        final int numEndPoints = endPoints.length;
+        final int threshold = ITERATION_THRESHOLD - numRequiredPollingEndPoints;
+        final int pollOffset = this.pollOffset++ & Integer.MAX_VALUE;
+        if (numEndPoints <= threshold)
+        {
+            int index = numEndPoints > 0 ? pollOffset % numEndPoints : 0;
+            for (int i = 0; i < numEndPoints; i++)
+            {
+                bytesReceived += pollWithinQuota(endPoints[index], dutyCycle);
+                if (++index == numEndPoints)
+                {
+                    index = 0;
+                }
+            }
+        }
+        else
+        {
+            selector.selectNow();
+
+            final SelectionKey[] keys = selectedKeySet.keys();
+            final int size = selectedKeySet.size();
+            int index = size > 0 ? pollOffset % size : 0;
+            for (int i = 0; i < size; i++)
+            {
+                bytesReceived += pollWithinQuota((ReceiverEndPoint)keys[index].attachment(), dutyCycle);
+                if (++index == size)
+                {
+                    index = 0;
+                }
+            }
+
+            // End points that were skipped still have data to read, so the selector picks them again next time.
+            selectedKeySet.reset();
+        }
+        return bytesReceived;
+    }
+
+    private int pollWithinQuota(final ReceiverEndPoint endPoint, final long dutyCycle)
+    {
+        // Back-pressured end points must frame the data that they've already read before reading any more
+        if (endPoint.isBackPressured() || !endPoint.hasReadCredit(dutyCycle))
+        {
+            return 0;
+        }
+
+        final int polledBytes = endPoint.poll();
+        // A back-pressured poll may have read nothing new, so the end point's state rather than the sign of the result
+        // decides whether it needs retrying.
+        if (endPoint.isBackPressured())
+        {
+            backpressuredEndPoints.add(endPoint);
+        }
+
+        return Math.abs(polledBytes);
+    }
+
     private int pollArray(
         final int bytesAlreadyReceived, final ReceiverEndPoint[] endPoints, final int numRequiredPollingEndPoints)
     {
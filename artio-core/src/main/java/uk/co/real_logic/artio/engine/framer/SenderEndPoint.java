@@ -19,7 +19,9 @@ import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import io.aeron.protocol.DataHeaderFlyweight;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.DeadlineTimers;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.engine.ByteBufferUtil;
 import uk.co.real_logic.artio.engine.SenderSequenceNumber;
@@ -49,12 +51,37 @@ class SenderEndPoint
     private final StreamTracker outboundTracker;
     private final StreamTracker replayTracker;
     private final SenderSequenceNumber senderSequenceNumber;
+    private final AtomicCounter tcpWrites;
+    private final AtomicCounter messagesWritten;
+
+    // Outbound messages are copied into this buffer and written to the channel in one write call when the framer
+    // flushes at the end of its outbound poll. Null if coalescing is disabled.
+    private final UnsafeBuffer coalescingBuffer;
+    private final int[] coalescedEndOffsets;
+    private final long[] coalescedPositions;
+    private final int[] coalescedSequenceNumbers;
+    private int coalescedMessageCount;
+    private int coalescedBytes;
+    private boolean awaitingFlush;
+
+    // Outbound bytes that can't be written whilst slow are copied into this queue, rather than being re-read from the
+    // outbound stream by the slow peeker, so that the library's position isn't blocked. Allocated the first time that
+    // the end point spills, a zero spillBufferSize disables spilling.
+    private final int spillBufferSize;
+    private final AtomicCounter spilledBytes;
+    private SpillQueue spillQueue;
+    private int spilledMessageCount;
+    private boolean awaitingDrain;
 
     private int libraryId;
     private long sessionId;
     private long sendingTimeoutTimeInMs;
     private boolean replayPaused;
 
+    // Only has a timer scheduled whilst it's a slow consumer.
+    private DeadlineTimers<SenderEndPoint> timers;
+    private long timerId = DeadlineTimers.NO_TIMER;
+
     SenderEndPoint(
         final long connectionId,
         final int libraryId,
@@ -68,7 +95,13 @@ class SenderEndPoint
         final int maxBytesInBuffer,
         final long slowConsumerTimeoutInMs,
         final long timeInMs,
-        final SenderSequenceNumber senderSequenceNumber)
+        final SenderSequenceNumber senderSequenceNumber,
+        final AtomicCounter tcpWrites,
+        final AtomicCounter messagesWritten,
+        final int coalescingBufferSize,
+        final int coalescingMessageLimit,
+        final int spillBufferSize,
+        final AtomicCounter spilledBytes)
     {
         this.connectionId = connectionId;
         this.libraryId = libraryId;
@@ -80,6 +113,25 @@ class SenderEndPoint
         this.maxBytesInBuffer = maxBytesInBuffer;
         this.slowConsumerTimeoutInMs = slowConsumerTimeoutInMs;
         this.senderSequenceNumber = senderSequenceNumber;
+        this.tcpWrites = tcpWrites;
+        this.messagesWritten = messagesWritten;
+        this.spillBufferSize = spillBufferSize;
+        this.spilledBytes = spilledBytes;
+
+        if (coalescingBufferSize > 0)
+        {
+            coalescingBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(coalescingBufferSize));
+            coalescedEndOffsets = new int[coalescingMessageLimit];
+            coalescedPositions = new long[coalescingMessageLimit];
+            coalescedSequenceNumbers = new int[coalescingMessageLimit];
+        }
+        else
+        {
+            coalescingBuffer = null;
+            coalescedEndOffsets = null;
+            coalescedPositions = null;
+            coalescedSequenceNumbers = null;
+        }
 
         outboundTracker = new StreamTracker(outboundBlockablePosition);
         replayTracker = new StreamTracker(replayBlockablePosition);
@@ -103,16 +155,180 @@ class SenderEndPoint
 
         if (replayPaused)
         {
+            flush(timeInMs);
             dropFurtherBehind(bodyLength);
 
             return;
         }
 
-        attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker);
+        if (isSpilling())
+        {
+            spill(directBuffer, offset, bodyLength, position, 1);
+        }
+        else if (coalescingBuffer != null)
+        {
+            // Coalesced messages update the sequence number when they're flushed
+            if (coalesceFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, sequenceNumber))
+            {
+                return;
+            }
+        }
+        else
+        {
+            attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker);
+        }
 
         senderSequenceNumber.onNewMessage(sequenceNumber);
     }
 
+    // Returns true if the message was copied into the coalescing buffer.
+    private boolean coalesceFramedMessage(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int bodyLength,
+        final long timeInMs,
+        final long position,
+        final int sequenceNumber)
+    {
+        final UnsafeBuffer coalescingBuffer = this.coalescingBuffer;
+        final int capacity = coalescingBuffer.capacity();
+        if (coalescedBytes + bodyLength > capacity)
+        {
+            flush(timeInMs);
+
+            // Messages that don't fit are written directly, if we've become slow they get queued up behind
+            if (bodyLength > capacity || isSlowConsumer())
+            {
+                attemptFramedMessage(directBuffer, offset, bodyLength, timeInMs, position, outboundTracker);
+                return false;
+            }
+        }
+        else if (isSlowConsumer())
+        {
+            dropFurtherBehind(bodyLength);
+            return false;
+        }
+
+        final int index = coalescedMessageCount;
+        coalescingBuffer.putBytes(coalescedBytes, directBuffer, offset, bodyLength);
+        coalescedBytes += bodyLength;
+        coalescedEndOffsets[index] = coalescedBytes;
+        coalescedPositions[index] = position;
+        coalescedSequenceNumbers[index] = sequenceNumber;
+        coalescedMessageCount = index + 1;
+
+        if (coalescedMessageCount == coalescedEndOffsets.length)
+        {
+            flush(timeInMs);
+        }
+
+        return true;
+    }
+
+    /**
+     * Write any coalesced messages out to the channel in a single write.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the number of messages that were flushed.
+     */
+    int flush(final long timeInMs)
+    {
+        final int messageCount = coalescedMessageCount;
+        if (messageCount == 0)
+        {
+            return 0;
+        }
+
+        final int bytes = coalescedBytes;
+        coalescedMessageCount = 0;
+        coalescedBytes = 0;
+
+        try
+        {
+            final ByteBuffer buffer = coalescingBuffer.byteBuffer();
+            ByteBufferUtil.limit(buffer, bytes);
+            ByteBufferUtil.position(buffer, 0);
+
+            final int written = channel.write(buffer);
+            tcpWrites.incrementOrdered();
+            DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", buffer, written);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+
+            if (written == bytes)
+            {
+                outboundTracker.sentPosition = coalescedPositions[messageCount - 1];
+                messagesWritten.getAndAddOrdered(messageCount);
+            }
+            else
+            {
+                onPartialFlush(written, bytes, messageCount);
+            }
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+        }
+
+        senderSequenceNumber.onNewMessage(coalescedSequenceNumbers[messageCount - 1]);
+
+        return messageCount;
+    }
+
+    // The message that the write stopped in becomes partially sent and every later message is queued up behind it
+    // to be sent by the slow consumer path, exactly as if they had been written one at a time. If spilling is enabled
+    // the unwritten bytes are spilled instead.
+    private void onPartialFlush(final int written, final int bytes, final int messageCount)
+    {
+        final int[] coalescedEndOffsets = this.coalescedEndOffsets;
+
+        int index = 0;
+        while (coalescedEndOffsets[index] <= written)
+        {
+            index++;
+        }
+
+        if (index > 0)
+        {
+            outboundTracker.sentPosition = coalescedPositions[index - 1];
+            messagesWritten.getAndAddOrdered(index);
+        }
+
+        if (spillBufferSize > 0)
+        {
+            startSpilling(
+                coalescingBuffer, written, bytes - written, coalescedPositions[messageCount - 1], messageCount - index);
+            return;
+        }
+
+        final int startOffset = index == 0 ? 0 : coalescedEndOffsets[index - 1];
+        final int bodyLength = coalescedEndOffsets[index] - startOffset;
+        becomeSlowConsumer(written - startOffset, bodyLength, coalescedPositions[index], outboundTracker);
+
+        for (int i = index + 1; i < messageCount; i++)
+        {
+            dropFurtherBehind(coalescedEndOffsets[i] - coalescedEndOffsets[i - 1]);
+        }
+    }
+
+    boolean hasCoalescedMessages()
+    {
+        return coalescedMessageCount > 0;
+    }
+
+    // Returns true if the end point wasn't already awaiting a flush from the framer.
+    boolean awaitFlush()
+    {
+        final boolean wasAwaitingFlush = awaitingFlush;
+        awaitingFlush = true;
+        return !wasAwaitingFlush;
+    }
+
+    int flushAwaited(final long timeInMs)
+    {
+        awaitingFlush = false;
+        return flush(timeInMs);
+    }
+
     Action onReplayMessage(
         final DirectBuffer directBuffer,
         final int offset,
@@ -120,6 +336,8 @@ class SenderEndPoint
         final long timeInMs,
         final long position)
     {
+        flush(timeInMs);
+
         if (!isSlowConsumer())
         {
             replayPaused = true;
@@ -137,6 +355,8 @@ class SenderEndPoint
         final long timeInMs,
         final long position)
     {
+        flush(timeInMs);
+
         if (!outboundTracker.partiallySentMessage)
         {
             replayPaused = true;
@@ -169,11 +389,19 @@ class SenderEndPoint
 
             if (written != bodyLength)
             {
-                becomeSlowConsumer(written, bodyLength, position, tracker);
+                if (tracker == outboundTracker && spillBufferSize > 0)
+                {
+                    startSpilling(directBuffer, offset + written, bodyLength - written, position, 1);
+                }
+                else
+                {
+                    becomeSlowConsumer(written, bodyLength, position, tracker);
+                }
             }
             else
             {
                 tracker.sentPosition = position;
+                messagesWritten.incrementOrdered();
             }
         }
         catch (final IOException ex)
@@ -193,6 +421,119 @@ class SenderEndPoint
         this.bytesInBuffer.setOrdered(bytesInBuffer);
     }
 
+    private void startSpilling(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int length,
+        final long position,
+        final int messageCount)
+    {
+        if (spillQueue == null)
+        {
+            spillQueue = new SpillQueue(spillBufferSize);
+        }
+
+        sendSlowStatus(true);
+        spill(directBuffer, offset, length, position, messageCount);
+        scheduleTimeoutCheck();
+    }
+
+    private void spill(
+        final DirectBuffer directBuffer,
+        final int offset,
+        final int length,
+        final long position,
+        final int messageCount)
+    {
+        final SpillQueue spillQueue = this.spillQueue;
+        final long bytesInBuffer = bytesInBufferWeak() + length;
+        if (bytesInBuffer > maxBytesInBuffer || !spillQueue.offer(directBuffer, offset, length))
+        {
+            removeEndpoint(SLOW_CONSUMER);
+            return;
+        }
+
+        this.bytesInBuffer.setOrdered(bytesInBuffer);
+        spilledBytes.setOrdered(spillQueue.size());
+        spilledMessageCount += messageCount;
+        // Spilled messages count as sent as far as the outbound stream is concerned, so they're skipped by the slow
+        // peeker and the library's position isn't blocked on their behalf.
+        outboundTracker.sentPosition = position;
+    }
+
+    // Only spill whilst the spilled bytes are all that this end point is behind by, otherwise further messages need
+    // to be queued up behind the bytes that are awaiting a retry from the slow peeker.
+    private boolean isSpilling()
+    {
+        return hasSpilledBytes() && bytesInBufferWeak() == spillQueue.size();
+    }
+
+    boolean hasSpilledBytes()
+    {
+        final SpillQueue spillQueue = this.spillQueue;
+        return spillQueue != null && !spillQueue.isEmpty();
+    }
+
+    // Returns true if the end point has spilled bytes and wasn't already awaiting a drain from the framer.
+    boolean awaitDrain()
+    {
+        if (awaitingDrain || !hasSpilledBytes())
+        {
+            return false;
+        }
+
+        awaitingDrain = true;
+        return true;
+    }
+
+    boolean awaitingDrain()
+    {
+        return awaitingDrain;
+    }
+
+    /**
+     * Write spilled bytes out to the channel, the end point stops awaiting a drain once they have all been written.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the number of bytes written.
+     */
+    int drainSpillQueue(final long timeInMs)
+    {
+        if (!hasSpilledBytes())
+        {
+            awaitingDrain = false;
+            return 0;
+        }
+
+        final SpillQueue spillQueue = this.spillQueue;
+        try
+        {
+            final int written = spillQueue.writeTo(channel, tcpWrites);
+            updateSendingTimeoutTimeInMs(timeInMs, written);
+            bytesInBuffer.getAndAddOrdered(-written);
+            spilledBytes.setOrdered(spillQueue.size());
+
+            if (spillQueue.isEmpty())
+            {
+                awaitingDrain = false;
+                messagesWritten.getAndAddOrdered(spilledMessageCount);
+                spilledMessageCount = 0;
+
+                if (!isSlowConsumer())
+                {
+                    becomeNormalConsumer();
+                }
+            }
+
+            return written;
+        }
+        catch (final IOException ex)
+        {
+            onError(ex);
+            return 0;
+        }
+    }
+
     private int writeFramedMessage(
         final DirectBuffer directBuffer,
         final int offset,
@@ -205,6 +546,7 @@ class SenderEndPoint
         ByteBufferUtil.position(buffer, offset);
 
         final int written = channel.write(buffer);
+        tcpWrites.incrementOrdered();
         DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", buffer, written);
         updateSendingTimeoutTimeInMs(timeInMs, written);
 
@@ -234,6 +576,7 @@ class SenderEndPoint
         sendSlowStatus(true);
         tracker.sentPosition = position - remainingBytes;
         tracker.partiallySentMessage = true;
+        scheduleTimeoutCheck();
     }
 
     private void becomeNormalConsumer()
@@ -269,8 +612,21 @@ class SenderEndPoint
 
     public void close()
     {
+        timers(null);
+        coalescedMessageCount = 0;
+        coalescedBytes = 0;
+        if (spillQueue != null)
+        {
+            spillQueue.clear();
+        }
+        spilledMessageCount = 0;
+        awaitingDrain = false;
         bytesInBuffer.close();
         invalidLibraryAttempts.close();
+        if (spilledBytes != null)
+        {
+            spilledBytes.close();
+        }
     }
 
     Action onSlowOutboundMessage(
@@ -288,6 +644,8 @@ class SenderEndPoint
             return CONTINUE;
         }
 
+        flush(timeInMs);
+
         if (replayPaused)
         {
             return blockPosition(position, length, outboundTracker);
@@ -327,7 +685,8 @@ class SenderEndPoint
             return CONTINUE;
         }
 
-        if (partiallySentOtherStream(tracker))
+        // Spilled bytes were sent earlier on the outbound stream than any message that is retried here
+        if (partiallySentOtherStream(tracker) || hasSpilledBytes())
         {
             return blockPosition(position, length, tracker);
         }
@@ -357,6 +716,7 @@ class SenderEndPoint
             ByteBufferUtil.position(buffer, dataOffset);
 
             final int written = channel.write(buffer);
+            tcpWrites.incrementOrdered();
             bytesInBuffer.getAndAddOrdered(-written);
 
             updateSendingTimeoutTimeInMs(timeInMs, written);
@@ -371,6 +731,7 @@ class SenderEndPoint
                 tracker.sentPosition = position;
                 tracker.partiallySentMessage = false;
                 tracker.skipPosition = Long.MAX_VALUE;
+                messagesWritten.incrementOrdered();
 
                 if (!isSlowConsumer())
                 {
@@ -454,6 +815,48 @@ class SenderEndPoint
         return false;
     }
 
+    void timers(final DeadlineTimers<SenderEndPoint> timers)
+    {
+        if (this.timers != null)
+        {
+            this.timers.cancel(timerId);
+            timerId = DeadlineTimers.NO_TIMER;
+        }
+
+        this.timers = timers;
+        if (isSlowConsumer())
+        {
+            scheduleTimeoutCheck();
+        }
+    }
+
+    int onTimerExpiry(final long timeInMs)
+    {
+        timerId = DeadlineTimers.NO_TIMER;
+
+        if (checkTimeouts(timeInMs))
+        {
+            return 1;
+        }
+
+        // Writes may have pushed the timeout back since this timer was scheduled.
+        if (isSlowConsumer())
+        {
+            scheduleTimeoutCheck();
+        }
+
+        return 0;
+    }
+
+    private void scheduleTimeoutCheck()
+    {
+        final DeadlineTimers<SenderEndPoint> timers = this.timers;
+        if (timers != null && timerId == DeadlineTimers.NO_TIMER)
+        {
+            timerId = timers.schedule(this, sendingTimeoutTimeInMs + 1);
+        }
+    }
+
     Action onReplayComplete()
     {
         if (!replayTracker.partiallySentMessage)
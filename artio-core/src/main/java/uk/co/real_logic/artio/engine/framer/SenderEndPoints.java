@@ -19,11 +19,15 @@ import io.aeron.logbuffer.ControlledFragmentHandler;
 import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
+import org.agrona.collections.ArrayListUtil;
 import org.agrona.collections.Long2ObjectHashMap;
+import uk.co.real_logic.artio.DeadlineTimers;
 import uk.co.real_logic.artio.engine.FixEngine;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.LongToIntFunction;
 
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
@@ -35,6 +39,9 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final FixMessageDecoder fixMessage = new FixMessageDecoder();
     private final Long2ObjectHashMap<SenderEndPoint> connectionIdToSenderEndpoint = new Long2ObjectHashMap<>();
+    private final List<SenderEndPoint> endPointsAwaitingFlush = new ArrayList<>();
+    private final ArrayList<SenderEndPoint> endPointsAwaitingDrain = new ArrayList<>();
+    private final DeadlineTimers<SenderEndPoint> slowConsumerTimers;
     private final ErrorHandler errorHandler;
     private final LongToIntFunction libraryLookup = this::libraryLookup;
 
@@ -53,14 +60,16 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
 
     private long timeInMs;
 
-    SenderEndPoints(final ErrorHandler errorHandler)
+    SenderEndPoints(final ErrorHandler errorHandler, final long timeInMs)
     {
         this.errorHandler = errorHandler;
+        slowConsumerTimers = new DeadlineTimers<>(timeInMs, SenderEndPoint::onTimerExpiry);
     }
 
     public void add(final SenderEndPoint senderEndPoint)
     {
         connectionIdToSenderEndpoint.put(senderEndPoint.connectionId(), senderEndPoint);
+        senderEndPoint.timers(slowConsumerTimers);
     }
 
     void removeConnection(final long connectionId)
@@ -85,16 +94,83 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         if (endPoint != null)
         {
             endPoint.onOutboundMessage(libraryId, buffer, offset, length, sequenceNumber, position, timeInMs);
+
+            if (endPoint.hasCoalescedMessages() && endPoint.awaitFlush())
+            {
+                endPointsAwaitingFlush.add(endPoint);
+            }
+
+            checkSpilled(endPoint);
+        }
+    }
+
+    private void checkSpilled(final SenderEndPoint endPoint)
+    {
+        if (endPoint.awaitDrain())
+        {
+            endPointsAwaitingDrain.add(endPoint);
         }
     }
 
+    int flush()
+    {
+        final List<SenderEndPoint> endPointsAwaitingFlush = this.endPointsAwaitingFlush;
+        final int size = endPointsAwaitingFlush.size();
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        final long timeInMs = this.timeInMs;
+        int messagesFlushed = 0;
+        for (int i = 0; i < size; i++)
+        {
+            final SenderEndPoint endPoint = endPointsAwaitingFlush.get(i);
+            messagesFlushed += endPoint.flushAwaited(timeInMs);
+            checkSpilled(endPoint);
+        }
+        endPointsAwaitingFlush.clear();
+
+        return messagesFlushed;
+    }
+
+    /**
+     * Write the bytes that slow consumers have spilled out to their channels.
+     *
+     * @return the number of bytes written.
+     */
+    int drainSpillQueues()
+    {
+        final ArrayList<SenderEndPoint> endPointsAwaitingDrain = this.endPointsAwaitingDrain;
+        if (endPointsAwaitingDrain.isEmpty())
+        {
+            return 0;
+        }
+
+        final long timeInMs = this.timeInMs;
+        int bytesWritten = 0;
+        for (int i = endPointsAwaitingDrain.size() - 1; i >= 0; i--)
+        {
+            final SenderEndPoint endPoint = endPointsAwaitingDrain.get(i);
+            bytesWritten += endPoint.drainSpillQueue(timeInMs);
+            if (!endPoint.awaitingDrain())
+            {
+                ArrayListUtil.fastUnorderedRemove(endPointsAwaitingDrain, i);
+            }
+        }
+
+        return bytesWritten;
+    }
+
     Action onReplayMessage(
         final long connectionId, final DirectBuffer buffer, final int offset, final int length, final long position)
     {
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            return endPoint.onReplayMessage(buffer, offset, length, timeInMs, position);
+            final Action action = endPoint.onReplayMessage(buffer, offset, length, timeInMs, position);
+            checkSpilled(endPoint);
+            return action;
         }
         else
         {
@@ -110,7 +186,9 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
         final SenderEndPoint endPoint = connectionIdToSenderEndpoint.get(connectionId);
         if (endPoint != null)
         {
-            return endPoint.onSlowReplayMessage(buffer, offset, length, timeInMs, position);
+            final Action action = endPoint.onSlowReplayMessage(buffer, offset, length, timeInMs, position);
+            checkSpilled(endPoint);
+            return action;
         }
         else
         {
@@ -156,8 +234,10 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
             {
                 final int bodyLength = fixMessage.bodyLength();
                 final int libraryId = fixMessage.libraryId();
-                return senderEndPoint.onSlowOutboundMessage(
+                final Action action = senderEndPoint.onSlowOutboundMessage(
                     buffer, offset, length - HEADER_LENGTH, position, bodyLength, libraryId, timeInMs);
+                checkSpilled(senderEndPoint);
+                return action;
             }
         }
 
@@ -188,16 +268,8 @@ class SenderEndPoints implements AutoCloseable, ControlledFragmentHandler
 
     int checkTimeouts(final long timeInMs)
     {
-        int count = 0;
-        for (final SenderEndPoint senderEndPoint : connectionIdToSenderEndpoint.values())
-        {
-            if (senderEndPoint.checkTimeouts(timeInMs))
-            {
-                count++;
-            }
-        }
-
-        return count;
+        // Only slow consumers have timers scheduled, so this doesn't iterate over every end point.
+        return slowConsumerTimers.poll(timeInMs);
     }
 
     public LongToIntFunction libraryLookup()
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.engine.ByteBufferUtil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static uk.co.real_logic.artio.LogTag.FIX_MESSAGE_TCP;
+
+/**
+ * Bounded FIFO of bytes, held in direct memory, that a slow consumer's sender end point copies the outbound bytes
+ * that it can't write into. This lets the outbound stream move on rather than being re-read by the slow peeker.
+ *
+ * Bytes are held in a ring, so each write to the channel covers at most the bytes up to the end of the buffer.
+ */
+class SpillQueue
+{
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer buffer;
+    private final int capacity;
+
+    private int head;
+    private int size;
+
+    SpillQueue(final int capacity)
+    {
+        this.capacity = capacity;
+        byteBuffer = ByteBuffer.allocateDirect(capacity);
+        buffer = new UnsafeBuffer(byteBuffer);
+    }
+
+    /**
+     * Copy bytes onto the end of the queue.
+     *
+     * @param srcBuffer the buffer to copy from.
+     * @param srcOffset the offset within srcBuffer of the first byte to copy.
+     * @param length the number of bytes to copy.
+     * @return true if the bytes were copied, false if there isn't enough room for them.
+     */
+    boolean offer(final DirectBuffer srcBuffer, final int srcOffset, final int length)
+    {
+        final int capacity = this.capacity;
+        if (length > capacity - size)
+        {
+            return false;
+        }
+
+        int tail = head + size;
+        if (tail >= capacity)
+        {
+            tail -= capacity;
+        }
+
+        final int firstLength = Math.min(length, capacity - tail);
+        buffer.putBytes(tail, srcBuffer, srcOffset, firstLength);
+        if (firstLength < length)
+        {
+            buffer.putBytes(0, srcBuffer, srcOffset + firstLength, length - firstLength);
+        }
+        size += length;
+
+        return true;
+    }
+
+    /**
+     * Write as many queued bytes to the channel as it accepts, in up to two writes if the bytes wrap around the end
+     * of the buffer.
+     *
+     * @param channel the channel to write to.
+     * @param tcpWrites the counter of write calls made to the channel.
+     * @return the number of bytes written.
+     * @throws IOException if the channel throws.
+     */
+    int writeTo(final TcpChannel channel, final AtomicCounter tcpWrites) throws IOException
+    {
+        final ByteBuffer byteBuffer = this.byteBuffer;
+        final int capacity = this.capacity;
+
+        int totalWritten = 0;
+        while (size > 0)
+        {
+            final int head = this.head;
+            final int length = Math.min(size, capacity - head);
+            ByteBufferUtil.limit(byteBuffer, head + length);
+            ByteBufferUtil.position(byteBuffer, head);
+
+            final int written = channel.write(byteBuffer);
+            tcpWrites.incrementOrdered();
+            DebugLogger.log(FIX_MESSAGE_TCP, "Written  %s%n", byteBuffer, written);
+            totalWritten += written;
+            size -= written;
+
+            final int newHead = head + written;
+            // Start again from the beginning of the buffer when empty in order to avoid needlessly wrapping
+            this.head = (newHead == capacity || size == 0) ? 0 : newHead;
+
+            if (written < length)
+            {
+                break;
+            }
+        }
+
+        return totalWritten;
+    }
+
+    int size()
+    {
+        return size;
+    }
+
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    void clear()
+    {
+        head = 0;
+        size = 0;
+    }
+}
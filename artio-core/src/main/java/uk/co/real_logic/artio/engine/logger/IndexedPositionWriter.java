@@ -19,6 +19,7 @@ import org.agrona.ErrorHandler;
 import org.agrona.collections.Int2IntHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import uk.co.real_logic.artio.engine.ChecksumFramer;
+import uk.co.real_logic.artio.engine.SectorFramer;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
 import uk.co.real_logic.artio.storage.messages.IndexedPositionDecoder;
@@ -83,7 +84,16 @@ class IndexedPositionWriter
         }
     }
 
-    void indexedUpTo(final int aeronSessionId, final long recordingId, final long position)
+    /**
+     * Record the position that a stream has been indexed up to.
+     *
+     * @param aeronSessionId the aeron session id of the stream.
+     * @param recordingId the recording id of the stream.
+     * @param position the position that the stream has been indexed up to.
+     * @return the offset within the buffer of the updated record or {@link SectorFramer#OUT_OF_SPACE} if there's no
+     * space for a new record.
+     */
+    int indexedUpTo(final int aeronSessionId, final long recordingId, final long position)
     {
         final Int2IntHashMap recordOffsets = this.recordOffsets;
 
@@ -99,12 +109,12 @@ class IndexedPositionWriter
             while (true)
             {
                 offset = checksumFramer.claim(offset, RECORD_LENGTH);
-                if (position == OUT_OF_SPACE)
+                if (offset == OUT_OF_SPACE)
                 {
                     errorHandler.onError(new IllegalStateException(String.format(
                         "Unable to record new session (%d), indexed position buffer full",
                         aeronSessionId)));
-                    return;
+                    return OUT_OF_SPACE;
                 }
 
                 decoder.wrap(buffer, offset, actingBlockLength, actingVersion);
@@ -117,7 +127,7 @@ class IndexedPositionWriter
 
                     recordOffsets.put(aeronSessionId, offset);
                     putPosition(position, buffer, offset);
-                    return;
+                    return offset;
                 }
 
                 offset += RECORD_LENGTH;
@@ -126,6 +136,7 @@ class IndexedPositionWriter
         else
         {
             putPosition(position, buffer, offset);
+            return offset;
         }
     }
 
@@ -147,5 +158,6 @@ class IndexedPositionWriter
     private void putPosition(final long position, final AtomicBuffer buffer, final int offset)
     {
         buffer.putLongVolatile(offset + POSITION_OFFSET, position);
+        checksumFramer.markDirty(offset);
     }
 }
@@ -20,6 +20,9 @@ import io.aeron.logbuffer.Header;
 import org.agrona.DirectBuffer;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.protocol.ReservedValue;
+
+import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
 
 class LogEntryHandler implements FragmentHandler
 {
@@ -36,6 +39,24 @@ class LogEntryHandler implements FragmentHandler
     public void onFragment(
         final DirectBuffer buffer, int offset, final int length, final Header header)
     {
+        // Messages framed from a single read of a connection can share a fragment, each is passed on by itself.
+        final int messageCount = ReservedValue.messageCount(header);
+        if (messageCount > 1)
+        {
+            for (int i = 0; i < messageCount; i++)
+            {
+                messageHeader.wrap(buffer, offset);
+                final int messageOffset = offset + MessageHeaderDecoder.ENCODED_LENGTH;
+                fixMessage.wrap(buffer, messageOffset, messageHeader.blockLength(), messageHeader.version());
+                final int frameLength = MessageHeaderDecoder.ENCODED_LENGTH + FRAME_SIZE + fixMessage.bodyLength();
+
+                handler.onMessage(fixMessage, buffer, messageOffset, frameLength, header);
+
+                offset += frameLength;
+            }
+            return;
+        }
+
         messageHeader.wrap(buffer, offset);
         if (messageHeader.templateId() == FixMessageDecoder.TEMPLATE_ID)
         {
@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.engine.logger;
 
 import io.aeron.logbuffer.Header;
 import org.agrona.BitUtil;
+import org.agrona.CloseHelper;
 import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
@@ -28,6 +29,7 @@ import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.FixMessageEncoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.protocol.ReservedValue;
 import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
 
 import java.io.File;
@@ -45,6 +47,9 @@ import static uk.co.real_logic.artio.messages.MessageStatus.OK;
  *
  * Written Positions are stored in a separate file at {@link ReplayIndexDescriptor#replayPositionPath(String, int)}.
  *
+ * The buffer for each session is either a separate file or, if {@link ReplayIndexSegments} are provided, a region
+ * within a shared segment file.
+ *
  * Buffer Consists of:
  *
  * MessageHeader
@@ -72,6 +77,7 @@ public class ReplayIndex implements Index
     private final BufferFactory bufferFactory;
     private final AtomicBuffer positionBuffer;
     private final RecordingIdLookup recordingIdLookup;
+    private final ReplayIndexSegments segments;
 
     public ReplayIndex(
         final String logFileDir,
@@ -83,6 +89,31 @@ public class ReplayIndex implements Index
         final AtomicBuffer positionBuffer,
         final ErrorHandler errorHandler,
         final RecordingIdLookup recordingIdLookup)
+    {
+        this(
+            logFileDir,
+            requiredStreamId,
+            indexFileSize,
+            cacheNumSets,
+            cacheSetSize,
+            bufferFactory,
+            positionBuffer,
+            errorHandler,
+            recordingIdLookup,
+            null);
+    }
+
+    public ReplayIndex(
+        final String logFileDir,
+        final int requiredStreamId,
+        final int indexFileSize,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final BufferFactory bufferFactory,
+        final AtomicBuffer positionBuffer,
+        final ErrorHandler errorHandler,
+        final RecordingIdLookup recordingIdLookup,
+        final ReplayIndexSegments segments)
     {
         this.logFileDir = logFileDir;
         this.requiredStreamId = requiredStreamId;
@@ -90,6 +121,7 @@ public class ReplayIndex implements Index
         this.bufferFactory = bufferFactory;
         this.positionBuffer = positionBuffer;
         this.recordingIdLookup = recordingIdLookup;
+        this.segments = segments;
 
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
         checkIndexFileSize(indexFileSize);
@@ -124,20 +156,27 @@ public class ReplayIndex implements Index
         if ((flags & UNFRAGMENTED) == UNFRAGMENTED || beginMessage)
         {
             int offset = srcOffset;
-            frameHeaderDecoder.wrap(srcBuffer, offset);
-            if (frameHeaderDecoder.templateId() == FixMessageEncoder.TEMPLATE_ID)
+            // Messages framed from a single read of a connection can share a fragment, each is indexed against it.
+            final int messageCount = ReservedValue.messageCount(header);
+            for (int i = 0; i < messageCount; i++)
             {
+                frameHeaderDecoder.wrap(srcBuffer, offset);
+                if (frameHeaderDecoder.templateId() != FixMessageEncoder.TEMPLATE_ID)
+                {
+                    break;
+                }
+
                 final int actingBlockLength = frameHeaderDecoder.blockLength();
                 offset += frameHeaderDecoder.encodedLength();
 
                 messageFrame.wrap(srcBuffer, offset, actingBlockLength, frameHeaderDecoder.version());
+                offset += actingBlockLength + 2;
+                final int bodyLength = messageFrame.bodyLength();
+
                 if (messageFrame.status() == OK)
                 {
-                    offset += actingBlockLength + 2;
-
                     final long fixSessionId = messageFrame.session();
-                    final int sequenceNumber = sequenceNumberExtractor.extract(
-                        srcBuffer, offset, messageFrame.bodyLength());
+                    final int sequenceNumber = sequenceNumberExtractor.extract(srcBuffer, offset, bodyLength);
                     final int sequenceIndex = messageFrame.sequenceIndex();
 
                     if (sequenceNumber != NO_SEQUENCE_NUMBER)
@@ -154,6 +193,8 @@ public class ReplayIndex implements Index
                             .onRecord(endPosition, length, sequenceNumber, sequenceIndex, header);
                     }
                 }
+
+                offset += bodyLength;
             }
         }
         else
@@ -173,6 +214,7 @@ public class ReplayIndex implements Index
     {
         positionWriter.close();
         fixSessionIdToIndex.clear();
+        CloseHelper.close(segments);
         IoUtil.unmap(positionBuffer.byteBuffer());
     }
 
@@ -189,10 +231,27 @@ public class ReplayIndex implements Index
 
         SessionIndex(final long fixSessionId)
         {
-            final File logFile = replayIndexFile(logFileDir, fixSessionId, requiredStreamId);
-            final boolean exists = logFile.exists();
-            this.wrappedBuffer = bufferFactory.map(logFile, indexFileSize);
-            this.buffer = new UnsafeBuffer(wrappedBuffer);
+            final boolean exists;
+            if (segments == null)
+            {
+                final File logFile = replayIndexFile(logFileDir, fixSessionId, requiredStreamId);
+                exists = logFile.exists();
+                this.wrappedBuffer = bufferFactory.map(logFile, indexFileSize);
+                this.buffer = new UnsafeBuffer(wrappedBuffer);
+            }
+            else
+            {
+                final AtomicBuffer existingBuffer = segments.sessionBuffer(fixSessionId);
+                exists = existingBuffer != null;
+                this.wrappedBuffer = null;
+                this.buffer = exists ? existingBuffer : segments.newSessionBuffer(fixSessionId);
+                if (buffer == null)
+                {
+                    // No space left in the segments to index this session.
+                    recordCapacity = 0;
+                    return;
+                }
+            }
 
             recordCapacity = recordCapacity(buffer.capacity());
             if (!exists)
@@ -219,6 +278,12 @@ public class ReplayIndex implements Index
             final int sequenceIndex,
             final Header header)
         {
+            final AtomicBuffer buffer = this.buffer;
+            if (buffer == null)
+            {
+                return;
+            }
+
             final long beginChangePosition = beginChange(buffer);
             final long changePosition = beginChangePosition + RECORD_LENGTH;
             final int aeronSessionId = header.sessionId();
@@ -243,7 +308,11 @@ public class ReplayIndex implements Index
 
         public void close()
         {
-            IoUtil.unmap(wrappedBuffer);
+            // Segments stay mapped until the index is closed.
+            if (wrappedBuffer != null)
+            {
+                IoUtil.unmap(wrappedBuffer);
+            }
         }
     }
 }
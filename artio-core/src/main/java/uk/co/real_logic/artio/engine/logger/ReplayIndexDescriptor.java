@@ -32,6 +32,15 @@ public final class ReplayIndexDescriptor
 
     public static final int INITIAL_RECORD_OFFSET = END_CHANGE_OFFSET + BitUtil.SIZE_OF_LONG;
 
+    private static final int DIRECTORY_REGION_COUNT_OFFSET = 0;
+    private static final int DIRECTORY_ENTRIES_OFFSET = DIRECTORY_REGION_COUNT_OFFSET + BitUtil.SIZE_OF_LONG;
+    private static final int DIRECTORY_ENTRY_LENGTH = BitUtil.SIZE_OF_LONG;
+
+    private static final int SEGMENT_INDEX_FILE_SIZE_OFFSET = 0;
+    private static final int SEGMENT_SESSIONS_PER_SEGMENT_OFFSET = SEGMENT_INDEX_FILE_SIZE_OFFSET + BitUtil.SIZE_OF_INT;
+    // Padded out to a cache line so that regions keep the alignment of the records within them
+    static final int SEGMENT_HEADER_LENGTH = BitUtil.CACHE_LINE_LENGTH;
+
     static final int RECORD_LENGTH = 32;
     static
     {
@@ -47,6 +56,63 @@ public final class ReplayIndexDescriptor
         return new File(String.format(logFileDir + File.separator + "replay-index-%d-%d", fixSessionId, streamId));
     }
 
+    static File replayIndexDirectoryFile(final String logFileDir, final int streamId)
+    {
+        return new File(logFileDir + File.separator + "replay-index-directory-" + streamId);
+    }
+
+    static File replayIndexSegmentFile(final String logFileDir, final int streamId, final int segmentIndex)
+    {
+        return new File(String.format(
+            logFileDir + File.separator + "replay-index-segment-%d-%d", streamId, segmentIndex));
+    }
+
+    static int directoryFileSize(final int directoryCapacity)
+    {
+        return DIRECTORY_ENTRIES_OFFSET + directoryCapacity * DIRECTORY_ENTRY_LENGTH;
+    }
+
+    static int directoryEntryOffset(final long region)
+    {
+        return DIRECTORY_ENTRIES_OFFSET + (int)region * DIRECTORY_ENTRY_LENGTH;
+    }
+
+    static int segmentFileSize(final int indexFileSize, final int sessionsPerSegment)
+    {
+        return SEGMENT_HEADER_LENGTH + sessionsPerSegment * indexFileSize;
+    }
+
+    static int segmentRegionOffset(final int regionWithinSegment, final int indexFileSize)
+    {
+        return SEGMENT_HEADER_LENGTH + regionWithinSegment * indexFileSize;
+    }
+
+    static void segmentHeader(final AtomicBuffer segment, final int indexFileSize, final int sessionsPerSegment)
+    {
+        segment.putInt(SEGMENT_INDEX_FILE_SIZE_OFFSET, indexFileSize);
+        segment.putInt(SEGMENT_SESSIONS_PER_SEGMENT_OFFSET, sessionsPerSegment);
+    }
+
+    static int segmentIndexFileSize(final AtomicBuffer segment)
+    {
+        return segment.getInt(SEGMENT_INDEX_FILE_SIZE_OFFSET);
+    }
+
+    static int segmentSessionsPerSegment(final AtomicBuffer segment)
+    {
+        return segment.getInt(SEGMENT_SESSIONS_PER_SEGMENT_OFFSET);
+    }
+
+    static void regionCountOrdered(final AtomicBuffer directory, final long regionCount)
+    {
+        directory.putLongOrdered(DIRECTORY_REGION_COUNT_OFFSET, regionCount);
+    }
+
+    static long regionCountVolatile(final AtomicBuffer directory)
+    {
+        return directory.getLongVolatile(DIRECTORY_REGION_COUNT_OFFSET);
+    }
+
     public static UnsafeBuffer replayPositionBuffer(final String logFileDir, final int streamId)
     {
         final String pathname = replayPositionPath(logFileDir, streamId);
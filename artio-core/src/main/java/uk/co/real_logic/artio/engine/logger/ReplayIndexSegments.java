@@ -0,0 +1,323 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.collections.Long2LongHashMap;
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Stores the replay index of every FIX session on a stream in a small number of shared segment files rather than
+ * in a file per session.
+ *
+ * Each session is allocated a region of the index file size when it is first indexed. Regions are allocated
+ * sequentially, so the n-th session to be indexed has the n-th region, and a new segment file is created once the
+ * previous one is full. The directory file records the FIX session id of each allocated region followed by the
+ * count of allocated regions, which is written with ordered semantics once the region's session id has been written.
+ *
+ * Each segment file starts with a header that records the index file size and the number of sessions per segment
+ * that it was created with. These determine where each session's region is, so segments are validated against the
+ * configured values when they're mapped, rather than silently mapping sessions onto the wrong regions.
+ *
+ * Within a region the records are laid out and updated exactly as they are in a per-session index file, so the
+ * single-writer, multiple-reader protocol of the {@link ReplayIndex} and {@link ReplayQuery} is unchanged.
+ *
+ * Instances are not thread safe: the writer and each reader should have their own instance.
+ */
+public class ReplayIndexSegments implements AutoCloseable
+{
+    private static final long MISSING_REGION = -1;
+
+    private final Long2LongHashMap fixSessionIdToRegion = new Long2LongHashMap(MISSING_REGION);
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final List<AtomicBuffer> regionBuffers = new ArrayList<>();
+    private final String logFileDir;
+    private final int streamId;
+    private final int indexFileSize;
+    private final int sessionsPerSegment;
+    private final int directoryCapacity;
+    private final ErrorHandler errorHandler;
+    private final boolean writer;
+
+    private ByteBuffer directoryBuffer;
+    private AtomicBuffer directory;
+    private long scannedRegionCount = 0;
+
+    /**
+     * Create the segments used by the {@link ReplayIndex} that writes to them.
+     *
+     * @param logFileDir the directory that the index files are stored in.
+     * @param streamId the stream that is being indexed.
+     * @param indexFileSize the size of the replay index of each session.
+     * @param sessionsPerSegment the number of sessions whose index is stored in each segment file.
+     * @param directoryCapacity the maximum number of sessions that can be indexed.
+     * @param errorHandler the handler for errors when no more sessions can be indexed.
+     * @return the segments for the writer.
+     */
+    public static ReplayIndexSegments writer(
+        final String logFileDir,
+        final int streamId,
+        final int indexFileSize,
+        final int sessionsPerSegment,
+        final int directoryCapacity,
+        final ErrorHandler errorHandler)
+    {
+        return new ReplayIndexSegments(
+            logFileDir, streamId, indexFileSize, sessionsPerSegment, directoryCapacity, errorHandler, true);
+    }
+
+    /**
+     * Create the segments used by a {@link ReplayQuery} in order to read them.
+     *
+     * @param logFileDir the directory that the index files are stored in.
+     * @param streamId the stream that is being indexed.
+     * @param indexFileSize the size of the replay index of each session.
+     * @param sessionsPerSegment the number of sessions whose index is stored in each segment file.
+     * @param directoryCapacity the maximum number of sessions that can be indexed.
+     * @param errorHandler the handler for errors.
+     * @return the segments for a reader.
+     */
+    public static ReplayIndexSegments reader(
+        final String logFileDir,
+        final int streamId,
+        final int indexFileSize,
+        final int sessionsPerSegment,
+        final int directoryCapacity,
+        final ErrorHandler errorHandler)
+    {
+        return new ReplayIndexSegments(
+            logFileDir, streamId, indexFileSize, sessionsPerSegment, directoryCapacity, errorHandler, false);
+    }
+
+    private ReplayIndexSegments(
+        final String logFileDir,
+        final int streamId,
+        final int indexFileSize,
+        final int sessionsPerSegment,
+        final int directoryCapacity,
+        final ErrorHandler errorHandler,
+        final boolean writer)
+    {
+        checkIndexFileSize(indexFileSize);
+        if (sessionsPerSegment < 1 ||
+            SEGMENT_HEADER_LENGTH + (long)sessionsPerSegment * indexFileSize > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException(String.format(
+                "Invalid number of sessions per segment: %d, index file size: %d",
+                sessionsPerSegment,
+                indexFileSize));
+        }
+
+        this.logFileDir = logFileDir;
+        this.streamId = streamId;
+        this.indexFileSize = indexFileSize;
+        this.sessionsPerSegment = sessionsPerSegment;
+        this.directoryCapacity = directoryCapacity;
+        this.errorHandler = errorHandler;
+        this.writer = writer;
+
+        if (writer)
+        {
+            final File directoryFile = replayIndexDirectoryFile(logFileDir, streamId);
+            directoryBuffer = LoggerUtil.map(directoryFile, directoryFileSize(directoryCapacity));
+            directory = new UnsafeBuffer(directoryBuffer);
+            scanDirectory();
+
+            if (scannedRegionCount > 0)
+            {
+                // Validate the layout of existing segments upon startup, rather than upon first use.
+                try
+                {
+                    segment(0);
+                }
+                catch (final RuntimeException ex)
+                {
+                    close();
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    /**
+     * Lookup the replay index of a session.
+     *
+     * @param fixSessionId the id of the session.
+     * @return the buffer containing the replay index of the session or null if it hasn't been indexed.
+     */
+    AtomicBuffer sessionBuffer(final long fixSessionId)
+    {
+        long region = fixSessionIdToRegion.get(fixSessionId);
+        if (region == MISSING_REGION && mapDirectory())
+        {
+            scanDirectory();
+            region = fixSessionIdToRegion.get(fixSessionId);
+        }
+
+        return region == MISSING_REGION ? null : regionBuffer(region);
+    }
+
+    /**
+     * Allocate the replay index of a session that hasn't been indexed before. The allocated index is zeroed.
+     *
+     * @param fixSessionId the id of the session.
+     * @return the buffer containing the replay index of the session or null if there's no more space in the
+     *         directory.
+     */
+    AtomicBuffer newSessionBuffer(final long fixSessionId)
+    {
+        if (!writer)
+        {
+            throw new IllegalStateException("Only the writer can allocate new sessions");
+        }
+
+        final long region = scannedRegionCount;
+        if (region >= directoryCapacity)
+        {
+            errorHandler.onError(new IllegalStateException(String.format(
+                "Unable to index new session (%d), replay index directory full with %d sessions",
+                fixSessionId,
+                directoryCapacity)));
+            return null;
+        }
+
+        // Map the region before publishing it, so that the segment file exists before readers can see it.
+        final AtomicBuffer buffer = regionBuffer(region);
+
+        directory.putLong(directoryEntryOffset(region), fixSessionId);
+        regionCountOrdered(directory, region + 1);
+        fixSessionIdToRegion.put(fixSessionId, region);
+        scannedRegionCount = region + 1;
+
+        return buffer;
+    }
+
+    public void close()
+    {
+        for (final ByteBuffer segment : segments)
+        {
+            IoUtil.unmap(segment);
+        }
+        segments.clear();
+        regionBuffers.clear();
+
+        if (directoryBuffer != null)
+        {
+            IoUtil.unmap(directoryBuffer);
+            directoryBuffer = null;
+            directory = null;
+        }
+    }
+
+    private boolean mapDirectory()
+    {
+        if (directory == null)
+        {
+            final File directoryFile = replayIndexDirectoryFile(logFileDir, streamId);
+            if (!directoryFile.exists())
+            {
+                return false;
+            }
+
+            directoryBuffer = LoggerUtil.mapExistingFile(directoryFile);
+            directory = new UnsafeBuffer(directoryBuffer);
+        }
+
+        return true;
+    }
+
+    private void scanDirectory()
+    {
+        final AtomicBuffer directory = this.directory;
+        final long regionCount = Math.min(regionCountVolatile(directory), directoryCapacity);
+        for (long region = scannedRegionCount; region < regionCount; region++)
+        {
+            fixSessionIdToRegion.put(directory.getLong(directoryEntryOffset(region)), region);
+        }
+        scannedRegionCount = regionCount;
+    }
+
+    private AtomicBuffer regionBuffer(final long region)
+    {
+        final List<AtomicBuffer> regionBuffers = this.regionBuffers;
+        final int regionIndex = (int)region;
+        while (regionBuffers.size() <= regionIndex)
+        {
+            regionBuffers.add(null);
+        }
+
+        AtomicBuffer regionBuffer = regionBuffers.get(regionIndex);
+        if (regionBuffer == null)
+        {
+            final int sessionsPerSegment = this.sessionsPerSegment;
+            final int segmentIndex = regionIndex / sessionsPerSegment;
+            final int regionOffset = segmentRegionOffset(regionIndex % sessionsPerSegment, indexFileSize);
+            regionBuffer = new UnsafeBuffer(segment(segmentIndex), regionOffset, indexFileSize);
+            regionBuffers.set(regionIndex, regionBuffer);
+        }
+
+        return regionBuffer;
+    }
+
+    private ByteBuffer segment(final int segmentIndex)
+    {
+        final List<ByteBuffer> segments = this.segments;
+        while (segments.size() <= segmentIndex)
+        {
+            segments.add(mapSegment(segments.size()));
+        }
+
+        return segments.get(segmentIndex);
+    }
+
+    private ByteBuffer mapSegment(final int segmentIndex)
+    {
+        final File segmentFile = replayIndexSegmentFile(logFileDir, streamId, segmentIndex);
+        final ByteBuffer segment = writer ?
+            LoggerUtil.map(segmentFile, segmentFileSize(indexFileSize, sessionsPerSegment)) :
+            LoggerUtil.mapExistingFile(segmentFile);
+        final UnsafeBuffer header = new UnsafeBuffer(segment, 0, SEGMENT_HEADER_LENGTH);
+
+        final int segmentIndexFileSize = segmentIndexFileSize(header);
+        if (writer && segmentIndexFileSize == 0)
+        {
+            segmentHeader(header, indexFileSize, sessionsPerSegment);
+        }
+        else if (segmentIndexFileSize != indexFileSize || segmentSessionsPerSegment(header) != sessionsPerSegment)
+        {
+            IoUtil.unmap(segment);
+            throw new IllegalStateException(String.format(
+                "Replay index segment %s has an index file size of %d and %d sessions per segment, " +
+                "but the index file size is configured as %d with %d sessions per segment",
+                segmentFile,
+                segmentIndexFileSize,
+                segmentSessionsPerSegment(header),
+                indexFileSize,
+                sessionsPerSegment));
+        }
+
+        return segment;
+    }
+}
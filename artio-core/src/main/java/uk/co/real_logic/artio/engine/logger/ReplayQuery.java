@@ -22,6 +22,7 @@ import org.agrona.CloseHelper;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.collections.Long2ObjectCache;
+import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.IdleStrategy;
 import org.agrona.concurrent.UnsafeBuffer;
 import uk.co.real_logic.artio.DebugLogger;
@@ -60,6 +61,7 @@ public class ReplayQuery implements AutoCloseable
     private final AeronArchive aeronArchive;
     private final ErrorHandler errorHandler;
     private final int archiveReplayStream;
+    private final ReplayIndexSegments segments;
 
     private Subscription replaySubscription;
 
@@ -73,6 +75,31 @@ public class ReplayQuery implements AutoCloseable
         final AeronArchive aeronArchive,
         final ErrorHandler errorHandler,
         final int archiveReplayStream)
+    {
+        this(
+            logFileDir,
+            cacheNumSets,
+            cacheSetSize,
+            indexBufferFactory,
+            requiredStreamId,
+            idleStrategy,
+            aeronArchive,
+            errorHandler,
+            archiveReplayStream,
+            null);
+    }
+
+    public ReplayQuery(
+        final String logFileDir,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final ExistingBufferFactory indexBufferFactory,
+        final int requiredStreamId,
+        final IdleStrategy idleStrategy,
+        final AeronArchive aeronArchive,
+        final ErrorHandler errorHandler,
+        final int archiveReplayStream,
+        final ReplayIndexSegments segments)
     {
         this.logFileDir = logFileDir;
         this.indexBufferFactory = indexBufferFactory;
@@ -81,6 +108,7 @@ public class ReplayQuery implements AutoCloseable
         this.aeronArchive = aeronArchive;
         this.errorHandler = errorHandler;
         this.archiveReplayStream = archiveReplayStream;
+        this.segments = segments;
 
         fixSessionToIndex = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, SessionQuery::close);
     }
@@ -114,22 +142,42 @@ public class ReplayQuery implements AutoCloseable
     {
         fixSessionToIndex.clear();
 
+        CloseHelper.close(segments);
         CloseHelper.close(replaySubscription);
     }
 
     private final class SessionQuery implements AutoCloseable
     {
-        private final ByteBuffer wrappedBuffer;
         private final long sessionId;
-        private final UnsafeBuffer buffer;
-        private final int capacity;
+        private final ByteBuffer wrappedBuffer;
+
+        private AtomicBuffer buffer;
+        private int capacity;
 
         SessionQuery(final long sessionId)
         {
-            wrappedBuffer = indexBufferFactory.map(replayIndexFile(logFileDir, sessionId, requiredStreamId));
-            buffer = new UnsafeBuffer(wrappedBuffer);
-            capacity = recordCapacity(buffer.capacity());
             this.sessionId = sessionId;
+            if (segments == null)
+            {
+                wrappedBuffer = indexBufferFactory.map(replayIndexFile(logFileDir, sessionId, requiredStreamId));
+                buffer = new UnsafeBuffer(wrappedBuffer);
+                capacity = recordCapacity(buffer.capacity());
+            }
+            else
+            {
+                wrappedBuffer = null;
+                lookupSegmentBuffer();
+            }
+        }
+
+        // The session may not have been indexed yet when the query was created.
+        private void lookupSegmentBuffer()
+        {
+            buffer = segments.sessionBuffer(sessionId);
+            if (buffer != null)
+            {
+                capacity = recordCapacity(buffer.capacity());
+            }
         }
 
         ReplayOperation query(
@@ -140,6 +188,17 @@ public class ReplayQuery implements AutoCloseable
             final int endSequenceIndex,
             final LogTag logTag)
         {
+            if (buffer == null)
+            {
+                lookupSegmentBuffer();
+                if (buffer == null)
+                {
+                    return newReplayOperation(handler, new ArrayList<>(), logTag);
+                }
+            }
+
+            final AtomicBuffer buffer = this.buffer;
+            final int capacity = this.capacity;
             messageFrameHeader.wrap(buffer, 0);
 
             final int actingBlockLength = messageFrameHeader.blockLength();
@@ -151,10 +210,13 @@ public class ReplayQuery implements AutoCloseable
             final List<RecordingRange> ranges = new ArrayList<>();
             RecordingRange currentRange = null;
 
-            long iteratorPosition = getIteratorPosition();
-            long stopIteratingPosition = iteratorPosition + capacity;
+            final long startIteratingPosition = getIteratorPosition();
+            long stopIteratingPosition = startIteratingPosition + capacity;
+            long iteratorPosition = searchForStart(
+                startIteratingPosition, beginSequenceNumber, beginSequenceIndex, actingBlockLength, actingVersion);
 
             int lastSequenceNumber = -1;
+            long lastBeginPosition = 0;
             while (iteratorPosition != stopIteratingPosition)
             {
                 final long changePosition = endChangeVolatile(buffer);
@@ -196,11 +258,13 @@ public class ReplayQuery implements AutoCloseable
                             ranges,
                             currentRange,
                             lastSequenceNumber,
+                            lastBeginPosition,
                             beginPosition,
                             sequenceNumber,
                             recordingId,
                             readLength);
                         lastSequenceNumber = sequenceNumber;
+                        lastBeginPosition = beginPosition;
                         iteratorPosition += RECORD_LENGTH;
                     }
                     else // before start of query
@@ -222,6 +286,66 @@ public class ReplayQuery implements AutoCloseable
             return newReplayOperation(handler, ranges, logTag);
         }
 
+        /**
+         * Binary search the records in the index for the first record at or after the start of the query. Records
+         * are stored in order of sequence index and sequence number, so the index acts as its own checkpoint table.
+         *
+         * If the writer laps the search whilst it is in progress then the start iterating position is returned and
+         * the linear scan resynchronises with the writer.
+         *
+         * @return the iterator position of the first record within the query range.
+         */
+        private long searchForStart(
+            final long startIteratingPosition,
+            final int beginSequenceNumber,
+            final int beginSequenceIndex,
+            final int actingBlockLength,
+            final int actingVersion)
+        {
+            final AtomicBuffer buffer = this.buffer;
+            final int capacity = this.capacity;
+
+            // Iterator positions are one lap ahead of the writer's positions once the index has wrapped.
+            final long oldestRecordPosition = startIteratingPosition == 0 ? 0 : startIteratingPosition - capacity;
+            final long recordCount = (endChangeVolatile(buffer) - oldestRecordPosition) / RECORD_LENGTH;
+            if (recordCount * RECORD_LENGTH > capacity)
+            {
+                return startIteratingPosition;
+            }
+
+            long low = 0;
+            long high = recordCount;
+            while (low < high)
+            {
+                final long middle = (low + high) >>> 1;
+                final long recordPosition = oldestRecordPosition + middle * RECORD_LENGTH;
+                indexRecord.wrap(buffer, offset(recordPosition, capacity), actingBlockLength, actingVersion);
+                final int sequenceIndex = indexRecord.sequenceIndex();
+                final int sequenceNumber = indexRecord.sequenceNumber();
+
+                UNSAFE.loadFence(); // LoadLoad required so previous loads don't move past version check below.
+
+                // Record overwritten by the writer whilst it was being read
+                if (beginChangeVolatile(buffer) > recordPosition + capacity)
+                {
+                    return startIteratingPosition;
+                }
+
+                final boolean beforeStart = sequenceIndex < beginSequenceIndex ||
+                    (sequenceIndex == beginSequenceIndex && sequenceNumber < beginSequenceNumber);
+                if (beforeStart)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            return startIteratingPosition + low * RECORD_LENGTH;
+        }
+
         private long skipToStart(final int beginSequenceNumber, final long iteratorPosition, final int sequenceNumber)
         {
             if (sequenceNumber < beginSequenceNumber)
@@ -270,6 +394,7 @@ public class ReplayQuery implements AutoCloseable
             final List<RecordingRange> ranges,
             final RecordingRange currentRange,
             final int lastSequenceNumber,
+            final long lastBeginPosition,
             final long beginPosition,
             final int sequenceNumber,
             final long recordingId,
@@ -290,8 +415,9 @@ public class ReplayQuery implements AutoCloseable
                 beginPosition - FRAME_ALIGNMENT,
                 readLength + FRAME_ALIGNMENT);
 
-            // FIX messages can be fragmented, so number of range adds != count
-            if (lastSequenceNumber != sequenceNumber)
+            // FIX messages can be fragmented, so number of range adds != count. Messages batched into a single fragment
+            // each have a record of that fragment, which is only replayed once, so it's only counted once.
+            if (lastSequenceNumber != sequenceNumber && lastBeginPosition != beginPosition)
             {
                 range.count++;
             }
@@ -312,6 +438,7 @@ public class ReplayQuery implements AutoCloseable
 
         public void close()
         {
+            // Segments stay mapped until the query is closed.
             if (wrappedBuffer instanceof MappedByteBuffer)
             {
                 IoUtil.unmap((MappedByteBuffer)wrappedBuffer);
@@ -73,6 +73,7 @@ public class Replayer implements ProtocolHandler, Agent
     private final ArrayList<ReplayerSession> replayerSessions = new ArrayList<>();
 
     private final ReplayQuery replayQuery;
+    private final ResendCache resendCache;
     private final ExclusivePublication publication;
     private final IdleStrategy idleStrategy;
     private final ErrorHandler errorHandler;
@@ -98,8 +99,42 @@ public class Replayer implements ProtocolHandler, Agent
         final ReplayHandler replayHandler,
         final SenderSequenceNumbers senderSequenceNumbers,
         final FixSessionCodecsFactory fixSessionCodecsFactory)
+    {
+        this(
+            replayQuery,
+            publication,
+            bufferClaim,
+            idleStrategy,
+            errorHandler,
+            maxClaimAttempts,
+            inboundSubscription,
+            agentNamePrefix,
+            clock,
+            gapfillOnReplayMessageTypes,
+            replayHandler,
+            senderSequenceNumbers,
+            fixSessionCodecsFactory,
+            null);
+    }
+
+    public Replayer(
+        final ReplayQuery replayQuery,
+        final ExclusivePublication publication,
+        final BufferClaim bufferClaim,
+        final IdleStrategy idleStrategy,
+        final ErrorHandler errorHandler,
+        final int maxClaimAttempts,
+        final Subscription inboundSubscription,
+        final String agentNamePrefix,
+        final EpochClock clock,
+        final Set<String> gapfillOnReplayMessageTypes,
+        final ReplayHandler replayHandler,
+        final SenderSequenceNumbers senderSequenceNumbers,
+        final FixSessionCodecsFactory fixSessionCodecsFactory,
+        final ResendCache resendCache)
     {
         this.replayQuery = replayQuery;
+        this.resendCache = resendCache;
         this.publication = publication;
         this.bufferClaim = bufferClaim;
         this.idleStrategy = idleStrategy;
@@ -184,6 +219,7 @@ public class Replayer implements ProtocolHandler, Agent
                 sessionId,
                 sequenceIndex,
                 replayQuery,
+                resendCache,
                 message,
                 errorHandler,
                 encoder);
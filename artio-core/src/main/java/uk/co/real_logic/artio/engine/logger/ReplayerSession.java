@@ -47,6 +47,7 @@ import static uk.co.real_logic.artio.engine.logger.Replayer.MESSAGE_FRAME_BLOCK_
 class ReplayerSession implements ControlledFragmentHandler
 {
     private static final int NONE = -1;
+    private static final int CACHE_REPLAY_LIMIT = 10;
 
     private enum State
     {
@@ -75,6 +76,7 @@ class ReplayerSession implements ControlledFragmentHandler
     private final SenderSequenceNumbers senderSequenceNumbers;
     private final ExclusivePublication publication;
     private final ReplayQuery replayQuery;
+    private final ResendCache resendCache;
     private final ErrorHandler errorHandler;
     private final SequenceNumberExtractor sequenceNumberExtractor;
 
@@ -90,6 +92,12 @@ class ReplayerSession implements ControlledFragmentHandler
 
     private ReplayOperation replayOperation;
 
+    private ResendCache.SessionCache sessionCache;
+    private long cachePosition;
+    private int nextCachedSeqNo;
+    private int lastCachedSeqNo;
+    private int cacheReplayedMessages;
+
     private State state;
 
     ReplayerSession(
@@ -108,6 +116,7 @@ class ReplayerSession implements ControlledFragmentHandler
         final long sessionId,
         final int sequenceIndex,
         final ReplayQuery replayQuery,
+        final ResendCache resendCache,
         final String message,
         final ErrorHandler errorHandler,
         final GapFillEncoder gapFillEncoder)
@@ -128,6 +137,7 @@ class ReplayerSession implements ControlledFragmentHandler
         this.message = message;
         this.errorHandler = errorHandler;
         this.replayQuery = replayQuery;
+        this.resendCache = resendCache;
         this.gapFillEncoder = gapFillEncoder;
 
         sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
@@ -167,6 +177,23 @@ class ReplayerSession implements ControlledFragmentHandler
     }
 
     void query()
+    {
+        if (resendCache != null)
+        {
+            sessionCache = resendCache.lookup(sessionId, sequenceIndex, beginSeqNo, endSeqNo);
+            if (sessionCache != null)
+            {
+                cachePosition = sessionCache.position(beginSeqNo);
+                nextCachedSeqNo = beginSeqNo;
+                lastCachedSeqNo = upToMostRecent ? sessionCache.lastSequenceNumber() : endSeqNo;
+                return;
+            }
+        }
+
+        queryArchive(beginSeqNo, endSeqNo);
+    }
+
+    private void queryArchive(final int beginSeqNo, final int endSeqNo)
     {
         replayOperation = replayQuery.query(
             this,
@@ -178,6 +205,39 @@ class ReplayerSession implements ControlledFragmentHandler
             LogTag.CATCHUP);
     }
 
+    private boolean replayFromCache()
+    {
+        final ResendCache.SessionCache sessionCache = this.sessionCache;
+        for (int i = 0; i < CACHE_REPLAY_LIMIT; i++)
+        {
+            if (nextCachedSeqNo > lastCachedSeqNo)
+            {
+                this.sessionCache = null;
+                return true;
+            }
+
+            final Action action = sessionCache.replay(cachePosition, nextCachedSeqNo, this);
+            if (action == null)
+            {
+                // Evicted from the cache during the replay, so replay the rest of the range from the archive.
+                DebugLogger.log(REPLAY, "ReplayerSession: evicted from cache at %d%n", nextCachedSeqNo);
+                this.sessionCache = null;
+                queryArchive(nextCachedSeqNo, lastCachedSeqNo);
+                return false;
+            }
+            else if (action == ABORT)
+            {
+                return false;
+            }
+
+            cachePosition = sessionCache.nextPosition(cachePosition);
+            nextCachedSeqNo++;
+            cacheReplayedMessages++;
+        }
+
+        return false;
+    }
+
     // Callback for the ReplayQuery:
     public Action onFragment(
         final DirectBuffer srcBuffer, final int srcOffset, final int srcLength, final Header header)
@@ -308,6 +368,16 @@ class ReplayerSession implements ControlledFragmentHandler
         {
             case REPLAYING:
                 DebugLogger.log(REPLAY, "ReplayerSession: REPLAYING step");
+                if (sessionCache != null)
+                {
+                    if (replayFromCache())
+                    {
+                        state = State.CHECK_REPLAY;
+                        return attempReplay();
+                    }
+                    return false;
+                }
+
                 if (replayOperation.attemptReplay())
                 {
                     state = State.CHECK_REPLAY;
@@ -334,7 +404,8 @@ class ReplayerSession implements ControlledFragmentHandler
     private boolean completeReplay()
     {
         // Load state needed to complete the replay
-        final int replayedMessages = replayOperation.replayedMessages();
+        final int replayedMessages = replayOperation == null ?
+            cacheReplayedMessages : cacheReplayedMessages + replayOperation.replayedMessages();
 
         // If the last N messages were admin messages then we need to send a gapfill
         // after the replay query has run.
@@ -0,0 +1,388 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.BitUtil;
+import org.agrona.DirectBuffer;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2ObjectCache;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+import uk.co.real_logic.artio.messages.FixMessageDecoder;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.function.LongFunction;
+
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.agrona.BitUtil.SIZE_OF_INT;
+import static uk.co.real_logic.artio.engine.SequenceNumberExtractor.NO_SEQUENCE_NUMBER;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Keeps the most recently sent messages of each session in memory so that resend requests for recent messages can
+ * be served without replaying them from the archive.
+ *
+ * The messages of each session are stored in an off-heap ring buffer of a fixed size, the oldest messages are evicted
+ * in order to make space for new ones. A session's buffer only ever holds a contiguous range of sequence numbers
+ * within a single sequence index, so any gap in the sequence numbers, a message too large to be cached or a message
+ * fragmented across multiple Aeron frames, clears the session's cached messages. The number of cached sessions is
+ * bounded by the size of the cache, the buffers of evicted sessions are reused for newly cached sessions.
+ *
+ * Indexed on the outbound stream by the same agent that runs the {@link Replayer}, so no synchronisation is needed.
+ *
+ * Each record in a session's buffer consists of:
+ *
+ * Record length, including the record header and padding to the record alignment
+ * Sequence number, or {@link #PADDING_SEQUENCE_NUMBER} when padding to the end of the buffer
+ * The message as it was published to the outbound stream
+ */
+public class ResendCache implements Index
+{
+    static final long NO_POSITION = -1;
+
+    private static final int NONE = -1;
+    private static final int PADDING_SEQUENCE_NUMBER = 0;
+    private static final int SEQUENCE_NUMBER_OFFSET = SIZE_OF_INT;
+    private static final int RECORD_HEADER_LENGTH = 2 * SIZE_OF_INT;
+    private static final int RECORD_ALIGNMENT = 8;
+
+    private final LongFunction<SessionCache> newSessionCache = this::newSessionCache;
+    private final MessageHeaderDecoder frameHeaderDecoder = new MessageHeaderDecoder();
+    private final FixMessageDecoder messageFrame = new FixMessageDecoder();
+    private final ArrayDeque<UnsafeBuffer> freeBuffers = new ArrayDeque<>();
+    private final Long2ObjectCache<SessionCache> fixSessionIdToCache;
+    private final SequenceNumberExtractor sequenceNumberExtractor;
+    private final int requiredStreamId;
+    private final int sessionBufferSize;
+    private final AtomicCounter hits;
+    private final AtomicCounter misses;
+
+    /**
+     * Create the cache.
+     *
+     * @param requiredStreamId the outbound stream whose messages are cached.
+     * @param sessionBufferSize the number of bytes of messages that are cached per session, must be a power of two.
+     * @param cacheNumSets the number of sets in the cache of sessions.
+     * @param cacheSetSize the size of each set in the cache of sessions.
+     * @param errorHandler the handler for errors extracting sequence numbers.
+     * @param hits the counter of resend requests that were served from the cache.
+     * @param misses the counter of resend requests that had to be replayed from the archive.
+     */
+    public ResendCache(
+        final int requiredStreamId,
+        final int sessionBufferSize,
+        final int cacheNumSets,
+        final int cacheSetSize,
+        final ErrorHandler errorHandler,
+        final AtomicCounter hits,
+        final AtomicCounter misses)
+    {
+        if (!BitUtil.isPowerOfTwo(sessionBufferSize))
+        {
+            throw new IllegalArgumentException(
+                "sessionBufferSize must be a positive power of 2, but was " + sessionBufferSize);
+        }
+
+        this.requiredStreamId = requiredStreamId;
+        this.sessionBufferSize = sessionBufferSize;
+        this.hits = hits;
+        this.misses = misses;
+
+        sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
+        fixSessionIdToCache = new Long2ObjectCache<>(cacheNumSets, cacheSetSize, this::onEvicted);
+    }
+
+    public void onFragment(final DirectBuffer buffer, final int offset, final int length, final Header header)
+    {
+        if (header.streamId() != requiredStreamId || (header.flags() & BEGIN_FRAG_FLAG) != BEGIN_FRAG_FLAG)
+        {
+            return;
+        }
+
+        frameHeaderDecoder.wrap(buffer, offset);
+        if (frameHeaderDecoder.templateId() != FixMessageEncoder.TEMPLATE_ID)
+        {
+            return;
+        }
+
+        final int actingBlockLength = frameHeaderDecoder.blockLength();
+        messageFrame.wrap(
+            buffer, offset + frameHeaderDecoder.encodedLength(), actingBlockLength, frameHeaderDecoder.version());
+        if (messageFrame.status() != OK)
+        {
+            return;
+        }
+
+        final int messageOffset = offset + frameHeaderDecoder.encodedLength() + actingBlockLength +
+            FixMessageDecoder.bodyHeaderLength();
+        final int sequenceNumber = sequenceNumberExtractor.extract(buffer, messageOffset, messageFrame.bodyLength());
+        if (sequenceNumber == NO_SEQUENCE_NUMBER)
+        {
+            return;
+        }
+
+        final SessionCache sessionCache = fixSessionIdToCache.computeIfAbsent(messageFrame.session(), newSessionCache);
+        final int sequenceIndex = messageFrame.sequenceIndex();
+        if ((header.flags() & UNFRAGMENTED) == UNFRAGMENTED)
+        {
+            sessionCache.onMessage(buffer, offset, length, sequenceNumber, sequenceIndex);
+        }
+        else
+        {
+            // Only the first fragment is seen here, so the message can't be cached.
+            sessionCache.skip(sequenceNumber, sequenceIndex);
+        }
+    }
+
+    /**
+     * Lookup the cached messages of a session for a resend request, counting it as a hit or miss.
+     *
+     * @param fixSessionId the session whose messages are being resent.
+     * @param sequenceIndex the sequence index of the messages being resent.
+     * @param beginSequenceNumber the first sequence number being resent.
+     * @param endSequenceNumber the last sequence number being resent or {@link Replayer#MOST_RECENT_MESSAGE}.
+     * @return the cached messages of the session if every message in the range is cached, otherwise null.
+     */
+    SessionCache lookup(
+        final long fixSessionId,
+        final int sequenceIndex,
+        final int beginSequenceNumber,
+        final int endSequenceNumber)
+    {
+        final SessionCache sessionCache = fixSessionIdToCache.get(fixSessionId);
+        if (sessionCache != null && sessionCache.contains(sequenceIndex, beginSequenceNumber, endSequenceNumber))
+        {
+            hits.increment();
+            return sessionCache;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void close()
+    {
+        fixSessionIdToCache.clear();
+        freeBuffers.clear();
+    }
+
+    public void readLastPosition(final IndexedPositionConsumer consumer)
+    {
+        // Only caches messages seen since the engine was started.
+    }
+
+    private SessionCache newSessionCache(final long fixSessionId)
+    {
+        final UnsafeBuffer freeBuffer = freeBuffers.pollFirst();
+        return new SessionCache(
+            freeBuffer != null ? freeBuffer : new UnsafeBuffer(ByteBuffer.allocateDirect(sessionBufferSize)));
+    }
+
+    private void onEvicted(final SessionCache sessionCache)
+    {
+        sessionCache.clear();
+        freeBuffers.addLast(sessionCache.buffer);
+    }
+
+    /**
+     * The cached messages of a single session. Positions of records only ever increase, so a record's position can
+     * be used to detect whether it has been evicted, even after the session's messages have been cleared.
+     */
+    static final class SessionCache
+    {
+        private final UnsafeBuffer buffer;
+        private final int mask;
+
+        private long headPosition = 0;
+        private long tailPosition = 0;
+        private int sequenceIndex = NONE;
+        private int firstSequenceNumber = 1;
+        private int lastSequenceNumber = 0;
+
+        SessionCache(final UnsafeBuffer buffer)
+        {
+            this.buffer = buffer;
+            mask = buffer.capacity() - 1;
+        }
+
+        void onMessage(
+            final DirectBuffer srcBuffer,
+            final int srcOffset,
+            final int srcLength,
+            final int sequenceNumber,
+            final int sequenceIndex)
+        {
+            final int capacity = buffer.capacity();
+            final int recordLength = BitUtil.align(RECORD_HEADER_LENGTH + srcLength, RECORD_ALIGNMENT);
+            if (recordLength > capacity)
+            {
+                skip(sequenceNumber, sequenceIndex);
+                return;
+            }
+
+            if (sequenceIndex != this.sequenceIndex || sequenceNumber != lastSequenceNumber + 1)
+            {
+                restartAt(sequenceNumber, sequenceIndex);
+            }
+
+            int recordOffset = (int)tailPosition & mask;
+            final int remaining = capacity - recordOffset;
+            if (recordLength > remaining)
+            {
+                evictFor(remaining);
+                buffer.putInt(recordOffset, remaining);
+                buffer.putInt(recordOffset + SEQUENCE_NUMBER_OFFSET, PADDING_SEQUENCE_NUMBER);
+                tailPosition += remaining;
+                recordOffset = 0;
+            }
+
+            evictFor(recordLength);
+            buffer.putInt(recordOffset, recordLength);
+            buffer.putInt(recordOffset + SEQUENCE_NUMBER_OFFSET, sequenceNumber);
+            buffer.putBytes(recordOffset + RECORD_HEADER_LENGTH, srcBuffer, srcOffset, srcLength);
+            tailPosition += recordLength;
+            lastSequenceNumber = sequenceNumber;
+        }
+
+        void skip(final int sequenceNumber, final int sequenceIndex)
+        {
+            // Cache from the message after the skipped one.
+            restartAt(sequenceNumber + 1, sequenceIndex);
+        }
+
+        void clear()
+        {
+            restartAt(lastSequenceNumber + 1, sequenceIndex);
+        }
+
+        boolean contains(final int sequenceIndex, final int beginSequenceNumber, final int endSequenceNumber)
+        {
+            return sequenceIndex == this.sequenceIndex &&
+                beginSequenceNumber >= firstSequenceNumber &&
+                beginSequenceNumber <= lastSequenceNumber &&
+                (endSequenceNumber == MOST_RECENT_MESSAGE || endSequenceNumber <= lastSequenceNumber);
+        }
+
+        int lastSequenceNumber()
+        {
+            return lastSequenceNumber;
+        }
+
+        /**
+         * Find the position of the record of a cached message.
+         *
+         * @param sequenceNumber the sequence number of the message.
+         * @return the position of the message's record or {@link #NO_POSITION} if it isn't cached.
+         */
+        long position(final int sequenceNumber)
+        {
+            if (sequenceNumber < firstSequenceNumber || sequenceNumber > lastSequenceNumber)
+            {
+                return NO_POSITION;
+            }
+
+            long position = headPosition;
+            while (position < tailPosition)
+            {
+                final int recordOffset = (int)position & mask;
+                if (buffer.getInt(recordOffset + SEQUENCE_NUMBER_OFFSET) == sequenceNumber)
+                {
+                    return position;
+                }
+
+                position += buffer.getInt(recordOffset);
+            }
+
+            return NO_POSITION;
+        }
+
+        /**
+         * Pass a cached message to a handler.
+         *
+         * @param position the position of the message's record.
+         * @param sequenceNumber the sequence number of the message.
+         * @param handler the handler that the message is passed to.
+         * @return the action of the handler or null if the message is no longer cached at that position.
+         */
+        Action replay(final long position, final int sequenceNumber, final ControlledFragmentHandler handler)
+        {
+            if (position < headPosition || position >= tailPosition)
+            {
+                return null;
+            }
+
+            final int recordOffset = (int)position & mask;
+            if (buffer.getInt(recordOffset + SEQUENCE_NUMBER_OFFSET) != sequenceNumber)
+            {
+                return null;
+            }
+
+            final int recordLength = buffer.getInt(recordOffset);
+            return handler.onFragment(
+                buffer, recordOffset + RECORD_HEADER_LENGTH, recordLength - RECORD_HEADER_LENGTH, null);
+        }
+
+        /**
+         * Find the position of the record after a cached message, skipping any padding.
+         *
+         * @param position the position of the message's record.
+         * @return the position of the next record.
+         */
+        long nextPosition(final long position)
+        {
+            long nextPosition = position + buffer.getInt((int)position & mask);
+            if (nextPosition < tailPosition &&
+                buffer.getInt(((int)nextPosition & mask) + SEQUENCE_NUMBER_OFFSET) == PADDING_SEQUENCE_NUMBER)
+            {
+                nextPosition += buffer.getInt((int)nextPosition & mask);
+            }
+
+            return nextPosition;
+        }
+
+        private void restartAt(final int sequenceNumber, final int sequenceIndex)
+        {
+            headPosition = tailPosition;
+            this.sequenceIndex = sequenceIndex;
+            firstSequenceNumber = sequenceNumber;
+            lastSequenceNumber = sequenceNumber - 1;
+        }
+
+        private void evictFor(final int length)
+        {
+            final int capacity = buffer.capacity();
+            while (tailPosition + length - headPosition > capacity)
+            {
+                final int recordOffset = (int)headPosition & mask;
+                if (buffer.getInt(recordOffset + SEQUENCE_NUMBER_OFFSET) != PADDING_SEQUENCE_NUMBER)
+                {
+                    firstSequenceNumber++;
+                }
+
+                headPosition += buffer.getInt(recordOffset);
+            }
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package uk.co.real_logic.artio.engine.logger;
 
 import org.agrona.ErrorHandler;
+import org.agrona.collections.Long2IntHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import uk.co.real_logic.artio.engine.SectorFramer;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
@@ -28,14 +29,30 @@ import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.BLOCK_LENGTH;
 import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.SCHEMA_VERSION;
 
+/**
+ * Reads the last known sequence number of a session from the index written by {@link SequenceNumberIndexWriter}.
+ *
+ * The offset of each session's record is cached after it has been scanned once, and the session id at a cached offset
+ * is checked upon each lookup. New sessions are usually appended, so a miss only scans the records beyond the last
+ * scanned offset. The writer can also reuse the record of a session whose sequence number has been reset, or reset
+ * every record, so a record can appear before the last scanned offset. The writer increments the generation in the
+ * file header whenever it does either, and a miss only rebuilds the cache from the start of the file when the
+ * generation has changed since the last rebuild.
+ */
 public class SequenceNumberIndexReader
 {
+    private static final int MISSING_RECORD = -1;
+
     private final MessageHeaderDecoder fileHeaderDecoder = new MessageHeaderDecoder();
     private final LastKnownSequenceNumberDecoder lastKnownDecoder = new LastKnownSequenceNumberDecoder();
     private final AtomicBuffer inMemoryBuffer;
     private final SectorFramer sectorFramer;
     private final IndexedPositionReader positions;
     private final ErrorHandler errorHandler;
+    private final Long2IntHashMap recordOffsets = new Long2IntHashMap(MISSING_RECORD);
+
+    private int scannedUpToPosition = SequenceNumberIndexDescriptor.HEADER_SIZE;
+    private long scannedGeneration;
 
     public SequenceNumberIndexReader(final AtomicBuffer inMemoryBuffer, final ErrorHandler errorHandler)
     {
@@ -45,11 +62,36 @@ public class SequenceNumberIndexReader
         sectorFramer = new SectorFramer(positionTableOffset);
         validateBuffer();
         positions = new IndexedPositionReader(positionsBuffer(inMemoryBuffer, positionTableOffset));
+        scannedGeneration = inMemoryBuffer.getLongVolatile(GENERATION_OFFSET);
     }
 
     public int lastKnownSequenceNumber(final long sessionId)
     {
-        int position = SequenceNumberIndexDescriptor.HEADER_SIZE;
+        final int recordOffset = recordOffsets.get(sessionId);
+        if (recordOffset != MISSING_RECORD)
+        {
+            lastKnownDecoder.wrap(inMemoryBuffer, recordOffset, BLOCK_LENGTH, SCHEMA_VERSION);
+            if (lastKnownDecoder.sessionId() == sessionId)
+            {
+                return lastKnownDecoder.sequenceNumber();
+            }
+        }
+
+        final long generation = inMemoryBuffer.getLongVolatile(GENERATION_OFFSET);
+        if (generation != scannedGeneration)
+        {
+            recordOffsets.clear();
+            scannedUpToPosition = SequenceNumberIndexDescriptor.HEADER_SIZE;
+            scannedGeneration = generation;
+        }
+
+        return scanForSequenceNumber(sessionId);
+    }
+
+    private int scanForSequenceNumber(final long sessionId)
+    {
+        final LastKnownSequenceNumberDecoder lastKnownDecoder = this.lastKnownDecoder;
+        int position = scannedUpToPosition;
         while (true)
         {
             position = sectorFramer.claim(position, RECORD_SIZE);
@@ -60,7 +102,17 @@ public class SequenceNumberIndexReader
 
             lastKnownDecoder.wrap(inMemoryBuffer, position, BLOCK_LENGTH, SCHEMA_VERSION);
 
-            if (lastKnownDecoder.sessionId() == sessionId)
+            final long recordSessionId = lastKnownDecoder.sessionId();
+            if (recordSessionId == 0)
+            {
+                // Reached the end of the records that the writer has appended so far.
+                return UNK_SESSION;
+            }
+
+            recordOffsets.put(recordSessionId, position);
+            scannedUpToPosition = position + RECORD_SIZE;
+
+            if (recordSessionId == sessionId)
             {
                 return lastKnownDecoder.sequenceNumber();
             }
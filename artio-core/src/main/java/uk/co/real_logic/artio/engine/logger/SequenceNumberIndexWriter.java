@@ -23,10 +23,13 @@ import org.agrona.ErrorHandler;
 import org.agrona.collections.Long2LongHashMap;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.EpochClock;
+import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.engine.ChecksumFramer;
+import uk.co.real_logic.artio.engine.DirtySectors;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
 import uk.co.real_logic.artio.messages.*;
+import uk.co.real_logic.artio.protocol.ReservedValue;
 import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberDecoder;
 import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder;
 
@@ -45,6 +48,9 @@ import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEnc
 /**
  * Writes updates into an in-memory buffer. This buffer is then flushed down to disk. A passing place
  * file is used to ensure that there's a recoverable option if it fails.
+ *
+ * The index and writable files alternate upon each flush, so each file tracks the sectors that have changed since
+ * it was last written to and only those sectors are copied into it and synced.
  */
 public class SequenceNumberIndexWriter implements Index
 {
@@ -77,8 +83,14 @@ public class SequenceNumberIndexWriter implements Index
     private final int indexedPositionsOffset;
     private final IndexedPositionWriter positions;
 
+    private final AtomicCounter flushDuration;
+    private final AtomicCounter flushBytes;
+
     private MappedFile writableFile;
     private MappedFile indexFile;
+    // Sectors of the in-memory buffer that differ from the contents of each file
+    private DirtySectors writableFileDirtySectors;
+    private DirtySectors indexFileDirtySectors;
     private long nextRollPosition = UNINITIALISED;
 
     private final EpochClock clock;
@@ -93,7 +105,9 @@ public class SequenceNumberIndexWriter implements Index
         final int streamId,
         final RecordingIdLookup recordingIdLookup,
         final long indexFileStateFlushTimeoutInMs,
-        final EpochClock clock)
+        final EpochClock clock,
+        final AtomicCounter flushDuration,
+        final AtomicCounter flushBytes)
     {
         this.inMemoryBuffer = inMemoryBuffer;
         this.indexFile = indexFile;
@@ -103,6 +117,11 @@ public class SequenceNumberIndexWriter implements Index
         this.recordingIdLookup = recordingIdLookup;
         this.indexFileStateFlushTimeoutInMs = indexFileStateFlushTimeoutInMs;
         this.clock = clock;
+        this.flushDuration = flushDuration;
+        this.flushBytes = flushBytes;
+        writableFileDirtySectors = new DirtySectors(fileCapacity);
+        indexFileDirtySectors = new DirtySectors(fileCapacity);
+        markAllDirty();
 
         final String indexFilePath = indexFile.file().getAbsolutePath();
         indexPath = indexFile.file().toPath();
@@ -161,22 +180,24 @@ public class SequenceNumberIndexWriter implements Index
             {
                 case FixMessageEncoder.TEMPLATE_ID:
                 {
-                    messageFrame.wrap(buffer, offset, actingBlockLength, version);
-
-                    if (messageFrame.status() != MessageStatus.OK)
-                    {
-                        return;
-                    }
-
-                    offset += actingBlockLength + 2;
-
-                    final long sessionId = messageFrame.session();
-
-                    final int msgSeqNum = sequenceNumberExtractor.extract(
-                        buffer, offset, messageFrame.bodyLength());
-                    if (msgSeqNum != NO_SEQUENCE_NUMBER)
+                    // Messages framed from a single read of a connection can share a fragment, each in its own frame.
+                    final int messageCount = ReservedValue.messageCount(header);
+                    for (int i = 0; i < messageCount; i++)
                     {
-                        saveRecord(msgSeqNum, sessionId);
+                        messageFrame.wrap(buffer, offset, actingBlockLength, version);
+                        offset += actingBlockLength + 2;
+                        final int bodyLength = messageFrame.bodyLength();
+
+                        if (messageFrame.status() == MessageStatus.OK)
+                        {
+                            final int msgSeqNum = sequenceNumberExtractor.extract(buffer, offset, bodyLength);
+                            if (msgSeqNum != NO_SEQUENCE_NUMBER)
+                            {
+                                saveRecord(msgSeqNum, messageFrame.session());
+                            }
+                        }
+
+                        offset += bodyLength + MessageHeaderDecoder.ENCODED_LENGTH;
                     }
                     break;
                 }
@@ -198,7 +219,11 @@ public class SequenceNumberIndexWriter implements Index
         checkTermRoll(buffer, srcOffset, endPosition, length);
 
         final long recordingId = recordingIdLookup.getRecordingId(aeronSessionId);
-        positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
+        final int positionOffset = positions.indexedUpTo(aeronSessionId, recordingId, endPosition);
+        if (positionOffset != OUT_OF_SPACE)
+        {
+            markDirty(indexedPositionsOffset + positionOffset);
+        }
     }
 
     @Override
@@ -219,8 +244,13 @@ public class SequenceNumberIndexWriter implements Index
 
     void resetSequenceNumbers()
     {
+        final long generation = inMemoryBuffer.getLong(GENERATION_OFFSET);
         inMemoryBuffer.setMemory(0, indexedPositionsOffset, (byte)0);
+        recordOffsets.clear();
+        checksumFramer.markAllDirty();
+        markAllDirty();
         initialiseBlankBuffer();
+        inMemoryBuffer.putLongOrdered(GENERATION_OFFSET, generation + 1);
     }
 
     private void checkTermRoll(final DirectBuffer buffer, final int offset, final long endPosition, final int length)
@@ -240,18 +270,39 @@ public class SequenceNumberIndexWriter implements Index
 
     private void updateFile()
     {
+        final long startTimeInNs = System.nanoTime();
         checksumFramer.updateChecksums();
         positions.updateChecksums();
-        saveFile();
+        final long savedBytes = saveFile();
         flipFiles();
         hasSavedRecordSinceFileUpdate = false;
         lastUpdatedFileTimeInMs = clock.time();
+        flushBytes.setOrdered(savedBytes);
+        flushDuration.setOrdered(System.nanoTime() - startTimeInNs);
     }
 
-    private void saveFile()
+    private long saveFile()
     {
-        writableFile.buffer().putBytes(0, inMemoryBuffer, 0, fileCapacity);
+        final DirtySectors dirtySectors = this.writableFileDirtySectors;
+        final AtomicBuffer inMemoryBuffer = this.inMemoryBuffer;
+        final AtomicBuffer writableBuffer = writableFile.buffer();
+        final int fileCapacity = this.fileCapacity;
+
+        long savedBytes = 0;
+        int sectorIndex = dirtySectors.nextDirtySector(0);
+        while (sectorIndex != DirtySectors.NO_DIRTY_SECTOR)
+        {
+            final int sectorStart = sectorIndex * SECTOR_SIZE;
+            final int length = Math.min(SECTOR_SIZE, fileCapacity - sectorStart);
+            writableBuffer.putBytes(sectorStart, inMemoryBuffer, sectorStart, length);
+            savedBytes += length;
+            sectorIndex = dirtySectors.nextDirtySector(sectorIndex + 1);
+        }
+        dirtySectors.clear();
+
         writableFile.force();
+
+        return savedBytes;
     }
 
     private void flipFiles()
@@ -278,6 +329,18 @@ public class SequenceNumberIndexWriter implements Index
             writableFile = indexFile;
             indexFile = file;
         }
+
+        if (flipsFiles)
+        {
+            final DirtySectors dirtySectors = this.writableFileDirtySectors;
+            writableFileDirtySectors = indexFileDirtySectors;
+            indexFileDirtySectors = dirtySectors;
+        }
+        else
+        {
+            // We don't know which state the files have been left in, so they both need to be rewritten in full.
+            markAllDirty();
+        }
     }
 
     private boolean rename(final Path src, final Path dest)
@@ -345,7 +408,10 @@ public class SequenceNumberIndexWriter implements Index
                 lastKnownDecoder.wrap(inMemoryBuffer, position, RECORD_SIZE, SCHEMA_VERSION);
                 if (lastKnownDecoder.sequenceNumber() == 0)
                 {
+                    // The record of a session that has been reset can be reused, so it mustn't be updated any more
+                    recordOffsets.remove(lastKnownDecoder.sessionId());
                     createNewRecord(newSequenceNumber, sessionId, position);
+                    incrementGeneration();
                     hasSavedRecordSinceFileUpdate = true;
                     return;
                 }
@@ -366,6 +432,26 @@ public class SequenceNumberIndexWriter implements Index
         }
     }
 
+    // Tells readers that a record may have been written before the records that they have already scanned
+    private void incrementGeneration()
+    {
+        inMemoryBuffer.putLongOrdered(GENERATION_OFFSET, inMemoryBuffer.getLong(GENERATION_OFFSET) + 1);
+        checksumFramer.markDirty(GENERATION_OFFSET);
+        markDirty(GENERATION_OFFSET);
+    }
+
+    private void markDirty(final int offset)
+    {
+        writableFileDirtySectors.markDirty(offset);
+        indexFileDirtySectors.markDirty(offset);
+    }
+
+    private void markAllDirty()
+    {
+        writableFileDirtySectors.markAllDirty();
+        indexFileDirtySectors.markAllDirty();
+    }
+
     private void createNewRecord(
         final int sequenceNumber,
         final long sessionId,
@@ -463,5 +549,7 @@ public class SequenceNumberIndexWriter implements Index
         final int value)
     {
         inMemoryBuffer.putIntOrdered(recordOffset + SEQUENCE_NUMBER_OFFSET, value);
+        checksumFramer.markDirty(recordOffset);
+        markDirty(recordOffset);
     }
 }
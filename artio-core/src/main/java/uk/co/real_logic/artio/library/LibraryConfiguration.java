@@ -64,6 +64,7 @@ public final class LibraryConfiguration extends CommonConfiguration
     };
 
     public static final SessionProxyFactory DEFAULT_SESSION_PROXY_FACTORY = DirectSessionProxy::new;
+    public static final boolean DEFAULT_ENCODE_MESSAGES_INTO_CLAIM = false;
 
     private final int libraryId;
 
@@ -88,6 +89,7 @@ public final class LibraryConfiguration extends CommonConfiguration
     private LibraryScheduler scheduler = new DefaultLibraryScheduler();
     private String libraryName = "";
     private SessionProxyFactory sessionProxyFactory = DEFAULT_SESSION_PROXY_FACTORY;
+    private boolean encodeMessagesIntoClaim = DEFAULT_ENCODE_MESSAGES_INTO_CLAIM;
 
     /**
      * When a new session connects to the gateway you register a callback handler to find
@@ -181,6 +183,11 @@ public final class LibraryConfiguration extends CommonConfiguration
         return scheduler;
     }
 
+    public boolean encodeMessagesIntoClaim()
+    {
+        return encodeMessagesIntoClaim;
+    }
+
     public SessionProxyFactory sessionProxyFactory()
     {
         return sessionProxyFactory;
@@ -239,6 +246,30 @@ public final class LibraryConfiguration extends CommonConfiguration
         return this;
     }
 
+    /**
+     * Sets whether messages sent via
+     * {@link uk.co.real_logic.artio.session.Session#send(uk.co.real_logic.artio.builder.Encoder)} are encoded
+     * straight into a claim on the library's outbound publication, rather than being encoded into the session's
+     * buffer and copied into the publication.
+     *
+     * Each claim is sized to the session's buffer, so the {@link CommonConfiguration#sessionBufferSize(int)} must fit
+     * into a single frame of the publication, ie: it must be no greater than the publication's mtu less the framing,
+     * about 1.3KB at the default mtu. This is validated when the library connects to an engine, which fails with an
+     * {@link IllegalArgumentException} if it doesn't. Messages larger than the session buffer can't be sent.
+     *
+     * The unused part of each claim is committed as a padding frame, which isn't delivered but does take up space in
+     * the term and in the archive when outbound messages are archived, so every message occupies as much space as
+     * the session buffer.
+     *
+     * @param encodeMessagesIntoClaim true to encode messages straight into a claim on the publication.
+     * @return this
+     */
+    public LibraryConfiguration encodeMessagesIntoClaim(final boolean encodeMessagesIntoClaim)
+    {
+        this.encodeMessagesIntoClaim = encodeMessagesIntoClaim;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -123,6 +123,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     private final FixCounters fixCounters;
 
     private final Long2ObjectHashMap<LibraryReply<?>> correlationIdToReply = new Long2ObjectHashMap<>();
+    private final DeadlineTimers<LibraryReply<?>> replyTimers;
+    private final SessionTimers sessionTimers;
     private final List<BooleanSupplier> tasks = new ArrayList<>();
     private final LibraryTransport transport;
     private final FixLibrary fixLibrary;
@@ -172,6 +174,10 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         this.sentPositionHandler = configuration.sentPositionHandler();
         this.epochClock = epochClock;
         this.enginesAreClustered = configuration.libraryAeronChannels().size() > 1;
+
+        final long timeInMs = epochClock.time();
+        replyTimers = new DeadlineTimers<>(timeInMs, this::onReplyTimerExpiry);
+        sessionTimers = new SessionTimers(timeInMs);
     }
 
     boolean isConnected()
@@ -417,7 +423,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         operations += inboundSubscription.controlledPoll(outboundSubscription, fragmentLimit);
         operations += livenessDetector.poll(timeInMs);
         operations += pollSessions(timeInMs);
-        operations += pollPendingInitiatorSessions(timeInMs);
+        operations += pollPendingInitiatorSessions();
         operations += checkReplies(timeInMs);
         return operations;
     }
@@ -612,21 +618,13 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     //                     END CONNECTION LOGIC
     // -----------------------------------------------------------------------
 
+    // Both active and pending initiator sessions are only polled when their timers expire.
     private int pollSessions(final long timeInMs)
     {
-        final InternalSession[] sessions = this.sessions;
-        int total = 0;
-
-        for (int i = 0, size = sessions.length; i < size; i++)
-        {
-            final InternalSession session = sessions[i];
-            total += session.poll(timeInMs);
-        }
-
-        return total;
+        return sessionTimers.poll(timeInMs);
     }
 
-    private int pollPendingInitiatorSessions(final long timeInMs)
+    private int pollPendingInitiatorSessions()
     {
         InternalSession[] pendingSessions = this.pendingInitiatorSessions;
         int total = 0;
@@ -634,12 +632,12 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         for (int i = 0, size = pendingSessions.length; i < size;)
         {
             final InternalSession session = pendingSessions[i];
-            total += session.poll(timeInMs);
             if (session.state() == ACTIVE)
             {
                 this.pendingInitiatorSessions = pendingSessions = ArrayUtil.remove(pendingSessions, i);
                 size--;
                 sessions = ArrayUtil.add(sessions, session);
+                total++;
             }
             else
             {
@@ -657,17 +655,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     private int checkReplies(final long timeInMs)
     {
-        int count = 0;
-        final Long2ObjectHashMap<LibraryReply<?>>.ValueIterator iterator = correlationIdToReply.values().iterator();
-        while (iterator.hasNext())
-        {
-            final LibraryReply<?> reply = iterator.next();
-            if (reply.poll(timeInMs))
-            {
-                iterator.remove();
-                count++;
-            }
-        }
+        final int count = replyTimers.poll(timeInMs);
 
         final Iterator<BooleanSupplier> tasksIt = tasks.iterator();
         while (tasksIt.hasNext())
@@ -687,12 +675,52 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     {
         final long correlationId = ++currentCorrelationId;
         correlationIdToReply.put(correlationId, reply);
+
+        // Poll the reply on the next duty cycle in order to resend it if needed, see onReplyTimerExpiry.
+        replyTimers.cancel(reply.timerId);
+        reply.timerId = replyTimers.schedule(reply, 0);
+
         return correlationId;
     }
 
     void deregister(final long correlationId)
     {
-        correlationIdToReply.remove(correlationId);
+        removeReply(correlationId);
+    }
+
+    private LibraryReply<?> removeReply(final long correlationId)
+    {
+        final LibraryReply<?> reply = correlationIdToReply.remove(correlationId);
+        if (reply != null)
+        {
+            replyTimers.cancel(reply.timerId);
+            reply.timerId = DeadlineTimers.NO_TIMER;
+        }
+
+        return reply;
+    }
+
+    private int onReplyTimerExpiry(final LibraryReply<?> reply, final long timeInMs)
+    {
+        reply.timerId = DeadlineTimers.NO_TIMER;
+
+        final long correlationId = reply.correlationId;
+        if (correlationIdToReply.get(correlationId) != reply)
+        {
+            return 0;
+        }
+
+        if (reply.poll(timeInMs))
+        {
+            correlationIdToReply.remove(correlationId);
+            return 1;
+        }
+
+        // Back pressured replies are retried on the next duty cycle, otherwise wait until they time out.
+        final long deadlineInMs = reply.requiresResend ? timeInMs : reply.latestReplyArrivalTimeInMs();
+        reply.timerId = replyTimers.schedule(reply, deadlineInMs);
+
+        return 0;
     }
 
     // -----------------------------------------------------------------------
@@ -918,6 +946,8 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
         {
             sessions = ArrayUtil.add(sessions, session);
         }
+
+        sessionTimers.add(session);
     }
 
     public Action onMessage(
@@ -998,7 +1028,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
     {
         if (libraryId == this.libraryId)
         {
-            final LibraryReply<?> reply = correlationIdToReply.remove(replyToId);
+            final LibraryReply<?> reply = removeReply(replyToId);
             if (reply != null)
             {
                 reply.onError(errorType, message);
@@ -1033,7 +1063,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     public Action onReleaseSessionReply(final int libraryId, final long replyToId, final SessionReplyStatus status)
     {
-        final ReleaseToGatewayReply reply = (ReleaseToGatewayReply)correlationIdToReply.remove(replyToId);
+        final ReleaseToGatewayReply reply = (ReleaseToGatewayReply)removeReply(replyToId);
         if (reply != null)
         {
             reply.onComplete(status);
@@ -1044,7 +1074,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     public Action onRequestSessionReply(final int libraryId, final long replyToId, final SessionReplyStatus status)
     {
-        final RequestSessionReply reply = (RequestSessionReply)correlationIdToReply.remove(replyToId);
+        final RequestSessionReply reply = (RequestSessionReply)removeReply(replyToId);
         if (reply != null)
         {
             reply.onComplete(status);
@@ -1055,7 +1085,7 @@ final class LibraryPoller implements LibraryEndPointHandler, ProtocolHandler, Au
 
     public Action onFollowerSessionReply(final int libraryId, final long replyToId, final long sessionId)
     {
-        final FollowerSessionReply reply = (FollowerSessionReply)correlationIdToReply.remove(replyToId);
+        final FollowerSessionReply reply = (FollowerSessionReply)removeReply(replyToId);
         if (reply != null)
         {
             reply.onComplete(followerSession(sessionId, NO_CONNECTION_ID, 0));
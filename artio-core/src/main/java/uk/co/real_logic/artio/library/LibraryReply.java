@@ -15,6 +15,7 @@
  */
 package uk.co.real_logic.artio.library;
 
+import uk.co.real_logic.artio.DeadlineTimers;
 import uk.co.real_logic.artio.FixGatewayException;
 import uk.co.real_logic.artio.Reply;
 import uk.co.real_logic.artio.messages.GatewayError;
@@ -35,6 +36,7 @@ abstract class LibraryReply<T> implements Reply<T>
 
     boolean requiresResend;
     long correlationId;
+    long timerId = DeadlineTimers.NO_TIMER;
 
     private Exception error;
     private T result;
@@ -93,6 +95,11 @@ abstract class LibraryReply<T> implements Reply<T>
     {
     }
 
+    long latestReplyArrivalTimeInMs()
+    {
+        return latestReplyArrivalTimeInMs;
+    }
+
     protected boolean onTimeout()
     {
         state = State.TIMED_OUT;
@@ -71,7 +71,18 @@ class LibraryTransport
         StreamInformation.print(
             "library " + configuration.libraryId() + " inboundSubscription", inboundSubscription, configuration);
         outboundPublication = outboundLibraryStreams.gatewayPublication(
-            configuration.libraryIdleStrategy(), "outboundPublication");
+            configuration.libraryIdleStrategy(), "outboundPublication", configuration.encodeMessagesIntoClaim());
+
+        final int maxEncodeIntoClaimBufferLength = outboundPublication.maxEncodeIntoClaimBufferLength();
+        if (configuration.encodeMessagesIntoClaim() &&
+            configuration.sessionBufferSize() > maxEncodeIntoClaimBufferLength)
+        {
+            throw new IllegalArgumentException(String.format(
+                "You cannot set encodeMessagesIntoClaim with a sessionBufferSize(%d) > %d, " +
+                    "the largest that fits into a single frame of the outbound publication.",
+                configuration.sessionBufferSize(),
+                maxEncodeIntoClaimBufferLength));
+        }
     }
 
     Subscription inboundSubscription()
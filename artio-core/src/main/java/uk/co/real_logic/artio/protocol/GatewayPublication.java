@@ -17,21 +17,35 @@ package uk.co.real_logic.artio.protocol;
 
 import io.aeron.ExclusivePublication;
 import io.aeron.logbuffer.BufferClaim;
+import io.aeron.protocol.DataHeaderFlyweight;
+import org.agrona.BitUtil;
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
+import org.agrona.collections.Int2IntHashMap;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.Clock;
 import uk.co.real_logic.artio.DebugLogger;
+import uk.co.real_logic.artio.builder.Encoder;
 import uk.co.real_logic.artio.dictionary.FixDictionary;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.messages.*;
 import uk.co.real_logic.artio.messages.ControlNotificationEncoder.SessionsEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.List;
 
+import static io.aeron.logbuffer.FrameDescriptor.FRAME_ALIGNMENT;
+import static io.aeron.logbuffer.FrameDescriptor.PADDING_FRAME_TYPE;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static io.aeron.logbuffer.FrameDescriptor.frameFlags;
+import static io.aeron.logbuffer.FrameDescriptor.frameLengthOrdered;
+import static io.aeron.logbuffer.FrameDescriptor.frameType;
 import static io.aeron.protocol.DataHeaderFlyweight.BEGIN_FLAG;
 import static io.aeron.protocol.DataHeaderFlyweight.END_FLAG;
+import static io.aeron.protocol.DataHeaderFlyweight.TERM_OFFSET_FIELD_OFFSET;
+import static io.aeron.protocol.HeaderFlyweight.FRAME_LENGTH_FIELD_OFFSET;
 import static java.nio.ByteOrder.LITTLE_ENDIAN;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static uk.co.real_logic.artio.DebugLogger.logSbeMessage;
@@ -45,6 +59,7 @@ import static uk.co.real_logic.artio.messages.ErrorEncoder.BLOCK_LENGTH;
 public class GatewayPublication extends ClaimablePublication
 {
     public static final int FRAME_SIZE = FixMessageEncoder.BLOCK_LENGTH + FixMessageDecoder.bodyHeaderLength();
+    public static final int NO_BATCH_SPACE = -1;
 
     private static final int FRAMED_MESSAGE_SIZE = MessageHeaderEncoder.ENCODED_LENGTH + FRAME_SIZE;
 
@@ -105,9 +120,14 @@ public class GatewayPublication extends ClaimablePublication
     private final FollowerSessionReplyEncoder followerSessionReply = new FollowerSessionReplyEncoder();
     private final EndOfDayEncoder endOfDay = new EndOfDayEncoder();
 
+    private final MutableAsciiBuffer claimAsciiBuffer = new MutableAsciiBuffer();
+    private final UnsafeBuffer claimFrame = new UnsafeBuffer(0, 0);
+    private final Int2IntHashMap messageTypeToHeaderGap = new Int2IntHashMap(0);
+
     private final Clock clock;
     private final int maxPayloadLength;
     private final int maxInitialBodyLength;
+    private final boolean encodeMessagesIntoClaim;
 
     public GatewayPublication(
         final ExclusivePublication dataPublication,
@@ -115,11 +135,191 @@ public class GatewayPublication extends ClaimablePublication
         final IdleStrategy idleStrategy,
         final Clock clock,
         final int maxClaimAttempts)
+    {
+        this(dataPublication, fails, idleStrategy, clock, maxClaimAttempts, false);
+    }
+
+    public GatewayPublication(
+        final ExclusivePublication dataPublication,
+        final AtomicCounter fails,
+        final IdleStrategy idleStrategy,
+        final Clock clock,
+        final int maxClaimAttempts,
+        final boolean encodeMessagesIntoClaim)
     {
         super(maxClaimAttempts, idleStrategy, fails, dataPublication);
         this.clock = clock;
         this.maxPayloadLength = dataPublication.maxPayloadLength();
         this.maxInitialBodyLength = maxPayloadLength - FRAMED_MESSAGE_SIZE;
+        this.encodeMessagesIntoClaim = encodeMessagesIntoClaim;
+    }
+
+    public boolean encodeMessagesIntoClaim()
+    {
+        return encodeMessagesIntoClaim;
+    }
+
+    /**
+     * Encode a message straight into a claim on the publication after its FixMessage header, rather than encoding it
+     * into a buffer and copying it into the claim.
+     *
+     * The length of a message isn't known until it has been encoded, so the claim is sized to the capacity of the
+     * fallback buffer, which is the most that the message could occupy if it were encoded into that buffer. If the
+     * capacity of the fallback buffer is greater than {@link #maxEncodeIntoClaimBufferLength()} the claim wouldn't
+     * fit into a single frame, so the message is encoded into the fallback buffer and copied. Only the encoded
+     * length of the message is committed, the rest of the claim is committed as a padding frame.
+     *
+     * @param encoder the encoder of the message.
+     * @param fallbackBuffer the buffer to encode the message into when it can't be encoded into a claim.
+     * @param libraryId the id of the library sending the message.
+     * @param sessionId the id of the session sending the message.
+     * @param sequenceIndex the sequence index of the message.
+     * @param connectionId the id of the connection the message is sent on.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @return the position in the stream that corresponds to the end of this message or a negative
+     * number indicating an error status.
+     */
+    public long saveMessage(
+        final Encoder encoder,
+        final MutableAsciiBuffer fallbackBuffer,
+        final int libraryId,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber)
+    {
+        final int messageType = encoder.messageType();
+        final int fallbackLength = fallbackBuffer.capacity();
+
+        if (fallbackLength <= maxEncodeIntoClaimBufferLength())
+        {
+            final int claimLength = BitUtil.align(
+                DataHeaderFlyweight.HEADER_LENGTH + FRAMED_MESSAGE_SIZE + fallbackLength,
+                FRAME_ALIGNMENT) - DataHeaderFlyweight.HEADER_LENGTH;
+            final long position = claim(claimLength);
+            if (position < 0)
+            {
+                return position;
+            }
+
+            return encodeIntoClaim(
+                position, encoder, messageType, libraryId, sessionId, sequenceIndex, connectionId, status,
+                sequenceNumber);
+        }
+
+        final long result = encoder.encode(fallbackBuffer, 0);
+        final int offset = Encoder.offset(result);
+        final int length = Encoder.length(result);
+        messageTypeToHeaderGap.put(messageType, offset);
+
+        return saveMessage(
+            fallbackBuffer,
+            offset,
+            length,
+            libraryId,
+            messageType,
+            sessionId,
+            sequenceIndex,
+            connectionId,
+            status,
+            sequenceNumber);
+    }
+
+    private long encodeIntoClaim(
+        final long position,
+        final Encoder encoder,
+        final int messageType,
+        final int libraryId,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber)
+    {
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+        final MutableAsciiBuffer claimAsciiBuffer = this.claimAsciiBuffer;
+        claimAsciiBuffer.wrap(destBuffer);
+
+        final int headerOffset = bufferClaim.offset();
+        final int bodyOffset = headerOffset + FRAMED_MESSAGE_SIZE;
+
+        // Encoders leave a gap before the message that depends upon the number of digits in its body length, so
+        // start encoding early by the gap of the last message of this type in order to start the message at the body.
+        // The claim always has at least the capacity of the fallback buffer after the encode offset.
+        final int encodeOffset = Math.max(headerOffset, bodyOffset - messageTypeToHeaderGap.get(messageType));
+        final long result;
+        try
+        {
+            result = encoder.encode(claimAsciiBuffer, encodeOffset);
+        }
+        catch (final Throwable throwable)
+        {
+            bufferClaim.abort();
+            throw throwable;
+        }
+
+        final int messageOffset = Encoder.offset(result);
+        final int length = Encoder.length(result);
+        messageTypeToHeaderGap.put(messageType, messageOffset - encodeOffset);
+
+        if (messageOffset != bodyOffset)
+        {
+            claimAsciiBuffer.putBytes(bodyOffset, claimAsciiBuffer, messageOffset, length);
+        }
+
+        header.wrap(destBuffer, headerOffset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        final int offset = headerOffset + header.encodedLength();
+
+        fixMessage.wrap(destBuffer, offset)
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(clock.time())
+            .status(status)
+            .sequenceNumber(sequenceNumber);
+
+        putBodyLength(length, offset, destBuffer);
+
+        DebugLogger.log(FIX_MESSAGE_FLOW, "Enqueued %s%n", claimAsciiBuffer, bodyOffset, length);
+
+        return commitFrameLength(position, bodyOffset + length);
+    }
+
+    // Commits the first frameLength bytes of the claim as the message's frame and the rest of it as a padding frame,
+    // so that consumers of the message never see the unused part of the claim.
+    private long commitFrameLength(final long position, final int frameLength)
+    {
+        final UnsafeBuffer claimFrame = this.claimFrame;
+        claimFrame.wrap(bufferClaim.buffer());
+
+        final int alignedFrameLength = BitUtil.align(frameLength, FRAME_ALIGNMENT);
+        final int paddingLength = claimFrame.capacity() - alignedFrameLength;
+        if (paddingLength > 0)
+        {
+            final int paddingOffset = alignedFrameLength;
+            claimFrame.putBytes(paddingOffset, claimFrame, 0, DataHeaderFlyweight.HEADER_LENGTH);
+            claimFrame.putInt(
+                paddingOffset + TERM_OFFSET_FIELD_OFFSET,
+                claimFrame.getInt(TERM_OFFSET_FIELD_OFFSET, LITTLE_ENDIAN) + paddingOffset,
+                LITTLE_ENDIAN);
+            frameFlags(claimFrame, paddingOffset, UNFRAGMENTED);
+            frameType(claimFrame, paddingOffset, PADDING_FRAME_TYPE);
+            frameLengthOrdered(claimFrame, paddingOffset, paddingLength);
+        }
+
+        frameLengthOrdered(claimFrame, 0, frameLength);
+
+        return position - paddingLength;
     }
 
     public long saveMessage(
@@ -236,6 +436,227 @@ public class GatewayPublication extends ClaimablePublication
         destBuffer.putShort(offset + FixMessageEncoder.BLOCK_LENGTH, (short)srcLength, LITTLE_ENDIAN);
     }
 
+    /**
+     * Get the number of bytes that a message takes up within a fragment once framed as a FixMessage.
+     *
+     * @param srcLength the length of the message.
+     * @return the number of bytes that the framed message takes up.
+     */
+    public static int framedLength(final int srcLength)
+    {
+        return FRAMED_MESSAGE_SIZE + srcLength;
+    }
+
+    /**
+     * Save several complete messages from the same session as consecutive FixMessage frames within a single claim,
+     * so that the messages framed from a single read of a connection cost a single claim and commit. The framed
+     * length of all the messages must fit within {@link #maxPayloadLength()}, messages are never fragmented.
+     *
+     * Subscribers find out how many messages a fragment holds via {@link ReservedValue#messageCount(long)}.
+     *
+     * @param srcBuffer the buffer containing the messages.
+     * @param srcOffsets the offset of each message within the buffer.
+     * @param srcLengths the length of each message.
+     * @param messageTypes the int encoded message type of each message.
+     * @param messageCount the number of messages to save.
+     * @param libraryId the id of the library that the messages are for.
+     * @param sessionId the id of the session that the messages were received on.
+     * @param sequenceIndex the sequence index of the messages.
+     * @param connectionId the id of the connection that the messages were received on.
+     * @param timestamp the time that the messages were received.
+     * @return the position in the stream that corresponds to the end of the messages or a negative
+     * number indicating an error status.
+     */
+    public long saveMessages(
+        final DirectBuffer srcBuffer,
+        final int[] srcOffsets,
+        final int[] srcLengths,
+        final int[] messageTypes,
+        final int messageCount,
+        final int libraryId,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final long timestamp)
+    {
+        int claimLength = 0;
+        for (int i = 0; i < messageCount; i++)
+        {
+            claimLength += FRAMED_MESSAGE_SIZE + srcLengths[i];
+        }
+
+        if (claimLength > maxPayloadLength)
+        {
+            throw new IllegalArgumentException(String.format(
+                "Messages of framed length %d don't fit within the max payload length %d",
+                claimLength,
+                maxPayloadLength));
+        }
+
+        final BufferClaim bufferClaim = this.bufferClaim;
+        final long position = claim(claimLength);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        int offset = bufferClaim.offset();
+        final MutableDirectBuffer destBuffer = bufferClaim.buffer();
+
+        for (int i = 0; i < messageCount; i++)
+        {
+            final int srcOffset = srcOffsets[i];
+            final int srcLength = srcLengths[i];
+
+            header.wrap(destBuffer, offset)
+                .blockLength(fixMessage.sbeBlockLength())
+                .templateId(fixMessage.sbeTemplateId())
+                .schemaId(fixMessage.sbeSchemaId())
+                .version(fixMessage.sbeSchemaVersion());
+
+            offset += header.encodedLength();
+
+            fixMessage.wrap(destBuffer, offset)
+                .libraryId(libraryId)
+                .messageType(messageTypes[i])
+                .session(sessionId)
+                .sequenceIndex(sequenceIndex)
+                .connection(connectionId)
+                .timestamp(timestamp)
+                .status(MessageStatus.OK)
+                .sequenceNumber(0)
+                .putBody(srcBuffer, srcOffset, srcLength);
+
+            offset = fixMessage.limit();
+
+            DebugLogger.log(FIX_MESSAGE_FLOW, "Enqueued %s%n", srcBuffer, srcOffset, srcLength);
+        }
+
+        bufferClaim.reservedValue(ReservedValue.ofMessageCount(messageCount)).commit();
+
+        return position;
+    }
+
+    /**
+     * Get the maximum length of a batch of messages that can be saved by {@link #saveBatch(DirectBuffer, int)}.
+     *
+     * @return the maximum length of a batch of messages.
+     */
+    public int maxBatchLength()
+    {
+        return DataHeaderFlyweight.HEADER_LENGTH + maxPayloadLength;
+    }
+
+    /**
+     * Append a message to a batch of messages that is being built up in a private buffer. Each message in the batch
+     * is laid out as a complete frame, so that the whole batch can be copied into a single claim on the publication
+     * by {@link #saveBatch(DirectBuffer, int)}. Each message is still a normal FixMessage, so subscribers don't need to
+     * know about batches.
+     *
+     * @param batchBuffer the buffer that the batch is built up in, of at least {@link #maxBatchLength()}.
+     * @param batchLength the length of the batch before this message is appended.
+     * @param srcBuffer the buffer containing the message.
+     * @param srcOffset the offset of the message within the buffer.
+     * @param srcLength the length of the message.
+     * @param libraryId the id of the library sending the message.
+     * @param messageType the int encoded message type.
+     * @param sessionId the id of the session sending the message.
+     * @param sequenceIndex the sequence index of the message.
+     * @param connectionId the id of the connection the message is sent on.
+     * @param status the status of the message.
+     * @param sequenceNumber the sequence number of the message.
+     * @return the length of the batch with this message appended or {@link #NO_BATCH_SPACE} if the message doesn't
+     * fit into the batch.
+     */
+    public int appendBatchMessage(
+        final MutableDirectBuffer batchBuffer,
+        final int batchLength,
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final int libraryId,
+        final int messageType,
+        final long sessionId,
+        final int sequenceIndex,
+        final long connectionId,
+        final MessageStatus status,
+        final int sequenceNumber)
+    {
+        final int frameLength = DataHeaderFlyweight.HEADER_LENGTH + FRAMED_MESSAGE_SIZE + srcLength;
+        final int newBatchLength = batchLength + BitUtil.align(frameLength, FRAME_ALIGNMENT);
+        if (newBatchLength > maxBatchLength())
+        {
+            return NO_BATCH_SPACE;
+        }
+
+        // The rest of the data header is filled in from the claim when the batch is saved.
+        batchBuffer.putInt(batchLength + FRAME_LENGTH_FIELD_OFFSET, frameLength, LITTLE_ENDIAN);
+
+        final int headerOffset = batchLength + DataHeaderFlyweight.HEADER_LENGTH;
+        header.wrap(batchBuffer, headerOffset)
+            .blockLength(fixMessage.sbeBlockLength())
+            .templateId(fixMessage.sbeTemplateId())
+            .schemaId(fixMessage.sbeSchemaId())
+            .version(fixMessage.sbeSchemaVersion());
+
+        fixMessage.wrap(batchBuffer, headerOffset + header.encodedLength())
+            .libraryId(libraryId)
+            .messageType(messageType)
+            .session(sessionId)
+            .sequenceIndex(sequenceIndex)
+            .connection(connectionId)
+            .timestamp(clock.time())
+            .status(status)
+            .sequenceNumber(sequenceNumber)
+            .putBody(srcBuffer, srcOffset, srcLength);
+
+        return newBatchLength;
+    }
+
+    /**
+     * Save a batch of messages built up by {@link #appendBatchMessage} with a single claim on the publication.
+     *
+     * Subscribers stop reading at the first uncommitted frame, so every message but the first is written in full and
+     * the first one is committed last, which makes the whole batch visible to them at once.
+     *
+     * @param batchBuffer the buffer that the batch has been built up in.
+     * @param batchLength the length of the batch.
+     * @return the position in the stream that corresponds to the end of the last message or a negative
+     * number indicating an error status, in which case none of the batch has been saved.
+     */
+    public long saveBatch(final DirectBuffer batchBuffer, final int batchLength)
+    {
+        final long position = claim(batchLength - DataHeaderFlyweight.HEADER_LENGTH);
+        if (position < 0)
+        {
+            return position;
+        }
+
+        final UnsafeBuffer claimFrame = this.claimFrame;
+        claimFrame.wrap(bufferClaim.buffer());
+        claimFrame.putBytes(
+            DataHeaderFlyweight.HEADER_LENGTH,
+            batchBuffer,
+            DataHeaderFlyweight.HEADER_LENGTH,
+            batchLength - DataHeaderFlyweight.HEADER_LENGTH);
+
+        final int termOffset = claimFrame.getInt(TERM_OFFSET_FIELD_OFFSET, LITTLE_ENDIAN);
+        int frameOffset = BitUtil.align(
+            batchBuffer.getInt(FRAME_LENGTH_FIELD_OFFSET, LITTLE_ENDIAN), FRAME_ALIGNMENT);
+        while (frameOffset < batchLength)
+        {
+            final int frameLength = batchBuffer.getInt(frameOffset + FRAME_LENGTH_FIELD_OFFSET, LITTLE_ENDIAN);
+            claimFrame.putBytes(frameOffset, claimFrame, 0, DataHeaderFlyweight.HEADER_LENGTH);
+            claimFrame.putInt(frameOffset + TERM_OFFSET_FIELD_OFFSET, termOffset + frameOffset, LITTLE_ENDIAN);
+            claimFrame.putInt(frameOffset + FRAME_LENGTH_FIELD_OFFSET, frameLength, LITTLE_ENDIAN);
+            frameOffset += BitUtil.align(frameLength, FRAME_ALIGNMENT);
+        }
+
+        frameLengthOrdered(claimFrame, 0, batchBuffer.getInt(FRAME_LENGTH_FIELD_OFFSET, LITTLE_ENDIAN));
+
+        return position;
+    }
+
     public long saveManageSession(
         final int libraryId,
         final long connection,
@@ -972,4 +1393,16 @@ public class GatewayPublication extends ClaimablePublication
     {
         return maxPayloadLength;
     }
+
+    /**
+     * Gets the largest capacity of fallback buffer that messages can be encoded into a claim for by
+     * {@link #saveMessage(Encoder, MutableAsciiBuffer, int, long, int, long, MessageStatus, int)}.
+     *
+     * @return the largest capacity of fallback buffer that messages can be encoded into a claim for.
+     */
+    public int maxEncodeIntoClaimBufferLength()
+    {
+        // The max payload length plus the header length is frame aligned, so the aligned claim still fits a frame.
+        return maxInitialBodyLength;
+    }
 }
@@ -23,6 +23,7 @@ import uk.co.real_logic.artio.messages.DisconnectDecoder;
 import uk.co.real_logic.artio.messages.FixMessageDecoder;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
 import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
 import static uk.co.real_logic.artio.LogTag.FIX_CONNECTION;
 import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
@@ -30,6 +31,7 @@ import static uk.co.real_logic.artio.protocol.GatewayPublication.FRAME_SIZE;
 public final class ProtocolSubscription implements ControlledFragmentHandler
 {
     private static final Action UNKNOWN_TEMPLATE = null;
+    private static final long NO_ABORTED_POSITION = -1;
 
     private final MessageHeaderDecoder messageHeader = new MessageHeaderDecoder();
     private final DisconnectDecoder disconnect = new DisconnectDecoder();
@@ -38,6 +40,9 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
     private final ProtocolHandler protocolHandler;
     private final Action defaultAction;
 
+    private long abortedPosition = NO_ABORTED_POSITION;
+    private int abortedMessageIndex;
+
     public static ProtocolSubscription of(final ProtocolHandler protocolHandler)
     {
         return new ProtocolSubscription(protocolHandler, CONTINUE);
@@ -69,6 +74,12 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
     public Action onFragment(
         final DirectBuffer buffer, final int offset, final int length, final Header header)
     {
+        final int messageCount = ReservedValue.messageCount(header);
+        if (messageCount > 1)
+        {
+            return onFixMessages(buffer, offset, messageCount, header.position());
+        }
+
         return onFragment(buffer, offset, length, header.position());
     }
 
@@ -97,6 +108,47 @@ public final class ProtocolSubscription implements ControlledFragmentHandler
         return defaultAction;
     }
 
+    // Messages batched into a fragment share the position of its end, since a position within the fragment wouldn't be
+    // the end of a frame. A handler can abort part way through the fragment, in which case the fragment is polled again
+    // and the messages before the one that was aborted are skipped rather than handled twice.
+    private Action onFixMessages(
+        final DirectBuffer buffer, final int offset, final int messageCount, final long position)
+    {
+        final int firstMessageIndex = position == abortedPosition ? abortedMessageIndex : 0;
+        abortedPosition = NO_ABORTED_POSITION;
+
+        Action result = CONTINUE;
+        int frameOffset = offset;
+        for (int i = 0; i < messageCount; i++)
+        {
+            messageHeader.wrap(buffer, frameOffset);
+            final int blockLength = messageHeader.blockLength();
+            final int version = messageHeader.version();
+            final int messageOffset = frameOffset + MessageHeaderDecoder.ENCODED_LENGTH;
+
+            messageFrame.wrap(buffer, messageOffset, blockLength, version);
+            frameOffset = messageOffset + FRAME_SIZE + messageFrame.bodyLength();
+
+            if (i >= firstMessageIndex)
+            {
+                final Action action = onFixMessage(buffer, messageOffset, blockLength, version, position);
+                if (action == ABORT)
+                {
+                    abortedPosition = position;
+                    abortedMessageIndex = i;
+                    return ABORT;
+                }
+
+                if (action != CONTINUE)
+                {
+                    result = action;
+                }
+            }
+        }
+
+        return result;
+    }
+
     private Action onDisconnect(
         final DirectBuffer buffer, final int offset, final int blockLength, final int version)
     {
@@ -19,16 +19,28 @@ import io.aeron.logbuffer.Header;
 
 /**
  * 8 byte reserved word is used with the
+ *
+ * The low 16 bits hold the cluster stream id, the next 16 bits hold the number of FixMessage frames in a fragment and
+ * the high 32 bits hold the checksum.
  */
 public final class ReservedValue
 {
     public static final int NO_FILTER = 0;
+    public static final int MAX_MESSAGE_COUNT = 0xFFFF;
 
     private static final int BITS_IN_INT = 32;
+    private static final int MESSAGE_COUNT_SHIFT = 16;
+    private static final long CLUSTER_STREAM_ID_MASK = 0xFFFFL;
+    private static final long MESSAGE_COUNT_MASK = ((long)MAX_MESSAGE_COUNT) << MESSAGE_COUNT_SHIFT;
 
     public static long ofClusterStreamId(final int clusterStreamId)
     {
-        return clusterStreamId & 0xFFFFFFFFL;
+        return clusterStreamId & CLUSTER_STREAM_ID_MASK;
+    }
+
+    public static long ofMessageCount(final int messageCount)
+    {
+        return (((long)messageCount) << MESSAGE_COUNT_SHIFT) & MESSAGE_COUNT_MASK;
     }
 
     public static long ofChecksum(final int checksum)
@@ -43,7 +55,7 @@ public final class ReservedValue
 
     public static int clusterStreamId(final long reservedValue)
     {
-        return (int)reservedValue;
+        return (int)(reservedValue & CLUSTER_STREAM_ID_MASK);
     }
 
     public static int clusterStreamId(final Header header)
@@ -63,6 +75,24 @@ public final class ReservedValue
         return clusterStreamId;
     }
 
+    /**
+     * Get the number of FixMessage frames within a fragment. Fragments that hold several frames back to back record
+     * how many, every other fragment holds a single message.
+     *
+     * @param reservedValue the reserved value of the fragment's header.
+     * @return the number of FixMessage frames within the fragment.
+     */
+    public static int messageCount(final long reservedValue)
+    {
+        final int messageCount = (int)((reservedValue & MESSAGE_COUNT_MASK) >>> MESSAGE_COUNT_SHIFT);
+        return messageCount > 1 ? messageCount : 1;
+    }
+
+    public static int messageCount(final Header header)
+    {
+        return messageCount(header.reservedValue());
+    }
+
     public static int checksum(final long reservedValue)
     {
         return (int)(reservedValue >> BITS_IN_INT);
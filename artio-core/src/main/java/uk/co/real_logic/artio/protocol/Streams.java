@@ -56,13 +56,20 @@ public final class Streams
     }
 
     public GatewayPublication gatewayPublication(final IdleStrategy idleStrategy, final String name)
+    {
+        return gatewayPublication(idleStrategy, name, false);
+    }
+
+    public GatewayPublication gatewayPublication(
+        final IdleStrategy idleStrategy, final String name, final boolean encodeMessagesIntoClaim)
     {
         return new GatewayPublication(
             dataPublication(name),
             failedPublications,
             idleStrategy,
             clock,
-            maxClaimAttempts
+            maxClaimAttempts,
+            encodeMessagesIntoClaim
         );
     }
 
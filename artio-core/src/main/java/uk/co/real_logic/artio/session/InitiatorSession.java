@@ -101,4 +101,14 @@ public class InitiatorSession extends InternalSession
 
         return actions + super.poll(time);
     }
+
+    long nextPollTimeInMs()
+    {
+        if (state() == SessionState.CONNECTED && id() != UNKNOWN)
+        {
+            return 0;
+        }
+
+        return super.nextPollTimeInMs();
+    }
 }
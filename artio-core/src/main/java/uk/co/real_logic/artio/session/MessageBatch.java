@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.artio.builder.Encoder;
+
+import static uk.co.real_logic.artio.protocol.GatewayPublication.NO_BATCH_SPACE;
+
+/**
+ * A batch of messages to be sent on a session, obtained from {@link Session#batch()}.
+ *
+ * Each appended message is encoded straight away, with the next sequence number of the session, into a buffer that
+ * is private to the batch. Sending the batch then claims space for all of its messages on the library's publication at
+ * once, so either the whole batch is seen by the engine or none of it is. A message that doesn't fit into the batch is
+ * rejected when it is appended.
+ *
+ * The batch is sent as a single frame, so it is limited to the maximum payload length of a frame on the library's
+ * publication, including the framing of each message. This is about 1.3KB at the default mtu.
+ *
+ * The sequence numbers and sending times of the messages are fixed when they are appended, so no other message may be
+ * sent on the session until the batch has been sent, including when sending it is back pressured and retried. If the
+ * session sends another message, for example a heartbeat, the batch is aborted rather than reusing its sequence
+ * numbers.
+ */
+public class MessageBatch
+{
+    private final Session session;
+    private final UnsafeBuffer buffer;
+
+    private int size;
+    private int length;
+    private int lastSentMsgSeqNum;
+
+    MessageBatch(final Session session, final int maxLength)
+    {
+        this.session = session;
+        this.buffer = new UnsafeBuffer(new byte[maxLength]);
+    }
+
+    void reset()
+    {
+        size = 0;
+        length = 0;
+    }
+
+    /**
+     * Append a message to the batch. The encoder can be reused for the next message once this method returns.
+     *
+     * @param encoder the encoder of the message to be sent.
+     * @return true if the message has been appended, false if there isn't enough space left in the batch for it, in
+     * which case the batch is unchanged and can still be sent.
+     * @throws IllegalArgumentException if the message is too large to fit into an empty batch.
+     * @throws IllegalStateException if another message has been sent on the session since the batch began, in which
+     * case the batch has been aborted.
+     */
+    public boolean append(final Encoder encoder)
+    {
+        if (size == 0)
+        {
+            lastSentMsgSeqNum = session.lastSentMsgSeqNum();
+        }
+        else
+        {
+            validateNoMessageSentSinceBatchBegan();
+        }
+
+        final int newLength = session.appendToBatch(encoder, buffer, length, size);
+        if (newLength == NO_BATCH_SPACE)
+        {
+            if (size == 0)
+            {
+                throw new IllegalArgumentException(String.format(
+                    "The message is too large for a batch, which is limited to %d bytes including framing",
+                    buffer.capacity()));
+            }
+
+            return false;
+        }
+
+        length = newLength;
+        size++;
+        return true;
+    }
+
+    /**
+     * Send all the messages in the batch.
+     *
+     * @return the position in the stream that corresponds to the end of the last message or a negative number
+     * indicating an error status, in which case none of the messages have been sent and sending can be retried. An
+     * empty batch returns 0.
+     * @throws IllegalStateException if another message has been sent on the session since the batch began, in which
+     * case the batch has been aborted.
+     */
+    public long send()
+    {
+        if (size == 0)
+        {
+            return 0;
+        }
+
+        validateNoMessageSentSinceBatchBegan();
+
+        final long position = session.saveBatch(buffer, length, size);
+        if (position > 0)
+        {
+            reset();
+        }
+
+        return position;
+    }
+
+    private void validateNoMessageSentSinceBatchBegan()
+    {
+        final int sessionLastSentMsgSeqNum = session.lastSentMsgSeqNum();
+        if (sessionLastSentMsgSeqNum != lastSentMsgSeqNum)
+        {
+            reset();
+            throw new IllegalStateException(String.format(
+                "Aborted the batch because the last sent sequence number has changed from %d to %d since it began",
+                lastSentMsgSeqNum,
+                sessionLastSentMsgSeqNum));
+        }
+    }
+
+    /**
+     * Abort the batch, none of its messages are sent.
+     */
+    public void abort()
+    {
+        reset();
+    }
+
+    /**
+     * Get the number of messages in the batch.
+     *
+     * @return the number of messages in the batch.
+     */
+    public int size()
+    {
+        return size;
+    }
+}
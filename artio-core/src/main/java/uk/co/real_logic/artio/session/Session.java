@@ -17,10 +17,12 @@ package uk.co.real_logic.artio.session;
 
 import io.aeron.logbuffer.ControlledFragmentHandler.Action;
 import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
 import org.agrona.Verify;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.status.AtomicCounter;
 import uk.co.real_logic.artio.CommonConfiguration;
+import uk.co.real_logic.artio.DeadlineTimers;
 import uk.co.real_logic.artio.DebugLogger;
 import uk.co.real_logic.artio.Pressure;
 import uk.co.real_logic.artio.builder.Encoder;
@@ -161,6 +163,12 @@ public class Session implements AutoCloseable
 
     private int logoutRejectReason = NO_LOGOUT_REJECT_REASON;
 
+    private DeadlineTimers<Session> timers;
+    private long timerId = DeadlineTimers.NO_TIMER;
+    private long timerDeadlineInMs = Long.MAX_VALUE;
+
+    private MessageBatch batch;
+
     public Session(
         final int heartbeatIntervalInS,
         final long connectionId,
@@ -454,7 +462,11 @@ public class Session implements AutoCloseable
      */
     public int prepare(final SessionHeaderEncoder header)
     {
-        final int sentSeqNum = newSentSeqNum();
+        return prepare(header, newSentSeqNum());
+    }
+
+    private int prepare(final SessionHeaderEncoder header, final int sentSeqNum)
+    {
         header
             .msgSeqNum(sentSeqNum)
             .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(time()));
@@ -486,6 +498,19 @@ public class Session implements AutoCloseable
 
         final int sentSeqNum = prepare(encoder.header());
 
+        if (publication.encodeMessagesIntoClaim())
+        {
+            final long position = publication.saveMessage(
+                encoder, asciiBuffer, libraryId, id(), sequenceIndex(), connectionId, OK, sentSeqNum);
+
+            if (position > 0)
+            {
+                lastSentMsgSeqNum(sentSeqNum, position);
+            }
+
+            return position;
+        }
+
         final long result = encoder.encode(asciiBuffer, 0);
         final int length = Encoder.length(result);
         final int offset = Encoder.offset(result);
@@ -522,6 +547,67 @@ public class Session implements AutoCloseable
         return position;
     }
 
+    /**
+     * Begin a batch of messages to be sent on this session. The messages in the batch are given contiguous sequence
+     * numbers and either all of them are sent or none of them are.
+     *
+     * Messages appended to the batch are encoded into the batch's own buffer and sent with a single claim on the
+     * library's publication, so a batch is limited to the maximum payload of a single frame. No other messages may
+     * be sent on this session between beginning a batch and sending or aborting it, see {@link MessageBatch}.
+     *
+     * @return the batch, which is reused by subsequent calls to this method.
+     * @throws IllegalStateException if the session isn't in a state where it can send a message.
+     */
+    public MessageBatch batch()
+    {
+        validateCanSendMessage();
+
+        MessageBatch batch = this.batch;
+        if (batch == null)
+        {
+            batch = new MessageBatch(this, publication.maxBatchLength());
+            this.batch = batch;
+        }
+        batch.reset();
+
+        return batch;
+    }
+
+    int appendToBatch(
+        final Encoder encoder, final MutableDirectBuffer batchBuffer, final int batchLength, final int batchIndex)
+    {
+        final int sentSeqNum = prepare(encoder.header(), newSentSeqNum() + batchIndex);
+
+        final long result = encoder.encode(asciiBuffer, 0);
+        final int length = Encoder.length(result);
+        final int offset = Encoder.offset(result);
+
+        return publication.appendBatchMessage(
+            batchBuffer,
+            batchLength,
+            asciiBuffer,
+            offset,
+            length,
+            libraryId,
+            encoder.messageType(),
+            id(),
+            sequenceIndex(),
+            connectionId,
+            OK,
+            sentSeqNum);
+    }
+
+    long saveBatch(final DirectBuffer batchBuffer, final int batchLength, final int batchSize)
+    {
+        final long position = publication.saveBatch(batchBuffer, batchLength);
+        if (position > 0)
+        {
+            lastSentMsgSeqNum(lastSentMsgSeqNum + batchSize);
+        }
+
+        return position;
+    }
+
     /**
      * Check if the session is in a state where it can send a message.
      *
@@ -634,6 +720,7 @@ public class Session implements AutoCloseable
      */
     public void close()
     {
+        timers(null);
         sentMsgSeqNo.close();
         receivedMsgSeqNo.close();
     }
@@ -1413,17 +1500,20 @@ public class Session implements AutoCloseable
         incNextReceivedInboundMessageTime(time);
         sendingHeartbeatIntervalInMs = (long)(heartbeatIntervalInMs * HEARTBEAT_PAUSE_FACTOR);
         nextRequiredHeartbeatTimeInMs = time + sendingHeartbeatIntervalInMs;
+        onPollTimeChanged();
     }
 
     protected Session state(final SessionState state)
     {
         this.state = state;
+        onPollTimeChanged();
         return this;
     }
 
     public Session id(final long id)
     {
         this.id = id;
+        onPollTimeChanged();
         return this;
     }
 
@@ -1643,6 +1733,69 @@ public class Session implements AutoCloseable
         }
     }
 
+    /**
+     * Get the time at which {@link #poll(long)} next needs to be called. Sending or receiving messages only ever
+     * moves this time later, so a session whose timer expires before this time can simply be polled early.
+     *
+     * @return the time in milliseconds at which the session next needs to be polled.
+     */
+    long nextPollTimeInMs()
+    {
+        final short state = state().value();
+        switch (state)
+        {
+            case DISCONNECTING_VALUE:
+            case LOGGING_OUT_VALUE:
+            case LOGGING_OUT_AND_DISCONNECTING_VALUE:
+                return 0;
+
+            case ACTIVE_VALUE:
+                return Math.min(nextRequiredHeartbeatTimeInMs, nextRequiredInboundMessageTimeInMs);
+
+            default:
+                return nextRequiredInboundMessageTimeInMs;
+        }
+    }
+
+    void timers(final DeadlineTimers<Session> timers)
+    {
+        if (this.timers != null)
+        {
+            this.timers.cancel(timerId);
+            timerId = DeadlineTimers.NO_TIMER;
+            timerDeadlineInMs = Long.MAX_VALUE;
+        }
+
+        this.timers = timers;
+        onPollTimeChanged();
+    }
+
+    int onTimerExpiry(final long time)
+    {
+        timerId = DeadlineTimers.NO_TIMER;
+        timerDeadlineInMs = Long.MAX_VALUE;
+
+        final int actions = poll(time);
+        onPollTimeChanged();
+        return actions;
+    }
+
+    // Only reschedule when the poll time moves earlier, a timer that expires early just results in an idle poll.
+    void onPollTimeChanged()
+    {
+        final DeadlineTimers<Session> timers = this.timers;
+        if (timers != null)
+        {
+            final long nextPollTimeInMs = nextPollTimeInMs();
+            if (nextPollTimeInMs < timerDeadlineInMs)
+            {
+                timers.cancel(timerId);
+                timerId = timers.schedule(this, nextPollTimeInMs);
+                timerDeadlineInMs = nextPollTimeInMs;
+            }
+        }
+    }
+
     void libraryConnected(final boolean libraryConnected)
     {
         proxy.libraryConnected(libraryConnected);
@@ -74,6 +74,38 @@ public class SessionParser
         header = fixDictionary.makeHeaderDecoder();
         sequenceReset = fixDictionary.makeSequenceResetDecoder();
         heartbeat = fixDictionary.makeHeartbeatDecoder();
+
+        if (!CODEC_VALIDATION_ENABLED)
+        {
+            projectHeaderOfOtherMessages();
+        }
+        else
+        {
+            final int[] validatedHeaderFields = validationStrategy.validatedHeaderFields();
+            if (validatedHeaderFields != null)
+            {
+                projectHeaderOfOtherMessages();
+                header.projectField(BEGIN_STRING);
+                for (final int tag : validatedHeaderFields)
+                {
+                    header.projectField(tag);
+                }
+            }
+        }
+    }
+
+    // Only the header fields that are passed to the session, or validated, are read from messages that the session
+    // layer doesn't handle itself, so they are lazily scanned for and the rest of the header isn't decoded. If the
+    // validation strategy can't say which fields it reads then the whole header is decoded.
+    private void projectHeaderOfOtherMessages()
+    {
+        final SessionHeaderDecoder header = this.header;
+        header.projectField(MESSAGE_TYPE);
+        header.projectField(MSG_SEQ_NO);
+        header.projectField(SENDING_TIME);
+        header.projectField(ORIG_SENDING_TIME);
+        header.projectField(POSS_DUP_FLAG);
+        header.projectField(POSS_RESEND);
     }
 
     public static String username(final AbstractLogonDecoder logon)
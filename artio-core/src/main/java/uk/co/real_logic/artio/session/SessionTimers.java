@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.session;
+
+import uk.co.real_logic.artio.DeadlineTimers;
+
+/**
+ * Polls sessions only when their heartbeat, test request, logout or disconnect deadlines are due rather than on
+ * every duty cycle.
+ *
+ * Each added session has a timer scheduled for the next time it needs to be polled. Sessions reschedule their timer
+ * when a state change moves that time earlier, and after each time that they're polled. Sessions remove themselves
+ * when they're closed.
+ *
+ * Not thread safe, should be used on the thread that polls the sessions.
+ */
+public class SessionTimers
+{
+    private final DeadlineTimers<Session> timers;
+
+    public SessionTimers(final long timeInMs)
+    {
+        timers = new DeadlineTimers<>(timeInMs, Session::onTimerExpiry);
+    }
+
+    public void add(final Session session)
+    {
+        session.timers(timers);
+    }
+
+    public void remove(final Session session)
+    {
+        session.timers(null);
+    }
+
+    /**
+     * Poll the sessions whose timers have expired.
+     *
+     * @param timeInMs the current time in milliseconds.
+     * @return the number of actions performed by the polled sessions.
+     */
+    public int poll(final long timeInMs)
+    {
+        return timers.poll(timeInMs);
+    }
+
+    public int size()
+    {
+        return timers.size();
+    }
+}
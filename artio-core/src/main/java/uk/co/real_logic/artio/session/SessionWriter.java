@@ -73,6 +73,12 @@ public class SessionWriter
      */
     public long send(final Encoder encoder, final int seqNum)
     {
+        if (publication.encodeMessagesIntoClaim())
+        {
+            return publication.saveMessage(
+                encoder, asciiBuffer, libraryId, id, sequenceIndex, connectionId, OK, seqNum);
+        }
+
         final long result = encoder.encode(asciiBuffer, 0);
         final int length = Encoder.length(result);
         final int offset = Encoder.offset(result);
@@ -24,13 +24,17 @@ public class EngineTimers
 {
     private final Timer outboundTimer;
     private final Timer sendTimer;
+    private final Timer connectTimer;
+    private final Timer resolveTimer;
     private final List<Timer> timers;
 
     public EngineTimers(final Clock clock)
     {
         outboundTimer = new Timer(clock, "Outbound", 1);
         sendTimer = new Timer(clock, "Send", 2);
-        timers = Arrays.asList(outboundTimer, sendTimer);
+        connectTimer = new Timer(clock, "Connect", 3);
+        resolveTimer = new Timer(clock, "Resolve", 4);
+        timers = Arrays.asList(outboundTimer, sendTimer, connectTimer, resolveTimer);
     }
 
     public Timer outboundTimer()
@@ -43,6 +47,27 @@ public class EngineTimers
         return sendTimer;
     }
 
+    /**
+     * Records the time taken to initiate a connection, from the library's request through resolving the address to
+     * the TCP connection completing.
+     *
+     * @return the timer for initiated connections.
+     */
+    public Timer connectTimer()
+    {
+        return connectTimer;
+    }
+
+    /**
+     * Records the time taken to resolve the address of an initiated connection, upon the resolver thread.
+     *
+     * @return the timer for address resolution.
+     */
+    public Timer resolveTimer()
+    {
+        return resolveTimer;
+    }
+
     public List<Timer> all()
     {
         return timers;
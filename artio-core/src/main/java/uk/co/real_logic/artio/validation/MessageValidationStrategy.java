@@ -17,6 +17,7 @@ package uk.co.real_logic.artio.validation;
 
 import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -63,6 +64,18 @@ public interface MessageValidationStrategy
      */
     int rejectReason();
 
+    /**
+     * Returns the tags of the header fields that {@link #validate(SessionHeaderDecoder)} reads. The session parser
+     * only decodes these fields, along with the ones that the session itself needs, from the header of application
+     * messages.
+     *
+     * @return the tags of the header fields that this strategy validates, or null if it may read any header field.
+     */
+    default int[] validatedHeaderFields()
+    {
+        return null;
+    }
+
     /**
      * Compose two message validation strategies together to form a new message validation strategy where you
      * need to pass both strategies for a message to be valid.
@@ -113,6 +126,20 @@ public interface MessageValidationStrategy
             {
                 return rejectReason;
             }
+
+            public int[] validatedHeaderFields()
+            {
+                final int[] leftFields = left.validatedHeaderFields();
+                final int[] rightFields = right.validatedHeaderFields();
+                if (leftFields == null || rightFields == null)
+                {
+                    return null;
+                }
+
+                final int[] fields = Arrays.copyOf(leftFields, leftFields.length + rightFields.length);
+                System.arraycopy(rightFields, 0, fields, leftFields.length, rightFields.length);
+                return fields;
+            }
         };
     }
 }
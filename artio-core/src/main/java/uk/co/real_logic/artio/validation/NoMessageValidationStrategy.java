@@ -22,6 +22,8 @@ import uk.co.real_logic.artio.decoder.SessionHeaderDecoder;
  */
 class NoMessageValidationStrategy implements MessageValidationStrategy
 {
+    private static final int[] NO_FIELDS = new int[0];
+
     NoMessageValidationStrategy()
     {
     }
@@ -41,6 +43,11 @@ class NoMessageValidationStrategy implements MessageValidationStrategy
         return notSupported();
     }
 
+    public int[] validatedHeaderFields()
+    {
+        return NO_FIELDS;
+    }
+
     private int notSupported()
     {
         throw new UnsupportedOperationException(
@@ -52,4 +52,9 @@ class SenderCompIdValidationStrategy implements MessageValidationStrategy
     {
         return COMPID_PROBLEM.representation();
     }
+
+    public int[] validatedHeaderFields()
+    {
+        return new int[]{ SessionConstants.SENDER_COMP_ID };
+    }
 }
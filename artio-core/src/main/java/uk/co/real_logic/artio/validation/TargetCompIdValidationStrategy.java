@@ -47,4 +47,9 @@ final class TargetCompIdValidationStrategy implements MessageValidationStrategy
     {
         return COMPID_PROBLEM.representation();
     }
+
+    public int[] validatedHeaderFields()
+    {
+        return new int[]{ SessionConstants.TARGET_COMP_ID };
+    }
 }
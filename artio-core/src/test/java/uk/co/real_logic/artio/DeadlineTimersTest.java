@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+
+public class DeadlineTimersTest
+{
+    private static final long START_TIME_IN_MS = 1_000;
+
+    private final List<String> expired = new ArrayList<>();
+    private final DeadlineTimers<String> timers = new DeadlineTimers<>(START_TIME_IN_MS, this::onExpiry);
+
+    private long rescheduleIntervalInMs = 0;
+
+    @Test
+    public void shouldOnlyExpireDeadlinesOnceReached()
+    {
+        timers.schedule("a", START_TIME_IN_MS + 100);
+        timers.schedule("b", START_TIME_IN_MS + 200);
+
+        assertPollExpires(START_TIME_IN_MS + 99);
+        assertPollExpires(START_TIME_IN_MS + 150, "a");
+        assertPollExpires(START_TIME_IN_MS + 150);
+        assertPollExpires(START_TIME_IN_MS + 200, "b");
+        assertEquals(0, timers.size());
+    }
+
+    @Test
+    public void shouldNotExpireCancelledDeadlines()
+    {
+        final long timerId = timers.schedule("a", START_TIME_IN_MS + 100);
+        timers.schedule("b", START_TIME_IN_MS + 100);
+
+        timers.cancel(timerId);
+        timers.cancel(DeadlineTimers.NO_TIMER);
+
+        assertPollExpires(START_TIME_IN_MS + 100, "b");
+    }
+
+    @Test
+    public void shouldExpireDeadlinesInThePastUponNextPoll()
+    {
+        assertPollExpires(START_TIME_IN_MS + 500);
+
+        timers.schedule("a", 0);
+
+        assertPollExpires(START_TIME_IN_MS + 500, "a");
+    }
+
+    @Test
+    public void shouldCatchUpWhenNotPolledForManyTicks()
+    {
+        timers.schedule("a", START_TIME_IN_MS + 100);
+        timers.schedule("b", START_TIME_IN_MS + 60_000);
+
+        assertPollExpires(START_TIME_IN_MS + 10_000, "a");
+        assertPollExpires(START_TIME_IN_MS + 59_999);
+        assertPollExpires(START_TIME_IN_MS + 120_000, "b");
+    }
+
+    @Test
+    public void shouldAllowExpiryHandlerToReschedule()
+    {
+        rescheduleIntervalInMs = 100;
+        timers.schedule("a", START_TIME_IN_MS + 100);
+
+        assertPollExpires(START_TIME_IN_MS + 100, "a");
+        assertPollExpires(START_TIME_IN_MS + 150);
+        assertPollExpires(START_TIME_IN_MS + 200, "a");
+        assertEquals(1, timers.size());
+    }
+
+    private int onExpiry(final String target, final long timeInMs)
+    {
+        expired.add(target);
+        if (rescheduleIntervalInMs > 0)
+        {
+            timers.schedule(target, timeInMs + rescheduleIntervalInMs);
+        }
+        return 1;
+    }
+
+    private void assertPollExpires(final long timeInMs, final String... targets)
+    {
+        expired.clear();
+        assertEquals(targets.length, timers.poll(timeInMs));
+        assertEquals(targets.length == 0 ? emptyList() : asList(targets), expired);
+    }
+}
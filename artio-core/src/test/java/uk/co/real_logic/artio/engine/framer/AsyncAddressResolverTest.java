@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.junit.After;
+import org.junit.Test;
+import uk.co.real_logic.artio.timing.Timer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class AsyncAddressResolverTest
+{
+    private static final String HOST = "exchange.example.com";
+    private static final String UNKNOWN_HOST = "unknown.example.com";
+    private static final byte[] IP = { 10, 0, 0, 1 };
+    private static final int PORT = 9999;
+    private static final long TIME_TO_LIVE_IN_MS = 1_000;
+    private static final int CAPACITY = 2;
+
+    private final FakeAddressResolver fakeResolver = new FakeAddressResolver();
+    private final FakeEpochClock clock = new FakeEpochClock();
+    private final List<InetSocketAddress> resolvedAddresses = new ArrayList<>();
+    private final List<IOException> exceptions = new ArrayList<>();
+
+    private final AsyncAddressResolver resolver = new AsyncAddressResolver(
+        fakeResolver,
+        clock,
+        TIME_TO_LIVE_IN_MS,
+        CAPACITY,
+        System::nanoTime,
+        mock(Timer.class),
+        null,
+        mock(ErrorHandler.class));
+
+    @After
+    public void tearDown()
+    {
+        resolver.close();
+    }
+
+    @Test
+    public void shouldResolveAddressesUponResolverThread() throws Exception
+    {
+        assertTrue(resolve(HOST));
+
+        assertThat(fakeResolver.lookups, empty());
+        assertEquals(0, resolver.poll());
+        assertThat(resolvedAddresses, empty());
+
+        assertEquals(1, resolver.doWork());
+        assertThat(fakeResolver.lookups, contains(HOST));
+        assertThat(resolvedAddresses, empty());
+
+        assertEquals(1, resolver.poll());
+        assertThat(resolvedAddresses, contains(new InetSocketAddress(InetAddress.getByAddress(HOST, IP), PORT)));
+        assertThat(exceptions, empty());
+    }
+
+    @Test
+    public void shouldCacheResolvedAddresses()
+    {
+        resolveUponResolverThread(HOST);
+
+        assertTrue(resolve(HOST));
+
+        assertEquals(2, resolvedAddresses.size());
+        assertEquals(resolvedAddresses.get(0), resolvedAddresses.get(1));
+        assertEquals(0, resolver.doWork());
+        assertEquals(1, fakeResolver.lookups.size());
+    }
+
+    @Test
+    public void shouldResolveAddressesAgainOnceTheirTimeToLiveExpires()
+    {
+        resolveUponResolverThread(HOST);
+
+        clock.advanceMilliSeconds(TIME_TO_LIVE_IN_MS);
+        assertTrue(resolve(HOST));
+
+        assertEquals(1, resolvedAddresses.size());
+        assertEquals(1, resolver.doWork());
+        assertEquals(1, resolver.poll());
+        assertEquals(2, resolvedAddresses.size());
+        assertThat(fakeResolver.lookups, contains(HOST, HOST));
+    }
+
+    @Test
+    public void shouldNotCacheUnresolvedAddresses()
+    {
+        resolveUponResolverThread(UNKNOWN_HOST);
+
+        assertThat(resolvedAddresses, contains((InetSocketAddress)null));
+        assertEquals(1, exceptions.size());
+        assertTrue(exceptions.get(0) instanceof UnknownHostException);
+
+        assertTrue(resolve(UNKNOWN_HOST));
+        assertEquals(1, resolver.doWork());
+        assertThat(fakeResolver.lookups, contains(UNKNOWN_HOST, UNKNOWN_HOST));
+    }
+
+    @Test
+    public void shouldBackPressureWhenTooManyAddressesAreBeingResolved()
+    {
+        for (int i = 0; i < CAPACITY; i++)
+        {
+            assertTrue(resolver.hasCapacity());
+            assertTrue(resolve(HOST));
+        }
+
+        assertFalse(resolver.hasCapacity());
+        assertFalse(resolve(HOST));
+
+        assertEquals(CAPACITY, resolver.doWork());
+        assertTrue(resolver.hasCapacity());
+        assertEquals(CAPACITY, resolver.poll());
+        assertEquals(CAPACITY, resolvedAddresses.size());
+    }
+
+    @Test
+    public void shouldNotTakeRequestsThatTheResultsHaveNoRoomFor()
+    {
+        for (int i = 0; i < CAPACITY; i++)
+        {
+            assertTrue(resolve(UNKNOWN_HOST));
+        }
+        assertEquals(CAPACITY, resolver.doWork());
+
+        assertTrue(resolve(UNKNOWN_HOST));
+        assertEquals(0, resolver.doWork());
+
+        assertEquals(CAPACITY, resolver.poll());
+        assertEquals(1, resolver.doWork());
+        assertEquals(1, resolver.poll());
+        assertEquals(CAPACITY + 1, exceptions.size());
+    }
+
+    private void resolveUponResolverThread(final String host)
+    {
+        assertTrue(resolve(host));
+        assertEquals(1, resolver.doWork());
+        assertEquals(1, resolver.poll());
+    }
+
+    private boolean resolve(final String host)
+    {
+        return resolver.resolve(host, PORT, (address, exception) ->
+        {
+            resolvedAddresses.add(address);
+            if (exception != null)
+            {
+                exceptions.add(exception);
+            }
+        });
+    }
+
+    private static final class FakeAddressResolver implements AddressResolver
+    {
+        private final List<String> lookups = new ArrayList<>();
+
+        public InetAddress resolve(final String host) throws UnknownHostException
+        {
+            lookups.add(host);
+
+            if (HOST.equals(host))
+            {
+                return InetAddress.getByAddress(host, IP);
+            }
+
+            throw new UnknownHostException(host);
+        }
+    }
+}
@@ -173,6 +173,8 @@ public class FramerTest
             mockClock,
             mock(Timer.class),
             mock(Timer.class),
+            mock(Timer.class),
+            mock(Timer.class),
             engineConfiguration,
             mockEndPointFactory,
             outboundLibrarySubscription,
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ReceiveBufferPoolTest
+{
+    private static final int BUFFER_SIZE = 64;
+    private static final int BUFFERS_PER_SLAB = 2;
+
+    private final AtomicCounter buffersInUse = mock(AtomicCounter.class);
+    private final AtomicCounter buffersAllocated = mock(AtomicCounter.class);
+    private final ReceiveBufferPool pool = new ReceiveBufferPool(
+        BUFFER_SIZE, BUFFER_SIZE * BUFFERS_PER_SLAB, buffersInUse, buffersAllocated);
+
+    @Test
+    public void shouldCarveBuffersOutOfSlabs()
+    {
+        final ByteBuffer first = pool.acquire();
+        final ByteBuffer second = pool.acquire();
+
+        verify(buffersAllocated, times(1)).getAndAdd(BUFFERS_PER_SLAB);
+        verify(buffersInUse, times(2)).increment();
+        assertBufferOfSize(first);
+        assertBufferOfSize(second);
+
+        first.put(0, (byte)1);
+        assertEquals(0, second.get(0));
+
+        pool.acquire();
+        verify(buffersAllocated, times(2)).getAndAdd(BUFFERS_PER_SLAB);
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffers()
+    {
+        final ByteBuffer buffer = pool.acquire();
+        buffer.put((byte)1);
+
+        pool.release(buffer);
+        verify(buffersInUse).decrement();
+
+        final ByteBuffer reacquired = pool.acquire();
+        assertSame(buffer, reacquired);
+        assertEquals(0, reacquired.position());
+        assertEquals(BUFFER_SIZE, reacquired.limit());
+        verify(buffersAllocated, times(1)).getAndAdd(BUFFERS_PER_SLAB);
+    }
+
+    @Test
+    public void shouldCarveAtLeastOneBufferOutOfSlabsSmallerThanIt()
+    {
+        final ReceiveBufferPool pool = new ReceiveBufferPool(
+            BUFFER_SIZE, BUFFER_SIZE / 2, buffersInUse, buffersAllocated);
+
+        assertBufferOfSize(pool.acquire());
+        verify(buffersAllocated).getAndAdd(1);
+    }
+
+    private void assertBufferOfSize(final ByteBuffer buffer)
+    {
+        assertTrue(buffer.isDirect());
+        assertEquals(BUFFER_SIZE, buffer.capacity());
+        assertEquals(0, buffer.position());
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.ErrorHandler;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.messages.DisconnectReason.APPLICATION_DISCONNECT;
+
+public class ReceiverEndPointShardsTest
+{
+    private static final int SHARD_COUNT = 3;
+    private static final int BYTES_PER_POLL = 100;
+    private static final int INBOUND_BYTES_RECEIVED_LIMIT = SHARD_COUNT * BYTES_PER_POLL;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final ReceiverEndPointShards shards = new ReceiverEndPointShards(
+        errorHandler, SHARD_COUNT, INBOUND_BYTES_RECEIVED_LIMIT, 0, ReadWeightStrategy.equalWeights());
+
+    @After
+    public void tearDown()
+    {
+        shards.close();
+        verifyNoMoreInteractions(errorHandler);
+    }
+
+    @Test
+    public void shouldAssignConnectionsToShardsByConnectionId()
+    {
+        assertEquals(0, ReceiverEndPointShards.shardIndex(3, SHARD_COUNT));
+        assertEquals(1, ReceiverEndPointShards.shardIndex(4, SHARD_COUNT));
+        assertEquals(2, ReceiverEndPointShards.shardIndex(5, SHARD_COUNT));
+        assertEquals(1, ReceiverEndPointShards.shardIndex(-1, SHARD_COUNT));
+    }
+
+    @Test
+    public void shouldRemoveConnectionsFromTheirShard()
+    {
+        final ReceiverEndPoint first = endPoint(3);
+        final ReceiverEndPoint second = endPoint(4);
+        shards.add(first);
+        shards.add(second);
+        assertEquals(2, shards.size());
+
+        shards.removeConnection(4, APPLICATION_DISCONNECT);
+
+        assertEquals(1, shards.size());
+        verify(second).close(APPLICATION_DISCONNECT);
+        verify(first, never()).close(any());
+
+        shards.pollEndPoints();
+        verify(first, atLeastOnce()).poll();
+        verify(second, never()).poll();
+    }
+
+    @Test
+    public void shouldShareInboundBytesReceivedLimitAcrossShards()
+    {
+        final ReceiverEndPoint first = endPoint(3);
+        final ReceiverEndPoint second = endPoint(4);
+        shards.add(first);
+        shards.add(second);
+
+        assertEquals(INBOUND_BYTES_RECEIVED_LIMIT, shards.pollEndPoints());
+
+        verify(first, times(2)).poll();
+        verify(second, times(1)).poll();
+    }
+
+    @Test
+    public void shouldLetASingleBusyConnectionUseTheWholeLimit()
+    {
+        final ReceiverEndPoint busy = endPoint(3);
+        final ReceiverEndPoint idle = endPoint(4);
+        when(idle.poll()).thenReturn(0);
+        shards.add(busy);
+        shards.add(idle);
+
+        assertEquals(INBOUND_BYTES_RECEIVED_LIMIT, shards.pollEndPoints());
+
+        verify(busy, times(SHARD_COUNT)).poll();
+    }
+
+    @Test
+    public void shouldRotateTheShardThatIsPolledFirst()
+    {
+        final ReceiverEndPoint first = endPoint(3);
+        final ReceiverEndPoint second = endPoint(4);
+        final ReceiverEndPoint third = endPoint(5);
+        shards.add(first);
+        shards.add(second);
+        shards.add(third);
+
+        shards.pollEndPoints();
+        shards.pollEndPoints();
+
+        final InOrder inOrder = inOrder(first, second, third);
+        inOrder.verify(first).poll();
+        inOrder.verify(second).poll();
+        inOrder.verify(third).poll();
+        inOrder.verify(second).poll();
+        inOrder.verify(third).poll();
+        inOrder.verify(first).poll();
+    }
+
+    @Test
+    public void shouldNotRetryBackPressuredConnectionsOnceRemoved()
+    {
+        final ReceiverEndPointShards quotaShards = new ReceiverEndPointShards(
+            errorHandler, SHARD_COUNT, INBOUND_BYTES_RECEIVED_LIMIT, BYTES_PER_POLL, ReadWeightStrategy.equalWeights());
+        final ReceiverEndPoint endPoint = endPoint(3);
+        when(endPoint.hasReadCredit(anyLong())).thenReturn(true);
+        when(endPoint.poll()).thenReturn(-BYTES_PER_POLL);
+        when(endPoint.isBackPressured()).thenReturn(false, true);
+        quotaShards.add(endPoint);
+
+        assertEquals(BYTES_PER_POLL, quotaShards.pollEndPoints());
+
+        quotaShards.removeConnection(3, APPLICATION_DISCONNECT);
+        quotaShards.pollEndPoints();
+
+        verify(endPoint).close(APPLICATION_DISCONNECT);
+        verify(endPoint, never()).retryFrameMessages();
+        quotaShards.close();
+    }
+
+    @Test
+    public void shouldRetryConnectionsBackPressuredWithoutReadingAnyBytes()
+    {
+        final ReceiverEndPointShards quotaShards = new ReceiverEndPointShards(
+            errorHandler, SHARD_COUNT, INBOUND_BYTES_RECEIVED_LIMIT, BYTES_PER_POLL, ReadWeightStrategy.equalWeights());
+        final ReceiverEndPoint endPoint = endPoint(3);
+        when(endPoint.hasReadCredit(anyLong())).thenReturn(true);
+        when(endPoint.poll()).thenReturn(0);
+        when(endPoint.isBackPressured()).thenReturn(false, true);
+        quotaShards.add(endPoint);
+
+        assertEquals(0, quotaShards.pollEndPoints());
+        quotaShards.pollEndPoints();
+
+        verify(endPoint).retryFrameMessages();
+        quotaShards.close();
+    }
+
+    private ReceiverEndPoint endPoint(final long connectionId)
+    {
+        final ReceiverEndPoint endPoint = mock(ReceiverEndPoint.class);
+        when(endPoint.connectionId()).thenReturn(connectionId);
+        when(endPoint.poll()).thenReturn(BYTES_PER_POLL);
+        return endPoint;
+    }
+}
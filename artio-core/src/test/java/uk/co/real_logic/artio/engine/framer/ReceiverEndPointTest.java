@@ -59,6 +59,11 @@ public class ReceiverEndPointTest
     private static final int LIBRARY_ID = FixEngine.ENGINE_LIBRARY_ID;
     private static final long POSITION = 1024L;
     private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int IDLE_BUFFER_SIZE = 64;
+    private static final int PARTIAL_MSG_LEN = 10;
+    private static final int BATCH_MESSAGE_LIMIT = 2;
+    private static final int MAX_PAYLOAD_LENGTH = 4096;
+    private static final int READ_QUOTA = MSG_LEN / 2;
     private static final int SEQUENCE_INDEX = 0;
     private static final int LOGON_LEN = LOGON_MESSAGE.length;
     private static final int OUT_OF_REQUIRED_ORDER_MSG_LEN = TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER_MESSAGE_BYTES.length;
@@ -79,8 +84,16 @@ public class ReceiverEndPointTest
     private CompositeKey sessionKey = SessionIdStrategy
         .senderAndTarget()
         .onInitiateLogon("ACCEPTOR", "", "", "INIATOR", "", "");
+    private ReceiveBufferPool bufferPool = new ReceiveBufferPool(
+        BUFFER_SIZE, BUFFER_SIZE, mock(AtomicCounter.class), mock(AtomicCounter.class));
+    private ReceiveBufferPool idleBufferPool = null;
+    private int inboundBatchMessageLimit = 0;
+    private int readQuota = 0;
+    private AtomicCounter bytesRead = mock(AtomicCounter.class);
+    private AtomicCounter deferredReads = mock(AtomicCounter.class);
     private ReceiverEndPoint endPoint;
     private Clock mockClock = mock(Clock.class);
+    private int readBufferCapacity;
 
     private AcceptorLogonResult createSuccessfulPendingAuth()
     {
@@ -141,15 +154,39 @@ public class ReceiverEndPointTest
     private void givenReceiverEndPoint(final long sessionId)
     {
         endPoint = new ReceiverEndPoint(
-            mockChannel, BUFFER_SIZE, publication,
+            mockChannel, bufferPool, idleBufferPool, publication,
             CONNECTION_ID, sessionId, SEQUENCE_INDEX, mockSessionContexts,
             messagesRead, framer, errorHandler, LIBRARY_ID,
             mockGatewaySessions,
             mockClock,
-            FixDictionary.of(FixDictionary.findDefault()));
+            FixDictionary.of(FixDictionary.findDefault()),
+            inboundBatchMessageLimit,
+            readQuota,
+            bytesRead,
+            deferredReads);
         endPoint.gatewaySession(gatewaySession);
     }
 
+    private void givenAReceiverEndPointWithAReadQuota()
+    {
+        readQuota = READ_QUOTA;
+        givenAnAuthenticatedReceiverEndPoint();
+    }
+
+    private void givenABatchingReceiverEndPoint()
+    {
+        inboundBatchMessageLimit = BATCH_MESSAGE_LIMIT;
+        when(publication.maxPayloadLength()).thenReturn(MAX_PAYLOAD_LENGTH);
+        givenAnAuthenticatedReceiverEndPoint();
+    }
+
+    private void givenAReceiverEndPointWithAnIdleBuffer()
+    {
+        idleBufferPool = new ReceiveBufferPool(
+            IDLE_BUFFER_SIZE, BUFFER_SIZE, mock(AtomicCounter.class), mock(AtomicCounter.class));
+        givenAnAuthenticatedReceiverEndPoint();
+    }
+
     private void theEndpointReceivesALogon()
     {
         theEndpointReceives(LOGON_MESSAGE, 0, LOGON_MESSAGE.length);
@@ -226,6 +263,50 @@ public class ReceiverEndPointTest
         sessionReceivesOneMessage();
     }
 
+    @Test
+    public void shouldBorrowABufferWhilstAssemblingAMessageLargerThanTheIdleBuffer()
+    {
+        givenAReceiverEndPointWithAnIdleBuffer();
+
+        theEndpointReceives(EG_MESSAGE, 0, IDLE_BUFFER_SIZE);
+        polls(IDLE_BUFFER_SIZE);
+        assertEquals(IDLE_BUFFER_SIZE, readBufferCapacity);
+        sessionReceivesNoMessages();
+
+        theEndpointReceives(EG_MESSAGE, IDLE_BUFFER_SIZE, MSG_LEN - IDLE_BUFFER_SIZE);
+        polls(MSG_LEN - IDLE_BUFFER_SIZE);
+        assertEquals(BUFFER_SIZE, readBufferCapacity);
+        savesAFramedMessage();
+        sessionReceivesOneMessage();
+
+        pollWithNoData(0);
+        assertEquals(IDLE_BUFFER_SIZE, readBufferCapacity);
+    }
+
+    @Test
+    public void shouldKeepThePartialMessageWhenReturningABorrowedBuffer()
+    {
+        givenAReceiverEndPointWithAnIdleBuffer();
+
+        theEndpointReceives(EG_MESSAGE, 0, IDLE_BUFFER_SIZE);
+        polls(IDLE_BUFFER_SIZE);
+
+        theEndpointReceivesTheRestOfTheMessageAndAPartialMessage(PARTIAL_MSG_LEN);
+        polls(MSG_LEN - IDLE_BUFFER_SIZE + PARTIAL_MSG_LEN);
+        assertEquals(BUFFER_SIZE, readBufferCapacity);
+
+        theEndpointReceives(EG_MESSAGE, PARTIAL_MSG_LEN, IDLE_BUFFER_SIZE - PARTIAL_MSG_LEN);
+        polls(IDLE_BUFFER_SIZE - PARTIAL_MSG_LEN);
+        assertEquals(IDLE_BUFFER_SIZE, readBufferCapacity);
+
+        theEndpointReceives(EG_MESSAGE, IDLE_BUFFER_SIZE, MSG_LEN - IDLE_BUFFER_SIZE);
+        polls(MSG_LEN - IDLE_BUFFER_SIZE);
+        assertEquals(BUFFER_SIZE, readBufferCapacity);
+
+        savesFramedMessages(2, OK, MSG_LEN);
+        sessionReceivesTwoMessageAtBufferStart();
+    }
+
     @Test
     public void shouldIgnoreMessageWithBodyLengthTooShort()
     {
@@ -278,6 +359,107 @@ public class ReceiverEndPointTest
         sessionReceivesTwoMessages();
     }
 
+    @Test
+    public void shouldSaveTwoCompleteFixMessagesInOnePacketIntoOneClaimWhenBatching()
+    {
+        givenABatchingReceiverEndPoint();
+        theEndpointReceivesTwoCompleteMessages();
+
+        polls(2 * MSG_LEN);
+
+        savesABatchOfTwoMessages(times(1));
+        savesFramedMessages(0, OK, MSG_LEN);
+
+        sessionReceivesTwoMessages();
+    }
+
+    @Test
+    public void shouldSaveTheBatchAgainWhenBackpressured()
+    {
+        givenABatchingReceiverEndPoint();
+        when(publication.saveMessages(
+            anyBuffer(), any(), any(), any(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), anyLong()))
+            .thenReturn(BACK_PRESSURED, POSITION);
+
+        theEndpointReceivesTwoCompleteMessages();
+        polls(-2 * MSG_LEN);
+        sessionReceivesNoMessages();
+
+        pollWithNoData(0);
+
+        savesABatchOfTwoMessages(times(2));
+        sessionReceivesTwoMessages();
+    }
+
+    @Test
+    public void shouldSaveALoneMessageOnItsOwnWhenBatching()
+    {
+        givenABatchingReceiverEndPoint();
+        theEndpointReceivesACompleteAndAnIncompleteMessage();
+
+        polls(MSG_LEN + MSG_LEN - 8);
+
+        savesAFramedMessage();
+        savesABatchOfTwoMessages(never());
+        sessionReceivesOneMessage();
+    }
+
+    @Test
+    public void shouldDeferReadsUntilReadsOverTheQuotaArePaidOff()
+    {
+        givenAReceiverEndPointWithAReadQuota();
+        theEndpointReceivesACompleteMessage();
+
+        assertTrue(endPoint.hasReadCredit(1));
+        polls(MSG_LEN);
+        verify(bytesRead).getAndAddOrdered(MSG_LEN);
+
+        assertFalse(endPoint.hasReadCredit(1));
+        assertFalse(endPoint.hasReadCredit(2));
+        verify(deferredReads, times(2)).incrementOrdered();
+
+        assertTrue(endPoint.hasReadCredit(3));
+    }
+
+    @Test
+    public void shouldNotBuildUpReadCreditWhilstIdle()
+    {
+        givenAReceiverEndPointWithAReadQuota();
+        theEndpointReceivesACompleteMessage();
+
+        assertTrue(endPoint.hasReadCredit(1_000));
+        polls(MSG_LEN);
+
+        assertFalse(endPoint.hasReadCredit(1_001));
+    }
+
+    @Test
+    public void shouldGiveHeavierSessionsABiggerReadQuota()
+    {
+        givenAReceiverEndPointWithAReadQuota();
+        endPoint.readWeight(2);
+        theEndpointReceivesACompleteMessage();
+
+        assertTrue(endPoint.hasReadCredit(1));
+        polls(MSG_LEN);
+
+        assertTrue(endPoint.hasReadCredit(2));
+        verifyNoMoreInteractions(deferredReads);
+    }
+
+    @Test
+    public void shouldBeBackPressuredUntilTheRetrySucceeds()
+    {
+        firstSaveAttemptIsBackPressured();
+
+        theEndpointReceivesACompleteMessage();
+        polls(-MSG_LEN);
+        assertTrue(endPoint.isBackPressured());
+
+        assertTrue(endPoint.retryFrameMessages());
+        assertFalse(endPoint.isBackPressured());
+    }
+
     @Test
     public void shouldFrameOneCompleteMessageWhenTheSecondMessageIsIncomplete()
     {
@@ -595,6 +777,21 @@ public class ReceiverEndPointTest
         inOrder.verifyNoMoreInteractions();
     }
 
+    private void savesABatchOfTwoMessages(final VerificationMode mode)
+    {
+        verify(publication, mode).saveMessages(
+            anyBuffer(),
+            aryEq(new int[]{ 0, MSG_LEN }),
+            aryEq(new int[]{ MSG_LEN, MSG_LEN }),
+            aryEq(new int[]{ MESSAGE_TYPE, MESSAGE_TYPE }),
+            eq(2),
+            eq(LIBRARY_ID),
+            eq(SESSION_ID),
+            eq(SEQUENCE_INDEX),
+            eq(CONNECTION_ID),
+            eq(TIMESTAMP));
+    }
+
     private void nothingMoreSaved()
     {
         verifyNoMoreInteractions(publication);
@@ -650,6 +847,17 @@ public class ReceiverEndPointTest
             });
     }
 
+    private void theEndpointReceivesTheRestOfTheMessageAndAPartialMessage(final int partialLength)
+    {
+        final int restLength = MSG_LEN - IDLE_BUFFER_SIZE;
+        endpointBufferUpdatedWith(
+            (buffer) ->
+            {
+                buffer.put(EG_MESSAGE, IDLE_BUFFER_SIZE, restLength).put(EG_MESSAGE, 0, partialLength);
+                return restLength + partialLength;
+            });
+    }
+
     private void theEndpointReceivesAnOutOfOrderMessage(final int bytesRead)
     {
         theEndpointReceives(TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER_MESSAGE_BYTES, 0, OUT_OF_REQUIRED_ORDER_MSG_LEN);
@@ -665,6 +873,7 @@ public class ReceiverEndPointTest
                 (invocation) ->
                 {
                     final ByteBuffer buffer = (ByteBuffer)invocation.getArguments()[0];
+                    readBufferCapacity = buffer.capacity();
                     return bufferUpdater.applyAsInt(buffer);
                 }).when(mockChannel).read(any(ByteBuffer.class));
         }
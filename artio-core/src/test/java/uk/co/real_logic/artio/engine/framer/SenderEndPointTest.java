@@ -23,6 +23,7 @@ import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.Test;
 import org.mockito.stubbing.Answer;
 import org.mockito.verification.VerificationMode;
+import uk.co.real_logic.artio.DeadlineTimers;
 import uk.co.real_logic.artio.engine.SenderSequenceNumber;
 import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
 
@@ -51,10 +52,14 @@ public class SenderEndPointTest
     private static final int FRAGMENT_LENGTH = alignTerm(HEADER_LENGTH + FRAME_SIZE + BODY_LENGTH);
     private static final long BEGIN_POSITION = 8000;
     private static final int MAX_BYTES_IN_BUFFER = 3 * BODY_LENGTH;
+    private static final int COALESCING_BUFFER_SIZE = 4 * BODY_LENGTH;
+    private static final int COALESCING_MESSAGE_LIMIT = 3;
+    private static final int SPILL_BUFFER_SIZE = 4 * BODY_LENGTH;
 
     private TcpChannel tcpChannel = mock(TcpChannel.class);
     private AtomicCounter bytesInBuffer = fakeCounter();
     private AtomicCounter invalidLibraryAttempts = mock(AtomicCounter.class);
+    private AtomicCounter spilledBytes = fakeCounter();
     private ErrorHandler errorHandler = mock(ErrorHandler.class);
     private Framer framer = mock(Framer.class);
     private ByteBuffer byteBuffer = ByteBuffer.allocate(1024);
@@ -63,20 +68,7 @@ public class SenderEndPointTest
     private BlockablePosition replayBlockablePosition = mock(BlockablePosition.class);
     private SenderSequenceNumber senderSequenceNumber = mock(SenderSequenceNumber.class);
 
-    private SenderEndPoint endPoint = new SenderEndPoint(
-        CONNECTION_ID,
-        LIBRARY_ID,
-        libraryBlockablePosition,
-        replayBlockablePosition,
-        tcpChannel,
-        bytesInBuffer,
-        invalidLibraryAttempts,
-        errorHandler,
-        framer,
-        MAX_BYTES_IN_BUFFER,
-        DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
-        0,
-        senderSequenceNumber);
+    private SenderEndPoint endPoint = newSenderEndPoint(0);
 
     @Test
     public void shouldRetrySlowConsumerMessage()
@@ -221,6 +213,31 @@ public class SenderEndPointTest
         errorLogged();
     }
 
+    @Test
+    public void shouldDisconnectSlowConsumerWhenTimeoutTimerExpires() throws IOException
+    {
+        final DeadlineTimers<SenderEndPoint> timers = new DeadlineTimers<>(0, SenderEndPoint::onTimerExpiry);
+        endPoint.timers(timers);
+
+        long timeInMs = 100;
+        channelWillWrite(BODY_LENGTH);
+        onOutboundMessage(timeInMs, POSITION);
+        assertEquals(0, timers.size());
+
+        timeInMs += 100;
+        channelWillWrite(0);
+        onOutboundMessage(timeInMs, POSITION + FRAGMENT_LENGTH);
+        assertEquals(1, timers.size());
+
+        final long lastWriteTimeInMs = 100;
+        assertEquals(0, timers.poll(lastWriteTimeInMs + DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS));
+        verifySlowConsumerDisconnect(never());
+
+        assertEquals(1, timers.poll(lastWriteTimeInMs + DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS + 1));
+        verifySlowConsumerDisconnect(times(1));
+        errorLogged();
+    }
+
     @Test
     public void shouldBecomeReplaySlowConsumer()
     {
@@ -416,6 +433,188 @@ public class SenderEndPointTest
         verifyNoMoreErrors();
     }
 
+    @Test
+    public void shouldCoalesceOutboundMessagesIntoASingleWrite() throws IOException
+    {
+        endPoint = newSenderEndPoint(COALESCING_BUFFER_SIZE);
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(2 * BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION, 1);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH, 2);
+        verify(tcpChannel, never()).write(any(ByteBuffer.class));
+        verify(senderSequenceNumber, never()).onNewMessage(anyInt());
+
+        assertEquals(2, endPoint.flush(0));
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        verify(senderSequenceNumber).onNewMessage(2);
+        verifyNoMoreInteractions(senderSequenceNumber);
+        assertBytesInBuffer(0);
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldFlushCoalescedMessagesWhenMessageLimitReached() throws IOException
+    {
+        endPoint = newSenderEndPoint(COALESCING_BUFFER_SIZE);
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(COALESCING_MESSAGE_LIMIT * BODY_LENGTH);
+
+        for (int i = 0; i < COALESCING_MESSAGE_LIMIT; i++)
+        {
+            onOutboundMessage(0, POSITION + i * FRAGMENT_LENGTH);
+        }
+
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        assertEquals(0, endPoint.flush(0));
+        assertBytesInBuffer(0);
+    }
+
+    @Test
+    public void shouldBecomeSlowConsumerWhenCoalescedWriteIsPartial() throws IOException
+    {
+        endPoint = newSenderEndPoint(COALESCING_BUFFER_SIZE);
+        final int partialWrite = 10;
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(BODY_LENGTH + partialWrite);
+
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        onOutboundMessage(0, POSITION + 2 * FRAGMENT_LENGTH);
+
+        assertBytesInBuffer((BODY_LENGTH - partialWrite) + BODY_LENGTH);
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, true);
+
+        onOutboundMessage(0, POSITION + 3 * FRAGMENT_LENGTH);
+        assertBytesInBuffer((BODY_LENGTH - partialWrite) + 2 * BODY_LENGTH);
+        assertEquals(0, endPoint.flush(0));
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+    }
+
+    @Test
+    public void shouldFlushCoalescedMessagesBeforeReplay() throws IOException
+    {
+        endPoint = newSenderEndPoint(COALESCING_BUFFER_SIZE);
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(BODY_LENGTH);
+
+        onOutboundMessage(0, POSITION);
+        onReplayMessage(0, POSITION);
+
+        verify(tcpChannel, times(2)).write(any(ByteBuffer.class));
+        assertEquals(0, endPoint.flush(0));
+        assertBytesInBuffer(0);
+    }
+
+    @Test
+    public void shouldSpillUnwrittenBytesRatherThanBlockLibrary() throws IOException
+    {
+        endPoint = newSenderEndPoint(0, SPILL_BUFFER_SIZE);
+        final int firstWrites = 41;
+        final int spilled = 2 * BODY_LENGTH - firstWrites;
+
+        channelWillWrite(firstWrites);
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        byteBufferWritten();
+
+        assertBytesInBuffer(spilled);
+        assertEquals(spilled, spilledBytes.get());
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, true);
+        assertTrue(endPoint.awaitDrain());
+        assertFalse(endPoint.awaitDrain());
+
+        onSlowOutboundMessage();
+        verifyDoesNotBlockLibrary();
+
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(spilled);
+        assertEquals(spilled, endPoint.drainSpillQueue(0));
+        assertBytesInBuffer(0);
+        assertEquals(0, spilledBytes.get());
+        assertFalse(endPoint.awaitingDrain());
+        verify(framer).slowStatus(LIBRARY_ID, CONNECTION_ID, false);
+        verifyNoMoreErrors();
+    }
+
+    @Test
+    public void shouldBlockSlowMessagesUntilSpillQueueIsDrained() throws IOException
+    {
+        endPoint = newSenderEndPoint(0, SPILL_BUFFER_SIZE);
+        channelWillWrite(0);
+        onOutboundMessage(0, BEGIN_POSITION);
+        byteBufferWritten();
+
+        onReplayMessage(0, POSITION);
+        onSlowReplayMessage(0, POSITION);
+        verifyBlocksReplayAt(BEGIN_POSITION);
+        assertBytesInBuffer(2 * BODY_LENGTH);
+
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(BODY_LENGTH);
+        assertEquals(BODY_LENGTH, endPoint.drainSpillQueue(0));
+        assertBytesInBuffer(BODY_LENGTH);
+        verify(framer, never()).slowStatus(LIBRARY_ID, CONNECTION_ID, false);
+    }
+
+    @Test
+    public void shouldDisconnectWhenSpillQueueIsFull()
+    {
+        endPoint = newSenderEndPoint(0, BODY_LENGTH);
+        channelWillWrite(0);
+
+        onOutboundMessage(0, POSITION);
+        verifySlowConsumerDisconnect(never());
+
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        verifySlowConsumerDisconnect(times(1));
+    }
+
+    @Test
+    public void shouldSpillUnwrittenBytesOfCoalescedWrite() throws IOException
+    {
+        endPoint = newSenderEndPoint(COALESCING_BUFFER_SIZE, SPILL_BUFFER_SIZE);
+        final int partialWrite = 10;
+        when(tcpChannel.write(any(ByteBuffer.class))).thenReturn(BODY_LENGTH + partialWrite);
+
+        onOutboundMessage(0, POSITION);
+        onOutboundMessage(0, POSITION + FRAGMENT_LENGTH);
+        onOutboundMessage(0, POSITION + 2 * FRAGMENT_LENGTH);
+
+        final int spilled = 2 * BODY_LENGTH - partialWrite;
+        assertBytesInBuffer(spilled);
+        assertEquals(spilled, spilledBytes.get());
+
+        onOutboundMessage(0, POSITION + 3 * FRAGMENT_LENGTH);
+        assertBytesInBuffer(spilled + BODY_LENGTH);
+        assertEquals(0, endPoint.flush(0));
+        verify(tcpChannel, times(1)).write(any(ByteBuffer.class));
+        verifyDoesNotBlockLibrary();
+    }
+
+    private SenderEndPoint newSenderEndPoint(final int coalescingBufferSize)
+    {
+        return newSenderEndPoint(coalescingBufferSize, 0);
+    }
+
+    private SenderEndPoint newSenderEndPoint(final int coalescingBufferSize, final int spillBufferSize)
+    {
+        return new SenderEndPoint(
+            CONNECTION_ID,
+            LIBRARY_ID,
+            libraryBlockablePosition,
+            replayBlockablePosition,
+            tcpChannel,
+            bytesInBuffer,
+            invalidLibraryAttempts,
+            errorHandler,
+            framer,
+            MAX_BYTES_IN_BUFFER,
+            DEFAULT_SLOW_CONSUMER_TIMEOUT_IN_MS,
+            0,
+            senderSequenceNumber,
+            mock(AtomicCounter.class),
+            mock(AtomicCounter.class),
+            coalescingBufferSize,
+            COALESCING_MESSAGE_LIMIT,
+            spillBufferSize,
+            spilledBytes);
+    }
+
     private void byteBufferNotWritten()
     {
         byteBufferWritten(never());
@@ -433,7 +632,12 @@ public class SenderEndPointTest
 
     private void onOutboundMessage(final long timeInMs, final long position)
     {
-        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, 0, position, timeInMs);
+        onOutboundMessage(timeInMs, position, 0);
+    }
+
+    private void onOutboundMessage(final long timeInMs, final long position, final int sequenceNumber)
+    {
+        endPoint.onOutboundMessage(LIBRARY_ID, buffer, 0, BODY_LENGTH, sequenceNumber, position, timeInMs);
     }
 
     private void onReplayMessage(final long timeInMs, final long position)
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.framer;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class SpillQueueTest
+{
+    private static final int CAPACITY = 8;
+
+    private final SpillQueue spillQueue = new SpillQueue(CAPACITY);
+    private final TcpChannel channel = mock(TcpChannel.class);
+    private final AtomicCounter tcpWrites = mock(AtomicCounter.class);
+    private final ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+    private int writeLimit;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        when(channel.write(any(ByteBuffer.class))).then(
+            (inv) ->
+            {
+                final ByteBuffer buffer = inv.getArgument(0);
+                final int length = Math.min(writeLimit, buffer.remaining());
+                final byte[] bytes = new byte[length];
+                buffer.get(bytes);
+                written.write(bytes);
+                return length;
+            });
+    }
+
+    @Test
+    public void shouldWriteOfferedBytesInOrder() throws IOException
+    {
+        assertTrue(offer("abc"));
+        assertTrue(offer("de"));
+        assertEquals(5, spillQueue.size());
+
+        writeLimit = CAPACITY;
+        assertEquals(5, spillQueue.writeTo(channel, tcpWrites));
+
+        assertWritten("abcde");
+        assertTrue(spillQueue.isEmpty());
+        verify(tcpWrites, times(1)).incrementOrdered();
+    }
+
+    @Test
+    public void shouldKeepBytesThatWereNotWritten() throws IOException
+    {
+        assertTrue(offer("abcde"));
+
+        writeLimit = 2;
+        assertEquals(2, spillQueue.writeTo(channel, tcpWrites));
+        assertEquals(3, spillQueue.size());
+
+        writeLimit = CAPACITY;
+        assertEquals(3, spillQueue.writeTo(channel, tcpWrites));
+        assertWritten("abcde");
+    }
+
+    @Test
+    public void shouldWrapAroundEndOfBuffer() throws IOException
+    {
+        assertTrue(offer("abcdef"));
+        writeLimit = 4;
+        assertEquals(4, spillQueue.writeTo(channel, tcpWrites));
+
+        assertTrue(offer("ghijk"));
+        assertEquals(7, spillQueue.size());
+
+        writeLimit = CAPACITY;
+        assertEquals(7, spillQueue.writeTo(channel, tcpWrites));
+        assertWritten("abcdefghijk");
+        verify(tcpWrites, times(3)).incrementOrdered();
+    }
+
+    @Test
+    public void shouldRejectBytesThatDoNotFit()
+    {
+        assertTrue(offer("abcdef"));
+        assertFalse(offer("ghi"));
+        assertEquals(6, spillQueue.size());
+
+        spillQueue.clear();
+        assertTrue(spillQueue.isEmpty());
+        assertTrue(offer("ghi"));
+    }
+
+    private boolean offer(final String value)
+    {
+        final byte[] bytes = value.getBytes(US_ASCII);
+        return spillQueue.offer(new UnsafeBuffer(bytes), 0, bytes.length);
+    }
+
+    private void assertWritten(final String expected)
+    {
+        assertEquals(expected, new String(written.toByteArray(), US_ASCII));
+    }
+}
@@ -128,6 +128,26 @@ public class IndexedPositionTest
         assertEquals(position, new IndexedPositionReader(buffer).indexedPosition(SESSION_ID));
     }
 
+    @Test
+    public void shouldValidateChecksumsUpdatedAfterFurtherWrites()
+    {
+        final int position = 10;
+        final int updatedPosition = 20;
+
+        indexed(position, SESSION_ID, RECORDING_ID);
+
+        writer.updateChecksums();
+
+        indexed(updatedPosition, SESSION_ID, RECORDING_ID);
+        indexed(position, OTHER_SESSION_ID, OTHER_RECORDING_ID);
+
+        writer.updateChecksums();
+
+        newWriter();
+        hasPosition(updatedPosition, SESSION_ID);
+        hasPosition(position, OTHER_SESSION_ID);
+    }
+
     @Test
     public void shouldDetectFileSystemCorruption()
     {
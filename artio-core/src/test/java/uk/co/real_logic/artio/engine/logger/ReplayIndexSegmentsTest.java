@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.ErrorHandler;
+import org.agrona.IoUtil;
+import org.agrona.concurrent.AtomicBuffer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.co.real_logic.artio.engine.logger.ErrorHandlerVerifier.verify;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+public class ReplayIndexSegmentsTest
+{
+    private static final String LOG_FILE_DIR = IoUtil.tmpDirName() + File.separator + "replay-index-segments-test";
+    private static final int STREAM_ID = 1;
+    private static final int INDEX_FILE_SIZE = INITIAL_RECORD_OFFSET + 16 * RECORD_LENGTH;
+    private static final int SESSIONS_PER_SEGMENT = 2;
+    private static final int DIRECTORY_CAPACITY = 3;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+
+    private ReplayIndexSegments writer;
+    private ReplayIndexSegments reader;
+
+    @Before
+    public void setUp()
+    {
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+
+        writer = newWriter();
+        reader = ReplayIndexSegments.reader(
+            LOG_FILE_DIR, STREAM_ID, INDEX_FILE_SIZE, SESSIONS_PER_SEGMENT, DIRECTORY_CAPACITY, errorHandler);
+    }
+
+    @After
+    public void tearDown()
+    {
+        reader.close();
+        writer.close();
+        IoUtil.delete(new File(LOG_FILE_DIR), true);
+
+        verifyNoMoreInteractions(errorHandler);
+    }
+
+    @Test
+    public void shouldNotFindUnindexedSession()
+    {
+        assertNull(writer.sessionBuffer(1));
+        assertNull(reader.sessionBuffer(1));
+    }
+
+    @Test
+    public void shouldReadSessionIndexWrittenByWriter()
+    {
+        final AtomicBuffer writtenBuffer = writer.newSessionBuffer(1);
+        writtenBuffer.putLong(INITIAL_RECORD_OFFSET, 42);
+
+        final AtomicBuffer readBuffer = reader.sessionBuffer(1);
+        assertNotNull(readBuffer);
+        assertEquals(INDEX_FILE_SIZE, readBuffer.capacity());
+        assertEquals(42, readBuffer.getLong(INITIAL_RECORD_OFFSET));
+    }
+
+    @Test
+    public void shouldAllocateSeparateRegionsAcrossSegments()
+    {
+        for (int sessionId = 1; sessionId <= DIRECTORY_CAPACITY; sessionId++)
+        {
+            writer.newSessionBuffer(sessionId).putLong(INITIAL_RECORD_OFFSET, sessionId);
+        }
+
+        assertTrue(replayIndexSegmentFile(LOG_FILE_DIR, STREAM_ID, 1).exists());
+        assertFalse(replayIndexSegmentFile(LOG_FILE_DIR, STREAM_ID, 2).exists());
+
+        for (int sessionId = 1; sessionId <= DIRECTORY_CAPACITY; sessionId++)
+        {
+            assertEquals(sessionId, reader.sessionBuffer(sessionId).getLong(INITIAL_RECORD_OFFSET));
+        }
+    }
+
+    @Test
+    public void shouldReportFullDirectory()
+    {
+        for (int sessionId = 1; sessionId <= DIRECTORY_CAPACITY; sessionId++)
+        {
+            assertNotNull(writer.newSessionBuffer(sessionId));
+        }
+
+        assertNull(writer.newSessionBuffer(DIRECTORY_CAPACITY + 1));
+        verify(errorHandler, times(1), IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldFindSessionsIndexedBeforeRestart()
+    {
+        writer.newSessionBuffer(1).putLong(INITIAL_RECORD_OFFSET, 42);
+        writer.close();
+
+        writer = newWriter();
+
+        assertEquals(42, writer.sessionBuffer(1).getLong(INITIAL_RECORD_OFFSET));
+        writer.newSessionBuffer(2).putLong(INITIAL_RECORD_OFFSET, 43);
+        assertEquals(42, reader.sessionBuffer(1).getLong(INITIAL_RECORD_OFFSET));
+        assertEquals(43, reader.sessionBuffer(2).getLong(INITIAL_RECORD_OFFSET));
+    }
+
+    @Test
+    public void shouldReuseTheBufferOfASession()
+    {
+        writer.newSessionBuffer(1);
+
+        assertSame(reader.sessionBuffer(1), reader.sessionBuffer(1));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectSegmentsWrittenWithADifferentIndexFileSize()
+    {
+        writer.newSessionBuffer(1);
+        writer.close();
+
+        writer = ReplayIndexSegments.writer(
+            LOG_FILE_DIR, STREAM_ID, 2 * INDEX_FILE_SIZE, SESSIONS_PER_SEGMENT, DIRECTORY_CAPACITY, errorHandler);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRejectSegmentsWrittenWithADifferentNumberOfSessionsPerSegment()
+    {
+        writer.newSessionBuffer(1);
+
+        final ReplayIndexSegments otherReader = ReplayIndexSegments.reader(
+            LOG_FILE_DIR, STREAM_ID, INDEX_FILE_SIZE, SESSIONS_PER_SEGMENT + 1, DIRECTORY_CAPACITY, errorHandler);
+        try
+        {
+            otherReader.sessionBuffer(1);
+        }
+        finally
+        {
+            otherReader.close();
+        }
+    }
+
+    private ReplayIndexSegments newWriter()
+    {
+        return ReplayIndexSegments.writer(
+            LOG_FILE_DIR, STREAM_ID, INDEX_FILE_SIZE, SESSIONS_PER_SEGMENT, DIRECTORY_CAPACITY, errorHandler);
+    }
+}
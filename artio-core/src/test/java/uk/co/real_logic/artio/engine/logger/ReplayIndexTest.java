@@ -37,6 +37,7 @@ import uk.co.real_logic.artio.CommonConfiguration;
 import uk.co.real_logic.artio.TestFixtures;
 import uk.co.real_logic.artio.dictionary.generation.Exceptions;
 import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.protocol.ReservedValue;
 
 import java.io.File;
 import java.io.IOException;
@@ -269,6 +270,21 @@ public class ReplayIndexTest extends AbstractLogTest
         assertEquals(2, msgCount);
     }
 
+    @Test(timeout = 20_000L)
+    public void shouldReturnRecordsFromMiddleOfIndex()
+    {
+        final int lastSequenceNumber = 10;
+        final int beginSequenceNumber = 6;
+        final int endSequenceNumber = 8;
+        IntStream.rangeClosed(1, lastSequenceNumber).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        final int msgCount = query(beginSequenceNumber, SEQUENCE_INDEX, endSequenceNumber, SEQUENCE_INDEX);
+
+        assertEquals(3, msgCount);
+        verifyMessagesRead(3);
+    }
+
     @Test //(timeout = 20_000L)
     public void shouldNotStopIndexingWhenBufferFull()
     {
@@ -288,6 +304,53 @@ public class ReplayIndexTest extends AbstractLogTest
         verifyMessagesRead(expectedMessages);
     }
 
+    @Test
+    public void shouldSearchForStartOfQueryInLappedIndex()
+    {
+        // The records after the wrap point have overwritten the oldest records in the index
+        final int recordsAfterWrapPoint = totalMessages / 4;
+        final int lastSequenceNumber = totalMessages + recordsAfterWrapPoint;
+        final int oldestSequenceNumber = recordsAfterWrapPoint + 1;
+
+        IntStream.rangeClosed(1, lastSequenceNumber).forEach(
+            (seqNum) -> indexExampleMessage(SESSION_ID, seqNum, SEQUENCE_INDEX));
+
+        assertEquals(3, query(oldestSequenceNumber, SEQUENCE_INDEX, oldestSequenceNumber + 2, SEQUENCE_INDEX));
+        assertEquals(3, query(1, SEQUENCE_INDEX, oldestSequenceNumber + 2, SEQUENCE_INDEX));
+        assertEquals(4, query(totalMessages - 1, SEQUENCE_INDEX, totalMessages + 2, SEQUENCE_INDEX));
+        assertEquals(2, query(totalMessages + 1, SEQUENCE_INDEX, totalMessages + 2, SEQUENCE_INDEX));
+        assertEquals(1, query(lastSequenceNumber, SEQUENCE_INDEX, lastSequenceNumber, SEQUENCE_INDEX));
+    }
+
+    @Test(timeout = 20_000L)
+    public void shouldReturnBatchOfRecordsMatchingQueryOnce()
+    {
+        final int batchSize = 3;
+        final UnsafeBuffer batchBuffer = new UnsafeBuffer(new byte[BIG_BUFFER_LENGTH]);
+        int batchLength = 0;
+        for (int seqNum = 1; seqNum <= batchSize; seqNum++)
+        {
+            bufferContainsExampleMessage(true, SESSION_ID, seqNum, SEQUENCE_INDEX);
+            batchBuffer.putBytes(batchLength, buffer, START, logEntryLength + PREFIX_LENGTH);
+            batchLength += logEntryLength + PREFIX_LENGTH;
+        }
+
+        final long reservedValue = ReservedValue.ofMessageCount(batchSize);
+        while (publication.offer(
+            batchBuffer, 0, batchLength, (termBuffer, termOffset, frameLength) -> reservedValue) <= 0)
+        {
+            Thread.yield();
+        }
+        indexRecord();
+
+        // Each batched message is indexed against the whole fragment, which is only replayed once.
+        assertEquals(1, query(2, SEQUENCE_INDEX, batchSize, SEQUENCE_INDEX));
+        verifyMessagesRead(1);
+
+        assertEquals(1, query(1, SEQUENCE_INDEX, 1, SEQUENCE_INDEX));
+        verifyMessagesRead(2);
+    }
+
     @Test(timeout = 20_000L)
     public void shouldUpdatePositionForIndexedRecord()
     {
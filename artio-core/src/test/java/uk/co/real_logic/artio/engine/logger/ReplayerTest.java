@@ -25,6 +25,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.concurrent.EpochClock;
 import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -168,6 +169,46 @@ public class ReplayerTest extends AbstractLogTest
         verifyReplayCompleteMessageSent();
     }
 
+    @Test
+    public void shouldPublishMessagesFromResendCacheWithoutQueryingArchive()
+    {
+        final ResendCache resendCache = new ResendCache(
+            STREAM_ID, 4096, 1, 1, errorHandler, mock(AtomicCounter.class), mock(AtomicCounter.class));
+        replayer = new Replayer(
+            replayQuery,
+            publication,
+            claim,
+            idleStrategy,
+            errorHandler,
+            MAX_CLAIM_ATTEMPTS,
+            subscription,
+            DEFAULT_NAME_PREFIX,
+            clock,
+            EngineConfiguration.DEFAULT_GAPFILL_ON_REPLAY_MESSAGE_TYPES,
+            replayHandler,
+            senderSequenceNumbers,
+            new FakeFixSessionCodecsFactory(),
+            resendCache);
+
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        bufferContainsExampleMessage(true);
+        final int srcLength = fragmentLength();
+        resendCache.onFragment(buffer, START, srcLength, fragmentHeader);
+        setupMessage(srcLength);
+
+        final long result = bufferHasResendRequest(END_SEQ_NO);
+        onRequestResendMessage(result);
+
+        replayer.doWork();
+
+        assertHasResentWithPossDupFlag(srcLength, times(1));
+
+        replayer.doWork();
+
+        verifyReplayCompleteMessageSent();
+        verifyNoMoreInteractions(replayQuery);
+    }
+
     @Test
     public void shouldSupportConcurrentReplayRequests()
     {
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import io.aeron.logbuffer.Header;
+import org.agrona.ErrorHandler;
+import org.agrona.collections.IntArrayList;
+import org.agrona.concurrent.status.AtomicCounter;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.artio.engine.SequenceNumberExtractor;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static io.aeron.logbuffer.FrameDescriptor.BEGIN_FRAG_FLAG;
+import static io.aeron.logbuffer.FrameDescriptor.UNFRAGMENTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.engine.logger.Replayer.MOST_RECENT_MESSAGE;
+import static uk.co.real_logic.artio.engine.logger.ResendCache.NO_POSITION;
+
+public class ResendCacheTest extends AbstractLogTest
+{
+    private static final int SESSION_BUFFER_SIZE = 1024;
+
+    private final ErrorHandler errorHandler = mock(ErrorHandler.class);
+    private final AtomicCounter hits = mock(AtomicCounter.class);
+    private final AtomicCounter misses = mock(AtomicCounter.class);
+    private final Header fragmentHeader = mock(Header.class);
+    private final SequenceNumberExtractor sequenceNumberExtractor = new SequenceNumberExtractor(errorHandler);
+    private final IntArrayList replayedSequenceNumbers = new IntArrayList();
+    private final ControlledFragmentHandler handler = (buffer, offset, length, header) ->
+    {
+        replayedSequenceNumbers.addInt(sequenceNumberExtractor.extract(
+            buffer, offset + PREFIX_LENGTH, length - PREFIX_LENGTH));
+        return CONTINUE;
+    };
+
+    private ResendCache resendCache;
+
+    @Before
+    public void setUp()
+    {
+        when(fragmentHeader.streamId()).thenReturn(STREAM_ID);
+        when(fragmentHeader.flags()).thenReturn(UNFRAGMENTED);
+
+        resendCache = new ResendCache(STREAM_ID, SESSION_BUFFER_SIZE, 1, 2, errorHandler, hits, misses);
+    }
+
+    @Test
+    public void shouldReplayCachedMessages()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+
+        final ResendCache.SessionCache sessionCache = lookup(SESSION_ID, 1, 3);
+
+        assertNotNull(sessionCache);
+        verify(hits).increment();
+        assertReplays(sessionCache, 1, 3);
+    }
+
+    @Test
+    public void shouldReplayUpToMostRecentMessage()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+
+        final ResendCache.SessionCache sessionCache = lookup(SESSION_ID, 2, MOST_RECENT_MESSAGE);
+
+        assertNotNull(sessionCache);
+        assertEquals(3, sessionCache.lastSequenceNumber());
+        assertReplays(sessionCache, 2, 3);
+    }
+
+    @Test
+    public void shouldMissRangesThatAreNotCached()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+
+        assertNull(lookup(SESSION_ID, 2, 4));
+        assertNull(lookup(SESSION_ID_2, 1, 1));
+        assertNull(resendCache.lookup(SESSION_ID, SEQUENCE_INDEX + 1, 1, 1));
+        verify(misses, times(3)).increment();
+        verify(hits, never()).increment();
+    }
+
+    @Test
+    public void shouldEvictOldestMessages()
+    {
+        final int lastSequenceNumber = 50;
+        sendMessages(SESSION_ID, 1, lastSequenceNumber);
+
+        assertNull(lookup(SESSION_ID, 1, lastSequenceNumber));
+
+        final ResendCache.SessionCache sessionCache = lookup(SESSION_ID, lastSequenceNumber - 1, lastSequenceNumber);
+        assertNotNull(sessionCache);
+        assertEquals(NO_POSITION, sessionCache.position(1));
+        assertReplays(sessionCache, lastSequenceNumber - 1, lastSequenceNumber);
+    }
+
+    @Test
+    public void shouldNotReplayMessagesEvictedDuringReplay()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+
+        final ResendCache.SessionCache sessionCache = lookup(SESSION_ID, 1, 3);
+        final long position = sessionCache.position(1);
+        assertNotEquals(NO_POSITION, position);
+
+        sendMessages(SESSION_ID, 4, 50);
+
+        assertNull(sessionCache.replay(position, 1, handler));
+        assertEquals(0, replayedSequenceNumbers.size());
+    }
+
+    @Test
+    public void shouldClearCacheUponSequenceNumberGap()
+    {
+        sendMessages(SESSION_ID, 1, 3);
+        sendMessages(SESSION_ID, 5, 6);
+
+        assertNull(lookup(SESSION_ID, 3, 6));
+        assertNotNull(lookup(SESSION_ID, 5, 6));
+    }
+
+    @Test
+    public void shouldNotCacheFragmentedMessages()
+    {
+        sendMessages(SESSION_ID, 1, 2);
+        when(fragmentHeader.flags()).thenReturn(BEGIN_FRAG_FLAG);
+        sendMessages(SESSION_ID, 3, 3);
+        when(fragmentHeader.flags()).thenReturn(UNFRAGMENTED);
+        sendMessages(SESSION_ID, 4, 5);
+
+        assertNull(lookup(SESSION_ID, 1, 5));
+        assertNull(lookup(SESSION_ID, 3, 5));
+        assertNotNull(lookup(SESSION_ID, 4, 5));
+    }
+
+    @Test
+    public void shouldReuseBuffersOfEvictedSessions()
+    {
+        final long thirdSessionId = 3;
+        sendMessages(SESSION_ID, 1, 3);
+        sendMessages(SESSION_ID_2, 1, 3);
+        sendMessages(thirdSessionId, 1, 3);
+
+        final ResendCache.SessionCache sessionCache = lookup(thirdSessionId, 1, 3);
+        assertNotNull(sessionCache);
+        assertReplays(sessionCache, 1, 3);
+    }
+
+    private void sendMessages(final long sessionId, final int fromSequenceNumber, final int toSequenceNumber)
+    {
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            bufferContainsExampleMessage(true, sessionId, sequenceNumber, SEQUENCE_INDEX);
+            resendCache.onFragment(buffer, START, fragmentLength(), fragmentHeader);
+        }
+    }
+
+    private ResendCache.SessionCache lookup(
+        final long sessionId, final int beginSequenceNumber, final int endSequenceNumber)
+    {
+        return resendCache.lookup(sessionId, SEQUENCE_INDEX, beginSequenceNumber, endSequenceNumber);
+    }
+
+    private void assertReplays(
+        final ResendCache.SessionCache sessionCache, final int fromSequenceNumber, final int toSequenceNumber)
+    {
+        long position = sessionCache.position(fromSequenceNumber);
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            assertEquals(CONTINUE, sessionCache.replay(position, sequenceNumber, handler));
+            position = sessionCache.nextPosition(position);
+        }
+
+        final IntArrayList expectedSequenceNumbers = new IntArrayList();
+        for (int sequenceNumber = fromSequenceNumber; sequenceNumber <= toSequenceNumber; sequenceNumber++)
+        {
+            expectedSequenceNumbers.addInt(sequenceNumber);
+        }
+        assertEquals(expectedSequenceNumbers, replayedSequenceNumbers);
+        verifyNoMoreInteractions(errorHandler);
+    }
+}
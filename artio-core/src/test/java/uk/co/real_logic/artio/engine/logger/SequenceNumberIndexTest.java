@@ -18,13 +18,16 @@ package uk.co.real_logic.artio.engine.logger;
 import io.aeron.Aeron;
 import io.aeron.Image;
 import io.aeron.Publication;
+import io.aeron.ReservedValueSupplier;
 import io.aeron.Subscription;
 import io.aeron.driver.MediaDriver;
 import org.agrona.CloseHelper;
+import org.agrona.DirectBuffer;
 import org.agrona.ErrorHandler;
 import org.agrona.IoUtil;
 import org.agrona.concurrent.AtomicBuffer;
 import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.concurrent.status.AtomicCounter;
 import org.hamcrest.Matchers;
 import org.junit.After;
 import org.junit.Before;
@@ -35,6 +38,7 @@ import uk.co.real_logic.artio.FileSystemCorruptionException;
 import uk.co.real_logic.artio.engine.MappedFile;
 import uk.co.real_logic.artio.engine.SessionInfo;
 import uk.co.real_logic.artio.engine.framer.FakeEpochClock;
+import uk.co.real_logic.artio.protocol.ReservedValue;
 
 import java.io.File;
 
@@ -60,6 +64,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
 {
     private static final int BUFFER_SIZE = 16 * 1024;
     private static final String INDEX_FILE_PATH = IoUtil.tmpDirName() + "/SequenceNumberIndex";
+    private static final long SESSION_ID_3 = 3;
 
     private AtomicBuffer inMemoryBuffer = newBuffer();
 
@@ -68,6 +73,8 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     private SequenceNumberIndexReader reader;
     private RecordingIdLookup recordingIdLookup = mock(RecordingIdLookup.class);
     private FakeEpochClock clock = new FakeEpochClock();
+    private AtomicCounter flushDuration = mock(AtomicCounter.class);
+    private AtomicCounter flushBytes = mock(AtomicCounter.class);
 
     private MediaDriver mediaDriver = launchJustMediaDriver();
     private Aeron aeron;
@@ -203,6 +210,43 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         }
     }
 
+    @Test
+    public void shouldOnlyFlushChangedSectors()
+    {
+        try
+        {
+            indexFixMessage();
+            flushIndexFile();
+
+            // The writable file hasn't yet been written to so still needs a full copy
+            bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+            indexRecord();
+            flushIndexFile();
+
+            bufferContainsExampleMessage(true, SESSION_ID, SEQUENCE_NUMBER + 2, SEQUENCE_INDEX);
+            indexRecord();
+            flushIndexFile();
+
+            verify(flushBytes, times(2)).setOrdered(BUFFER_SIZE);
+            // The sector of the sequence number record and the sector of the indexed position record
+            verify(flushBytes).setOrdered(2 * SECTOR_SIZE);
+
+            final SequenceNumberIndexReader newReader = newInstanceAfterRestart();
+            assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER + 2, newReader);
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    private void flushIndexFile()
+    {
+        clock.advanceMilliSeconds(DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS + 1);
+
+        assertEquals(1, writer.doWork());
+    }
+
     /**
      * Simulate scenario that you've crashed halfway through file flip.
      */
@@ -313,6 +357,109 @@ public class SequenceNumberIndexTest extends AbstractLogTest
         assertUnknownSession();
     }
 
+    @Test
+    public void shouldFindSessionsIndexedAfterAnEarlierLookup()
+    {
+        assertUnknownSession();
+
+        indexFixMessage();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER + 1);
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+    }
+
+    @Test
+    public void shouldFindSessionsIndexedAfterAReset()
+    {
+        indexFixMessage();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+
+        writer.resetSequenceNumbers();
+
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertUnknownSession();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER);
+    }
+
+    @Test
+    public void shouldFindSessionsIndexedIntoAReusedRecord()
+    {
+        indexFixMessage();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexRecord();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER);
+
+        // Resetting the first session lets the next new session reuse its record
+        bufferContainsExampleMessage(true, SESSION_ID, 0, SEQUENCE_INDEX);
+        indexRecord();
+        bufferContainsExampleMessage(true, SESSION_ID_3, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_3, SEQUENCE_NUMBER + 1);
+        assertUnknownSession();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER);
+    }
+
+    @Test
+    public void shouldFindSessionsIndexedIntoAReusedRecordAfterAMiss()
+    {
+        indexFixMessage();
+        bufferContainsExampleMessage(true, SESSION_ID_2, SEQUENCE_NUMBER, SEQUENCE_INDEX);
+        indexRecord();
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER);
+        assertLastKnownSequenceNumberIs(SESSION_ID_3, SessionInfo.UNK_SESSION);
+
+        bufferContainsExampleMessage(true, SESSION_ID, 0, SEQUENCE_INDEX);
+        indexRecord();
+        bufferContainsExampleMessage(true, SESSION_ID_3, SEQUENCE_NUMBER + 1, SEQUENCE_INDEX);
+        indexRecord();
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_3, SEQUENCE_NUMBER + 1);
+        assertLastKnownSequenceNumberIs(SESSION_ID_2, SEQUENCE_NUMBER);
+    }
+
+    @Test
+    public void shouldNotRescanEarlierRecordsUponAMissUnlessTheGenerationHasChanged()
+    {
+        indexFixMessage();
+        assertLastKnownSequenceNumberIs(SESSION_ID, SEQUENCE_NUMBER);
+
+        // Only a reset or reuse by the writer, which increments the generation, can place a record here
+        inMemoryBuffer.putLong(HEADER_SIZE, SESSION_ID_3);
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_3, SessionInfo.UNK_SESSION);
+
+        inMemoryBuffer.putLong(GENERATION_OFFSET, inMemoryBuffer.getLong(GENERATION_OFFSET) + 1);
+
+        assertLastKnownSequenceNumberIs(SESSION_ID_3, SEQUENCE_NUMBER);
+    }
+
+    @Test
+    public void shouldIndexEveryMessageInABatch()
+    {
+        final UnsafeBuffer batchBuffer = new UnsafeBuffer(new byte[BUFFER_SIZE]);
+        final long[] sessionIds = {SESSION_ID, SESSION_ID_2, SESSION_ID_3};
+        int batchLength = 0;
+        for (int i = 0; i < sessionIds.length; i++)
+        {
+            bufferContainsExampleMessage(true, sessionIds[i], SEQUENCE_NUMBER + i, SEQUENCE_INDEX);
+            batchBuffer.putBytes(batchLength, buffer, START, fragmentLength());
+            batchLength += fragmentLength();
+        }
+
+        final long reservedValue = ReservedValue.ofMessageCount(sessionIds.length);
+        indexRecord(batchBuffer, 0, batchLength, (termBuffer, termOffset, frameLength) -> reservedValue);
+
+        for (int i = 0; i < sessionIds.length; i++)
+        {
+            assertLastKnownSequenceNumberIs(sessionIds[i], SEQUENCE_NUMBER + i);
+        }
+    }
+
     private SequenceNumberIndexReader newInstanceAfterRestart()
     {
         final AtomicBuffer inMemoryBuffer = newBuffer();
@@ -324,7 +471,7 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     {
         final MappedFile indexFile = newIndexFile();
         return new SequenceNumberIndexWriter(inMemoryBuffer, indexFile, errorHandler, STREAM_ID, recordingIdLookup,
-            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock);
+            DEFAULT_INDEX_FILE_STATE_FLUSH_TIMEOUT_IN_MS, clock, flushDuration, flushBytes);
     }
 
     private MappedFile newIndexFile()
@@ -359,11 +506,20 @@ public class SequenceNumberIndexTest extends AbstractLogTest
     }
 
     private long indexRecord()
+    {
+        return indexRecord(buffer, START, fragmentLength(), null);
+    }
+
+    private long indexRecord(
+        final DirectBuffer srcBuffer,
+        final int srcOffset,
+        final int srcLength,
+        final ReservedValueSupplier reservedValueSupplier)
     {
         long position = 0;
         while (position < 1)
         {
-            position = publication.offer(buffer, START, fragmentLength());
+            position = publication.offer(srcBuffer, srcOffset, srcLength, reservedValueSupplier);
 
             Thread.yield();
         }
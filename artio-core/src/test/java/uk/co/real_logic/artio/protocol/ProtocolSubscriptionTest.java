@@ -0,0 +1,126 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.protocol;
+
+import io.aeron.logbuffer.ControlledFragmentHandler.Action;
+import io.aeron.logbuffer.Header;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.verification.VerificationMode;
+import uk.co.real_logic.artio.messages.FixMessageEncoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.messages.MessageStatus;
+
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.ABORT;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class ProtocolSubscriptionTest
+{
+    private static final int MESSAGE_COUNT = 3;
+    private static final long POSITION = 1024;
+    private static final long SESSION_ID = 2;
+    private static final long CONNECTION_ID = 3;
+    private static final byte[] BODY = "8=FIX.4.4\0019=5\00135=0\00110=000\001".getBytes(US_ASCII);
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+    private final MessageHeaderEncoder header = new MessageHeaderEncoder();
+    private final FixMessageEncoder fixMessage = new FixMessageEncoder();
+    private final ProtocolHandler protocolHandler = mock(ProtocolHandler.class);
+    private final Header fragmentHeader = mock(Header.class);
+    private final ProtocolSubscription subscription = ProtocolSubscription.of(protocolHandler);
+
+    private int fragmentLength;
+
+    @Before
+    public void setUp()
+    {
+        for (int sequenceNumber = 1; sequenceNumber <= MESSAGE_COUNT; sequenceNumber++)
+        {
+            fixMessage
+                .wrapAndApplyHeader(buffer, fragmentLength, header)
+                .session(SESSION_ID)
+                .connection(CONNECTION_ID)
+                .status(MessageStatus.OK)
+                .sequenceNumber(sequenceNumber)
+                .putBody(BODY, 0, BODY.length);
+            fragmentLength = fixMessage.limit();
+        }
+
+        when(fragmentHeader.reservedValue()).thenReturn(ReservedValue.ofMessageCount(MESSAGE_COUNT));
+        when(fragmentHeader.position()).thenReturn(POSITION);
+        givenHandlerReturns(CONTINUE);
+    }
+
+    @Test
+    public void shouldHandleEachMessageOfABatchAtTheEndPositionOfTheFragment()
+    {
+        assertEquals(CONTINUE, onFragment());
+
+        final InOrder inOrder = inOrder(protocolHandler);
+        for (int sequenceNumber = 1; sequenceNumber <= MESSAGE_COUNT; sequenceNumber++)
+        {
+            inOrder.verify(protocolHandler).onMessage(
+                any(), eq(bodyOffset(sequenceNumber)), eq(BODY.length), anyInt(), eq(CONNECTION_ID), eq(SESSION_ID),
+                anyInt(), anyInt(), anyLong(), eq(MessageStatus.OK), eq(sequenceNumber), eq(POSITION));
+        }
+        verifyNoMoreInteractions(protocolHandler);
+    }
+
+    @Test
+    public void shouldNotHandleMessagesAgainWhenBatchIsRedeliveredAfterAnAbort()
+    {
+        when(protocolHandler.onMessage(
+            any(), anyInt(), anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyInt(), anyLong(), any(),
+            anyInt(), anyLong())).thenReturn(CONTINUE, ABORT, CONTINUE, CONTINUE);
+
+        assertEquals(ABORT, onFragment());
+        assertEquals(CONTINUE, onFragment());
+
+        verifyMessageHandled(1, times(1));
+        verifyMessageHandled(2, times(2));
+        verifyMessageHandled(3, times(1));
+    }
+
+    private Action onFragment()
+    {
+        return subscription.onFragment(buffer, 0, fragmentLength, fragmentHeader);
+    }
+
+    private void verifyMessageHandled(final int sequenceNumber, final VerificationMode mode)
+    {
+        verify(protocolHandler, mode).onMessage(
+            any(), anyInt(), anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyInt(), anyLong(), any(),
+            eq(sequenceNumber), anyLong());
+    }
+
+    private int bodyOffset(final int sequenceNumber)
+    {
+        final int frameLength = MessageHeaderEncoder.ENCODED_LENGTH + GatewayPublication.FRAME_SIZE + BODY.length;
+        return (sequenceNumber - 1) * frameLength + MessageHeaderEncoder.ENCODED_LENGTH + GatewayPublication.FRAME_SIZE;
+    }
+
+    private void givenHandlerReturns(final Action action)
+    {
+        when(protocolHandler.onMessage(
+            any(), anyInt(), anyInt(), anyInt(), anyLong(), anyLong(), anyInt(), anyInt(), anyLong(), any(),
+            anyInt(), anyLong())).thenReturn(action);
+    }
+}
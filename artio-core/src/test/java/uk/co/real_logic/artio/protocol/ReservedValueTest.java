@@ -0,0 +1,44 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.protocol;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.artio.protocol.ReservedValue.*;
+
+public class ReservedValueTest
+{
+    private static final int CLUSTER_STREAM_ID = 101;
+    private static final int CHECKSUM = -12345;
+
+    @Test
+    public void shouldKeepMessageCountApartFromClusterStreamIdAndChecksum()
+    {
+        final long reservedValue = of(CLUSTER_STREAM_ID, CHECKSUM) | ofMessageCount(MAX_MESSAGE_COUNT);
+
+        assertEquals(CLUSTER_STREAM_ID, clusterStreamId(reservedValue));
+        assertEquals(CHECKSUM, checksum(reservedValue));
+        assertEquals(MAX_MESSAGE_COUNT, messageCount(reservedValue));
+    }
+
+    @Test
+    public void shouldHaveASingleMessageWithoutAMessageCount()
+    {
+        assertEquals(1, messageCount(of(CLUSTER_STREAM_ID, CHECKSUM)));
+        assertEquals(1, messageCount(0L));
+    }
+}
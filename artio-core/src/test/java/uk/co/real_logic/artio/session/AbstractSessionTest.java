@@ -20,6 +20,7 @@ import org.agrona.DirectBuffer;
 import org.agrona.concurrent.status.AtomicCounter;
 import org.junit.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 import org.mockito.verification.VerificationMode;
 import uk.co.real_logic.artio.builder.Encoder;
@@ -71,6 +72,7 @@ public abstract class AbstractSessionTest
     private static final char[] MSG_TYPE_CHARS = "D".toCharArray();
 
     static final long POSITION = 1024;
+    private static final int BATCH_MESSAGE_LENGTH = 128;
 
     DirectSessionProxy sessionProxy = mock(DirectSessionProxy.class);
     GatewayPublication mockPublication = mock(GatewayPublication.class);
@@ -307,6 +309,23 @@ public abstract class AbstractSessionTest
         heartbeatSentAfterInterval(3, 4, true);
     }
 
+    @Test
+    public void shouldSendHeartbeatWhenSessionTimerExpires()
+    {
+        final SessionTimers sessionTimers = new SessionTimers(fakeClock.time());
+        givenActive();
+        sessionTimers.add(session());
+
+        sessionTimers.poll(fakeClock.time());
+        verify(sessionProxy, never()).sendHeartbeat(anyInt(), anyInt(), anyInt());
+
+        fakeClock.advanceSeconds(HEARTBEAT_INTERVAL);
+        sessionTimers.poll(fakeClock.time());
+
+        verify(sessionProxy).sendHeartbeat(anyInt(), eq(SEQUENCE_INDEX), eq(NO_LAST_MSG_SEQ_NUM_PROCESSED));
+        assertEquals(1, sessionTimers.size());
+    }
+
     @Test
     public void shouldReplyToValidLogout()
     {
@@ -641,6 +660,134 @@ public abstract class AbstractSessionTest
         sendTestRequest(100);
     }
 
+    @Test
+    public void shouldSendBatchWithContiguousSequenceNumbers()
+    {
+        givenActive();
+        givenBatchMessagesCanBeAppended();
+        final Session session = session();
+        session.lastSentMsgSeqNum(4);
+
+        final MessageBatch batch = session.batch();
+        assertTrue(batch.append(testRequest));
+        assertTrue(batch.append(testRequest));
+        assertTrue(batch.append(testRequest));
+        assertEquals(3, batch.size());
+        assertEquals(4, session.lastSentMsgSeqNum());
+        verify(mockPublication, never()).saveBatch(any(), anyInt());
+
+        when(mockPublication.saveBatch(any(), eq(3 * BATCH_MESSAGE_LENGTH))).thenReturn(POSITION);
+        assertEquals(POSITION, batch.send());
+
+        final InOrder inOrder = inOrder(mockPublication);
+        for (int sequenceNumber = 5; sequenceNumber <= 7; sequenceNumber++)
+        {
+            inOrder.verify(mockPublication).appendBatchMessage(
+                any(), anyInt(), any(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(),
+                eq(sequenceNumber));
+        }
+        inOrder.verify(mockPublication).saveBatch(any(), eq(3 * BATCH_MESSAGE_LENGTH));
+        assertEquals(7, session.lastSentMsgSeqNum());
+        assertEquals(0, batch.size());
+    }
+
+    @Test
+    public void shouldSendNoneOfBatchWhenBackPressured()
+    {
+        givenActive();
+        givenBatchMessagesCanBeAppended();
+        final Session session = session();
+        session.lastSentMsgSeqNum(4);
+
+        final MessageBatch batch = session.batch();
+        assertTrue(batch.append(testRequest));
+        assertTrue(batch.append(testRequest));
+
+        when(mockPublication.saveBatch(any(), anyInt())).thenReturn(BACK_PRESSURED, POSITION);
+        assertEquals(BACK_PRESSURED, batch.send());
+        assertEquals(4, session.lastSentMsgSeqNum());
+
+        assertEquals(POSITION, batch.send());
+        assertEquals(6, session.lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldRejectMessagesThatDoNotFitIntoBatch()
+    {
+        givenActive();
+        givenBatchMessagesCanBeAppended();
+        final Session session = session();
+        session.lastSentMsgSeqNum(4);
+
+        final MessageBatch batch = session.batch();
+        assertTrue(batch.append(testRequest));
+
+        when(mockPublication.appendBatchMessage(
+            any(), anyInt(), any(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(),
+            anyInt())).thenReturn(GatewayPublication.NO_BATCH_SPACE);
+        assertFalse(batch.append(testRequest));
+        assertEquals(1, batch.size());
+
+        when(mockPublication.saveBatch(any(), eq(BATCH_MESSAGE_LENGTH))).thenReturn(POSITION);
+        assertEquals(POSITION, batch.send());
+        assertEquals(5, session.lastSentMsgSeqNum());
+    }
+
+    @Test
+    public void shouldAbortBackPressuredBatchWhenHeartbeatIsSentBeforeRetry()
+    {
+        givenActive();
+        givenBatchMessagesCanBeAppended();
+        final Session session = session();
+        session.lastSentMsgSeqNum(4);
+
+        final MessageBatch batch = session.batch();
+        assertTrue(batch.append(testRequest));
+        assertTrue(batch.append(testRequest));
+
+        when(mockPublication.saveBatch(any(), anyInt())).thenReturn(BACK_PRESSURED, POSITION);
+        assertEquals(BACK_PRESSURED, batch.send());
+
+        fakeClock.advanceSeconds(HEARTBEAT_INTERVAL);
+        poll();
+        verify(sessionProxy).sendHeartbeat(eq(5), eq(SEQUENCE_INDEX), anyInt());
+        assertEquals(5, session.lastSentMsgSeqNum());
+
+        try
+        {
+            batch.send();
+            fail("Retrying the batch should fail as its sequence numbers have been reused");
+        }
+        catch (final IllegalStateException e)
+        {
+            assertEquals(0, batch.size());
+        }
+
+        verify(mockPublication).saveBatch(any(), anyInt());
+        assertEquals(5, session.lastSentMsgSeqNum());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectMessagesThatDoNotFitIntoAnEmptyBatch()
+    {
+        givenActive();
+        givenBatchMessagesCanBeAppended();
+
+        when(mockPublication.appendBatchMessage(
+            any(), anyInt(), any(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(),
+            anyInt())).thenReturn(GatewayPublication.NO_BATCH_SPACE);
+
+        session().batch().append(testRequest);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotBeginBatchWhenSessionIsNotActive()
+    {
+        session().state(DISCONNECTED);
+
+        session().batch();
+    }
+
     @Test
     public void shouldResendRequestShorterThanResendRequestChunkSizeWhenClosedResendInterval()
     {
@@ -1122,6 +1269,14 @@ public abstract class AbstractSessionTest
         session().state(ACTIVE);
     }
 
+    private void givenBatchMessagesCanBeAppended()
+    {
+        testRequest.testReqID("testReqID");
+        when(mockPublication.appendBatchMessage(
+            any(), anyInt(), any(), anyInt(), anyInt(), anyInt(), anyInt(), anyLong(), anyInt(), anyLong(), any(),
+            anyInt())).thenAnswer((inv) -> (Integer)inv.getArguments()[1] + BATCH_MESSAGE_LENGTH);
+    }
+
     public void verifyLogout(final int msgSeqNo, final VerificationMode times)
     {
         verify(sessionProxy, times).sendLogout(msgSeqNo, SEQUENCE_INDEX, NO_LAST_MSG_SEQ_NUM_PROCESSED);
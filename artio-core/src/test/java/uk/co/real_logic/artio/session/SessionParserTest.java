@@ -25,8 +25,12 @@ import uk.co.real_logic.artio.messages.SessionState;
 import uk.co.real_logic.artio.validation.AuthenticationStrategy;
 import uk.co.real_logic.artio.validation.MessageValidationStrategy;
 
+import java.util.Collections;
+
 import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.mockito.AdditionalMatchers.aryEq;
 import static org.mockito.Mockito.*;
+import static uk.co.real_logic.artio.Constants.SENDER_COMP_ID;
 import static uk.co.real_logic.artio.Constants.TARGET_COMP_ID;
 import static uk.co.real_logic.artio.dictionary.generation.CodecUtil.MISSING_INT;
 
@@ -92,6 +96,46 @@ public class SessionParserTest
         verify(mockSession, never()).onInvalidMessageType(anyInt(), any(), anyInt());
     }
 
+    @Test
+    public void shouldValidateAllFieldsOfComposedValidationStrategy()
+    {
+        final SessionParser parser = new SessionParser(
+            mockSession,
+            validationStrategy.and(MessageValidationStrategy.senderCompId(Collections.singletonList("abc"))),
+            null,
+            FixDictionary.of(FixDictionary.findDefault()));
+        final UnsafeBuffer buffer = bufferOf(
+            "8=FIX.4.2\0019=146\00135=D\00134=4\00149=WRONG\001" +
+            "52=20090323-15:40:29\00156=das\001115=XYZ\00111=NF 0542/03232009\00154=1\00138=100\001" +
+            "55=CVS\00140=1\00159=0\00147=A\00160=20090323-15:40:29\00121=1\001207=N\00110=195\001");
+
+        when(mockSession.state()).thenReturn(SessionState.AWAITING_LOGOUT);
+
+        parser.onMessage(buffer, 0, buffer.capacity(), 'D', 1);
+
+        verify(mockSession).onInvalidMessage(
+            4,
+            SENDER_COMP_ID,
+            "D".toCharArray(),
+            "D".length(),
+            RejectReason.COMPID_PROBLEM.representation());
+    }
+
+    @Test
+    public void shouldPassSessionFieldsOfValidApplicationMessageToSession()
+    {
+        final UnsafeBuffer buffer = bufferOf(
+            "8=FIX.4.2\0019=146\00135=D\00134=4\00149=abc\00150=SUB\00143=Y\001" +
+            "52=20090323-15:40:29\00156=das\00157=TARGETSUB\001122=20090323-15:40:28\00111=NF 0542/03232009\001" +
+            "54=1\00138=100\00155=CVS\00140=1\00159=0\00147=A\00160=20090323-15:40:29\00121=1\00110=195\001");
+
+        parser.onMessage(buffer, 0, buffer.capacity(), 'D', 1);
+
+        verify(mockSession).onMessage(
+            eq(4), aryEq("D".toCharArray()), eq(1), anyLong(), anyLong(), eq(true), eq(true));
+        verify(mockSession, never()).onInvalidMessage(anyInt(), anyInt(), any(), anyInt(), anyInt());
+    }
+
     private UnsafeBuffer bufferOf(final String str)
     {
         return new UnsafeBuffer(str.getBytes(US_ASCII));
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.fields.DecimalFloat;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+/**
+ * Measures the inner loops of framing and decoding messages: scanning for separators, parsing tags, integer and
+ * decimal values and computing checksums.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AsciiBufferBenchmark
+{
+    private static final byte START_OF_HEADER = 1;
+    private static final byte EQUALS = '=';
+
+    private MutableAsciiBuffer newOrderSingle = new MutableAsciiBuffer(TestData.NEW_ORDER_SINGLE);
+    private MutableAsciiBuffer numbers = new MutableAsciiBuffer("34=4|10=194|1234567|123456789012|".getBytes(US_ASCII));
+    private MutableAsciiBuffer floats = new MutableAsciiBuffer(
+        "101.25|1500|0.00012500|12345678.87654321|".getBytes(US_ASCII));
+    private DecimalFloat decimalFloat = new DecimalFloat();
+
+    // deliberately not static/final
+    private int messageLength = TestData.NEW_ORDER_SINGLE.capacity();
+
+    @Benchmark
+    public void scanFields(final Blackhole bh)
+    {
+        final MutableAsciiBuffer buffer = this.newOrderSingle;
+        final int end = messageLength - 1;
+
+        int index = 0;
+        while (index <= end)
+        {
+            final int equalsIndex = buffer.scan(index, end, EQUALS);
+            final int endOfField = buffer.scan(equalsIndex + 1, end, START_OF_HEADER);
+            bh.consume(equalsIndex);
+            index = endOfField + 1;
+        }
+    }
+
+    @Benchmark
+    public int scanBackForChecksum()
+    {
+        return newOrderSingle.scanBack(messageLength - 2, 0, START_OF_HEADER);
+    }
+
+    @Benchmark
+    public void parseIntegers(final Blackhole bh)
+    {
+        final MutableAsciiBuffer numbers = this.numbers;
+
+        bh.consume(numbers.getNatural(0, 2));
+        bh.consume(numbers.getNatural(3, 4));
+        bh.consume(numbers.getNatural(5, 7));
+        bh.consume(numbers.getNatural(8, 11));
+        bh.consume(numbers.getInt(12, 19));
+        bh.consume(numbers.getNaturalLong(20, 32));
+    }
+
+    @Benchmark
+    public void parseFloats(final Blackhole bh)
+    {
+        final MutableAsciiBuffer floats = this.floats;
+        final DecimalFloat decimalFloat = this.decimalFloat;
+
+        bh.consume(floats.getFloat(decimalFloat, 0, 6).value());
+        bh.consume(floats.getFloat(decimalFloat, 7, 4).value());
+        bh.consume(floats.getFloat(decimalFloat, 12, 10).value());
+        bh.consume(floats.getFloat(decimalFloat, 23, 17).value());
+    }
+
+    @Benchmark
+    public int computeChecksum()
+    {
+        return newOrderSingle.computeChecksum(0, messageLength - 7);
+    }
+}
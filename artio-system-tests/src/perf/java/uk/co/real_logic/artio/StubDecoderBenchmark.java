@@ -20,11 +20,14 @@ import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.builder.Validation;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.decoder.NewOrderSingleDecoder;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
 import java.util.concurrent.TimeUnit;
 
+import static uk.co.real_logic.artio.Constants.*;
+
 @State(Scope.Benchmark)
 @BenchmarkMode(Mode.AverageTime)
 @OutputTimeUnit(TimeUnit.NANOSECONDS)
@@ -35,6 +38,9 @@ public class StubDecoderBenchmark
 {
     private LogonDecoder logonDecoder = new LogonDecoder();
     private AsciiBuffer buffer = new MutableAsciiBuffer(TestData.LOGON);
+    private NewOrderSingleDecoder newOrderSingleDecoder = new NewOrderSingleDecoder();
+    private NewOrderSingleDecoder projectedNewOrderSingleDecoder = new NewOrderSingleDecoder();
+    private AsciiBuffer newOrderSingleBuffer = new MutableAsciiBuffer(TestData.NEW_ORDER_SINGLE);
 
     @Setup
     public void setup()
@@ -44,6 +50,10 @@ public class StubDecoderBenchmark
             throw new IllegalStateException(
                 "Benchmark cannot run with validation enabled, set -Dfix.codecs.no_validation=true");
         }
+
+        projectedNewOrderSingleDecoder.projectField(MSG_SEQ_NUM);
+        projectedNewOrderSingleDecoder.projectField(CL_ORD_ID);
+        projectedNewOrderSingleDecoder.projectField(SIDE);
     }
 
     @Benchmark
@@ -78,4 +88,26 @@ public class StubDecoderBenchmark
         bh.consume(logonDecoder.username());
     }
 
+    @Benchmark
+    public void decodeNewOrderSingle(final Blackhole bh)
+    {
+        decodeNewOrderSingle(bh, newOrderSingleDecoder);
+    }
+
+    @Benchmark
+    public void decodeProjectedNewOrderSingle(final Blackhole bh)
+    {
+        decodeNewOrderSingle(bh, projectedNewOrderSingleDecoder);
+    }
+
+    private void decodeNewOrderSingle(final Blackhole bh, final NewOrderSingleDecoder decoder)
+    {
+        final AsciiBuffer newOrderSingleBuffer = this.newOrderSingleBuffer;
+
+        bh.consume(decoder.decode(newOrderSingleBuffer, 0, newOrderSingleBuffer.capacity()));
+
+        bh.consume(decoder.header().msgSeqNum());
+        bh.consume(decoder.clOrdID());
+        bh.consume(decoder.side());
+    }
 }
@@ -18,6 +18,8 @@ package uk.co.real_logic.artio;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.builder.LogonEncoder;
+import uk.co.real_logic.artio.builder.NewOrderSingleEncoder;
+import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -33,24 +35,55 @@ public class StubEncoderBenchmark
 {
     private UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
     private LogonEncoder logonEncoder = new LogonEncoder();
+    private LogonEncoder templatedLogonEncoder = new LogonEncoder();
+    private NewOrderSingleEncoder newOrderSingleEncoder = new NewOrderSingleEncoder();
     private MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[8 * 1024]);
 
     // deliberately not static/final
     private int sequenceNumber = 10;
     private char[] password = "password".toCharArray();
     private char[] username = "username".toCharArray();
+    private char[] clOrdID = "ORD-000000123".toCharArray();
+    private char[] symbol = "MSFT".toCharArray();
+    private DecimalFloat price = new DecimalFloat(1234567, 3);
+    private DecimalFloat orderQty = new DecimalFloat(25000);
 
     @Setup
     public void setup()
     {
-        logonEncoder
+        setupHeader(logonEncoder);
+        setupHeader(templatedLogonEncoder);
+        templatedLogonEncoder.header().useTemplate(true);
+
+        newOrderSingleEncoder
             .header()
             .senderCompID("ABC_DEFG01")
             .targetCompID("CCG");
     }
 
+    private void setupHeader(final LogonEncoder logonEncoder)
+    {
+        logonEncoder
+            .header()
+            .senderCompID("ABC_DEFG01")
+            .targetCompID("CCG")
+            .senderSubID("SUB01")
+            .targetSubID("TRADING");
+    }
+
     @Benchmark
     public void encodeLogon(final Blackhole bh)
+    {
+        encodeLogon(bh, logonEncoder);
+    }
+
+    @Benchmark
+    public void encodeLogonWithHeaderTemplate(final Blackhole bh)
+    {
+        encodeLogon(bh, templatedLogonEncoder);
+    }
+
+    private void encodeLogon(final Blackhole bh, final LogonEncoder logonEncoder)
     {
         final UtcTimestampEncoder timestampEncoder = this.timestampEncoder;
 
@@ -66,4 +99,26 @@ public class StubEncoderBenchmark
         bh.consume(logonEncoder.encode(buffer, 0));
     }
 
+    @Benchmark
+    public void encodeNewOrderSingle(final Blackhole bh)
+    {
+        final UtcTimestampEncoder timestampEncoder = this.timestampEncoder;
+        final NewOrderSingleEncoder newOrderSingleEncoder = this.newOrderSingleEncoder;
+        final int timestampLength = timestampEncoder.encode(System.currentTimeMillis());
+
+        newOrderSingleEncoder
+            .clOrdID(clOrdID)
+            .side(Side.BUY)
+            .transactTime(timestampEncoder.buffer(), timestampLength)
+            .ordType(OrdType.LIMIT)
+            .price(price)
+            .header()
+            .msgSeqNum(sequenceNumber)
+            .sendingTime(timestampEncoder.buffer(), timestampLength);
+
+        newOrderSingleEncoder.instrument().symbol(symbol);
+        newOrderSingleEncoder.orderQtyData().orderQty(orderQty);
+
+        bh.consume(newOrderSingleEncoder.encode(buffer, 0));
+    }
 }
@@ -20,6 +20,7 @@ import org.openjdk.jmh.infra.Blackhole;
 import uk.co.real_logic.artio.builder.Validation;
 import uk.co.real_logic.artio.decoder.HeaderDecoder;
 import uk.co.real_logic.artio.decoder.LogonDecoder;
+import uk.co.real_logic.artio.decoder.NewOrderSingleDecoder;
 import uk.co.real_logic.artio.util.AsciiBuffer;
 import uk.co.real_logic.artio.util.MutableAsciiBuffer;
 
@@ -35,6 +36,8 @@ public class StubValidatingDecoderBenchmark
 {
     private LogonDecoder logonDecoder = new LogonDecoder();
     private AsciiBuffer asciiBuffer = new MutableAsciiBuffer(TestData.LOGON);
+    private NewOrderSingleDecoder newOrderSingleDecoder = new NewOrderSingleDecoder();
+    private AsciiBuffer newOrderSingleBuffer = new MutableAsciiBuffer(TestData.NEW_ORDER_SINGLE);
 
     @Setup
     public void setup()
@@ -85,4 +88,19 @@ public class StubValidatingDecoderBenchmark
         bh.consume(logonDecoder.validate());
     }
 
+    // Includes fields that aren't in the dictionary, which are tracked separately from the known fields.
+    @Benchmark
+    public void decodeNewOrderSingle(final Blackhole bh)
+    {
+        final NewOrderSingleDecoder newOrderSingleDecoder = this.newOrderSingleDecoder;
+        final AsciiBuffer newOrderSingleBuffer = this.newOrderSingleBuffer;
+
+        bh.consume(newOrderSingleDecoder.decode(newOrderSingleBuffer, 0, newOrderSingleBuffer.capacity()));
+
+        bh.consume(newOrderSingleDecoder.clOrdID());
+        bh.consume(newOrderSingleDecoder.side());
+        bh.consume(newOrderSingleDecoder.ordType());
+
+        bh.consume(newOrderSingleDecoder.validate());
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Adaptive Financial Consulting Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import io.aeron.archive.Archive;
+import io.aeron.archive.ArchivingMediaDriver;
+import io.aeron.archive.client.AeronArchive;
+import io.aeron.driver.MediaDriver;
+import io.aeron.logbuffer.ControlledFragmentHandler;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.LogTag;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.ReplayIndexRecordEncoder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.driver.ThreadingMode.SHARED;
+import static io.aeron.logbuffer.ControlledFragmentHandler.Action.CONTINUE;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_ARCHIVE_REPLAY_STREAM;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOGGER_CACHE_NUM_SETS;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_LOGGER_CACHE_SET_SIZE;
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.engine.logger.ReplayIndexDescriptor.*;
+
+/**
+ * Queries a full replay index of a million records for ranges at its start and end. Queries for a range at the end of
+ * the index were dominated by scanning the records before the range prior to the index being binary searched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReplayQueryBenchmark
+{
+    private static final long SESSION_ID = 1;
+    private static final int RECORD_COUNT = 1024 * 1024;
+    private static final int INDEX_FILE_SIZE = INITIAL_RECORD_OFFSET + RECORD_COUNT * RECORD_LENGTH;
+    private static final int QUERY_LENGTH = 100;
+    private static final int MESSAGE_LENGTH = 128;
+
+    private final ControlledFragmentHandler handler = (buffer, offset, length, header) -> CONTINUE;
+
+    private ArchivingMediaDriver mediaDriver;
+    private AeronArchive aeronArchive;
+    private ReplayQuery replayQuery;
+
+    @Setup
+    public void setup()
+    {
+        final ByteBuffer indexBuffer = ByteBuffer.allocateDirect(INDEX_FILE_SIZE);
+        writeIndex(new UnsafeBuffer(indexBuffer));
+
+        mediaDriver = ArchivingMediaDriver.launch(
+            new MediaDriver.Context().threadingMode(SHARED).dirDeleteOnStart(true),
+            new Archive.Context().deleteArchiveOnStart(true));
+        aeronArchive = AeronArchive.connect();
+
+        replayQuery = new ReplayQuery(
+            "",
+            DEFAULT_LOGGER_CACHE_NUM_SETS,
+            DEFAULT_LOGGER_CACHE_SET_SIZE,
+            file -> indexBuffer,
+            DEFAULT_OUTBOUND_LIBRARY_STREAM,
+            new NoOpIdleStrategy(),
+            aeronArchive,
+            Throwable::printStackTrace,
+            DEFAULT_ARCHIVE_REPLAY_STREAM);
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CloseHelper.close(replayQuery);
+        CloseHelper.close(aeronArchive);
+        CloseHelper.close(mediaDriver);
+    }
+
+    @Benchmark
+    public ReplayOperation queryStartOfIndex()
+    {
+        return replayQuery.query(handler, SESSION_ID, 1, 0, QUERY_LENGTH, 0, LogTag.REPLAY);
+    }
+
+    @Benchmark
+    public ReplayOperation queryEndOfIndex()
+    {
+        return replayQuery.query(
+            handler, SESSION_ID, RECORD_COUNT - QUERY_LENGTH + 1, 0, RECORD_COUNT, 0, LogTag.REPLAY);
+    }
+
+    private static void writeIndex(final UnsafeBuffer buffer)
+    {
+        final ReplayIndexRecordEncoder indexRecord = new ReplayIndexRecordEncoder();
+        new MessageHeaderEncoder()
+            .wrap(buffer, 0)
+            .blockLength(indexRecord.sbeBlockLength())
+            .templateId(indexRecord.sbeTemplateId())
+            .schemaId(indexRecord.sbeSchemaId())
+            .version(indexRecord.sbeSchemaVersion());
+
+        final int capacity = recordCapacity(buffer.capacity());
+        long changePosition = 0;
+        for (int sequenceNumber = 1; sequenceNumber <= RECORD_COUNT; sequenceNumber++)
+        {
+            indexRecord
+                .wrap(buffer, offset(changePosition, capacity))
+                .position((long)sequenceNumber * MESSAGE_LENGTH)
+                .sequenceNumber(sequenceNumber)
+                .sequenceIndex(0)
+                .recordingId(0)
+                .length(MESSAGE_LENGTH);
+            changePosition += RECORD_LENGTH;
+        }
+
+        beginChangeOrdered(buffer, changePosition);
+        endChangeOrdered(buffer, changePosition);
+    }
+}
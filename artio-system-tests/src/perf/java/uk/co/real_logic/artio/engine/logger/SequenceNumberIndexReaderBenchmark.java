@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.engine.logger;
+
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.co.real_logic.artio.engine.SectorFramer;
+import uk.co.real_logic.artio.messages.MessageHeaderDecoder;
+import uk.co.real_logic.artio.messages.MessageHeaderEncoder;
+import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberDecoder;
+import uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+import static uk.co.real_logic.artio.engine.EngineConfiguration.DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE;
+import static uk.co.real_logic.artio.engine.SectorFramer.OUT_OF_SPACE;
+import static uk.co.real_logic.artio.engine.SessionInfo.UNK_SESSION;
+import static uk.co.real_logic.artio.engine.logger.SequenceNumberIndexDescriptor.*;
+import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.BLOCK_LENGTH;
+import static uk.co.real_logic.artio.storage.messages.LastKnownSequenceNumberEncoder.SCHEMA_VERSION;
+
+/**
+ * Simulates a logon storm: every session in the index logs on once, in the order that they were indexed. The
+ * linear scan benchmark is the lookup strategy previously used by the {@link SequenceNumberIndexReader} and is
+ * kept for comparison. The new session benchmark simulates a logon storm of sessions that haven't been indexed yet,
+ * so every lookup misses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SequenceNumberIndexReaderBenchmark
+{
+    @Param({"1000", "5000"})
+    private int sessionCount;
+
+    private final LastKnownSequenceNumberDecoder lastKnownDecoder = new LastKnownSequenceNumberDecoder();
+    private final AtomicBuffer inMemoryBuffer = new UnsafeBuffer(new byte[DEFAULT_SEQUENCE_NUMBER_INDEX_SIZE]);
+
+    private SectorFramer sectorFramer;
+
+    @Setup
+    public void setup()
+    {
+        final LastKnownSequenceNumberEncoder lastKnownEncoder = new LastKnownSequenceNumberEncoder();
+        LoggerUtil.initialiseBuffer(
+            inMemoryBuffer,
+            new MessageHeaderEncoder(),
+            new MessageHeaderDecoder(),
+            lastKnownEncoder.sbeSchemaId(),
+            lastKnownEncoder.sbeTemplateId(),
+            lastKnownEncoder.sbeSchemaVersion(),
+            lastKnownEncoder.sbeBlockLength(),
+            Throwable::printStackTrace);
+
+        sectorFramer = new SectorFramer(positionTableOffset(inMemoryBuffer.capacity()));
+
+        int position = HEADER_SIZE;
+        for (int sessionId = 1; sessionId <= sessionCount; sessionId++)
+        {
+            position = sectorFramer.claim(position, RECORD_SIZE);
+            lastKnownEncoder
+                .wrap(inMemoryBuffer, position)
+                .sessionId(sessionId)
+                .sequenceNumber(sessionId);
+            position += RECORD_SIZE;
+        }
+    }
+
+    @Benchmark
+    public void logonStorm(final Blackhole bh)
+    {
+        final SequenceNumberIndexReader reader = new SequenceNumberIndexReader(
+            inMemoryBuffer, Throwable::printStackTrace);
+
+        for (int sessionId = 1; sessionId <= sessionCount; sessionId++)
+        {
+            bh.consume(reader.lastKnownSequenceNumber(sessionId));
+        }
+    }
+
+    @Benchmark
+    public void newSessionLogonStorm(final Blackhole bh)
+    {
+        final SequenceNumberIndexReader reader = new SequenceNumberIndexReader(
+            inMemoryBuffer, Throwable::printStackTrace);
+
+        for (int sessionId = sessionCount + 1; sessionId <= 2 * sessionCount; sessionId++)
+        {
+            bh.consume(reader.lastKnownSequenceNumber(sessionId));
+        }
+    }
+
+    @Benchmark
+    public void linearScanLogonStorm(final Blackhole bh)
+    {
+        for (int sessionId = 1; sessionId <= sessionCount; sessionId++)
+        {
+            bh.consume(linearScanLastKnownSequenceNumber(sessionId));
+        }
+    }
+
+    private int linearScanLastKnownSequenceNumber(final long sessionId)
+    {
+        int position = HEADER_SIZE;
+        while (true)
+        {
+            position = sectorFramer.claim(position, RECORD_SIZE);
+            if (position == OUT_OF_SPACE)
+            {
+                return UNK_SESSION;
+            }
+
+            lastKnownDecoder.wrap(inMemoryBuffer, position, BLOCK_LENGTH, SCHEMA_VERSION);
+
+            if (lastKnownDecoder.sessionId() == sessionId)
+            {
+                return lastKnownDecoder.sequenceNumber();
+            }
+
+            position += RECORD_SIZE;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.protocol;
+
+import io.aeron.Aeron;
+import io.aeron.Subscription;
+import io.aeron.driver.MediaDriver;
+import io.aeron.logbuffer.FragmentHandler;
+import org.agrona.CloseHelper;
+import org.agrona.concurrent.NoOpIdleStrategy;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.artio.Clock;
+import uk.co.real_logic.artio.builder.Encoder;
+import uk.co.real_logic.artio.builder.LogonEncoder;
+import uk.co.real_logic.artio.fields.UtcTimestampEncoder;
+import uk.co.real_logic.artio.util.MutableAsciiBuffer;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.aeron.CommonContext.IPC_CHANNEL;
+import static io.aeron.driver.ThreadingMode.SHARED;
+import static uk.co.real_logic.artio.CommonConfiguration.DEFAULT_OUTBOUND_LIBRARY_STREAM;
+import static uk.co.real_logic.artio.messages.MessageStatus.OK;
+
+/**
+ * Compares encoding a message into a buffer and copying it into a claim on the publication against encoding it
+ * straight into the claim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GatewayPublicationBenchmark
+{
+    private static final int LIBRARY_ID = 1;
+    private static final long SESSION_ID = 2;
+    private static final long CONNECTION_ID = 3;
+
+    private final FragmentHandler fragmentHandler = (buffer, offset, length, header) ->
+    {
+    };
+    private final UtcTimestampEncoder timestampEncoder = new UtcTimestampEncoder();
+    private final LogonEncoder logonEncoder = new LogonEncoder();
+    // Small enough for a claim of its capacity to fit into a single IPC frame.
+    private final MutableAsciiBuffer buffer = new MutableAsciiBuffer(new byte[1024]);
+
+    // deliberately not static/final
+    private int sequenceNumber = 10;
+    private char[] password = "password".toCharArray();
+    private char[] username = "username".toCharArray();
+
+    private MediaDriver mediaDriver;
+    private Aeron aeron;
+    private Subscription subscription;
+    private GatewayPublication copyingPublication;
+    private GatewayPublication encodingPublication;
+
+    @Setup
+    public void setup()
+    {
+        mediaDriver = MediaDriver.launch(new MediaDriver.Context().threadingMode(SHARED).dirDeleteOnStart(true));
+        aeron = Aeron.connect();
+        subscription = aeron.addSubscription(IPC_CHANNEL, DEFAULT_OUTBOUND_LIBRARY_STREAM);
+        copyingPublication = newPublication();
+        encodingPublication = newPublication();
+
+        logonEncoder
+            .header()
+            .senderCompID("ABC_DEFG01")
+            .targetCompID("CCG");
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        CloseHelper.close(copyingPublication);
+        CloseHelper.close(encodingPublication);
+        CloseHelper.close(subscription);
+        CloseHelper.close(aeron);
+        CloseHelper.close(mediaDriver);
+    }
+
+    @Benchmark
+    public long copyIntoClaim()
+    {
+        updateLogon();
+
+        final long result = logonEncoder.encode(buffer, 0);
+        final long position = copyingPublication.saveMessage(
+            buffer, Encoder.offset(result), Encoder.length(result), LIBRARY_ID, logonEncoder.messageType(),
+            SESSION_ID, 0, CONNECTION_ID, OK, sequenceNumber);
+
+        return poll(position);
+    }
+
+    @Benchmark
+    public long encodeIntoClaim()
+    {
+        updateLogon();
+
+        final long position = encodingPublication.saveMessage(
+            logonEncoder, buffer, LIBRARY_ID, SESSION_ID, 0, CONNECTION_ID, OK, sequenceNumber);
+
+        return poll(position);
+    }
+
+    private void updateLogon()
+    {
+        final UtcTimestampEncoder timestampEncoder = this.timestampEncoder;
+
+        logonEncoder
+            .password(password)
+            .username(username)
+            .maxMessageSize(512)
+            .heartBtInt(10)
+            .header()
+            .msgSeqNum(sequenceNumber)
+            .sendingTime(timestampEncoder.buffer(), timestampEncoder.encode(System.currentTimeMillis()));
+    }
+
+    private long poll(final long position)
+    {
+        // Keep the subscription up to date so that the publication isn't back pressured.
+        subscription.poll(fragmentHandler, Integer.MAX_VALUE);
+
+        return position;
+    }
+
+    private GatewayPublication newPublication()
+    {
+        return new GatewayPublication(
+            aeron.addExclusivePublication(IPC_CHANNEL, DEFAULT_OUTBOUND_LIBRARY_STREAM),
+            aeron.addCounter(0, "failed publications"),
+            new NoOpIdleStrategy(),
+            Clock.systemNanoTime(),
+            1,
+            true);
+    }
+}
@@ -16,18 +16,30 @@
 package uk.co.real_logic.artio.system_benchmarks;
 
 import org.HdrHistogram.Histogram;
+import uk.co.real_logic.artio.OrdType;
+import uk.co.real_logic.artio.Side;
 import uk.co.real_logic.artio.builder.HeaderEncoder;
+import uk.co.real_logic.artio.builder.NewOrderSingleEncoder;
 import uk.co.real_logic.artio.builder.TestRequestEncoder;
+import uk.co.real_logic.artio.fields.DecimalFloat;
 import uk.co.real_logic.artio.timing.HistogramLogReader;
 
 import java.io.IOException;
 import java.nio.channels.SocketChannel;
 
-import static uk.co.real_logic.artio.system_benchmarks.BenchmarkConfiguration.MESSAGES_EXCHANGED;
-import static uk.co.real_logic.artio.system_benchmarks.BenchmarkConfiguration.WARMUP_MESSAGES;
+import static uk.co.real_logic.artio.system_benchmarks.BenchmarkConfiguration.*;
 
+/**
+ * Measures the round trip time of a TestRequest and its Heartbeat reply. If fix.benchmark.app_messages_per_exchange
+ * is set then that many application messages are sent ahead of each TestRequest and included in the round trip, which
+ * measures the cost of the session layer handling application messages end to end.
+ */
 public final class LatencyBenchmarkClient extends AbstractBenchmarkClient
 {
+    private final NewOrderSingleEncoder newOrderSingle = new NewOrderSingleEncoder();
+
+    private int msgSeqNum;
+
     public static void main(final String[] args) throws IOException
     {
         new LatencyBenchmarkClient().runBenchmark();
@@ -40,8 +52,10 @@ public final class LatencyBenchmarkClient extends AbstractBenchmarkClient
             try (SocketChannel socketChannel = open())
             {
                 logon(socketChannel);
+                msgSeqNum = 2;
 
                 final TestRequestEncoder testRequest = setupTestRequest();
+                setupNewOrderSingle();
                 final HeaderEncoder header = testRequest.header();
                 final Histogram histogram = new Histogram(3);
 
@@ -62,7 +76,7 @@ public final class LatencyBenchmarkClient extends AbstractBenchmarkClient
     {
         for (int i = 0; i < WARMUP_MESSAGES; i++)
         {
-            exchangeMessage(socketChannel, testRequest, header, i, histogram);
+            exchangeMessage(socketChannel, testRequest, header, histogram);
         }
         System.out.println("Warmup Complete");
     }
@@ -78,28 +92,42 @@ public final class LatencyBenchmarkClient extends AbstractBenchmarkClient
 
         for (int i = 0; i < MESSAGES_EXCHANGED; i++)
         {
-            exchangeMessage(socketChannel, testRequest, header, WARMUP_MESSAGES + i, histogram);
+            exchangeMessage(socketChannel, testRequest, header, histogram);
         }
 
         HistogramLogReader.prettyPrint(
             System.currentTimeMillis(), histogram, "Client in Micros", 1000);
     }
 
+    private void setupNewOrderSingle()
+    {
+        setupHeader(INITIATOR_ID, newOrderSingle.header());
+        newOrderSingle
+            .clOrdID("A")
+            .side(Side.BUY)
+            .transactTime(timestampEncoder.buffer())
+            .ordType(OrdType.MARKET)
+            .price(new DecimalFloat(100));
+
+        newOrderSingle.instrument().symbol("MSFT");
+        newOrderSingle.orderQtyData().orderQty(new DecimalFloat(2));
+    }
+
     private void exchangeMessage(
         final SocketChannel socketChannel,
         final TestRequestEncoder testRequest,
         final HeaderEncoder header,
-        final int index,
         final Histogram histogram)
         throws IOException
     {
-        header.msgSeqNum(index + 2);
-        timestampEncoder.encode(System.currentTimeMillis());
+        final long sendingTime = System.nanoTime();
 
-        final long result = testRequest.encode(writeFlyweight, 0);
+        for (int i = 0; i < APPLICATION_MESSAGES_PER_EXCHANGE; i++)
+        {
+            write(socketChannel, encode(newOrderSingle, newOrderSingle.header(), msgSeqNum++));
+        }
 
-        final long sendingTime = System.nanoTime();
-        write(socketChannel, result);
+        write(socketChannel, encode(testRequest, header, msgSeqNum++));
 
         read(socketChannel);
         final long returnTime = System.nanoTime();
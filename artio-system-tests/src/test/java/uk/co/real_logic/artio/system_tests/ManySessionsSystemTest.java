@@ -62,6 +62,7 @@ public class ManySessionsSystemTest extends AbstractGatewayToGatewaySystemTest
                 .libraryAeronChannel(IPC_CHANNEL)
                 .monitoringFile(acceptorMonitoringFile("engineCounters"))
                 .logFileDir(ACCEPTOR_LOGS)
+                .framerShardCount(framerShardCount())
                 .scheduler(new LowResourceEngineScheduler()));
 
         initiatingEngine = launchInitiatingEngine(libraryAeronPort);
@@ -120,6 +121,11 @@ public class ManySessionsSystemTest extends AbstractGatewayToGatewaySystemTest
         });
     }
 
+    int framerShardCount()
+    {
+        return EngineConfiguration.DEFAULT_FRAMER_SHARD_COUNT;
+    }
+
     private static String accId(final int i)
     {
         return ACCEPTOR_ID + i;
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2015-2017 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.artio.system_tests;
+
+public class ShardedFramerManySessionsSystemTest extends ManySessionsSystemTest
+{
+    private static final int FRAMER_SHARD_COUNT = 3;
+
+    int framerShardCount()
+    {
+        return FRAMER_SHARD_COUNT;
+    }
+}